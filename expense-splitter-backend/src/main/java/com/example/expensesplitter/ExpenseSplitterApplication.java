@@ -5,9 +5,11 @@ import com.example.expensesplitter.config.JwtProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableConfigurationProperties({JwtProperties.class, AppProperties.class}) // This line is new
+@EnableScheduling
 public class ExpenseSplitterApplication {
 
     public static void main(String[] args) {
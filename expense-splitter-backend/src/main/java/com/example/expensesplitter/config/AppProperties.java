@@ -10,6 +10,45 @@ public class AppProperties {
     // Matches "default-currency" in your YAML
     private String defaultCurrency;
 
+    // New ledger rows (expenses + settlements) after which a group's balance checkpoint is rolled
+    private int checkpointThreshold = 1000;
+
+    // Expenses written per JDBC batch (and per transaction) by the bulk import
+    private int importBatchSize = 500;
+
+    // How long an Idempotency-Key is remembered, and how many recent keys are kept in memory
+    private long idempotencyTtlMs = 86_400_000L;
+    private int idempotencyCacheSize = 10_000;
+
+    // Write-behind expense ingestion: queued requests committed in micro-batches by one writer per shard
+    private boolean ingestEnabled = false;
+    private int ingestShards = 4;
+    private int ingestQueueCapacity = 5_000;   // per shard; a full queue answers 429
+    private int ingestMaxBatch = 200;
+    private long ingestMaxWaitMs = 5;          // how long a writer waits to fill a batch
+    private long ingestAwaitMs = 30_000;       // synchronous callers get 202 + status URL after this
+
+    // Recurring expenses: definitions claimed per batch, how long a claim holds, occurrences caught up per round
+    private int recurringBatchSize = 500;
+    private long recurringClaimTtlMs = 300_000;
+    private int recurringMaxCatchUp = 31;
+
+    // Expense listing: default and largest page size, and the cap on the unpaginated list
+    private int expensePageSize = 50;
+    private int expensePageMaxSize = 200;
+    private int expenseListMaxRows = 1000;
+
+    // Rows of one kind a single GET .../changes may return; beyond it the client must resync
+    private int changesMaxRows = 5000;
+
+    // --backfill-rollups: worker threads, and group ids each worker takes at a time
+    private int rollupBackfillThreads = 4;
+    private int rollupBackfillChunkSize = 100;
+
+    // @CurrentUser lookups: users kept in memory by id, and for how long (0 = always read the database)
+    private int userCacheSize = 10_000;
+    private long userCacheTtlMs = 60_000;
+
     // --- Getter and Setter ---
     public String getDefaultCurrency() {
         return defaultCurrency;
@@ -18,4 +57,172 @@ public class AppProperties {
     public void setDefaultCurrency(String defaultCurrency) {
         this.defaultCurrency = defaultCurrency;
     }
+
+    public int getCheckpointThreshold() {
+        return checkpointThreshold;
+    }
+
+    public void setCheckpointThreshold(int checkpointThreshold) {
+        this.checkpointThreshold = checkpointThreshold;
+    }
+
+    public int getImportBatchSize() {
+        return importBatchSize;
+    }
+
+    public void setImportBatchSize(int importBatchSize) {
+        this.importBatchSize = importBatchSize;
+    }
+
+    public long getIdempotencyTtlMs() {
+        return idempotencyTtlMs;
+    }
+
+    public void setIdempotencyTtlMs(long idempotencyTtlMs) {
+        this.idempotencyTtlMs = idempotencyTtlMs;
+    }
+
+    public int getIdempotencyCacheSize() {
+        return idempotencyCacheSize;
+    }
+
+    public void setIdempotencyCacheSize(int idempotencyCacheSize) {
+        this.idempotencyCacheSize = idempotencyCacheSize;
+    }
+
+    public boolean isIngestEnabled() {
+        return ingestEnabled;
+    }
+
+    public void setIngestEnabled(boolean ingestEnabled) {
+        this.ingestEnabled = ingestEnabled;
+    }
+
+    public int getIngestShards() {
+        return ingestShards;
+    }
+
+    public void setIngestShards(int ingestShards) {
+        this.ingestShards = ingestShards;
+    }
+
+    public int getIngestQueueCapacity() {
+        return ingestQueueCapacity;
+    }
+
+    public void setIngestQueueCapacity(int ingestQueueCapacity) {
+        this.ingestQueueCapacity = ingestQueueCapacity;
+    }
+
+    public int getIngestMaxBatch() {
+        return ingestMaxBatch;
+    }
+
+    public void setIngestMaxBatch(int ingestMaxBatch) {
+        this.ingestMaxBatch = ingestMaxBatch;
+    }
+
+    public long getIngestMaxWaitMs() {
+        return ingestMaxWaitMs;
+    }
+
+    public void setIngestMaxWaitMs(long ingestMaxWaitMs) {
+        this.ingestMaxWaitMs = ingestMaxWaitMs;
+    }
+
+    public long getIngestAwaitMs() {
+        return ingestAwaitMs;
+    }
+
+    public void setIngestAwaitMs(long ingestAwaitMs) {
+        this.ingestAwaitMs = ingestAwaitMs;
+    }
+
+    public int getRecurringBatchSize() {
+        return recurringBatchSize;
+    }
+
+    public void setRecurringBatchSize(int recurringBatchSize) {
+        this.recurringBatchSize = recurringBatchSize;
+    }
+
+    public long getRecurringClaimTtlMs() {
+        return recurringClaimTtlMs;
+    }
+
+    public void setRecurringClaimTtlMs(long recurringClaimTtlMs) {
+        this.recurringClaimTtlMs = recurringClaimTtlMs;
+    }
+
+    public int getRecurringMaxCatchUp() {
+        return recurringMaxCatchUp;
+    }
+
+    public void setRecurringMaxCatchUp(int recurringMaxCatchUp) {
+        this.recurringMaxCatchUp = recurringMaxCatchUp;
+    }
+
+    public int getExpensePageSize() {
+        return expensePageSize;
+    }
+
+    public void setExpensePageSize(int expensePageSize) {
+        this.expensePageSize = expensePageSize;
+    }
+
+    public int getExpensePageMaxSize() {
+        return expensePageMaxSize;
+    }
+
+    public void setExpensePageMaxSize(int expensePageMaxSize) {
+        this.expensePageMaxSize = expensePageMaxSize;
+    }
+
+    public int getExpenseListMaxRows() {
+        return expenseListMaxRows;
+    }
+
+    public void setExpenseListMaxRows(int expenseListMaxRows) {
+        this.expenseListMaxRows = expenseListMaxRows;
+    }
+
+    public int getChangesMaxRows() {
+        return changesMaxRows;
+    }
+
+    public void setChangesMaxRows(int changesMaxRows) {
+        this.changesMaxRows = changesMaxRows;
+    }
+
+    public int getRollupBackfillThreads() {
+        return rollupBackfillThreads;
+    }
+
+    public void setRollupBackfillThreads(int rollupBackfillThreads) {
+        this.rollupBackfillThreads = rollupBackfillThreads;
+    }
+
+    public int getRollupBackfillChunkSize() {
+        return rollupBackfillChunkSize;
+    }
+
+    public void setRollupBackfillChunkSize(int rollupBackfillChunkSize) {
+        this.rollupBackfillChunkSize = rollupBackfillChunkSize;
+    }
+
+    public int getUserCacheSize() {
+        return userCacheSize;
+    }
+
+    public void setUserCacheSize(int userCacheSize) {
+        this.userCacheSize = userCacheSize;
+    }
+
+    public long getUserCacheTtlMs() {
+        return userCacheTtlMs;
+    }
+
+    public void setUserCacheTtlMs(long userCacheTtlMs) {
+        this.userCacheTtlMs = userCacheTtlMs;
+    }
 }
@@ -1,7 +1,7 @@
 package com.example.expensesplitter.config;
 
-import com.example.expensesplitter.repository.UserRepository;
 import com.example.expensesplitter.security.CurrentUserArgumentResolver;
+import com.example.expensesplitter.security.UserCache;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
@@ -12,10 +12,10 @@ import java.util.List;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
-    private final UserRepository userRepository;
+    private final UserCache userCache;
 
-    public WebConfig(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public WebConfig(UserCache userCache) {
+        this.userCache = userCache;
     }
 
     // Allow CORS from the Vite dev server
@@ -31,6 +31,6 @@ public class WebConfig implements WebMvcConfigurer {
     // keep your existing argument resolver registration
     @Override
     public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
-        resolvers.add(new CurrentUserArgumentResolver(userRepository));
+        resolvers.add(new CurrentUserArgumentResolver(userCache));
     }
 }
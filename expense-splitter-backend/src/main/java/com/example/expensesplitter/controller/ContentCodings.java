@@ -0,0 +1,47 @@
+package com.example.expensesplitter.controller;
+
+import java.util.Locale;
+
+/**
+ * Accept-Encoding negotiation for the streamed exports (RFC 9110 section 12.5.3). A coding with
+ * q=0 is refused, a named coding wins over "*", and a malformed q-value counts as refused.
+ */
+final class ContentCodings {
+
+    private ContentCodings() {}
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        Double gzip = null;
+        Double any = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.length() > 1 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q')
+                        && param.substring(1).trim().startsWith("=")) {
+                    q = qValue(param.substring(param.indexOf('=') + 1).trim());
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = gzip == null ? q : Math.max(gzip, q);
+            } else if (coding.equals("*")) {
+                any = any == null ? q : Math.max(any, q);
+            }
+        }
+        if (gzip != null) return gzip > 0;
+        return any != null && any > 0;
+    }
+
+    // outside 0..1 or not a number: treated as q=0
+    private static double qValue(String value) {
+        try {
+            double q = Double.parseDouble(value);
+            return q >= 0 && q <= 1 ? q : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.expensesplitter.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Conditional GET for group read endpoints: a strong ETag derived from the group's version
+ * (bumped by every ledger or membership write) and If-None-Match matching against it.
+ * Responses are private and must be revalidated, so a client's poll costs one version lookup.
+ */
+final class ETags {
+
+    private ETags() {}
+
+    // null when the group does not exist or the user is not a member: no conditional handling
+    static String forGroup(Long groupId, Long version) {
+        return version == null ? null : "\"g" + groupId + "-v" + version + "\"";
+    }
+
+    // True when the If-None-Match header lists the tag (or is "*"); weak validators match as well
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) return true;
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate()).build();
+    }
+
+    static <T> ResponseEntity<T> ok(String etag, T body) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (etag != null) {
+            builder.eTag(etag).cacheControl(CacheControl.noCache().cachePrivate());
+        }
+        return builder.body(body);
+    }
+}
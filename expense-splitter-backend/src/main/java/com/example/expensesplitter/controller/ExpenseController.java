@@ -2,23 +2,37 @@ package com.example.expensesplitter.controller;
 
 import com.example.expensesplitter.dto.CreateExpenseRequest;
 import com.example.expensesplitter.dto.ExpenseDto;
+import com.example.expensesplitter.dto.ExpensePageDto;
+import com.example.expensesplitter.dto.IngestStatusDto;
 import com.example.expensesplitter.entity.Expense;
 import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.service.ExpenseIngestService;
+import com.example.expensesplitter.service.ExpenseSearchService;
 import com.example.expensesplitter.service.ExpenseService;
+import com.example.expensesplitter.service.GroupAccessService;
+import com.example.expensesplitter.service.GroupService;
+import com.example.expensesplitter.service.IdempotencyService;
+import com.example.expensesplitter.service.LedgerStreamService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import com.example.expensesplitter.security.CurrentUser;
 import com.example.expensesplitter.dto.BalanceDto;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import jakarta.validation.Valid;
 
 
 
+import java.net.URI;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * ExpenseController - endpoints to create and list expenses for a group.
@@ -33,13 +47,81 @@ public class ExpenseController {
     @Autowired
     private ExpenseService expenseService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ExpenseIngestService expenseIngestService;
+
+    @Autowired
+    private LedgerStreamService ledgerStreamService;
+
+    @Autowired
+    private GroupAccessService groupAccessService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ExpenseSearchService expenseSearchService;
+
     @PostMapping
-    public ResponseEntity<ExpenseDto> createExpense(
+    public ResponseEntity<?> createExpense(
             @PathVariable("groupId") Long groupId,
             @Valid @RequestBody CreateExpenseRequest req,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestHeader(value = "Prefer", required = false) String prefer,
+            @CurrentUser User currentUser
+    ) throws InterruptedException {
+        // Queued ingestion; an Idempotency-Key needs the key row and the expense in one transaction,
+        // so those requests keep the direct path
+        if (expenseIngestService.isEnabled() && (idempotencyKey == null || idempotencyKey.isBlank())) {
+            ExpenseIngestService.Ticket ticket = expenseIngestService.submit(groupId, currentUser, req);
+            Expense saved = prefer != null && prefer.contains("respond-async") ? null : expenseIngestService.await(ticket);
+            if (saved != null) {
+                return ResponseEntity.ok(toDto(saved));
+            }
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/groups/" + groupId + "/expenses/ingest/" + ticket.id()))
+                    .body(new IngestStatusDto(ticket.id(), "PENDING"));
+        }
+        return idempotencyService.execute(currentUser.getId(), idempotencyKey,
+                "POST /api/groups/" + groupId + "/expenses",
+                () -> ResponseEntity.ok(toDto(expenseService.createExpense(groupId, currentUser, req))));
+    }
+
+    // Status of an expense queued by the write-behind ingestion (see POST with Prefer: respond-async)
+    @GetMapping("/ingest/{ticket}")
+    public ResponseEntity<IngestStatusDto> ingestStatus(
+            @PathVariable("groupId") Long groupId,
+            @PathVariable("ticket") String ticketId,
             @CurrentUser User currentUser
     ) {
-        Expense saved = expenseService.createExpense(groupId, currentUser, req);
+        ExpenseIngestService.Ticket ticket = expenseIngestService.ticket(ticketId, currentUser.getId());
+        if (ticket == null || !ticket.groupId().equals(groupId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown ingest ticket");
+        }
+        IngestStatusDto dto = new IngestStatusDto(ticket.id(), "PENDING");
+        CompletableFuture<Expense> result = ticket.result();
+        if (result.isDone()) {
+            try {
+                dto.setExpense(toDto(result.join()));
+                dto.setStatus("DONE");
+            } catch (CompletionException e) {
+                dto.setStatus("FAILED");
+                if (e.getCause() instanceof ResponseStatusException rse) {
+                    dto.setErrorStatus(rse.getStatusCode().value());
+                    dto.setError(rse.getReason());
+                } else {
+                    dto.setErrorStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+                    dto.setError(e.getCause() == null ? e.getMessage() : e.getCause().getMessage());
+                }
+            }
+        }
+        return ResponseEntity.ok(dto);
+    }
+
+    private static ExpenseDto toDto(Expense saved) {
 
         ExpenseDto dto = new ExpenseDto();
         dto.setId(saved.getId());
@@ -61,17 +143,56 @@ public class ExpenseController {
             shareDtos.add(sd);
         });
         dto.setShares(shareDtos);
-
-        return ResponseEntity.ok(dto);
+        dto.setItems(ExpenseService.itemDtos(saved));
+        return dto;
     }
 
+    /**
+     * List expenses, newest first. With after and/or limit the result is one page plus an opaque
+     * nextCursor to pass as after; without them it is a plain list of the newest expenses (capped).
+     */
     @GetMapping
-    public ResponseEntity<List<ExpenseDto>> listExpenses(
+    public ResponseEntity<?> listExpenses(
             @PathVariable("groupId") Long groupId,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             @CurrentUser User currentUser
     ) {
-        List<ExpenseDto> list = expenseService.listGroupExpenses(groupId, currentUser);
-        return ResponseEntity.ok(list);
+        String etag = ETags.forGroup(groupId, groupService.currentVersion(groupId, currentUser));
+        if (ETags.matches(ifNoneMatch, etag)) return ETags.notModified(etag);
+        if (after == null && limit == null) {
+            List<ExpenseDto> list = expenseService.listGroupExpenses(groupId, currentUser);
+            return ETags.ok(etag, list);
+        }
+        ExpensePageDto page = expenseService.listGroupExpenses(groupId, currentUser, after, limit);
+        return ETags.ok(etag, page);
+    }
+
+    /**
+     * GET .../expenses/search?q=hotel goa[&limit=20]
+     * Expenses whose note has a word starting with each word of q, newest first.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<ExpenseDto>> searchExpenses(
+            @PathVariable("groupId") Long groupId,
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @CurrentUser User currentUser
+    ) {
+        return ResponseEntity.ok(expenseSearchService.search(groupId, currentUser, q, limit));
+    }
+
+    /**
+     * Every expense of the group as one JSON array, streamed while the rows are read
+     * (for exports and admin tools; the SPA uses the paginated list).
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamExpenses(@PathVariable("groupId") Long groupId,
+                                                                @CurrentUser User currentUser) {
+        groupAccessService.requireMember(groupId, currentUser);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                .body(out -> ledgerStreamService.writeExpenses(groupId, out));
     }
 
     /**
@@ -80,10 +201,14 @@ public class ExpenseController {
      */
     @GetMapping("/balances")
     public ResponseEntity<?> getGroupBalances(@PathVariable("groupId") Long groupId,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                              String ifNoneMatch,
                                               @CurrentUser User requester) {
         try {
+            String etag = ETags.forGroup(groupId, groupService.currentVersion(groupId, requester));
+            if (ETags.matches(ifNoneMatch, etag)) return ETags.notModified(etag);
             List<BalanceDto> balances = expenseService.computeBalances(groupId, requester);
-            return ResponseEntity.ok(balances);
+            return ETags.ok(etag, balances);
         } catch (ResponseStatusException ex) {
             return ResponseEntity.status(ex.getStatusCode()).body(ex.getReason());
         } catch (Exception e) {
@@ -0,0 +1,71 @@
+package com.example.expensesplitter.controller;
+
+import com.example.expensesplitter.dto.ImportResultDto;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.security.CurrentUser;
+import com.example.expensesplitter.service.ExpenseImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Locale;
+
+/**
+ * Bulk import of expenses into a group.
+ *
+ * POST /api/groups/{groupId}/expenses:import
+ *   Content-Type: text/csv             header row: payerId,amount,currency,splitType,note,createdAt,shares
+ *                                      shares = "userId:value;userId:value" (percent or amount)
+ *   Content-Type: application/x-ndjson one CreateExpenseRequest JSON object per line (+ optional createdAt)
+ *
+ * The body is streamed; the response lists the lines that were rejected.
+ */
+@RestController
+@RequestMapping("/api/groups")
+public class ExpenseImportController {
+
+    private final ExpenseImportService expenseImportService;
+
+    public ExpenseImportController(ExpenseImportService expenseImportService) {
+        this.expenseImportService = expenseImportService;
+    }
+
+    @PostMapping("/{groupId}/expenses:import")
+    public ResponseEntity<?> importExpenses(@PathVariable("groupId") Long groupId,
+                                            HttpServletRequest request,
+                                            @CurrentUser User currentUser) {
+        try {
+            ExpenseImportService.Format format = formatOf(request.getContentType());
+            ImportResultDto result = expenseImportService.importExpenses(
+                    groupId, currentUser, request.getInputStream(), format);
+            return ResponseEntity.ok(result);
+        } catch (ResponseStatusException ex) {
+            return ResponseEntity.status(ex.getStatusCode()).body(ex.getReason());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Server error: " + e.getMessage());
+        }
+    }
+
+    private static ExpenseImportService.Format formatOf(String contentType) {
+        MediaType type = null;
+        try {
+            type = contentType == null ? null : MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException ignored) {
+            // reported below
+        }
+        if (type != null) {
+            if ("csv".equalsIgnoreCase(type.getSubtype())) {
+                return ExpenseImportService.Format.CSV;
+            }
+            if (type.getSubtype().toLowerCase(Locale.ROOT).matches("x-ndjson|ndjson|jsonl|x-jsonlines|json")) {
+                return ExpenseImportService.Format.NDJSON;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                "Use Content-Type text/csv or application/x-ndjson");
+    }
+}
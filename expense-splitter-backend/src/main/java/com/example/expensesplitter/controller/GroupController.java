@@ -1,24 +1,42 @@
 package com.example.expensesplitter.controller;
 
 import com.example.expensesplitter.dto.BalanceDto;
+import com.example.expensesplitter.dto.DailyBalancesDto;
+import com.example.expensesplitter.dto.GroupChangesDto;
 import com.example.expensesplitter.dto.GroupDetailsDto;
 import com.example.expensesplitter.dto.GroupDto;
+import com.example.expensesplitter.dto.GroupStatsDto;
 import com.example.expensesplitter.dto.MembershipDto;
+import com.example.expensesplitter.dto.TransferDto;
 import com.example.expensesplitter.entity.Group;
 import com.example.expensesplitter.entity.Membership;
 import com.example.expensesplitter.entity.User;
 import com.example.expensesplitter.repository.GroupRepository;
 import com.example.expensesplitter.repository.UserRepository;
 import com.example.expensesplitter.security.CurrentUser;
+import com.example.expensesplitter.service.BalanceHistoryService;
 import com.example.expensesplitter.service.ExpenseService;
+import com.example.expensesplitter.service.GroupAccessService;
+import com.example.expensesplitter.service.GroupChangesService;
 import com.example.expensesplitter.service.GroupService;
+import com.example.expensesplitter.service.LedgerStreamService;
+import com.example.expensesplitter.service.MonthlyRollupService;
+import com.example.expensesplitter.service.SettlementService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/groups")
@@ -28,27 +46,47 @@ public class GroupController {
     private final GroupRepository groupRepository;
     private final UserRepository userRepository;
     private final ExpenseService expenseService;
+    private final SettlementService settlementService;
+    private final BalanceHistoryService balanceHistoryService;
+    private final GroupChangesService groupChangesService;
+    private final MonthlyRollupService monthlyRollupService;
+    private final LedgerStreamService ledgerStreamService;
+    private final GroupAccessService groupAccessService;
 
     // include ExpenseService in constructor injection
     public GroupController(GroupService groupService,
                            GroupRepository groupRepository,
                            UserRepository userRepository,
-                           ExpenseService expenseService) {
+                           ExpenseService expenseService,
+                           SettlementService settlementService,
+                           BalanceHistoryService balanceHistoryService,
+                           GroupChangesService groupChangesService,
+                           MonthlyRollupService monthlyRollupService,
+                           LedgerStreamService ledgerStreamService,
+                           GroupAccessService groupAccessService) {
         this.groupService = groupService;
         this.groupRepository = groupRepository;
         this.userRepository = userRepository;
         this.expenseService = expenseService;
+        this.settlementService = settlementService;
+        this.balanceHistoryService = balanceHistoryService;
+        this.groupChangesService = groupChangesService;
+        this.monthlyRollupService = monthlyRollupService;
+        this.ledgerStreamService = ledgerStreamService;
+        this.groupAccessService = groupAccessService;
     }
 
     /**
      * Create a new group. Owner is taken from the authenticated user (@CurrentUser).
-     * Body: { "name": "My group name" }
+     * Body: { "name": "My group name", "baseCurrency": "EUR" (optional) }
      */
     @PostMapping
     public ResponseEntity<?> createGroup(@RequestBody GroupDto dto, @CurrentUser User user) {
         try {
-            Group created = groupService.createGroup(dto.getName(), user);
-            return ResponseEntity.ok(new GroupDto(created.getId(), created.getName(), created.getOwner().getId()));
+            Group created = groupService.createGroup(dto.getName(), dto.getBaseCurrency(), user);
+            GroupDto result = new GroupDto(created.getId(), created.getName(), created.getOwner().getId());
+            result.setBaseCurrency(created.getBaseCurrency());
+            return ResponseEntity.ok(result);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -70,10 +108,15 @@ public class GroupController {
      * Get group details (members etc). Only members can access.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getGroupDetails(@PathVariable("id") Long id, @CurrentUser User user) {
+    public ResponseEntity<?> getGroupDetails(@PathVariable("id") Long id,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                             String ifNoneMatch,
+                                             @CurrentUser User user) {
         try {
+            String etag = ETags.forGroup(id, groupService.currentVersion(id, user));
+            if (ETags.matches(ifNoneMatch, etag)) return ETags.notModified(etag);
             GroupDetailsDto details = groupService.getGroupDetails(id, user);
-            return ResponseEntity.ok(details);
+            return ETags.ok(etag, details);
         } catch (ResponseStatusException ex) {
             return ResponseEntity.status(ex.getStatusCode()).body(ex.getReason());
         } catch (Exception e) {
@@ -81,6 +124,70 @@ public class GroupController {
         }
     }
 
+    /**
+     * GET /api/groups/{id}/changes?since=42
+     * Expenses, settlements and memberships written after the given group version (0 = all),
+     * the new version and the balance deltas they imply; see GroupChangesDto for "resync".
+     */
+    @GetMapping("/{id}/changes")
+    public ResponseEntity<?> getChanges(@PathVariable("id") Long id,
+                                        @RequestParam("since") long since,
+                                        @CurrentUser User user) {
+        try {
+            GroupChangesDto changes = groupChangesService.changesSince(id, user, since);
+            return ResponseEntity.ok(changes);
+        } catch (ResponseStatusException ex) {
+            return ResponseEntity.status(ex.getStatusCode()).body(ex.getReason());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Server error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * GET /api/groups/{id}/stats?from=2024-01&to=2024-06
+     * Monthly spend per currency with payer, split type and consumption breakdowns; both bounds optional.
+     */
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<?> getStats(@PathVariable("id") Long id,
+                                      @RequestParam(value = "from", required = false) String from,
+                                      @RequestParam(value = "to", required = false) String to,
+                                      @CurrentUser User user) {
+        try {
+            GroupStatsDto stats = monthlyRollupService.stats(id, user, from, to);
+            return ResponseEntity.ok(stats);
+        } catch (ResponseStatusException ex) {
+            return ResponseEntity.status(ex.getStatusCode()).body(ex.getReason());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Server error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * GET /api/groups/{id}/export.csv
+     * Every expense (with a share column per member) and settlement of the group as one CSV file,
+     * streamed while the rows are read; gzip-compressed when Accept-Encoding allows it (q > 0).
+     */
+    @GetMapping("/{id}/export.csv")
+    public ResponseEntity<StreamingResponseBody> exportCsv(@PathVariable("id") Long id,
+                                                           @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING,
+                                                                   required = false) String acceptEncoding,
+                                                           @CurrentUser User user) {
+        groupAccessService.requireMember(id, user); // fails before the response starts
+        boolean gzip = ContentCodings.acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"group-" + id + ".csv\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!gzip) {
+            return response.body(out -> ledgerStreamService.writeCsv(id, out));
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(out -> {
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+            ledgerStreamService.writeCsv(id, compressed);
+            compressed.finish(); // the container owns and closes the response stream
+        });
+    }
+
     /**
      * Add a user to a group by email.
      * Body: { "email": "...", "role": "MEMBER" }
@@ -126,15 +233,64 @@ public class GroupController {
     }
 
     /**
-     * GET /api/groups/{id}/balances
-     * Compute and return net balances for each member of the group.
+     * GET /api/groups/{id}/balances[?asOf=2025-01-31T18:00:00Z][&convert=true]
+     * Compute and return net balances for each member of the group and currency,
+     * optionally as they stood at the given instant. convert=true sums each member's
+     * currencies into the group's base currency using the FX rate table.
+     * Unconverted balances carry the group's ETag; converted ones also depend on FX rates and do not.
      */
     @GetMapping("/{id}/balances")
-    public ResponseEntity<?> getGroupBalances(@PathVariable("id") Long id, @CurrentUser User requester) {
+    public ResponseEntity<?> getGroupBalances(@PathVariable("id") Long id,
+                                              @RequestParam(value = "asOf", required = false) Instant asOf,
+                                              @RequestParam(value = "convert", defaultValue = "false") boolean convert,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                              String ifNoneMatch,
+                                              @CurrentUser User requester) {
         try {
+            String etag = convert ? null : ETags.forGroup(id, groupService.currentVersion(id, requester));
+            if (ETags.matches(ifNoneMatch, etag)) return ETags.notModified(etag);
             // delegate to ExpenseService (perform access checks there)
-            List<BalanceDto> balances = expenseService.computeBalances(id, requester);
-            return ResponseEntity.ok(balances);
+            List<BalanceDto> balances = asOf == null
+                    ? expenseService.computeBalances(id, requester, convert)
+                    : balanceHistoryService.balancesAsOf(id, requester, asOf, convert);
+            return ETags.ok(etag, balances);
+        } catch (ResponseStatusException ex) {
+            return ResponseEntity.status(ex.getStatusCode()).body(ex.getReason());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Server error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * GET /api/groups/{id}/balances/history[?from=2025-01-01&to=2025-01-31]
+     * End-of-day balances of every member, one entry per UTC day with activity.
+     */
+    @GetMapping("/{id}/balances/history")
+    public ResponseEntity<?> getBalanceHistory(@PathVariable("id") Long id,
+                                               @RequestParam(value = "from", required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                               @RequestParam(value = "to", required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                               @CurrentUser User requester) {
+        try {
+            List<DailyBalancesDto> history = balanceHistoryService.dailyHistory(id, requester, from, to);
+            return ResponseEntity.ok(history);
+        } catch (ResponseStatusException ex) {
+            return ResponseEntity.status(ex.getStatusCode()).body(ex.getReason());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Server error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * GET /api/groups/{id}/settlement-plan
+     * Suggested transfers (from, to, amount) that settle all net balances of the group.
+     */
+    @GetMapping("/{id}/settlement-plan")
+    public ResponseEntity<?> getSettlementPlan(@PathVariable("id") Long id, @CurrentUser User requester) {
+        try {
+            List<TransferDto> plan = settlementService.planSettlements(id, requester);
+            return ResponseEntity.ok(plan);
         } catch (ResponseStatusException ex) {
             return ResponseEntity.status(ex.getStatusCode()).body(ex.getReason());
         } catch (Exception e) {
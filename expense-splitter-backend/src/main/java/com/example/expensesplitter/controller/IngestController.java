@@ -0,0 +1,27 @@
+package com.example.expensesplitter.controller;
+
+import com.example.expensesplitter.dto.IngestMetricsDto;
+import com.example.expensesplitter.service.ExpenseIngestService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Queue depth, batch sizes and commit latency of the write-behind expense ingestion.
+ */
+@RestController
+@RequestMapping("/api/ingest")
+public class IngestController {
+
+    private final ExpenseIngestService expenseIngestService;
+
+    public IngestController(ExpenseIngestService expenseIngestService) {
+        this.expenseIngestService = expenseIngestService;
+    }
+
+    @GetMapping("/metrics")
+    public ResponseEntity<IngestMetricsDto> metrics() {
+        return ResponseEntity.ok(expenseIngestService.metrics());
+    }
+}
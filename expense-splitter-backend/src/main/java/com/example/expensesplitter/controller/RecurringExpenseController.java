@@ -0,0 +1,70 @@
+package com.example.expensesplitter.controller;
+
+import com.example.expensesplitter.dto.CreateRecurringExpenseRequest;
+import com.example.expensesplitter.dto.RecurringExpenseDto;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.security.CurrentUser;
+import com.example.expensesplitter.service.RecurringExpenseService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Recurring expense definitions of a group (rent, subscriptions...). Occurrences are written
+ * as ordinary expenses by RecurringExpenseJob.
+ */
+@RestController
+@RequestMapping("/api/groups/{groupId}/recurring-expenses")
+public class RecurringExpenseController {
+
+    private final RecurringExpenseService recurringExpenseService;
+
+    public RecurringExpenseController(RecurringExpenseService recurringExpenseService) {
+        this.recurringExpenseService = recurringExpenseService;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> create(@PathVariable("groupId") Long groupId,
+                                    @Valid @RequestBody CreateRecurringExpenseRequest req,
+                                    @CurrentUser User currentUser) {
+        try {
+            return ResponseEntity.ok(recurringExpenseService.create(groupId, currentUser, req));
+        } catch (ResponseStatusException ex) {
+            return ResponseEntity.status(ex.getStatusCode()).body(ex.getReason());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Server error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<?> list(@PathVariable("groupId") Long groupId,
+                                  @CurrentUser User currentUser) {
+        try {
+            List<RecurringExpenseDto> list = recurringExpenseService.list(groupId, currentUser);
+            return ResponseEntity.ok(list);
+        } catch (ResponseStatusException ex) {
+            return ResponseEntity.status(ex.getStatusCode()).body(ex.getReason());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Server error: " + e.getMessage());
+        }
+    }
+
+    // Stops future occurrences; expenses already written stay
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deactivate(@PathVariable("groupId") Long groupId,
+                                        @PathVariable("id") Long id,
+                                        @CurrentUser User currentUser) {
+        try {
+            recurringExpenseService.deactivate(groupId, id, currentUser);
+            return ResponseEntity.noContent().build();
+        } catch (ResponseStatusException ex) {
+            return ResponseEntity.status(ex.getStatusCode()).body(ex.getReason());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Server error: " + e.getMessage());
+        }
+    }
+}
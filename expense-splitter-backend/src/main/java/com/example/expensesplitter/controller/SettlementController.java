@@ -3,12 +3,19 @@ package com.example.expensesplitter.controller;
 import com.example.expensesplitter.dto.RecordSettlementRequest;
 import com.example.expensesplitter.dto.SettlementDto;
 import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.service.GroupAccessService;
+import com.example.expensesplitter.service.GroupService;
+import com.example.expensesplitter.service.IdempotencyService;
+import com.example.expensesplitter.service.LedgerStreamService;
 import com.example.expensesplitter.service.SettlementService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import com.example.expensesplitter.security.CurrentUser;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -17,18 +24,31 @@ import java.util.List;
 public class SettlementController {
 
     private final SettlementService settlementService;
+    private final IdempotencyService idempotencyService;
+    private final LedgerStreamService ledgerStreamService;
+    private final GroupAccessService groupAccessService;
+    private final GroupService groupService;
 
-    public SettlementController(SettlementService settlementService) {
+    public SettlementController(SettlementService settlementService, IdempotencyService idempotencyService,
+                                LedgerStreamService ledgerStreamService, GroupAccessService groupAccessService,
+                                GroupService groupService) {
         this.settlementService = settlementService;
+        this.idempotencyService = idempotencyService;
+        this.ledgerStreamService = ledgerStreamService;
+        this.groupAccessService = groupAccessService;
+        this.groupService = groupService;
     }
 
     @PostMapping
     public ResponseEntity<?> recordSettlement(@PathVariable("groupId") Long groupId,
                                               @RequestBody RecordSettlementRequest req,
+                                              @RequestHeader(value = IdempotencyService.HEADER, required = false)
+                                              String idempotencyKey,
                                               @CurrentUser User currentUser) {
         try {
-            SettlementDto dto = settlementService.recordSettlement(groupId, currentUser, req);
-            return ResponseEntity.ok(dto);
+            return idempotencyService.execute(currentUser.getId(), idempotencyKey,
+                    "POST /api/groups/" + groupId + "/settlements",
+                    () -> ResponseEntity.ok(settlementService.recordSettlement(groupId, currentUser, req)));
         } catch (ResponseStatusException ex) {
             return ResponseEntity.status(ex.getStatusCode()).body(ex.getReason());
         } catch (Exception e) {
@@ -38,15 +58,27 @@ public class SettlementController {
 
     @GetMapping
     public ResponseEntity<?> listSettlements(@PathVariable("groupId") Long groupId,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                             String ifNoneMatch,
                                              @CurrentUser User currentUser) {
         try {
+            String etag = ETags.forGroup(groupId, groupService.currentVersion(groupId, currentUser));
+            if (ETags.matches(ifNoneMatch, etag)) return ETags.notModified(etag);
             List<SettlementDto> list = settlementService.listSettlements(groupId, currentUser);
-            return ResponseEntity.ok(list);
+            return ETags.ok(etag, list);
         } catch (ResponseStatusException ex) {
             return ResponseEntity.status(ex.getStatusCode()).body(ex.getReason());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Server error: " + e.getMessage());
         }
     }
-}
 
+    // Every settlement of the group as one JSON array, streamed while the rows are read
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamSettlements(@PathVariable("groupId") Long groupId,
+                                                                   @CurrentUser User currentUser) {
+        groupAccessService.requireMember(groupId, currentUser); // fails before the response starts
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                .body(out -> ledgerStreamService.writeSettlements(groupId, out));
+    }
+}
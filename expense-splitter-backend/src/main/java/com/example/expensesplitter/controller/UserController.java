@@ -1,8 +1,10 @@
 package com.example.expensesplitter.controller;
 
+import com.example.expensesplitter.dto.UserBalancesDto;
 import com.example.expensesplitter.dto.UserProfile;
 import com.example.expensesplitter.entity.User;
 import com.example.expensesplitter.security.CurrentUser;
+import com.example.expensesplitter.service.UserBalanceService;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -11,10 +13,24 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api")
 public class UserController {
 
+    private final UserBalanceService userBalanceService;
+
+    public UserController(UserBalanceService userBalanceService) {
+        this.userBalanceService = userBalanceService;
+    }
+
     @GetMapping("/me")
     public UserProfile me(@CurrentUser User user) {
         // map entity -> DTO (avoid returning password hash)
         return new UserProfile(user.getId(), user.getName(), user.getEmail(), user.getCreatedAt());
     }
-}
 
+    /**
+     * GET /api/me/balances
+     * The caller's net position in every group, plus an overall total per currency.
+     */
+    @GetMapping("/me/balances")
+    public UserBalancesDto myBalances(@CurrentUser User user) {
+        return userBalanceService.balancesForUser(user);
+    }
+}
@@ -3,13 +3,14 @@ package com.example.expensesplitter.dto;
 import java.math.BigDecimal;
 
 /**
- * BalanceDto - represents a member's net balance in a group.
+ * BalanceDto - represents a member's net balance in a group, in one currency.
  * netBalance: positive = this user should receive money;
  *             negative = this user owes money.
  */
 public class BalanceDto {
     private Long userId;
     private String name;
+    private String currency;
     private BigDecimal netBalance;
 
     public BalanceDto() {}
@@ -20,12 +21,22 @@ public class BalanceDto {
         this.netBalance = netBalance;
     }
 
+    public BalanceDto(Long userId, String name, String currency, BigDecimal netBalance) {
+        this.userId = userId;
+        this.name = name;
+        this.currency = currency;
+        this.netBalance = netBalance;
+    }
+
     public Long getUserId() { return userId; }
     public void setUserId(Long userId) { this.userId = userId; }
 
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+
     public BigDecimal getNetBalance() { return netBalance; }
     public void setNetBalance(BigDecimal netBalance) { this.netBalance = netBalance; }
 }
@@ -1,5 +1,6 @@
 package com.example.expensesplitter.dto;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -18,7 +19,7 @@ public class CreateExpenseRequest {
     private Long payerId;
 
     @NotBlank(message = "Split type is required") // ensures non-null and non-empty
-    private String splitType; // "EQUAL", "PERCENT", "CUSTOM"
+    private String splitType; // "EQUAL", "PERCENT", "SHARES", "CUSTOM", "ITEMIZED"
 
     @Size(max = 10, message = "Currency code must not exceed 10 characters")
     private String currency;
@@ -26,7 +27,11 @@ public class CreateExpenseRequest {
     @Size(max = 1000, message = "Note must not exceed 1000 characters")
     private String note;
 
-    private List<ShareLine> shares; // For PERCENT or CUSTOM: userId + percent or amount
+    private List<ShareLine> shares; // For PERCENT, SHARES or CUSTOM: userId + percent, weight or amount
+
+    @Valid
+    @Size(max = 500, message = "At most 500 items per expense")
+    private List<ItemLine> items; // For ITEMIZED: line items, each split on its own
 
     public static class ShareLine {
         @NotNull(message = "UserId is required in each share line")
@@ -35,6 +40,7 @@ public class CreateExpenseRequest {
         // Optional depending on splitType, so no direct validation here
         private BigDecimal percent; // used when splitType == "PERCENT"
         private BigDecimal amount;  // used when splitType == "CUSTOM"
+        private Integer weight;     // used when splitType == "SHARES", e.g. 2:1:1
 
         public Long getUserId() { return userId; }
         public void setUserId(Long userId) { this.userId = userId; }
@@ -44,6 +50,33 @@ public class CreateExpenseRequest {
 
         public BigDecimal getAmount() { return amount; }
         public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+        public Integer getWeight() { return weight; }
+        public void setWeight(Integer weight) { this.weight = weight; }
+    }
+
+    // A receipt line of an ITEMIZED expense
+    public static class ItemLine {
+        @Size(max = 255, message = "Item description must not exceed 255 characters")
+        private String description;
+
+        @NotNull(message = "Amount is required in each item")
+        private BigDecimal amount;
+
+        private String splitType;          // EQUAL (default), PERCENT, SHARES or CUSTOM
+        private List<ShareLine> shares;    // participants; for EQUAL only userId is used, none = every member
+
+        public String getDescription() { return description; }
+        public void setDescription(String description) { this.description = description; }
+
+        public BigDecimal getAmount() { return amount; }
+        public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+        public String getSplitType() { return splitType; }
+        public void setSplitType(String splitType) { this.splitType = splitType; }
+
+        public List<ShareLine> getShares() { return shares; }
+        public void setShares(List<ShareLine> shares) { this.shares = shares; }
     }
 
     // getters / setters
@@ -64,4 +97,7 @@ public class CreateExpenseRequest {
 
     public List<ShareLine> getShares() { return shares; }
     public void setShares(List<ShareLine> shares) { this.shares = shares; }
+
+    public List<ItemLine> getItems() { return items; }
+    public void setItems(List<ItemLine> items) { this.items = items; }
 }
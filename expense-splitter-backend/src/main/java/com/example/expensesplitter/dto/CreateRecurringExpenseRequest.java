@@ -0,0 +1,31 @@
+package com.example.expensesplitter.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+import java.time.Instant;
+
+/**
+ * CreateRecurringExpenseRequest - an expense template (same fields and split rules as
+ * CreateExpenseRequest) plus when it repeats.
+ */
+public class CreateRecurringExpenseRequest extends CreateExpenseRequest {
+
+    // Spring cron with seconds, e.g. "0 0 9 1 * *" = 09:00 on the 1st of every month
+    @NotBlank(message = "Schedule is required")
+    @Size(max = 100, message = "Schedule must not exceed 100 characters")
+    private String schedule;
+
+    private String timeZone; // e.g. "Asia/Kolkata"; defaults to UTC
+
+    private Instant startAt; // first occurrence is the first schedule time at or after this; defaults to now
+
+    public String getSchedule() { return schedule; }
+    public void setSchedule(String schedule) { this.schedule = schedule; }
+
+    public String getTimeZone() { return timeZone; }
+    public void setTimeZone(String timeZone) { this.timeZone = timeZone; }
+
+    public Instant getStartAt() { return startAt; }
+    public void setStartAt(Instant startAt) { this.startAt = startAt; }
+}
@@ -0,0 +1,25 @@
+package com.example.expensesplitter.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DailyBalancesDto - every member's net balance at the end of one UTC day.
+ */
+public class DailyBalancesDto {
+    private LocalDate date;
+    private List<BalanceDto> balances;
+
+    public DailyBalancesDto() {}
+
+    public DailyBalancesDto(LocalDate date, List<BalanceDto> balances) {
+        this.date = date;
+        this.balances = balances;
+    }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public List<BalanceDto> getBalances() { return balances; }
+    public void setBalances(List<BalanceDto> balances) { this.balances = balances; }
+}
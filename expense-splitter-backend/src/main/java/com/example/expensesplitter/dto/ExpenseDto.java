@@ -1,5 +1,7 @@
 package com.example.expensesplitter.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
@@ -15,6 +17,8 @@ public class ExpenseDto {
     private String note;
     private Instant createdAt;
     private List<ShareDto> shares;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ItemDto> items; // ITEMIZED expenses only
 
     public static class ShareDto {
         private Long userId;
@@ -29,6 +33,22 @@ public class ExpenseDto {
         public void setSettled(boolean settled) { isSettled = settled; }
     }
 
+    public static class ItemDto {
+        private String description;
+        private BigDecimal amount;
+        private String splitType;
+        private List<CreateExpenseRequest.ShareLine> shares;
+        // getters/setters
+        public String getDescription() { return description; }
+        public void setDescription(String description) { this.description = description; }
+        public BigDecimal getAmount() { return amount; }
+        public void setAmount(BigDecimal amount) { this.amount = amount; }
+        public String getSplitType() { return splitType; }
+        public void setSplitType(String splitType) { this.splitType = splitType; }
+        public List<CreateExpenseRequest.ShareLine> getShares() { return shares; }
+        public void setShares(List<CreateExpenseRequest.ShareLine> shares) { this.shares = shares; }
+    }
+
     // getters/setters (omitted for brevity — add all)
     // ... generate them or use your IDE to create
     public Long getId() { return id; }
@@ -51,4 +71,6 @@ public class ExpenseDto {
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
     public List<ShareDto> getShares() { return shares; }
     public void setShares(List<ShareDto> shares) { this.shares = shares; }
+    public List<ItemDto> getItems() { return items; }
+    public void setItems(List<ItemDto> items) { this.items = items; }
 }
@@ -0,0 +1,15 @@
+package com.example.expensesplitter.dto;
+
+import java.time.Instant;
+
+/**
+ * ExpenseImportRow - one line of a bulk import (NDJSON object or CSV record).
+ * Same fields as CreateExpenseRequest, plus an optional original creation time.
+ */
+public class ExpenseImportRow extends CreateExpenseRequest {
+
+    private Instant createdAt; // null = time of import; display date only, checkpoints go by group version
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,15 @@
+package com.example.expensesplitter.dto;
+
+import java.util.List;
+
+// One page of a group's expenses, newest first; nextCursor is null on the last page
+public class ExpensePageDto {
+    private List<ExpenseDto> items;
+    private String nextCursor;
+
+    public List<ExpenseDto> getItems() { return items; }
+    public void setItems(List<ExpenseDto> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,72 @@
+package com.example.expensesplitter.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * What a group gained after the client's version: GET /api/groups/{id}/changes?since=.
+ * Ledger rows are never updated or deleted, so every element is new to a client at "since".
+ * balanceDeltas is the change of each member's net balance, per currency, that the listed
+ * expenses and settlements imply (zero deltas are left out).
+ *
+ * resync = true means no delta can be given (the version predates per-row versions, is ahead
+ * of the server, or too much has changed): the lists are empty and the client reloads the group
+ * and continues from the version in the group details.
+ */
+public class GroupChangesDto {
+    private Long groupId;
+    private long since;
+    private long version;
+    private boolean resync;
+    private List<ExpenseDto> expenses;
+    private List<SettlementDto> settlements;
+    private List<MembershipDto> members;
+    private List<BalanceDeltaDto> balanceDeltas;
+
+    public static class BalanceDeltaDto {
+        private Long userId;
+        private String currency;
+        private BigDecimal amount; // positive = net balance went up
+
+        public BalanceDeltaDto() {}
+
+        public BalanceDeltaDto(Long userId, String currency, BigDecimal amount) {
+            this.userId = userId;
+            this.currency = currency;
+            this.amount = amount;
+        }
+
+        public Long getUserId() { return userId; }
+        public void setUserId(Long userId) { this.userId = userId; }
+
+        public String getCurrency() { return currency; }
+        public void setCurrency(String currency) { this.currency = currency; }
+
+        public BigDecimal getAmount() { return amount; }
+        public void setAmount(BigDecimal amount) { this.amount = amount; }
+    }
+
+    public Long getGroupId() { return groupId; }
+    public void setGroupId(Long groupId) { this.groupId = groupId; }
+
+    public long getSince() { return since; }
+    public void setSince(long since) { this.since = since; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public boolean isResync() { return resync; }
+    public void setResync(boolean resync) { this.resync = resync; }
+
+    public List<ExpenseDto> getExpenses() { return expenses; }
+    public void setExpenses(List<ExpenseDto> expenses) { this.expenses = expenses; }
+
+    public List<SettlementDto> getSettlements() { return settlements; }
+    public void setSettlements(List<SettlementDto> settlements) { this.settlements = settlements; }
+
+    public List<MembershipDto> getMembers() { return members; }
+    public void setMembers(List<MembershipDto> members) { this.members = members; }
+
+    public List<BalanceDeltaDto> getBalanceDeltas() { return balanceDeltas; }
+    public void setBalanceDeltas(List<BalanceDeltaDto> balanceDeltas) { this.balanceDeltas = balanceDeltas; }
+}
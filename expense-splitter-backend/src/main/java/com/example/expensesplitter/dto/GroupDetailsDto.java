@@ -9,6 +9,7 @@ public class GroupDetailsDto {
     private Long ownerId;
     private Instant createdAt;
     private List<MembershipDto> members;
+    private long version; // starting point for GET .../changes?since=
 
     public GroupDetailsDto() {}
 
@@ -34,5 +35,8 @@ public class GroupDetailsDto {
 
     public List<MembershipDto> getMembers() { return members; }
     public void setMembers(List<MembershipDto> members) { this.members = members; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
 }
 
@@ -4,6 +4,7 @@ public class GroupDto {
     private Long id;
     private String name;
     private Long ownerId;
+    private String baseCurrency;
 
     public GroupDto() {}
 
@@ -21,4 +22,7 @@ public class GroupDto {
 
     public Long getOwnerId() { return ownerId; }
     public void setOwnerId(Long ownerId) { this.ownerId = ownerId; }
+
+    public String getBaseCurrency() { return baseCurrency; }
+    public void setBaseCurrency(String baseCurrency) { this.baseCurrency = baseCurrency; }
 }
@@ -0,0 +1,99 @@
+package com.example.expensesplitter.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Spending analytics of a group: one entry per (UTC month, currency) with activity, oldest first.
+ * Currencies are never added together.
+ */
+public class GroupStatsDto {
+    private Long groupId;
+    private List<MonthDto> months;
+
+    public static class MonthDto {
+        private String month; // 2024-03
+        private String currency;
+        private BigDecimal totalSpend;
+        private int expenseCount;
+        private List<UserAmountDto> byPayer;
+        private List<SplitTypeDto> bySplitType;
+        private List<UserAmountDto> consumed; // each member's shares of that month's expenses
+        private BigDecimal settled;
+        private int settlementCount;
+
+        public String getMonth() { return month; }
+        public void setMonth(String month) { this.month = month; }
+
+        public String getCurrency() { return currency; }
+        public void setCurrency(String currency) { this.currency = currency; }
+
+        public BigDecimal getTotalSpend() { return totalSpend; }
+        public void setTotalSpend(BigDecimal totalSpend) { this.totalSpend = totalSpend; }
+
+        public int getExpenseCount() { return expenseCount; }
+        public void setExpenseCount(int expenseCount) { this.expenseCount = expenseCount; }
+
+        public List<UserAmountDto> getByPayer() { return byPayer; }
+        public void setByPayer(List<UserAmountDto> byPayer) { this.byPayer = byPayer; }
+
+        public List<SplitTypeDto> getBySplitType() { return bySplitType; }
+        public void setBySplitType(List<SplitTypeDto> bySplitType) { this.bySplitType = bySplitType; }
+
+        public List<UserAmountDto> getConsumed() { return consumed; }
+        public void setConsumed(List<UserAmountDto> consumed) { this.consumed = consumed; }
+
+        public BigDecimal getSettled() { return settled; }
+        public void setSettled(BigDecimal settled) { this.settled = settled; }
+
+        public int getSettlementCount() { return settlementCount; }
+        public void setSettlementCount(int settlementCount) { this.settlementCount = settlementCount; }
+    }
+
+    public static class UserAmountDto {
+        private Long userId;
+        private BigDecimal amount;
+
+        public UserAmountDto() {}
+
+        public UserAmountDto(Long userId, BigDecimal amount) {
+            this.userId = userId;
+            this.amount = amount;
+        }
+
+        public Long getUserId() { return userId; }
+        public void setUserId(Long userId) { this.userId = userId; }
+
+        public BigDecimal getAmount() { return amount; }
+        public void setAmount(BigDecimal amount) { this.amount = amount; }
+    }
+
+    public static class SplitTypeDto {
+        private String splitType;
+        private BigDecimal amount;
+        private int count;
+
+        public SplitTypeDto() {}
+
+        public SplitTypeDto(String splitType, BigDecimal amount, int count) {
+            this.splitType = splitType;
+            this.amount = amount;
+            this.count = count;
+        }
+
+        public String getSplitType() { return splitType; }
+        public void setSplitType(String splitType) { this.splitType = splitType; }
+
+        public BigDecimal getAmount() { return amount; }
+        public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+        public int getCount() { return count; }
+        public void setCount(int count) { this.count = count; }
+    }
+
+    public Long getGroupId() { return groupId; }
+    public void setGroupId(Long groupId) { this.groupId = groupId; }
+
+    public List<MonthDto> getMonths() { return months; }
+    public void setMonths(List<MonthDto> months) { this.months = months; }
+}
@@ -0,0 +1,53 @@
+package com.example.expensesplitter.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ImportResultDto - outcome of a bulk expense import.
+ * Lines that failed are listed with their line number (first maxReportedErrors only).
+ */
+public class ImportResultDto {
+    private int imported;
+    private int failed;
+    private long elapsedMs;
+    private long rowsPerSecond;
+    private boolean errorsTruncated;
+    private List<LineError> errors = new ArrayList<>();
+
+    public static class LineError {
+        private long line;
+        private String message;
+
+        public LineError() {}
+
+        public LineError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() { return line; }
+        public void setLine(long line) { this.line = line; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+
+    public int getImported() { return imported; }
+    public void setImported(int imported) { this.imported = imported; }
+
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+
+    public long getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+
+    public long getRowsPerSecond() { return rowsPerSecond; }
+    public void setRowsPerSecond(long rowsPerSecond) { this.rowsPerSecond = rowsPerSecond; }
+
+    public boolean isErrorsTruncated() { return errorsTruncated; }
+    public void setErrorsTruncated(boolean errorsTruncated) { this.errorsTruncated = errorsTruncated; }
+
+    public List<LineError> getErrors() { return errors; }
+    public void setErrors(List<LineError> errors) { this.errors = errors; }
+}
@@ -0,0 +1,70 @@
+package com.example.expensesplitter.dto;
+
+import java.util.List;
+
+/**
+ * IngestMetricsDto - counters of the write-behind expense ingestion queue.
+ * Latencies are per committed batch, in milliseconds.
+ */
+public class IngestMetricsDto {
+    private boolean enabled;
+    private int shards;
+    private int queueCapacityPerShard;
+    private int queueDepth;
+    private List<Integer> queueDepthPerShard;
+    private long submitted;
+    private long rejected;
+    private long batches;
+    private long written;
+    private long failed;
+    private int lastBatchSize;
+    private double avgBatchSize;
+    private double lastCommitMs;
+    private double avgCommitMs;
+    private double maxCommitMs;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getShards() { return shards; }
+    public void setShards(int shards) { this.shards = shards; }
+
+    public int getQueueCapacityPerShard() { return queueCapacityPerShard; }
+    public void setQueueCapacityPerShard(int queueCapacityPerShard) { this.queueCapacityPerShard = queueCapacityPerShard; }
+
+    public int getQueueDepth() { return queueDepth; }
+    public void setQueueDepth(int queueDepth) { this.queueDepth = queueDepth; }
+
+    public List<Integer> getQueueDepthPerShard() { return queueDepthPerShard; }
+    public void setQueueDepthPerShard(List<Integer> queueDepthPerShard) { this.queueDepthPerShard = queueDepthPerShard; }
+
+    public long getSubmitted() { return submitted; }
+    public void setSubmitted(long submitted) { this.submitted = submitted; }
+
+    public long getRejected() { return rejected; }
+    public void setRejected(long rejected) { this.rejected = rejected; }
+
+    public long getBatches() { return batches; }
+    public void setBatches(long batches) { this.batches = batches; }
+
+    public long getWritten() { return written; }
+    public void setWritten(long written) { this.written = written; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public int getLastBatchSize() { return lastBatchSize; }
+    public void setLastBatchSize(int lastBatchSize) { this.lastBatchSize = lastBatchSize; }
+
+    public double getAvgBatchSize() { return avgBatchSize; }
+    public void setAvgBatchSize(double avgBatchSize) { this.avgBatchSize = avgBatchSize; }
+
+    public double getLastCommitMs() { return lastCommitMs; }
+    public void setLastCommitMs(double lastCommitMs) { this.lastCommitMs = lastCommitMs; }
+
+    public double getAvgCommitMs() { return avgCommitMs; }
+    public void setAvgCommitMs(double avgCommitMs) { this.avgCommitMs = avgCommitMs; }
+
+    public double getMaxCommitMs() { return maxCommitMs; }
+    public void setMaxCommitMs(double maxCommitMs) { this.maxCommitMs = maxCommitMs; }
+}
@@ -0,0 +1,35 @@
+package com.example.expensesplitter.dto;
+
+/**
+ * IngestStatusDto - state of a queued expense (see ExpenseIngestService).
+ * status is PENDING, DONE (expense set) or FAILED (errorStatus / error set).
+ */
+public class IngestStatusDto {
+    private String ticket;
+    private String status;
+    private ExpenseDto expense;
+    private Integer errorStatus;
+    private String error;
+
+    public IngestStatusDto() {}
+
+    public IngestStatusDto(String ticket, String status) {
+        this.ticket = ticket;
+        this.status = status;
+    }
+
+    public String getTicket() { return ticket; }
+    public void setTicket(String ticket) { this.ticket = ticket; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public ExpenseDto getExpense() { return expense; }
+    public void setExpense(ExpenseDto expense) { this.expense = expense; }
+
+    public Integer getErrorStatus() { return errorStatus; }
+    public void setErrorStatus(Integer errorStatus) { this.errorStatus = errorStatus; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,55 @@
+package com.example.expensesplitter.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+public class RecurringExpenseDto {
+    private Long id;
+    private Long groupId;
+    private Long createdById;
+    private Long payerId;
+    private BigDecimal amount;
+    private String currency;
+    private String splitType;
+    private List<CreateExpenseRequest.ShareLine> shares;
+    private String note;
+    private String schedule;
+    private String timeZone;
+    private Instant nextRunAt;
+    private Instant lastRunAt;
+    private boolean active;
+    private String lastError;
+
+    // getters/setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getGroupId() { return groupId; }
+    public void setGroupId(Long groupId) { this.groupId = groupId; }
+    public Long getCreatedById() { return createdById; }
+    public void setCreatedById(Long createdById) { this.createdById = createdById; }
+    public Long getPayerId() { return payerId; }
+    public void setPayerId(Long payerId) { this.payerId = payerId; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+    public String getSplitType() { return splitType; }
+    public void setSplitType(String splitType) { this.splitType = splitType; }
+    public List<CreateExpenseRequest.ShareLine> getShares() { return shares; }
+    public void setShares(List<CreateExpenseRequest.ShareLine> shares) { this.shares = shares; }
+    public String getNote() { return note; }
+    public void setNote(String note) { this.note = note; }
+    public String getSchedule() { return schedule; }
+    public void setSchedule(String schedule) { this.schedule = schedule; }
+    public String getTimeZone() { return timeZone; }
+    public void setTimeZone(String timeZone) { this.timeZone = timeZone; }
+    public Instant getNextRunAt() { return nextRunAt; }
+    public void setNextRunAt(Instant nextRunAt) { this.nextRunAt = nextRunAt; }
+    public Instant getLastRunAt() { return lastRunAt; }
+    public void setLastRunAt(Instant lastRunAt) { this.lastRunAt = lastRunAt; }
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+}
@@ -0,0 +1,46 @@
+package com.example.expensesplitter.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * TransferDto - one suggested payment of a settle-up plan:
+ * fromUser should pay amount (in currency) to toUser.
+ */
+public class TransferDto {
+    private Long fromUserId;
+    private String fromUserName;
+    private Long toUserId;
+    private String toUserName;
+    private String currency;
+    private BigDecimal amount;
+
+    public TransferDto() {}
+
+    public TransferDto(Long fromUserId, String fromUserName, Long toUserId, String toUserName,
+                       String currency, BigDecimal amount) {
+        this.fromUserId = fromUserId;
+        this.fromUserName = fromUserName;
+        this.toUserId = toUserId;
+        this.toUserName = toUserName;
+        this.currency = currency;
+        this.amount = amount;
+    }
+
+    public Long getFromUserId() { return fromUserId; }
+    public void setFromUserId(Long fromUserId) { this.fromUserId = fromUserId; }
+
+    public String getFromUserName() { return fromUserName; }
+    public void setFromUserName(String fromUserName) { this.fromUserName = fromUserName; }
+
+    public Long getToUserId() { return toUserId; }
+    public void setToUserId(Long toUserId) { this.toUserId = toUserId; }
+
+    public String getToUserName() { return toUserName; }
+    public void setToUserName(String toUserName) { this.toUserName = toUserName; }
+
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+}
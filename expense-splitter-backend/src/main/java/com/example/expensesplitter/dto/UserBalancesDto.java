@@ -0,0 +1,67 @@
+package com.example.expensesplitter.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * UserBalancesDto - the caller's net position across all their groups.
+ * netBalance: positive = the user should receive money; negative = the user owes money.
+ */
+public class UserBalancesDto {
+    private List<GroupPosition> groups;
+    private List<CurrencyTotal> totals;
+
+    public static class GroupPosition {
+        private Long groupId;
+        private String groupName;
+        private String currency;
+        private BigDecimal netBalance;
+
+        public GroupPosition() {}
+
+        public GroupPosition(Long groupId, String groupName, String currency, BigDecimal netBalance) {
+            this.groupId = groupId;
+            this.groupName = groupName;
+            this.currency = currency;
+            this.netBalance = netBalance;
+        }
+
+        public Long getGroupId() { return groupId; }
+        public void setGroupId(Long groupId) { this.groupId = groupId; }
+        public String getGroupName() { return groupName; }
+        public void setGroupName(String groupName) { this.groupName = groupName; }
+        public String getCurrency() { return currency; }
+        public void setCurrency(String currency) { this.currency = currency; }
+        public BigDecimal getNetBalance() { return netBalance; }
+        public void setNetBalance(BigDecimal netBalance) { this.netBalance = netBalance; }
+    }
+
+    public static class CurrencyTotal {
+        private String currency;
+        private BigDecimal netBalance;
+
+        public CurrencyTotal() {}
+
+        public CurrencyTotal(String currency, BigDecimal netBalance) {
+            this.currency = currency;
+            this.netBalance = netBalance;
+        }
+
+        public String getCurrency() { return currency; }
+        public void setCurrency(String currency) { this.currency = currency; }
+        public BigDecimal getNetBalance() { return netBalance; }
+        public void setNetBalance(BigDecimal netBalance) { this.netBalance = netBalance; }
+    }
+
+    public UserBalancesDto() {}
+
+    public UserBalancesDto(List<GroupPosition> groups, List<CurrencyTotal> totals) {
+        this.groups = groups;
+        this.totals = totals;
+    }
+
+    public List<GroupPosition> getGroups() { return groups; }
+    public void setGroups(List<GroupPosition> groups) { this.groups = groups; }
+    public List<CurrencyTotal> getTotals() { return totals; }
+    public void setTotals(List<CurrencyTotal> totals) { this.totals = totals; }
+}
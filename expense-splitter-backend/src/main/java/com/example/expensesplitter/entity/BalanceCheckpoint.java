@@ -0,0 +1,53 @@
+package com.example.expensesplitter.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-group snapshot of net balances covering every expense and settlement with
+ * group_version <= lastGroupVersion. One (rolling) checkpoint per group.
+ */
+@Entity
+@Table(name = "balance_checkpoints")
+public class BalanceCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", nullable = false, unique = true)
+    private Group group;
+
+    @Column(name = "last_group_version", nullable = false)
+    private long lastGroupVersion;
+
+    @Column(name = "created_at")
+    private Instant createdAt = Instant.now();
+
+    @OneToMany(mappedBy = "checkpoint", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<BalanceCheckpointEntry> entries = new ArrayList<>();
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Group getGroup() { return group; }
+    public void setGroup(Group group) { this.group = group; }
+
+    public long getLastGroupVersion() { return lastGroupVersion; }
+    public void setLastGroupVersion(long lastGroupVersion) { this.lastGroupVersion = lastGroupVersion; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    public List<BalanceCheckpointEntry> getEntries() { return entries; }
+    public void setEntries(List<BalanceCheckpointEntry> entries) { this.entries = entries; }
+
+    public void addEntry(BalanceCheckpointEntry entry) {
+        entries.add(entry);
+        entry.setCheckpoint(this);
+    }
+}
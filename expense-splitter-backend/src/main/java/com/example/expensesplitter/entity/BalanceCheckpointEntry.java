@@ -0,0 +1,46 @@
+package com.example.expensesplitter.entity;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "balance_checkpoint_entries",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"checkpoint_id", "user_id", "currency"}))
+public class BalanceCheckpointEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "checkpoint_id")
+    private BalanceCheckpoint checkpoint;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    @Column(nullable = false, length = 10)
+    private String currency;
+
+    @Column(name = "net_cents", nullable = false)
+    private long netCents;
+
+    public BalanceCheckpointEntry() {}
+
+    public BalanceCheckpointEntry(User user, String currency, long netCents) {
+        this.user = user;
+        this.currency = currency;
+        this.netCents = netCents;
+    }
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public BalanceCheckpoint getCheckpoint() { return checkpoint; }
+    public void setCheckpoint(BalanceCheckpoint checkpoint) { this.checkpoint = checkpoint; }
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+    public long getNetCents() { return netCents; }
+    public void setNetCents(long netCents) { this.netCents = netCents; }
+}
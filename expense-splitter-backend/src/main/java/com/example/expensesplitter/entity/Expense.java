@@ -3,7 +3,9 @@ package com.example.expensesplitter.entity;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import org.hibernate.annotations.CreationTimestamp;
 
@@ -12,21 +14,21 @@ import org.hibernate.annotations.CreationTimestamp;
 public class Expense {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId(name = "expenses")
     private Long id;
 
     // foreign key group_id
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "group_id")
     private Group group;
 
     // created_by
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by")
     private User createdBy;
 
     // payer_id
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "payer_id")
     private User payer;
 
@@ -37,7 +39,7 @@ public class Expense {
     private String currency = "INR";
 
     @Column(length = 20, nullable = false)
-    private String splitType; // EQUAL, PERCENT, CUSTOM
+    private String splitType; // EQUAL, PERCENT, SHARES, CUSTOM, ITEMIZED
 
     @Column(length = 1000)
     private String note;
@@ -46,9 +48,18 @@ public class Expense {
     @Column(name = "created_at", updatable = false)
     private Instant createdAt;
 
+    // Group version produced by the write that inserted this row (GroupBalanceService.nextVersion)
+    @Column(name = "group_version", nullable = false, updatable = false)
+    private long groupVersion;
+
     @OneToMany(mappedBy = "expense", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private Set<ExpenseShare> shares = new HashSet<>();
 
+    // only ITEMIZED expenses have items
+    @OneToMany(mappedBy = "expense", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @OrderBy("lineNo")
+    private List<ExpenseItem> items = new ArrayList<>();
+
     public Expense() {}
 
     // getters/setters
@@ -68,8 +79,15 @@ public class Expense {
     public String getNote() { return note; }
     public void setNote(String note) { this.note = note; }
     public Instant getCreatedAt() { return createdAt; }
+    public long getGroupVersion() { return groupVersion; }
+    public void setGroupVersion(long groupVersion) { this.groupVersion = groupVersion; }
     public Set<ExpenseShare> getShares() { return shares; }
     public void setShares(Set<ExpenseShare> shares) { this.shares = shares; }
+    public List<ExpenseItem> getItems() { return items; }
+    public void addItem(ExpenseItem item) {
+        items.add(item);
+        item.setExpense(this);
+    }
     public void addShare(ExpenseShare share) {
         shares.add(share);
         share.setExpense(this);
@@ -0,0 +1,54 @@
+package com.example.expensesplitter.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * One line of an ITEMIZED expense. Informational: the expense's shares already hold the merged
+ * per-user amounts. participants is "userId[:value];..." (value = percent, weight or amount,
+ * absent for EQUAL).
+ */
+@Entity
+@Table(name = "expense_items")
+public class ExpenseItem {
+
+    @Id
+    @PooledId(name = "expense_items", blockSize = 200)
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "expense_id")
+    private Expense expense;
+
+    @Column(name = "line_no", nullable = false)
+    private int lineNo;
+
+    @Column(length = 255)
+    private String description;
+
+    @Column(precision = 19, scale = 2, nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "split_type", length = 20, nullable = false)
+    private String splitType;
+
+    @Column(length = 4000, nullable = false)
+    private String participants;
+
+    public ExpenseItem() {}
+
+    // getters / setters
+    public Long getId() { return id; }
+    public Expense getExpense() { return expense; }
+    public void setExpense(Expense expense) { this.expense = expense; }
+    public int getLineNo() { return lineNo; }
+    public void setLineNo(int lineNo) { this.lineNo = lineNo; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public String getSplitType() { return splitType; }
+    public void setSplitType(String splitType) { this.splitType = splitType; }
+    public String getParticipants() { return participants; }
+    public void setParticipants(String participants) { this.participants = participants; }
+}
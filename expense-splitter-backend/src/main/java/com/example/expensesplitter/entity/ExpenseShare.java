@@ -8,16 +8,16 @@ import java.math.BigDecimal;
 public class ExpenseShare {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId(name = "expense_shares", blockSize = 200)
     private Long id;
 
     // expense_id
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "expense_id")
     private Expense expense;
 
     // user_id
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
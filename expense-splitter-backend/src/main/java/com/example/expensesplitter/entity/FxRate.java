@@ -0,0 +1,54 @@
+package com.example.expensesplitter.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One exchange rate: 1 unit of fromCurrency = rate units of toCurrency.
+ */
+@Entity
+@Table(name = "fx_rates",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"from_currency", "to_currency"}))
+public class FxRate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "from_currency", nullable = false, length = 10)
+    private String fromCurrency;
+
+    @Column(name = "to_currency", nullable = false, length = 10)
+    private String toCurrency;
+
+    @Column(precision = 19, scale = 8, nullable = false)
+    private BigDecimal rate;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt = Instant.now();
+
+    public FxRate() {}
+
+    public FxRate(String fromCurrency, String toCurrency, BigDecimal rate) {
+        this.fromCurrency = fromCurrency;
+        this.toCurrency = toCurrency;
+        this.rate = rate;
+    }
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getFromCurrency() { return fromCurrency; }
+    public void setFromCurrency(String fromCurrency) { this.fromCurrency = fromCurrency; }
+
+    public String getToCurrency() { return toCurrency; }
+    public void setToCurrency(String toCurrency) { this.toCurrency = toCurrency; }
+
+    public BigDecimal getRate() { return rate; }
+    public void setRate(BigDecimal rate) { this.rate = rate; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+}
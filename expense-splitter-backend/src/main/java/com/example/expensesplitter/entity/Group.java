@@ -22,9 +22,21 @@ public class Group {
     @JoinColumn(name = "owner_id", nullable = false)
     private User owner;
 
+    // Currency balances are converted into on request; null = app.default-currency
+    @Column(name = "base_currency", length = 10)
+    private String baseCurrency;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt = Instant.now();
 
+    // Bumped in the database by GroupRepository.bumpVersion only; never written from the entity
+    @Column(name = "version", nullable = false, insertable = false, updatable = false)
+    private long version;
+
+    // Versions below this one (other than 0) predate per-row versions: such clients must resync
+    @Column(name = "sync_floor", nullable = false, insertable = false, updatable = false)
+    private long syncFloor;
+
     @OneToMany(mappedBy = "group", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Membership> memberships = new HashSet<>();
 
@@ -38,9 +50,16 @@ public class Group {
     public User getOwner() { return owner; }
     public void setOwner(User owner) { this.owner = owner; }
 
+    public String getBaseCurrency() { return baseCurrency; }
+    public void setBaseCurrency(String baseCurrency) { this.baseCurrency = baseCurrency; }
+
     public Instant getCreatedAt() { return createdAt; }
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
 
+    public long getVersion() { return version; }
+
+    public long getSyncFloor() { return syncFloor; }
+
     public Set<Membership> getMemberships() { return memberships; }
     public void setMemberships(Set<Membership> memberships) { this.memberships = memberships; }
 }
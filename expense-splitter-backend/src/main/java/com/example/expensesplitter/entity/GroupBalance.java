@@ -0,0 +1,57 @@
+package com.example.expensesplitter.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Materialized net balance of one member in one group and currency, in cents.
+ * Maintained by the expense and settlement write paths (see GroupBalanceService).
+ */
+@Entity
+@Table(name = "group_balances",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"group_id", "user_id", "currency"}))
+public class GroupBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", nullable = false)
+    private Group group;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false, length = 10)
+    private String currency;
+
+    // positive = this user should receive money; negative = this user owes money
+    @Column(name = "net_cents", nullable = false)
+    private long netCents;
+
+    public GroupBalance() {}
+
+    public GroupBalance(Group group, User user, String currency, long netCents) {
+        this.group = group;
+        this.user = user;
+        this.currency = currency;
+        this.netCents = netCents;
+    }
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Group getGroup() { return group; }
+    public void setGroup(Group group) { this.group = group; }
+
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+
+    public long getNetCents() { return netCents; }
+    public void setNetCents(long netCents) { this.netCents = netCents; }
+}
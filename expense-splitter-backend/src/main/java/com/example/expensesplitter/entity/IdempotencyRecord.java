@@ -0,0 +1,60 @@
+package com.example.expensesplitter.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Stored response of a POST sent with an Idempotency-Key, unique per (user, key).
+ */
+@Entity
+@Table(name = "idempotency_keys",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "idem_key"}))
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idem_key", nullable = false, length = 128)
+    private String idemKey;
+
+    // method and path the key was first used for, e.g. "POST /api/groups/7/expenses"
+    @Column(nullable = false)
+    private String request;
+
+    @Column(name = "status_code", nullable = false)
+    private int statusCode;
+
+    @Column(name = "response_body", columnDefinition = "MEDIUMTEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt = Instant.now();
+
+    public IdempotencyRecord() {}
+
+    public IdempotencyRecord(Long userId, String idemKey, String request, int statusCode, String responseBody) {
+        this.userId = userId;
+        this.idemKey = idemKey;
+        this.request = request;
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+    }
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public String getIdemKey() { return idemKey; }
+    public void setIdemKey(String idemKey) { this.idemKey = idemKey; }
+    public String getRequest() { return request; }
+    public void setRequest(String request) { this.request = request; }
+    public int getStatusCode() { return statusCode; }
+    public void setStatusCode(int statusCode) { this.statusCode = statusCode; }
+    public String getResponseBody() { return responseBody; }
+    public void setResponseBody(String responseBody) { this.responseBody = responseBody; }
+    public Instant getCreatedAt() { return createdAt; }
+}
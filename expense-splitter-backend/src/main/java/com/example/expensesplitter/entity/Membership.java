@@ -9,7 +9,7 @@ import java.time.Instant;
 public class Membership {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId(name = "memberships")
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -26,6 +26,10 @@ public class Membership {
     @Column(name = "joined_at", nullable = false, updatable = false)
     private Instant joinedAt = Instant.now();
 
+    // Group version produced by the write that inserted this row (GroupBalanceService.nextVersion)
+    @Column(name = "group_version", nullable = false, updatable = false)
+    private long groupVersion;
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -41,5 +45,8 @@ public class Membership {
 
     public Instant getJoinedAt() { return joinedAt; }
     public void setJoinedAt(Instant joinedAt) { this.joinedAt = joinedAt; }
+
+    public long getGroupVersion() { return groupVersion; }
+    public void setGroupVersion(long groupVersion) { this.groupVersion = groupVersion; }
 }
 
@@ -0,0 +1,25 @@
+package com.example.expensesplitter.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Id assigned from a block reserved in the id_blocks table (see PooledIdGenerator).
+ * Unlike IDENTITY this keeps Hibernate's JDBC insert batching enabled.
+ */
+@IdGeneratorType(PooledIdGenerator.class)
+@Retention(RUNTIME)
+@Target(FIELD)
+public @interface PooledId {
+
+    // id_blocks row; by convention the entity's table name
+    String name();
+
+    // ids reserved per round trip to id_blocks
+    int blockSize() default 50;
+}
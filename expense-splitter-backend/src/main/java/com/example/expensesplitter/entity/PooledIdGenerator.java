@@ -0,0 +1,49 @@
+package com.example.expensesplitter.entity;
+
+import com.example.expensesplitter.util.IdBlocks;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.jdbc.AbstractReturningWork;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands out ids from blocks reserved in id_blocks. The reservation runs in its own
+ * short transaction, so a rolled back business transaction only wastes ids.
+ *
+ * Ids are not in commit order across blocks (each node, and the bulk import, owns its
+ * own block); nothing may use them as a high-water mark. Balance checkpoints use the
+ * group version instead.
+ */
+public class PooledIdGenerator implements IdentifierGenerator {
+
+    private final String name;
+    private final int blockSize;
+
+    // current block is [next, limit)
+    private long next;
+    private long limit;
+
+    public PooledIdGenerator(PooledId config) {
+        if (config.blockSize() < 1) throw new IllegalArgumentException("blockSize must be positive");
+        this.name = config.name();
+        this.blockSize = config.blockSize();
+    }
+
+    @Override
+    public synchronized Object generate(SharedSessionContractImplementor session, Object owner) {
+        if (next >= limit) {
+            long first = session.getTransactionCoordinator().createIsolationDelegate()
+                    .delegateWork(new AbstractReturningWork<Long>() {
+                        @Override
+                        public Long execute(Connection connection) throws SQLException {
+                            return IdBlocks.reserve(connection, name, blockSize);
+                        }
+                    }, true);
+            next = first;
+            limit = first + blockSize;
+        }
+        return next++;
+    }
+}
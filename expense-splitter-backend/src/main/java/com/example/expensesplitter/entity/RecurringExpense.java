@@ -0,0 +1,97 @@
+package com.example.expensesplitter.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A recurring expense definition. Created and read through JPA; next_run_at, the claim columns
+ * and last_error are maintained with JDBC by RecurringExpenseService (claimed_by / claimed_until
+ * are deliberately not mapped, so an entity update can never overwrite a scheduler's claim).
+ */
+@Entity
+@Table(name = "recurring_expenses")
+public class RecurringExpense {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "group_id", nullable = false)
+    private Long groupId;
+
+    @Column(name = "created_by", nullable = false)
+    private Long createdById;
+
+    @Column(name = "payer_id", nullable = false)
+    private Long payerId;
+
+    @Column(precision = 19, scale = 2, nullable = false)
+    private BigDecimal amount;
+
+    @Column(length = 10, nullable = false)
+    private String currency;
+
+    @Column(name = "split_type", length = 20, nullable = false)
+    private String splitType;
+
+    // JSON array of CreateExpenseRequest.ShareLine
+    @Column(name = "shares", columnDefinition = "MEDIUMTEXT")
+    private String sharesJson;
+
+    @Column(length = 1000)
+    private String note;
+
+    @Column(length = 100, nullable = false)
+    private String schedule;
+
+    @Column(name = "time_zone", length = 64, nullable = false)
+    private String timeZone;
+
+    @Column(name = "next_run_at", nullable = false)
+    private Instant nextRunAt;
+
+    @Column(name = "last_run_at")
+    private Instant lastRunAt;
+
+    @Column(nullable = false)
+    private boolean active = true;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt = Instant.now();
+
+    public RecurringExpense() {}
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public Long getGroupId() { return groupId; }
+    public void setGroupId(Long groupId) { this.groupId = groupId; }
+    public Long getCreatedById() { return createdById; }
+    public void setCreatedById(Long createdById) { this.createdById = createdById; }
+    public Long getPayerId() { return payerId; }
+    public void setPayerId(Long payerId) { this.payerId = payerId; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+    public String getSplitType() { return splitType; }
+    public void setSplitType(String splitType) { this.splitType = splitType; }
+    public String getSharesJson() { return sharesJson; }
+    public void setSharesJson(String sharesJson) { this.sharesJson = sharesJson; }
+    public String getNote() { return note; }
+    public void setNote(String note) { this.note = note; }
+    public String getSchedule() { return schedule; }
+    public void setSchedule(String schedule) { this.schedule = schedule; }
+    public String getTimeZone() { return timeZone; }
+    public void setTimeZone(String timeZone) { this.timeZone = timeZone; }
+    public Instant getNextRunAt() { return nextRunAt; }
+    public void setNextRunAt(Instant nextRunAt) { this.nextRunAt = nextRunAt; }
+    public Instant getLastRunAt() { return lastRunAt; }
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+    public String getLastError() { return lastError; }
+    public Instant getCreatedAt() { return createdAt; }
+}
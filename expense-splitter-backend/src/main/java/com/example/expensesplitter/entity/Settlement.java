@@ -9,7 +9,7 @@ import java.time.Instant;
 public class Settlement {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledId(name = "settlements")
     private Long id;
 
     // group
@@ -40,6 +40,10 @@ public class Settlement {
     @Column(name = "created_at", updatable = false)
     private Instant createdAt = Instant.now();
 
+    // Group version produced by the write that inserted this row (GroupBalanceService.nextVersion)
+    @Column(name = "group_version", nullable = false, updatable = false)
+    private long groupVersion;
+
     // getters & setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -67,5 +71,8 @@ public class Settlement {
 
     public Instant getCreatedAt() { return createdAt; }
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    public long getGroupVersion() { return groupVersion; }
+    public void setGroupVersion(long groupVersion) { this.groupVersion = groupVersion; }
 }
 
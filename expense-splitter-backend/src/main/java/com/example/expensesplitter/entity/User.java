@@ -1,9 +1,11 @@
 package com.example.expensesplitter.entity;
 
+import com.example.expensesplitter.security.UserCacheInvalidator;
 import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
+@EntityListeners(UserCacheInvalidator.class)
 @Table(name = "users")
 public class User {
 
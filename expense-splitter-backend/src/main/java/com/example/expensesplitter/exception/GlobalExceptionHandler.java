@@ -18,7 +18,8 @@ public class GlobalExceptionHandler {
         Map<String, Object> body = new HashMap<>();
         body.put("status", ex.getStatusCode().value());
         body.put("error", ex.getReason());
-        return ResponseEntity.status(ex.getStatusCode()).body(body);
+        // e.g. Retry-After on a 429 from the ingest queue
+        return ResponseEntity.status(ex.getStatusCode()).headers(ex.getHeaders()).body(body);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
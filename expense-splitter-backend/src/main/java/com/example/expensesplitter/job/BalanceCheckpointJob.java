@@ -0,0 +1,45 @@
+package com.example.expensesplitter.job;
+
+import com.example.expensesplitter.config.AppProperties;
+import com.example.expensesplitter.service.BalanceCheckpointService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Periodically rolls balance checkpoints forward for groups that accumulated
+ * app.checkpoint-threshold new ledger rows, which keeps GroupBalanceService.foldLedger bounded.
+ */
+@Component
+public class BalanceCheckpointJob {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceCheckpointJob.class);
+
+    private final BalanceCheckpointService balanceCheckpointService;
+    private final AppProperties appProperties;
+
+    public BalanceCheckpointJob(BalanceCheckpointService balanceCheckpointService, AppProperties appProperties) {
+        this.balanceCheckpointService = balanceCheckpointService;
+        this.appProperties = appProperties;
+    }
+
+    @Scheduled(initialDelayString = "${app.checkpoint-interval-ms:300000}",
+            fixedDelayString = "${app.checkpoint-interval-ms:300000}")
+    public void rollCheckpoints() {
+        List<Long> due = balanceCheckpointService.findGroupsDueForCheckpoint(appProperties.getCheckpointThreshold());
+        int rolled = 0;
+        for (Long groupId : due) {
+            try {
+                if (balanceCheckpointService.rollForward(groupId)) rolled++;
+            } catch (Exception e) {
+                log.warn("Checkpoint for group {} failed: {}", groupId, e.getMessage());
+            }
+        }
+        if (rolled > 0) {
+            log.info("Rolled balance checkpoints for {} group(s)", rolled);
+        }
+    }
+}
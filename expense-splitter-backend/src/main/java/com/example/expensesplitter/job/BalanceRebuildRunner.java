@@ -0,0 +1,53 @@
+package com.example.expensesplitter.job;
+
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.repository.GroupRepository;
+import com.example.expensesplitter.service.GroupBalanceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Rebuilds the group_balances projection from the raw ledger tables at startup.
+ *
+ * Usage:
+ *   java -jar app.jar --rebuild-balances        (all groups)
+ *   java -jar app.jar --rebuild-balances=42     (a single group)
+ *
+ * Drifted rows are logged and corrected; without the option this runner does nothing.
+ */
+@Component
+public class BalanceRebuildRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceRebuildRunner.class);
+
+    static final String OPTION = "rebuild-balances";
+
+    private final GroupBalanceService groupBalanceService;
+    private final GroupRepository groupRepository;
+
+    public BalanceRebuildRunner(GroupBalanceService groupBalanceService, GroupRepository groupRepository) {
+        this.groupBalanceService = groupBalanceService;
+        this.groupRepository = groupRepository;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) return;
+
+        List<String> values = args.getOptionValues(OPTION);
+        List<Long> groupIds = (values == null || values.isEmpty())
+                ? groupRepository.findAll().stream().map(Group::getId).toList()
+                : values.stream().map(Long::valueOf).toList();
+
+        int corrected = 0;
+        for (Long groupId : groupIds) {
+            corrected += groupBalanceService.rebuild(groupId);
+        }
+        log.info("Rebuilt balances for {} group(s), {} row(s) corrected", groupIds.size(), corrected);
+    }
+}
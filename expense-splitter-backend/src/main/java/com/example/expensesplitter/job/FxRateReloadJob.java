@@ -0,0 +1,34 @@
+package com.example.expensesplitter.job;
+
+import com.example.expensesplitter.service.FxRateService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically reloads the FX rate snapshot so edits to the fx_rates table are picked up
+ * without a restart.
+ */
+@Component
+public class FxRateReloadJob {
+
+    private static final Logger log = LoggerFactory.getLogger(FxRateReloadJob.class);
+
+    private final FxRateService fxRateService;
+
+    public FxRateReloadJob(FxRateService fxRateService) {
+        this.fxRateService = fxRateService;
+    }
+
+    @Scheduled(initialDelayString = "${app.fx-reload-interval-ms:600000}",
+            fixedDelayString = "${app.fx-reload-interval-ms:600000}")
+    public void reloadRates() {
+        try {
+            fxRateService.reload();
+        } catch (Exception e) {
+            // keep serving the previous snapshot
+            log.warn("FX rate reload failed: {}", e.getMessage());
+        }
+    }
+}
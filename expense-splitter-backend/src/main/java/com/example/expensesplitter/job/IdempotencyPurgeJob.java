@@ -0,0 +1,34 @@
+package com.example.expensesplitter.job;
+
+import com.example.expensesplitter.service.IdempotencyService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes Idempotency-Key rows older than app.idempotency-ttl-ms.
+ */
+@Component
+public class IdempotencyPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyPurgeJob.class);
+
+    private final IdempotencyService idempotencyService;
+
+    public IdempotencyPurgeJob(IdempotencyService idempotencyService) {
+        this.idempotencyService = idempotencyService;
+    }
+
+    @Scheduled(initialDelay = 60_000, fixedDelay = 3_600_000)
+    public void purge() {
+        try {
+            int removed = idempotencyService.purgeExpired();
+            if (removed > 0) {
+                log.info("Purged {} expired idempotency key(s)", removed);
+            }
+        } catch (Exception e) {
+            log.warn("Idempotency key purge failed: {}", e.getMessage());
+        }
+    }
+}
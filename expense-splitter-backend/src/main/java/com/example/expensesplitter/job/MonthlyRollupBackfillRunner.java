@@ -0,0 +1,97 @@
+package com.example.expensesplitter.job;
+
+import com.example.expensesplitter.config.AppProperties;
+import com.example.expensesplitter.repository.GroupRepository;
+import com.example.expensesplitter.service.MonthlyRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recomputes group_monthly_rollups from the ledger tables at startup, e.g. once after V17.
+ *
+ * Usage:
+ *   java -jar app.jar --backfill-rollups        (all groups)
+ *   java -jar app.jar --backfill-rollups=42     (a single group)
+ *
+ * Group ids are split into chunks worked off by a small thread pool, one transaction per group,
+ * so a large tenant never holds one long transaction. A group that fails is logged and skipped;
+ * running the option again is safe. Without the option this runner does nothing.
+ */
+@Component
+public class MonthlyRollupBackfillRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MonthlyRollupBackfillRunner.class);
+
+    static final String OPTION = "backfill-rollups";
+
+    private final MonthlyRollupService monthlyRollupService;
+    private final GroupRepository groupRepository;
+    private final AppProperties appProperties;
+
+    public MonthlyRollupBackfillRunner(MonthlyRollupService monthlyRollupService, GroupRepository groupRepository,
+                                       AppProperties appProperties) {
+        this.monthlyRollupService = monthlyRollupService;
+        this.groupRepository = groupRepository;
+        this.appProperties = appProperties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        if (!args.containsOption(OPTION)) return;
+
+        List<String> values = args.getOptionValues(OPTION);
+        List<Long> groupIds = (values == null || values.isEmpty())
+                ? groupRepository.findAllIds()
+                : values.stream().map(Long::valueOf).toList();
+        backfill(groupIds);
+    }
+
+    /**
+     * Rebuilds the rollups of the given groups; returns how many groups failed.
+     */
+    public int backfill(List<Long> groupIds) throws InterruptedException {
+        int chunkSize = Math.max(1, appProperties.getRollupBackfillChunkSize());
+        AtomicInteger rows = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, appProperties.getRollupBackfillThreads()));
+        try {
+            List<Future<?>> chunks = new ArrayList<>();
+            for (int from = 0; from < groupIds.size(); from += chunkSize) {
+                List<Long> chunk = groupIds.subList(from, Math.min(from + chunkSize, groupIds.size()));
+                chunks.add(pool.submit(() -> {
+                    for (Long groupId : chunk) {
+                        try {
+                            rows.addAndGet(monthlyRollupService.rebuild(groupId));
+                        } catch (RuntimeException e) {
+                            failed.incrementAndGet();
+                            log.warn("Rollup backfill failed for group {}", groupId, e);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> chunk : chunks) {
+                try {
+                    chunk.get();
+                } catch (ExecutionException e) {
+                    log.warn("Rollup backfill chunk failed", e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        log.info("Backfilled rollups for {} group(s), {} row(s) written, {} failed",
+                groupIds.size(), rows.get(), failed.get());
+        return failed.get();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.expensesplitter.job;
+
+import com.example.expensesplitter.service.RecurringExpenseService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Materializes due recurring expenses every app.recurring-interval-ms. Safe to run on every
+ * instance: RecurringExpenseService claims rows before writing them.
+ */
+@Component
+public class RecurringExpenseJob {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringExpenseJob.class);
+
+    private final RecurringExpenseService recurringExpenseService;
+
+    public RecurringExpenseJob(RecurringExpenseService recurringExpenseService) {
+        this.recurringExpenseService = recurringExpenseService;
+    }
+
+    @Scheduled(initialDelayString = "${app.recurring-interval-ms:60000}",
+            fixedDelayString = "${app.recurring-interval-ms:60000}")
+    public void materialize() {
+        try {
+            recurringExpenseService.materializeDue();
+        } catch (Exception e) {
+            log.warn("Recurring expense run failed: {}", e.getMessage());
+        }
+    }
+}
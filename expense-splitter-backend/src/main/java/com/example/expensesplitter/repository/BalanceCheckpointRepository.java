@@ -0,0 +1,14 @@
+package com.example.expensesplitter.repository;
+
+import com.example.expensesplitter.entity.BalanceCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpoint, Long> {
+
+    @Query("select c from BalanceCheckpoint c left join fetch c.entries where c.group.id = :groupId")
+    Optional<BalanceCheckpoint> findByGroupIdWithEntries(@Param("groupId") Long groupId);
+}
@@ -0,0 +1,16 @@
+package com.example.expensesplitter.repository;
+
+import com.example.expensesplitter.entity.ExpenseItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ExpenseItemRepository extends JpaRepository<ExpenseItem, Long> {
+
+    // Line items of several ITEMIZED expenses, in expense and line order
+    @Query("select i from ExpenseItem i where i.expense.id in :expenseIds order by i.expense.id, i.lineNo")
+    List<ExpenseItem> findByExpenseIdIn(@Param("expenseIds") Collection<Long> expenseIds);
+}
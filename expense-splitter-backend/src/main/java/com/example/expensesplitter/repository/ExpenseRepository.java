@@ -1,10 +1,80 @@
 package com.example.expensesplitter.repository;
 
 import com.example.expensesplitter.entity.Expense;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     List<Expense> findByGroupId(Long groupId);
-}
 
+    // First page of a group's expenses, newest first (idx_expenses_group_created_id)
+    @Query("select e.id as id, e.group.id as groupId, e.createdBy.id as createdById, e.payer.id as payerId, " +
+            "e.amount as amount, e.currency as currency, e.splitType as splitType, e.note as note, " +
+            "e.createdAt as createdAt from Expense e where e.group.id = :groupId " +
+            "order by e.createdAt desc, e.id desc")
+    List<ExpenseRow> findPage(@Param("groupId") Long groupId, Limit limit);
+
+    // Page after the cursor row (createdAt, id): a range seek, so the cost does not depend on page depth
+    @Query("select e.id as id, e.group.id as groupId, e.createdBy.id as createdById, e.payer.id as payerId, " +
+            "e.amount as amount, e.currency as currency, e.splitType as splitType, e.note as note, " +
+            "e.createdAt as createdAt from Expense e where e.group.id = :groupId " +
+            "and (e.createdAt < :createdAt or (e.createdAt = :createdAt and e.id < :id)) " +
+            "order by e.createdAt desc, e.id desc")
+    List<ExpenseRow> findPageAfter(@Param("groupId") Long groupId,
+                                   @Param("createdAt") Instant createdAt,
+                                   @Param("id") long id,
+                                   Limit limit);
+
+    @Query("select e.id as id, e.group.id as groupId, e.createdBy.id as createdById, e.payer.id as payerId, " +
+            "e.amount as amount, e.currency as currency, e.splitType as splitType, e.note as note, " +
+            "e.createdAt as createdAt from Expense e where e.id in :ids")
+    List<ExpenseRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Expenses written at group versions in (since, upTo], oldest first (idx_expenses_group_version)
+    @Query("select e.id as id, e.group.id as groupId, e.createdBy.id as createdById, e.payer.id as payerId, " +
+            "e.amount as amount, e.currency as currency, e.splitType as splitType, e.note as note, " +
+            "e.createdAt as createdAt from Expense e where e.group.id = :groupId " +
+            "and e.groupVersion > :since and e.groupVersion <= :upTo order by e.groupVersion, e.id")
+    List<ExpenseRow> findWrittenBetweenVersions(@Param("groupId") Long groupId,
+                                                @Param("since") long since,
+                                                @Param("upTo") long upTo,
+                                                Limit limit);
+
+    // Total paid per payer and currency in a group, for expenses written at group versions in (after, upTo]
+    @Query("select e.payer.id as userId, e.currency as currency, sum(e.amount) as total from Expense e " +
+            "where e.group.id = :groupId and e.groupVersion > :after and e.groupVersion <= :upTo " +
+            "group by e.payer.id, e.currency")
+    List<UserAmountTotal> sumPaidByPayer(@Param("groupId") Long groupId,
+                                         @Param("after") long afterVersion,
+                                         @Param("upTo") long upToVersion);
+
+    // Expenses per group that are newer than the group's balance checkpoint
+    @Query("select e.group.id as groupId, count(e) as total from Expense e " +
+            "where e.groupVersion > coalesce((select c.lastGroupVersion from BalanceCheckpoint c " +
+            "where c.group.id = e.group.id), 0) group by e.group.id")
+    List<GroupRowCount> countAfterCheckpointByGroup();
+
+    // Total paid by one user, per group and currency
+    @Query("select e.group.id as groupId, e.currency as currency, sum(e.amount) as total from Expense e " +
+            "where e.payer.id = :userId group by e.group.id, e.currency")
+    List<GroupCurrencyTotal> sumPaidByGroupForUser(@Param("userId") Long userId);
+
+    // Per-expense payer movements of a group (timeline build)
+    @Query("select e.createdAt as createdAt, e.payer.id as userId, e.currency as currency, e.amount as amount " +
+            "from Expense e where e.group.id = :groupId")
+    List<UserAmountAt> findPaidMovements(@Param("groupId") Long groupId);
+
+    // Total paid per payer and currency for expenses created in [from, to]
+    @Query("select e.payer.id as userId, e.currency as currency, sum(e.amount) as total from Expense e " +
+            "where e.group.id = :groupId and e.createdAt >= :from and e.createdAt <= :to " +
+            "group by e.payer.id, e.currency")
+    List<UserAmountTotal> sumPaidByPayerBetween(@Param("groupId") Long groupId,
+                                                @Param("from") Instant from,
+                                                @Param("to") Instant to);
+}
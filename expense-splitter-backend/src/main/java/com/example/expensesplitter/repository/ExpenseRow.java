@@ -0,0 +1,19 @@
+package com.example.expensesplitter.repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Projection for expense listing: the expense columns ExpenseDto needs, with associations as ids.
+ */
+public interface ExpenseRow {
+    Long getId();
+    Long getGroupId();
+    Long getCreatedById();
+    Long getPayerId();
+    BigDecimal getAmount();
+    String getCurrency();
+    String getSplitType();
+    String getNote();
+    Instant getCreatedAt();
+}
@@ -2,9 +2,45 @@ package com.example.expensesplitter.repository;
 
 import com.example.expensesplitter.entity.ExpenseShare;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface ExpenseShareRepository extends JpaRepository<ExpenseShare, Long> {
     List<ExpenseShare> findByExpenseId(Long expenseId);
-}
 
+    // Shares of a page of expenses in one query
+    @Query("select s.expense.id as expenseId, s.user.id as userId, s.shareAmount as shareAmount, " +
+            "s.isSettled as settled from ExpenseShare s where s.expense.id in :expenseIds order by s.id")
+    List<ShareRow> findRowsByExpenseIdIn(@Param("expenseIds") Collection<Long> expenseIds);
+
+    // Total owed per share holder and currency in a group, for expenses written at group versions in (after, upTo]
+    @Query("select s.user.id as userId, e.currency as currency, sum(s.shareAmount) as total " +
+            "from ExpenseShare s join s.expense e where e.group.id = :groupId " +
+            "and e.groupVersion > :after and e.groupVersion <= :upTo group by s.user.id, e.currency")
+    List<UserAmountTotal> sumOwedByUser(@Param("groupId") Long groupId,
+                                        @Param("after") long afterVersion,
+                                        @Param("upTo") long upToVersion);
+
+    // Total owed by one user, per group and currency
+    @Query("select e.group.id as groupId, e.currency as currency, sum(s.shareAmount) as total " +
+            "from ExpenseShare s join s.expense e " +
+            "where s.user.id = :userId group by e.group.id, e.currency")
+    List<GroupCurrencyTotal> sumOwedByGroupForUser(@Param("userId") Long userId);
+
+    // Per-share movements of a group, stamped with the expense time (timeline build)
+    @Query("select e.createdAt as createdAt, s.user.id as userId, e.currency as currency, s.shareAmount as amount " +
+            "from ExpenseShare s join s.expense e where e.group.id = :groupId")
+    List<UserAmountAt> findOwedMovements(@Param("groupId") Long groupId);
+
+    // Total owed per share holder and currency for expenses created in [from, to]
+    @Query("select s.user.id as userId, e.currency as currency, sum(s.shareAmount) as total " +
+            "from ExpenseShare s join s.expense e " +
+            "where e.group.id = :groupId and e.createdAt >= :from and e.createdAt <= :to group by s.user.id, e.currency")
+    List<UserAmountTotal> sumOwedByUserBetween(@Param("groupId") Long groupId,
+                                               @Param("from") Instant from,
+                                               @Param("to") Instant to);
+}
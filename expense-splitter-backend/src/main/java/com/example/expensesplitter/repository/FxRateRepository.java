@@ -0,0 +1,7 @@
+package com.example.expensesplitter.repository;
+
+import com.example.expensesplitter.entity.FxRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface FxRateRepository extends JpaRepository<FxRate, Long> {
+}
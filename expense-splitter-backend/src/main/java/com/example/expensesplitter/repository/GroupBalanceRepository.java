@@ -0,0 +1,28 @@
+package com.example.expensesplitter.repository;
+
+import com.example.expensesplitter.entity.GroupBalance;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface GroupBalanceRepository extends JpaRepository<GroupBalance, Long> {
+
+    // One indexed read of the projection, with user names for BalanceDto
+    @Query("select b from GroupBalance b join fetch b.user u where b.group.id = :groupId order by u.id, b.currency")
+    List<GroupBalance> findByGroupIdWithUser(@Param("groupId") Long groupId);
+
+    List<GroupBalance> findByGroup_Id(Long groupId);
+
+    // Rows about to be incremented, locked in ascending user id order (avoids lock-order deadlocks).
+    // Missing (user, currency) rows are simply absent from the result.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from GroupBalance b where b.group.id = :groupId and b.currency = :currency " +
+            "and b.user.id in :userIds order by b.user.id")
+    List<GroupBalance> lockRows(@Param("groupId") Long groupId, @Param("currency") String currency,
+                                @Param("userIds") Collection<Long> userIds);
+}
@@ -0,0 +1,12 @@
+package com.example.expensesplitter.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection for GROUP BY (group, currency) aggregate queries.
+ */
+public interface GroupCurrencyTotal {
+    Long getGroupId();
+    String getCurrency();
+    BigDecimal getTotal();
+}
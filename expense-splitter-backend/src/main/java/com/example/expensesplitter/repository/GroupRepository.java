@@ -1,8 +1,36 @@
 package com.example.expensesplitter.repository;
 
 import com.example.expensesplitter.entity.Group;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface GroupRepository extends JpaRepository<Group, Long> {
-}
 
+    // Called in the transaction of every ledger or membership write of the group
+    @Modifying
+    @Query("update Group g set g.version = g.version + 1 where g.id = :groupId")
+    int bumpVersion(@Param("groupId") Long groupId);
+
+    // The row lock bumpVersion takes, for work that must not interleave with the group's writers
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select g from Group g where g.id = :groupId")
+    Optional<Group> lockById(@Param("groupId") Long groupId);
+
+    @Query("select g.version from Group g where g.id = :groupId")
+    long findVersion(@Param("groupId") Long groupId);
+
+    // The group's version if the user is a member (null otherwise): one primary-key lookup
+    @Query("select g.version from Group g where g.id = :groupId and exists " +
+            "(select m.id from Membership m where m.group.id = :groupId and m.user.id = :userId)")
+    Long findVersionForMember(@Param("groupId") Long groupId, @Param("userId") Long userId);
+
+    @Query("select g.id from Group g order by g.id")
+    List<Long> findAllIds();
+}
@@ -0,0 +1,9 @@
+package com.example.expensesplitter.repository;
+
+/**
+ * Projection for GROUP BY group count queries.
+ */
+public interface GroupRowCount {
+    Long getGroupId();
+    Long getTotal();
+}
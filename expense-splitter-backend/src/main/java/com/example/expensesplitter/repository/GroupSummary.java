@@ -0,0 +1,10 @@
+package com.example.expensesplitter.repository;
+
+/**
+ * Projection of a group's id, name and base currency (null = app.default-currency).
+ */
+public interface GroupSummary {
+    Long getGroupId();
+    String getGroupName();
+    String getBaseCurrency();
+}
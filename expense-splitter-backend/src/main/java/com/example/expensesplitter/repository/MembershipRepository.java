@@ -3,8 +3,12 @@ package com.example.expensesplitter.repository;
 import com.example.expensesplitter.entity.Membership;
 import com.example.expensesplitter.entity.User;
 import com.example.expensesplitter.entity.Group;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,5 +23,30 @@ public interface MembershipRepository extends JpaRepository<Membership, Long> {
 
     // ✅ New method: fetch all memberships by group id
     List<Membership> findByGroup_Id(Long groupId);
-}
 
+    // Members of a group with their users in one query (write paths that need the User entities)
+    @Query("select m from Membership m join fetch m.user where m.group.id = :groupId")
+    List<Membership> findByGroupIdWithUser(@Param("groupId") Long groupId);
+
+    boolean existsByGroup_IdAndUser_Id(Long groupId, Long userId);
+
+    // Memberships written at group versions in (since, upTo], users fetched, oldest first
+    @Query("select m from Membership m join fetch m.user where m.group.id = :groupId " +
+            "and m.groupVersion > :since and m.groupVersion <= :upTo order by m.groupVersion, m.id")
+    List<Membership> findWrittenBetweenVersions(@Param("groupId") Long groupId,
+                                                @Param("since") long since,
+                                                @Param("upTo") long upTo,
+                                                Limit limit);
+
+    @Query("select m.user.id from Membership m where m.group.id = :groupId")
+    List<Long> findUserIdsByGroupId(@Param("groupId") Long groupId);
+
+    // [groupId, userId] pairs for several groups in one query
+    @Query("select m.group.id, m.user.id from Membership m where m.group.id in :groupIds")
+    List<Object[]> findGroupAndUserIds(@Param("groupIds") Collection<Long> groupIds);
+
+    @Query("select g.id as groupId, g.name as groupName, g.baseCurrency as baseCurrency " +
+            "from Membership m join m.group g " +
+            "where m.user.id = :userId order by g.id")
+    List<GroupSummary> findGroupSummariesByUserId(@Param("userId") Long userId);
+}
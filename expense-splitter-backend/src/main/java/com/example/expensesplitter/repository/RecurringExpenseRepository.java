@@ -0,0 +1,19 @@
+package com.example.expensesplitter.repository;
+
+import com.example.expensesplitter.entity.RecurringExpense;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface RecurringExpenseRepository extends JpaRepository<RecurringExpense, Long> {
+
+    List<RecurringExpense> findByGroupIdOrderByIdAsc(Long groupId);
+
+    // Bulk update, so the scheduler-owned columns are left alone
+    @Modifying
+    @Query("update RecurringExpense r set r.active = false where r.id = :id and r.groupId = :groupId")
+    int deactivate(@Param("groupId") Long groupId, @Param("id") Long id);
+}
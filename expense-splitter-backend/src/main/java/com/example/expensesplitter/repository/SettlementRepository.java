@@ -1,11 +1,81 @@
 package com.example.expensesplitter.repository;
 
 import com.example.expensesplitter.entity.Settlement;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 
 public interface SettlementRepository extends JpaRepository<Settlement, Long> {
     List<Settlement> findByGroup_Id(Long groupId);
-}
 
+    // Settlements written at group versions in (since, upTo], users fetched, oldest first
+    @Query("select s from Settlement s join fetch s.fromUser join fetch s.toUser join fetch s.recordedBy " +
+            "where s.group.id = :groupId and s.groupVersion > :since and s.groupVersion <= :upTo " +
+            "order by s.groupVersion, s.id")
+    List<Settlement> findWrittenBetweenVersions(@Param("groupId") Long groupId,
+                                                @Param("since") long since,
+                                                @Param("upTo") long upTo,
+                                                Limit limit);
+
+    // Total paid out per user (from side) and currency in a group, for settlements written at group versions in (after, upTo]
+    @Query("select s.fromUser.id as userId, s.currency as currency, sum(s.amount) as total from Settlement s " +
+            "where s.group.id = :groupId and s.groupVersion > :after and s.groupVersion <= :upTo " +
+            "group by s.fromUser.id, s.currency")
+    List<UserAmountTotal> sumPaidOutByUser(@Param("groupId") Long groupId,
+                                           @Param("after") long afterVersion,
+                                           @Param("upTo") long upToVersion);
+
+    // Total received per user (to side) and currency in a group, for settlements written at group versions in (after, upTo]
+    @Query("select s.toUser.id as userId, s.currency as currency, sum(s.amount) as total from Settlement s " +
+            "where s.group.id = :groupId and s.groupVersion > :after and s.groupVersion <= :upTo " +
+            "group by s.toUser.id, s.currency")
+    List<UserAmountTotal> sumReceivedByUser(@Param("groupId") Long groupId,
+                                            @Param("after") long afterVersion,
+                                            @Param("upTo") long upToVersion);
+
+    // Settlements per group that are newer than the group's balance checkpoint
+    @Query("select s.group.id as groupId, count(s) as total from Settlement s " +
+            "where s.groupVersion > coalesce((select c.lastGroupVersion from BalanceCheckpoint c " +
+            "where c.group.id = s.group.id), 0) group by s.group.id")
+    List<GroupRowCount> countAfterCheckpointByGroup();
+
+    // Total paid out by one user, per group and currency
+    @Query("select s.group.id as groupId, s.currency as currency, sum(s.amount) as total from Settlement s " +
+            "where s.fromUser.id = :userId group by s.group.id, s.currency")
+    List<GroupCurrencyTotal> sumPaidOutByGroupForUser(@Param("userId") Long userId);
+
+    // Total received by one user, per group and currency
+    @Query("select s.group.id as groupId, s.currency as currency, sum(s.amount) as total from Settlement s " +
+            "where s.toUser.id = :userId group by s.group.id, s.currency")
+    List<GroupCurrencyTotal> sumReceivedByGroupForUser(@Param("userId") Long userId);
+
+    // Per-settlement movements of a group, from side (timeline build)
+    @Query("select s.createdAt as createdAt, s.fromUser.id as userId, s.currency as currency, s.amount as amount " +
+            "from Settlement s where s.group.id = :groupId")
+    List<UserAmountAt> findPaidOutMovements(@Param("groupId") Long groupId);
+
+    // Per-settlement movements of a group, to side (timeline build)
+    @Query("select s.createdAt as createdAt, s.toUser.id as userId, s.currency as currency, s.amount as amount " +
+            "from Settlement s where s.group.id = :groupId")
+    List<UserAmountAt> findReceivedMovements(@Param("groupId") Long groupId);
+
+    // Total paid out per user and currency for settlements created in [from, to]
+    @Query("select s.fromUser.id as userId, s.currency as currency, sum(s.amount) as total from Settlement s " +
+            "where s.group.id = :groupId and s.createdAt >= :from and s.createdAt <= :to " +
+            "group by s.fromUser.id, s.currency")
+    List<UserAmountTotal> sumPaidOutByUserBetween(@Param("groupId") Long groupId,
+                                                  @Param("from") Instant from,
+                                                  @Param("to") Instant to);
+
+    // Total received per user and currency for settlements created in [from, to]
+    @Query("select s.toUser.id as userId, s.currency as currency, sum(s.amount) as total from Settlement s " +
+            "where s.group.id = :groupId and s.createdAt >= :from and s.createdAt <= :to " +
+            "group by s.toUser.id, s.currency")
+    List<UserAmountTotal> sumReceivedByUserBetween(@Param("groupId") Long groupId,
+                                                   @Param("from") Instant from,
+                                                   @Param("to") Instant to);
+}
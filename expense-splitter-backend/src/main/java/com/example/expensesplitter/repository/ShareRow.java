@@ -0,0 +1,13 @@
+package com.example.expensesplitter.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection for expense listing: one share as ExpenseDto.ShareDto needs it.
+ */
+public interface ShareRow {
+    Long getExpenseId();
+    Long getUserId();
+    BigDecimal getShareAmount();
+    Boolean getSettled();
+}
@@ -0,0 +1,14 @@
+package com.example.expensesplitter.repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Projection of a single ledger movement: who, how much, in which currency, when.
+ */
+public interface UserAmountAt {
+    Instant getCreatedAt();
+    Long getUserId();
+    String getCurrency();
+    BigDecimal getAmount();
+}
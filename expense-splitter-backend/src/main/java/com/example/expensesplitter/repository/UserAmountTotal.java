@@ -0,0 +1,12 @@
+package com.example.expensesplitter.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection for GROUP BY (user, currency) aggregate queries: one summed amount per user and currency.
+ */
+public interface UserAmountTotal {
+    Long getUserId();
+    String getCurrency();
+    BigDecimal getTotal();
+}
@@ -1,7 +1,6 @@
 package com.example.expensesplitter.security;
 
 import com.example.expensesplitter.entity.User;
-import com.example.expensesplitter.repository.UserRepository;
 import org.springframework.core.MethodParameter;
 import org.springframework.lang.NonNull;
 import org.springframework.security.core.Authentication;
@@ -10,20 +9,15 @@ import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.ModelAndViewContainer;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.context.request.NativeWebRequest;
-import org.springframework.web.context.request.WebRequest;
-import org.springframework.web.context.request.ServletWebRequest;
 
-import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
 
-import java.util.Optional;
-
 public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
 
-    private final UserRepository userRepository;
+    private final UserCache userCache;
 
-    public CurrentUserArgumentResolver(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public CurrentUserArgumentResolver(UserCache userCache) {
+        this.userCache = userCache;
     }
 
     @Override
@@ -43,16 +37,13 @@ public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolve
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthenticated");
         }
 
-        // our Jwt filter placed subject (email) as principal (see JwtAuthenticationFilter)
-        Object principal = auth.getPrincipal();
-        if (principal == null) {
+        // our Jwt filter places a JwtPrincipal built from the token claims (see JwtAuthenticationFilter)
+        if (!(auth.getPrincipal() instanceof JwtPrincipal principal)) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthenticated");
         }
 
-        String email = principal.toString();
-
-        Optional<User> userOpt = userRepository.findByEmail(email);
-        return userOpt.orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found"));
+        return userCache.get(principal.userId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found"));
     }
 }
 
@@ -20,6 +20,7 @@ import java.util.Collections;
 /**
  * Reads Authorization: Bearer <token>, validates it using JwtUtil,
  * and sets an Authentication in the SecurityContext on success.
+ * The principal is a JwtPrincipal built from the claims; no database access here.
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -44,17 +45,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 try {
                     Jws<Claims> parsed = jwtUtil.validateAndParse(token);
                     Claims claims = parsed.getBody();
-                    String subject = claims.getSubject(); // usually email
-                    // you can also read custom claims like userId, name
+                    // every token we issue carries userId and name next to the email subject
                     Object userId = claims.get("userId");
-                    Object name = claims.get("name");
+                    if (userId instanceof Number id) {
+                        JwtPrincipal principal =
+                                new JwtPrincipal(id.longValue(), claims.getSubject(), claims.get("name", String.class));
 
-                    // Build an Authentication. We keep authorities empty for now.
-                    UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(subject, null, Collections.emptyList());
+                        // Build an Authentication. We keep authorities empty for now.
+                        UsernamePasswordAuthenticationToken authentication =
+                                new UsernamePasswordAuthenticationToken(principal, null, Collections.emptyList());
 
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                    } else {
+                        logger.debug("JWT without a userId claim");
+                    }
 
                 } catch (JwtException ex) {
                     // token invalid/expired -> do not set authentication
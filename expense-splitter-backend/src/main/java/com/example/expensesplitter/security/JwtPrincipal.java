@@ -0,0 +1,15 @@
+package com.example.expensesplitter.security;
+
+import java.security.Principal;
+
+/**
+ * The authenticated caller as stated by the claims of a validated token. getName() is the email
+ * (the token subject), so Authentication.getName() keeps returning what it did before.
+ */
+public record JwtPrincipal(long userId, String email, String name) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.expensesplitter.security;
+
+import com.example.expensesplitter.config.AppProperties;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.repository.UserRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Users resolved for @CurrentUser, by id: a bounded LRU whose entries expire after a TTL.
+ *
+ * Entries are immutable snapshots of what @CurrentUser callers read (id, name, email, createdAt);
+ * the password hash is never kept. Every hit returns a new, detached User, so requests never
+ * share an instance. Changes to a user on this instance evict it (UserCacheInvalidator); on
+ * other instances the TTL bounds how long an old name or email can be seen.
+ */
+@Component
+public class UserCache {
+
+    private record Entry(Long id, String name, String email, Instant createdAt, long expiresAtMs) {}
+
+    private final UserRepository userRepository;
+    private final AppProperties appProperties;
+    private final Map<Long, Entry> users;
+
+    public UserCache(UserRepository userRepository, AppProperties appProperties) {
+        this.userRepository = userRepository;
+        this.appProperties = appProperties;
+        int maxEntries = Math.max(1, appProperties.getUserCacheSize());
+        this.users = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public Optional<User> get(long userId) {
+        Entry e = cached(userId);
+        if (e == null) {
+            Optional<User> loaded = userRepository.findById(userId);
+            if (loaded.isEmpty()) return loaded;
+            e = remember(loaded.get());
+        }
+        User u = new User();
+        u.setId(e.id());
+        u.setName(e.name());
+        u.setEmail(e.email());
+        u.setCreatedAt(e.createdAt());
+        return Optional.of(u);
+    }
+
+    public synchronized void evict(Long userId) {
+        users.remove(userId);
+    }
+
+    private synchronized Entry cached(long userId) {
+        Entry e = users.get(userId);
+        if (e != null && e.expiresAtMs() < System.currentTimeMillis()) {
+            users.remove(userId);
+            return null;
+        }
+        return e;
+    }
+
+    private Entry remember(User u) {
+        Entry e = new Entry(u.getId(), u.getName(), u.getEmail(), u.getCreatedAt(),
+                System.currentTimeMillis() + appProperties.getUserCacheTtlMs());
+        if (appProperties.getUserCacheTtlMs() > 0) {
+            synchronized (this) {
+                users.put(u.getId(), e);
+            }
+        }
+        return e;
+    }
+}
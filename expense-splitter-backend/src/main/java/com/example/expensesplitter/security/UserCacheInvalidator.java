@@ -0,0 +1,39 @@
+package com.example.expensesplitter.security;
+
+import com.example.expensesplitter.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on User: drops changed or deleted users from the UserCache. Hibernate gets the
+ * instance from Spring while the EntityManagerFactory is built, so the cache (which needs a
+ * repository, hence that factory) is looked up on first use. The entry is dropped again after
+ * the transaction completes, in case a concurrent request reloaded the old row in between.
+ */
+public class UserCacheInvalidator {
+
+    private final ObjectProvider<UserCache> userCache;
+
+    public UserCacheInvalidator(ObjectProvider<UserCache> userCache) {
+        this.userCache = userCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void changed(User user) {
+        Long id = user.getId();
+        UserCache cache = userCache.getObject();
+        cache.evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(id);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.expensesplitter.service;
+
+import com.example.expensesplitter.entity.BalanceCheckpoint;
+import com.example.expensesplitter.entity.BalanceCheckpointEntry;
+import com.example.expensesplitter.repository.BalanceCheckpointRepository;
+import com.example.expensesplitter.repository.ExpenseRepository;
+import com.example.expensesplitter.repository.GroupRepository;
+import com.example.expensesplitter.repository.GroupRowCount;
+import com.example.expensesplitter.repository.SettlementRepository;
+import com.example.expensesplitter.repository.UserRepository;
+import com.example.expensesplitter.util.CentsLedger;
+import com.example.expensesplitter.util.CurrencyLedger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Rolls per-group balance checkpoints forward.
+ *
+ * The high-water mark is the group version, not an id or created_at: writers bump the
+ * group row (GroupBalanceService.nextVersion) before inserting and hold its lock until
+ * commit, so once version v is committed every row stamped <= v is committed too, and an
+ * expense or settlement still in flight can never fall below the mark and be skipped.
+ */
+@Service
+public class BalanceCheckpointService {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceCheckpointService.class);
+
+    private final BalanceCheckpointRepository balanceCheckpointRepository;
+    private final ExpenseRepository expenseRepository;
+    private final SettlementRepository settlementRepository;
+    private final GroupRepository groupRepository;
+    private final UserRepository userRepository;
+    private final GroupBalanceService groupBalanceService;
+
+    public BalanceCheckpointService(BalanceCheckpointRepository balanceCheckpointRepository,
+                                    ExpenseRepository expenseRepository,
+                                    SettlementRepository settlementRepository,
+                                    GroupRepository groupRepository,
+                                    UserRepository userRepository,
+                                    GroupBalanceService groupBalanceService) {
+        this.balanceCheckpointRepository = balanceCheckpointRepository;
+        this.expenseRepository = expenseRepository;
+        this.settlementRepository = settlementRepository;
+        this.groupRepository = groupRepository;
+        this.userRepository = userRepository;
+        this.groupBalanceService = groupBalanceService;
+    }
+
+    /**
+     * Groups that accumulated at least `threshold` expenses + settlements since their checkpoint.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findGroupsDueForCheckpoint(int threshold) {
+        Map<Long, Long> newRows = new HashMap<>();
+        for (GroupRowCount c : expenseRepository.countAfterCheckpointByGroup()) {
+            newRows.merge(c.getGroupId(), c.getTotal(), Long::sum);
+        }
+        for (GroupRowCount c : settlementRepository.countAfterCheckpointByGroup()) {
+            newRows.merge(c.getGroupId(), c.getTotal(), Long::sum);
+        }
+        List<Long> due = new ArrayList<>();
+        newRows.forEach((groupId, count) -> {
+            if (count >= threshold) due.add(groupId);
+        });
+        Collections.sort(due);
+        return due;
+    }
+
+    /**
+     * Move the group's checkpoint up to the group's committed version.
+     * Returns false when there was nothing new to fold.
+     */
+    @Transactional
+    public boolean rollForward(Long groupId) {
+        BalanceCheckpoint checkpoint = balanceCheckpointRepository.findByGroupIdWithEntries(groupId).orElse(null);
+        long fromVersion = checkpoint == null ? 0L : checkpoint.getLastGroupVersion();
+        long toVersion = groupRepository.findVersion(groupId);
+        if (toVersion <= fromVersion) {
+            return false;
+        }
+
+        // currency -> userId -> entry
+        Map<String, Map<Long, BalanceCheckpointEntry>> entries = new HashMap<>();
+        CurrencyLedger ledger = new CurrencyLedger();
+        if (checkpoint == null) {
+            checkpoint = new BalanceCheckpoint();
+            checkpoint.setGroup(groupRepository.getReferenceById(groupId));
+        } else {
+            for (BalanceCheckpointEntry e : checkpoint.getEntries()) {
+                entries.computeIfAbsent(e.getCurrency(), c -> new HashMap<>()).put(e.getUser().getId(), e);
+                ledger.credit(e.getCurrency(), e.getUser().getId(), e.getNetCents());
+            }
+        }
+
+        groupBalanceService.foldRange(ledger, groupId, fromVersion, toVersion);
+
+        // update entries in place (delete + re-insert would trip the unique key at flush time)
+        for (Map.Entry<String, CentsLedger> bucket : ledger.buckets().entrySet()) {
+            String currency = bucket.getKey();
+            Map<Long, BalanceCheckpointEntry> existing = entries.getOrDefault(currency, Map.of());
+            for (long uid : bucket.getValue().userIdsAscending()) {
+                long net = bucket.getValue().net(uid);
+                BalanceCheckpointEntry entry = existing.get(uid);
+                if (entry != null) {
+                    entry.setNetCents(net);
+                } else {
+                    checkpoint.addEntry(new BalanceCheckpointEntry(userRepository.getReferenceById(uid), currency, net));
+                }
+            }
+        }
+        checkpoint.setLastGroupVersion(toVersion);
+        checkpoint.setCreatedAt(Instant.now());
+        balanceCheckpointRepository.save(checkpoint);
+
+        log.debug("Checkpoint for group {} rolled to version {}", groupId, toVersion);
+        return true;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.expensesplitter.service;
+
+import com.example.expensesplitter.dto.BalanceDto;
+import com.example.expensesplitter.dto.DailyBalancesDto;
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.repository.ExpenseRepository;
+import com.example.expensesplitter.repository.ExpenseShareRepository;
+import com.example.expensesplitter.repository.GroupRepository;
+import com.example.expensesplitter.repository.SettlementRepository;
+import com.example.expensesplitter.repository.UserAmountAt;
+import com.example.expensesplitter.repository.UserAmountTotal;
+import com.example.expensesplitter.util.BalanceTimeline;
+import com.example.expensesplitter.util.CentsLedger;
+import com.example.expensesplitter.util.CurrencyLedger;
+import com.example.expensesplitter.util.SplitUtil;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Point-in-time balances and daily balance history of a group (UTC days).
+ *
+ * Both read cached {@link BalanceTimeline}s (prefix sums of daily per-user deltas, one per
+ * currency), built once per group from the (group_id, created_at) index and dropped whenever
+ * an expense or settlement is recorded. A balance as of an instant is the prefix at the end of
+ * the previous activity day plus one fold of that instant's own day, read as GROUP BY sums
+ * from the index.
+ */
+@Service
+public class BalanceHistoryService {
+
+    private final BalanceTimelineCache balanceTimelineCache;
+    private final GroupBalanceService groupBalanceService;
+    private final GroupRepository groupRepository;
+    private final GroupAccessService groupAccessService;
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseShareRepository expenseShareRepository;
+    private final SettlementRepository settlementRepository;
+
+    public BalanceHistoryService(BalanceTimelineCache balanceTimelineCache,
+                                 GroupBalanceService groupBalanceService,
+                                 GroupRepository groupRepository,
+                                 GroupAccessService groupAccessService,
+                                 ExpenseRepository expenseRepository,
+                                 ExpenseShareRepository expenseShareRepository,
+                                 SettlementRepository settlementRepository) {
+        this.balanceTimelineCache = balanceTimelineCache;
+        this.groupBalanceService = groupBalanceService;
+        this.groupRepository = groupRepository;
+        this.groupAccessService = groupAccessService;
+        this.expenseRepository = expenseRepository;
+        this.expenseShareRepository = expenseShareRepository;
+        this.settlementRepository = settlementRepository;
+    }
+
+    /**
+     * Net balance of every member as of the given instant (inclusive), ordered by user id
+     * then currency; with convert, one row per member in the group's base currency.
+     */
+    @Transactional(readOnly = true)
+    public List<BalanceDto> balancesAsOf(Long groupId, User requester, Instant asOf, boolean convert) {
+        groupAccessService.requireMember(groupId, requester);
+        Group group = groupRepository.getReferenceById(groupId);
+        Map<String, BalanceTimeline> timelines = timelines(groupId);
+        Map<Long, String> members = groupBalanceService.memberNames(groupBalanceService.readProjection(groupId));
+
+        LocalDate day = LocalDate.ofInstant(asOf, ZoneOffset.UTC);
+        Instant dayStart = day.atStartOfDay(ZoneOffset.UTC).toInstant();
+
+        // the asOf day itself, up to the instant
+        CurrencyLedger ledger = new CurrencyLedger();
+        for (UserAmountTotal t : expenseRepository.sumPaidByPayerBetween(groupId, dayStart, asOf)) {
+            ledger.credit(t.getCurrency(), t.getUserId(), SplitUtil.toCents(t.getTotal()));
+        }
+        for (UserAmountTotal t : expenseShareRepository.sumOwedByUserBetween(groupId, dayStart, asOf)) {
+            ledger.debit(t.getCurrency(), t.getUserId(), SplitUtil.toCents(t.getTotal()));
+        }
+        for (UserAmountTotal t : settlementRepository.sumPaidOutByUserBetween(groupId, dayStart, asOf)) {
+            ledger.credit(t.getCurrency(), t.getUserId(), SplitUtil.toCents(t.getTotal()));
+        }
+        for (UserAmountTotal t : settlementRepository.sumReceivedByUserBetween(groupId, dayStart, asOf)) {
+            ledger.debit(t.getCurrency(), t.getUserId(), SplitUtil.toCents(t.getTotal()));
+        }
+
+        // plus every earlier day, from the prefix sums
+        for (Map.Entry<String, BalanceTimeline> e : timelines.entrySet()) {
+            int before = e.getValue().lastDayBefore(day.toEpochDay());
+            if (before < 0) continue;
+            CentsLedger bucket = ledger.bucket(e.getKey());
+            for (Long uid : members.keySet()) {
+                bucket.credit(uid, e.getValue().netAtEndOfDay(uid, before));
+            }
+        }
+
+        String base = groupBalanceService.baseCurrency(group);
+        return groupBalanceService.toBalanceDtos(members, ledger, base, convert ? base : null);
+    }
+
+    /**
+     * End-of-day balances of every member for each day with activity in [from, to]
+     * (either bound may be null).
+     */
+    @Transactional(readOnly = true)
+    public List<DailyBalancesDto> dailyHistory(Long groupId, User requester, LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        groupAccessService.requireMember(groupId, requester);
+        Group group = groupRepository.getReferenceById(groupId);
+        Map<String, BalanceTimeline> timelines = timelines(groupId);
+        Map<Long, String> members = groupBalanceService.memberNames(groupBalanceService.readProjection(groupId));
+        String base = groupBalanceService.baseCurrency(group);
+
+        long fromDay = from == null ? Long.MIN_VALUE : from.toEpochDay();
+        long toDay = to == null ? Long.MAX_VALUE : to.toEpochDay();
+        TreeSet<Long> days = new TreeSet<>();
+        for (BalanceTimeline timeline : timelines.values()) {
+            for (int d = 0; d < timeline.dayCount(); d++) {
+                long epochDay = timeline.epochDay(d);
+                if (epochDay >= fromDay && epochDay <= toDay) days.add(epochDay);
+            }
+        }
+
+        List<DailyBalancesDto> result = new ArrayList<>(days.size());
+        for (long epochDay : days) {
+            CurrencyLedger ledger = new CurrencyLedger();
+            for (Map.Entry<String, BalanceTimeline> e : timelines.entrySet()) {
+                int idx = e.getValue().lastDayAtOrBefore(epochDay);
+                if (idx < 0) continue;
+                CentsLedger bucket = ledger.bucket(e.getKey());
+                for (Long uid : members.keySet()) {
+                    bucket.credit(uid, e.getValue().netAtEndOfDay(uid, idx));
+                }
+            }
+            result.add(new DailyBalancesDto(LocalDate.ofEpochDay(epochDay),
+                    groupBalanceService.toBalanceDtos(members, ledger, base, null)));
+        }
+        return result;
+    }
+
+    private Map<String, BalanceTimeline> timelines(Long groupId) {
+        return balanceTimelineCache.get(groupId, () -> buildTimelines(groupId));
+    }
+
+    private Map<String, BalanceTimeline> buildTimelines(Long groupId) {
+        Map<String, BalanceTimeline.Builder> builders = new TreeMap<>();
+        for (UserAmountAt m : expenseRepository.findPaidMovements(groupId)) {
+            builder(builders, m).add(epochDay(m), m.getUserId(), SplitUtil.toCents(m.getAmount()));
+        }
+        for (UserAmountAt m : expenseShareRepository.findOwedMovements(groupId)) {
+            builder(builders, m).add(epochDay(m), m.getUserId(), -SplitUtil.toCents(m.getAmount()));
+        }
+        for (UserAmountAt m : settlementRepository.findPaidOutMovements(groupId)) {
+            builder(builders, m).add(epochDay(m), m.getUserId(), SplitUtil.toCents(m.getAmount()));
+        }
+        for (UserAmountAt m : settlementRepository.findReceivedMovements(groupId)) {
+            builder(builders, m).add(epochDay(m), m.getUserId(), -SplitUtil.toCents(m.getAmount()));
+        }
+        Map<String, BalanceTimeline> timelines = new TreeMap<>();
+        builders.forEach((currency, builder) -> timelines.put(currency, builder.build()));
+        return Collections.unmodifiableMap(timelines);
+    }
+
+    private static BalanceTimeline.Builder builder(Map<String, BalanceTimeline.Builder> builders, UserAmountAt m) {
+        return builders.computeIfAbsent(m.getCurrency(), c -> BalanceTimeline.builder());
+    }
+
+    private static long epochDay(UserAmountAt m) {
+        return LocalDate.ofInstant(m.getCreatedAt(), ZoneOffset.UTC).toEpochDay();
+    }
+}
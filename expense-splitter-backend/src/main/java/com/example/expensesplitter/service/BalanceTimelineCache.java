@@ -0,0 +1,78 @@
+package com.example.expensesplitter.service;
+
+import com.example.expensesplitter.util.BalanceTimeline;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU of per-group balance timelines (currency -> timeline).
+ *
+ * Writers invalidate the group before and after their transaction commits. A build registers a
+ * token for its group and an invalidation of that group drops it; the reader only caches what it
+ * built if its token survived, so a build that raced a commit to the same group is served once
+ * but never cached, while writes to other groups do not stop it from being cached.
+ */
+@Component
+public class BalanceTimelineCache {
+
+    private static final int MAX_GROUPS = 256;
+
+    private final Map<Long, Map<String, BalanceTimeline>> timelines = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Map<String, BalanceTimeline>> eldest) {
+            return size() > MAX_GROUPS;
+        }
+    };
+    // groups with a build in progress -> token shared by those builds; only held while building
+    private final Map<Long, Object> building = new HashMap<>();
+
+    public Map<String, BalanceTimeline> get(Long groupId, Supplier<Map<String, BalanceTimeline>> loader) {
+        Object token;
+        synchronized (this) {
+            Map<String, BalanceTimeline> cached = timelines.get(groupId);
+            if (cached != null) return cached;
+            token = building.computeIfAbsent(groupId, k -> new Object());
+        }
+        Map<String, BalanceTimeline> built;
+        try {
+            built = loader.get();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                building.remove(groupId, token);
+            }
+            throw e;
+        }
+        synchronized (this) {
+            if (building.remove(groupId, token)) {
+                timelines.put(groupId, built);
+            }
+        }
+        return built;
+    }
+
+    /**
+     * Drop the cached timeline of a group; deferred to after commit when a transaction is active.
+     */
+    public void invalidate(Long groupId) {
+        evict(groupId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(groupId);
+                }
+            });
+        }
+    }
+
+    private synchronized void evict(Long groupId) {
+        timelines.remove(groupId);
+        building.remove(groupId);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.expensesplitter.service;
+
+import com.example.expensesplitter.util.IdBlocks;
+import com.example.expensesplitter.util.SplitUtil;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Inserts already validated expenses and their shares with one JDBC batch per table.
+ * Must run inside the caller's transaction; projection updates are the caller's job.
+ * Used by the bulk import and the recurring expense scheduler.
+ */
+@Component
+public class ExpenseBatchWriter {
+
+    private static final String INSERT_EXPENSE =
+            "INSERT INTO expenses (id, group_id, created_by, payer_id, amount, currency, split_type, note, created_at, " +
+            "group_version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_SHARE =
+            "INSERT INTO expense_shares (id, expense_id, user_id, share_amount, is_settled) VALUES (?, ?, ?, ?, FALSE)";
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    // One expense to insert; groupVersion comes from GroupBalanceService.nextVersion, allocationInCents is userId -> share
+    public record Row(long groupId, long groupVersion, long createdBy, long payerId, BigDecimal amount, String currency,
+                      String splitType, String note, Instant createdAt, Map<Long, Long> allocationInCents) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate idTransactionTemplate;
+
+    public ExpenseBatchWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.idTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Insert rows in order. Returns the id of the first expense; row i gets firstId + i.
+     */
+    public long write(List<Row> rows) {
+        if (rows.isEmpty()) return 0L;
+        // Ids come from the same id_blocks rows as the entities' PooledId generator
+        int shareCount = 0;
+        for (Row r : rows) shareCount += r.allocationInCents().size();
+        long firstExpenseId = reserveIds("expenses", rows.size());
+        long firstShareId = shareCount == 0 ? 0L : reserveIds("expense_shares", shareCount);
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            Calendar utc = Calendar.getInstance(UTC); // Instants are stored as UTC, like Hibernate does
+            try (PreparedStatement ps = con.prepareStatement(INSERT_EXPENSE)) {
+                long id = firstExpenseId;
+                for (Row r : rows) {
+                    ps.setLong(1, id++);
+                    ps.setLong(2, r.groupId());
+                    ps.setLong(3, r.createdBy());
+                    ps.setLong(4, r.payerId());
+                    ps.setBigDecimal(5, r.amount());
+                    ps.setString(6, r.currency());
+                    ps.setString(7, r.splitType());
+                    ps.setString(8, r.note());
+                    ps.setTimestamp(9, Timestamp.from(r.createdAt()), utc);
+                    ps.setLong(10, r.groupVersion());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            try (PreparedStatement ps = con.prepareStatement(INSERT_SHARE)) {
+                long shareId = firstShareId;
+                for (int i = 0; i < rows.size(); i++) {
+                    for (Map.Entry<Long, Long> share : rows.get(i).allocationInCents().entrySet()) {
+                        ps.setLong(1, shareId++);
+                        ps.setLong(2, firstExpenseId + i);
+                        ps.setLong(3, share.getKey());
+                        ps.setBigDecimal(4, SplitUtil.centsToBigDecimal(share.getValue()));
+                        ps.addBatch();
+                    }
+                }
+                ps.executeBatch();
+            }
+            return null;
+        });
+        return firstExpenseId;
+    }
+
+    // Reserved and committed on its own, so the id_blocks row is not locked for the whole batch
+    private long reserveIds(String name, int count) {
+        Long first = idTransactionTemplate.execute(status -> jdbcTemplate.execute(
+                (ConnectionCallback<Long>) con -> IdBlocks.reserve(con, name, count)));
+        return Objects.requireNonNull(first);
+    }
+}
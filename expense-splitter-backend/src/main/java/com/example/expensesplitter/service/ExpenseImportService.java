@@ -0,0 +1,318 @@
+package com.example.expensesplitter.service;
+
+import com.example.expensesplitter.config.AppProperties;
+import com.example.expensesplitter.dto.CreateExpenseRequest;
+import com.example.expensesplitter.dto.ExpenseImportRow;
+import com.example.expensesplitter.dto.ImportResultDto;
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.repository.GroupRepository;
+import com.example.expensesplitter.repository.MembershipRepository;
+import com.example.expensesplitter.util.CsvRecordReader;
+import com.example.expensesplitter.util.CurrencyLedger;
+import com.example.expensesplitter.util.MonthlyRollup;
+import com.example.expensesplitter.util.SplitUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Bulk expense import (CSV or NDJSON), for migrating whole groups at once.
+ *
+ * The body is read one line / record at a time. Every row is validated against one member
+ * set loaded up front and allocated with SplitUtil; valid rows are written in JDBC batches of
+ * app.import-batch-size expenses (plus their shares), each batch in its own transaction together
+ * with a single projection update per (currency, user). A bad row is reported with its line
+ * number and skipped; it never aborts the import.
+ */
+@Service
+public class ExpenseImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseImportService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    public enum Format { CSV, NDJSON }
+
+    private final GroupRepository groupRepository;
+    private final MembershipRepository membershipRepository;
+    private final ExpenseService expenseService;
+    private final GroupBalanceService groupBalanceService;
+    private final MonthlyRollupService monthlyRollupService;
+    private final ExpenseBatchWriter expenseBatchWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader rowReader;
+    private final AppProperties appProperties;
+
+    public ExpenseImportService(GroupRepository groupRepository,
+                                MembershipRepository membershipRepository,
+                                ExpenseService expenseService,
+                                GroupBalanceService groupBalanceService,
+                                MonthlyRollupService monthlyRollupService,
+                                ExpenseBatchWriter expenseBatchWriter,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                AppProperties appProperties) {
+        this.groupRepository = groupRepository;
+        this.membershipRepository = membershipRepository;
+        this.expenseService = expenseService;
+        this.groupBalanceService = groupBalanceService;
+        this.monthlyRollupService = monthlyRollupService;
+        this.expenseBatchWriter = expenseBatchWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rowReader = objectMapper.readerFor(ExpenseImportRow.class);
+        this.appProperties = appProperties;
+    }
+
+    // A validated row waiting for its batch
+    private record Pending(long line, Long payerId, BigDecimal amount, String currency, String splitType,
+                           String note, Instant createdAt, Map<Long, Long> allocationInCents) {}
+
+    public ImportResultDto importExpenses(Long groupId, User recorder, InputStream body, Format format)
+            throws IOException {
+        Group group = groupRepository.findById(groupId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Group not found"));
+        Set<Long> members = new LinkedHashSet<>(membershipRepository.findUserIdsByGroupId(groupId));
+        if (!members.contains(recorder.getId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not a member of this group");
+        }
+
+        int batchSize = Math.max(1, appProperties.getImportBatchSize());
+        ImportResultDto result = new ImportResultDto();
+        List<Pending> batch = new ArrayList<>(batchSize);
+        long started = System.nanoTime();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        if (format == Format.NDJSON) {
+            long lineNo = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) continue;
+                ExpenseImportRow row;
+                try {
+                    row = rowReader.readValue(line);
+                } catch (JsonProcessingException e) {
+                    addError(result, lineNo, "Malformed JSON: " + e.getOriginalMessage());
+                    continue;
+                }
+                accept(group, members, row, lineNo, batch, batchSize, recorder, result);
+            }
+        } else {
+            CsvRecordReader csv = new CsvRecordReader(reader);
+            String[] header = csv.next();
+            if (header == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Empty CSV");
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.length; i++) {
+                columns.put(header[i].trim().toLowerCase(Locale.ROOT), i);
+            }
+            String[] record;
+            while ((record = csv.next()) != null) {
+                ExpenseImportRow row;
+                try {
+                    row = fromCsv(columns, record);
+                } catch (RuntimeException e) {
+                    addError(result, csv.recordLine(), e.getMessage());
+                    continue;
+                }
+                accept(group, members, row, csv.recordLine(), batch, batchSize, recorder, result);
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(group, recorder.getId(), batch, result);
+        }
+
+        long elapsedNanos = Math.max(1L, System.nanoTime() - started);
+        result.setElapsedMs(elapsedNanos / 1_000_000L);
+        result.setRowsPerSecond(result.getImported() * 1_000_000_000L / elapsedNanos);
+        log.info("Imported {} expense(s) into group {} ({} failed) in {} ms, {} rows/s",
+                result.getImported(), groupId, result.getFailed(), result.getElapsedMs(), result.getRowsPerSecond());
+        return result;
+    }
+
+    private void accept(Group group, Set<Long> members, ExpenseImportRow row, long lineNo,
+                        List<Pending> batch, int batchSize, User recorder, ImportResultDto result) {
+        try {
+            batch.add(validate(group, members, row, lineNo));
+        } catch (ResponseStatusException e) {
+            addError(result, lineNo, e.getReason());
+            return;
+        } catch (RuntimeException e) {
+            addError(result, lineNo, e.getMessage());
+            return;
+        }
+        if (batch.size() >= batchSize) {
+            flush(group, recorder.getId(), batch, result);
+        }
+    }
+
+    // Same rules as ExpenseService.createExpense, against the cached member set
+    private Pending validate(Group group, Set<Long> members, ExpenseImportRow row, long lineNo) {
+        if (row.getPayerId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "PayerId is required");
+        }
+        if (!members.contains(row.getPayerId())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Payer is not a member of this group");
+        }
+        if (row.getAmount() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Amount is required");
+        }
+        BigDecimal amount = row.getAmount().setScale(2, RoundingMode.HALF_EVEN);
+        if (amount.signum() <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Amount must be greater than zero");
+        }
+        if (row.getNote() != null && row.getNote().length() > 1000) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Note must not exceed 1000 characters");
+        }
+        String currency = groupBalanceService.currencyFor(group, row.getCurrency());
+        if (currency.length() > 10) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Currency code must not exceed 10 characters");
+        }
+
+        String splitType = row.getSplitType() == null || row.getSplitType().isBlank()
+                ? "EQUAL" : row.getSplitType().trim().toUpperCase(Locale.ROOT);
+        long totalCents = SplitUtil.toCents(amount);
+        Map<Long, Long> allocation = expenseService.allocate(totalCents, splitType, row.getShares(), members);
+
+        return new Pending(lineNo, row.getPayerId(), amount, currency, splitType, row.getNote(),
+                row.getCreatedAt() == null ? Instant.now() : row.getCreatedAt(), allocation);
+    }
+
+    private void flush(Group group, Long recorderId, List<Pending> batch, ImportResultDto result) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeBatch(group, recorderId, batch));
+            result.setImported(result.getImported() + batch.size());
+        } catch (RuntimeException e) {
+            log.warn("Import batch for group {} failed: {}", group.getId(), e.getMessage());
+            for (Pending p : batch) {
+                addError(result, p.line(), "Batch write failed: " + e.getMessage());
+            }
+        }
+        batch.clear();
+    }
+
+    private void writeBatch(Group group, Long recorderId, List<Pending> batch) {
+        long version = groupBalanceService.nextVersion(group.getId());
+        List<ExpenseBatchWriter.Row> rows = new ArrayList<>(batch.size());
+        for (Pending p : batch) {
+            rows.add(new ExpenseBatchWriter.Row(group.getId(), version, recorderId, p.payerId(), p.amount(), p.currency(),
+                    p.splitType(), p.note(), p.createdAt(), p.allocationInCents()));
+        }
+        long firstExpenseId = expenseBatchWriter.write(rows);
+
+        CurrencyLedger deltas = new CurrencyLedger();
+        MonthlyRollup rollup = new MonthlyRollup();
+        for (Pending p : batch) {
+            deltas.bucket(p.currency()).expensePaid(p.payerId(), SplitUtil.toCents(p.amount()));
+            for (Map.Entry<Long, Long> share : p.allocationInCents().entrySet()) {
+                deltas.bucket(p.currency()).expenseShare(share.getKey(), share.getValue());
+            }
+            rollup.expense(p.createdAt(), p.currency(), p.splitType(), p.payerId(), SplitUtil.toCents(p.amount()),
+                    p.allocationInCents());
+        }
+        groupBalanceService.applyBatch(group, deltas);
+        monthlyRollupService.apply(group.getId(), rollup);
+        log.debug("Wrote import batch of {} expense(s) to group {}, ids {}..{}",
+                batch.size(), group.getId(), firstExpenseId, firstExpenseId + batch.size() - 1);
+    }
+
+    private ExpenseImportRow fromCsv(Map<String, Integer> columns, String[] record) {
+        ExpenseImportRow row = new ExpenseImportRow();
+        String payer = column(columns, record, "payerid");
+        row.setPayerId(payer == null ? null : parseLong(payer, "payerId"));
+        String amount = column(columns, record, "amount");
+        row.setAmount(amount == null ? null : parseDecimal(amount, "amount"));
+        row.setCurrency(column(columns, record, "currency"));
+        row.setSplitType(column(columns, record, "splittype"));
+        row.setNote(column(columns, record, "note"));
+        String createdAt = column(columns, record, "createdat");
+        if (createdAt != null) {
+            try {
+                row.setCreatedAt(Instant.parse(createdAt));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid createdAt (expected ISO-8601 instant): " + createdAt);
+            }
+        }
+        // shares: "userId:value;userId:value" - value is the percent (PERCENT), weight (SHARES) or amount (CUSTOM)
+        String shares = column(columns, record, "shares");
+        if (shares != null) {
+            String splitType = row.getSplitType() == null ? "" : row.getSplitType().trim();
+            boolean percent = "PERCENT".equalsIgnoreCase(splitType);
+            boolean weighted = "SHARES".equalsIgnoreCase(splitType);
+            List<CreateExpenseRequest.ShareLine> lines = new ArrayList<>();
+            for (String part : shares.split(";")) {
+                if (part.isBlank()) continue;
+                int colon = part.indexOf(':');
+                if (colon < 0) throw new IllegalArgumentException("Invalid share (expected userId:value): " + part);
+                CreateExpenseRequest.ShareLine sl = new CreateExpenseRequest.ShareLine();
+                sl.setUserId(parseLong(part.substring(0, colon).trim(), "share userId"));
+                String value = part.substring(colon + 1).trim();
+                if (weighted) sl.setWeight(parseInt(value, "share weight"));
+                else if (percent) sl.setPercent(parseDecimal(value, "share value"));
+                else sl.setAmount(parseDecimal(value, "share value"));
+                lines.add(sl);
+            }
+            row.setShares(lines);
+        }
+        return row;
+    }
+
+    private static String column(Map<String, Integer> columns, String[] record, String name) {
+        Integer i = columns.get(name);
+        if (i == null || i >= record.length) return null;
+        String v = record[i].trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    private static long parseLong(String v, String field) {
+        try {
+            return Long.parseLong(v);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + v);
+        }
+    }
+
+    private static int parseInt(String v, String field) {
+        try {
+            return Integer.parseInt(v);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + v);
+        }
+    }
+
+    private static BigDecimal parseDecimal(String v, String field) {
+        try {
+            return new BigDecimal(v);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + v);
+        }
+    }
+
+    private static void addError(ImportResultDto result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ImportResultDto.LineError(line, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.example.expensesplitter.service;
+
+import com.example.expensesplitter.config.AppProperties;
+import com.example.expensesplitter.dto.CreateExpenseRequest;
+import com.example.expensesplitter.dto.IngestMetricsDto;
+import com.example.expensesplitter.entity.Expense;
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.repository.ExpenseRepository;
+import com.example.expensesplitter.util.CurrencyLedger;
+import com.example.expensesplitter.util.MonthlyRollup;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind expense ingestion (app.ingest-enabled).
+ *
+ * Requests are queued on one of app.ingest-shards bounded queues, chosen by group id so a group's
+ * expenses stay in order and only one writer ever locks that group's projection rows. Each shard's
+ * writer drains up to app.ingest-max-batch requests (waiting at most app.ingest-max-wait-ms for the
+ * batch to fill), validates them with one group / member load per group, and commits the whole
+ * batch in a single transaction with one projection update per (group, currency, user).
+ *
+ * A request that fails validation fails alone. If the batch transaction itself fails, its requests
+ * are retried one by one through ExpenseService.createExpense. A full queue is a 429.
+ */
+@Service
+public class ExpenseIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseIngestService.class);
+
+    private static final int MAX_TICKETS = 10_000;
+
+    public record Ticket(String id, Long userId, Long groupId, CompletableFuture<Expense> result) {}
+
+    private record Job(Long groupId, User creator, CreateExpenseRequest req, CompletableFuture<Expense> result) {}
+
+    // 429 with a Retry-After header
+    private static final class QueueFullException extends ResponseStatusException {
+        QueueFullException() {
+            super(HttpStatus.TOO_MANY_REQUESTS, "Expense ingestion queue is full, retry shortly");
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.RETRY_AFTER, "1");
+            return headers;
+        }
+    }
+
+    private final ExpenseService expenseService;
+    private final ExpenseRepository expenseRepository;
+    private final GroupBalanceService groupBalanceService;
+    private final MonthlyRollupService monthlyRollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final AppProperties appProperties;
+
+    private final List<BlockingQueue<Job>> shards = new ArrayList<>();
+    private final List<Thread> writers = new ArrayList<>();
+    private volatile boolean running;
+
+    private final Map<String, Ticket> tickets = new LinkedHashMap<>(256, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Ticket> eldest) {
+            return size() > MAX_TICKETS;
+        }
+    };
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batchedItems = new AtomicLong();
+    private final AtomicLong commitNanosTotal = new AtomicLong();
+    private final AtomicLong commitNanosMax = new AtomicLong();
+    private volatile long commitNanosLast;
+    private volatile int lastBatchSize;
+
+    public ExpenseIngestService(ExpenseService expenseService,
+                                ExpenseRepository expenseRepository,
+                                GroupBalanceService groupBalanceService,
+                                MonthlyRollupService monthlyRollupService,
+                                PlatformTransactionManager transactionManager,
+                                AppProperties appProperties) {
+        this.expenseService = expenseService;
+        this.expenseRepository = expenseRepository;
+        this.groupBalanceService = groupBalanceService;
+        this.monthlyRollupService = monthlyRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.appProperties = appProperties;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!appProperties.isIngestEnabled()) return;
+        int shardCount = Math.max(1, appProperties.getIngestShards());
+        int capacity = Math.max(1, appProperties.getIngestQueueCapacity());
+        running = true;
+        for (int i = 0; i < shardCount; i++) {
+            BlockingQueue<Job> queue = new ArrayBlockingQueue<>(capacity);
+            shards.add(queue);
+            Thread writer = new Thread(() -> drain(queue), "expense-ingest-" + i);
+            writers.add(writer);
+            writer.start();
+        }
+        log.info("Expense ingestion enabled: {} shard(s) of {} queued requests, batches of up to {}",
+                shardCount, capacity, appProperties.getIngestMaxBatch());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        // writers finish what is already queued
+        for (Thread writer : writers) {
+            writer.join(10_000);
+        }
+    }
+
+    public boolean isEnabled() {
+        return running;
+    }
+
+    /**
+     * Queue an expense. Validation and the write happen on the shard's writer; the ticket's
+     * future completes once the batch holding it has committed (or the request was rejected).
+     */
+    public Ticket submit(Long groupId, User creator, CreateExpenseRequest req) {
+        if (!running) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Expense ingestion is not enabled");
+        }
+        CompletableFuture<Expense> result = new CompletableFuture<>();
+        BlockingQueue<Job> queue = shards.get(Math.floorMod(groupId, shards.size()));
+        if (!queue.offer(new Job(groupId, creator, req, result))) {
+            rejected.incrementAndGet();
+            throw new QueueFullException();
+        }
+        submitted.incrementAndGet();
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), creator.getId(), groupId, result);
+        synchronized (tickets) {
+            tickets.put(ticket.id(), ticket);
+        }
+        return ticket;
+    }
+
+    /**
+     * Wait up to app.ingest-await-ms for the ticket. Returns null when it is still pending;
+     * a rejected request rethrows its error.
+     */
+    public Expense await(Ticket ticket) throws InterruptedException {
+        try {
+            return ticket.result().get(appProperties.getIngestAwaitMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Known ticket of this user, or null (unknown, evicted or someone else's)
+    public Ticket ticket(String id, Long userId) {
+        Ticket t;
+        synchronized (tickets) {
+            t = tickets.get(id);
+        }
+        return t != null && t.userId().equals(userId) ? t : null;
+    }
+
+    public IngestMetricsDto metrics() {
+        IngestMetricsDto m = new IngestMetricsDto();
+        m.setEnabled(running);
+        m.setShards(shards.size());
+        m.setQueueCapacityPerShard(appProperties.getIngestQueueCapacity());
+        List<Integer> depths = new ArrayList<>(shards.size());
+        int depth = 0;
+        for (BlockingQueue<Job> q : shards) {
+            depths.add(q.size());
+            depth += q.size();
+        }
+        m.setQueueDepth(depth);
+        m.setQueueDepthPerShard(depths);
+        m.setSubmitted(submitted.get());
+        m.setRejected(rejected.get());
+        long b = batches.get();
+        m.setBatches(b);
+        m.setWritten(written.get());
+        m.setFailed(failed.get());
+        m.setLastBatchSize(lastBatchSize);
+        m.setAvgBatchSize(b == 0 ? 0.0 : (double) batchedItems.get() / b);
+        m.setLastCommitMs(commitNanosLast / 1e6);
+        m.setAvgCommitMs(b == 0 ? 0.0 : commitNanosTotal.get() / 1e6 / b);
+        m.setMaxCommitMs(commitNanosMax.get() / 1e6);
+        return m;
+    }
+
+    private void drain(BlockingQueue<Job> queue) {
+        int maxBatch = Math.max(1, appProperties.getIngestMaxBatch());
+        long maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, appProperties.getIngestMaxWaitMs()));
+        List<Job> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Job first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatch) {
+                    if (queue.drainTo(batch, maxBatch - batch.size()) > 0) continue;
+                    long left = deadline - System.nanoTime();
+                    if (left <= 0) break;
+                    Job next = queue.poll(left, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Expense ingest writer error: {}", e.getMessage(), e);
+                for (Job job : batch) job.result().completeExceptionally(e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<Job> batch) {
+        long started = System.nanoTime();
+        Map<Job, Expense> saved;
+        try {
+            saved = transactionTemplate.execute(status -> writeInTransaction(batch));
+        } catch (RuntimeException e) {
+            log.warn("Ingest batch of {} failed ({}), writing its expenses one by one", batch.size(), e.getMessage());
+            writeOneByOne(batch);
+            return;
+        }
+        long nanos = System.nanoTime() - started;
+        batches.incrementAndGet();
+        batchedItems.addAndGet(batch.size());
+        lastBatchSize = batch.size();
+        commitNanosLast = nanos;
+        commitNanosTotal.addAndGet(nanos);
+        commitNanosMax.accumulateAndGet(nanos, Math::max);
+
+        // committed: now the callers may see it
+        for (Map.Entry<Job, Expense> e : saved.entrySet()) {
+            written.incrementAndGet();
+            e.getKey().result().complete(e.getValue());
+        }
+    }
+
+    // Validation failures complete their job right away; the rest are only completed after commit
+    private Map<Job, Expense> writeInTransaction(List<Job> batch) {
+        Map<Long, List<Job>> byGroup = new LinkedHashMap<>();
+        for (Job job : batch) {
+            if (job.result().isDone()) continue;
+            byGroup.computeIfAbsent(job.groupId(), g -> new ArrayList<>()).add(job);
+        }
+
+        Map<Job, Expense> saved = new LinkedHashMap<>();
+        for (Map.Entry<Long, List<Job>> entry : byGroup.entrySet()) {
+            Group group;
+            Map<Long, User> members;
+            try {
+                group = expenseService.findGroup(entry.getKey());
+                members = expenseService.loadMembers(group);
+            } catch (ResponseStatusException e) {
+                entry.getValue().forEach(job -> reject(job, e));
+                continue;
+            }
+
+            CurrencyLedger deltas = new CurrencyLedger();
+            List<ExpenseService.Draft> written = new ArrayList<>();
+            long version = 0L; // one version per group and batch, taken at the first valid expense
+            for (Job job : entry.getValue()) {
+                ExpenseService.Draft draft;
+                try {
+                    draft = expenseService.draft(group, members, job.creator(), job.req());
+                } catch (RuntimeException e) {
+                    reject(job, e);
+                    continue;
+                }
+                if (version == 0L) version = groupBalanceService.nextVersion(group.getId());
+                draft.expense().setGroupVersion(version);
+                Expense expense = expenseRepository.save(draft.expense());
+                deltas.bucket(expense.getCurrency()).expensePaid(expense.getPayer().getId(), draft.totalCents());
+                for (Map.Entry<Long, Long> share : draft.allocationInCents().entrySet()) {
+                    deltas.bucket(expense.getCurrency()).expenseShare(share.getKey(), share.getValue());
+                }
+                written.add(draft);
+                saved.put(job, expense);
+            }
+            if (!deltas.isEmpty()) {
+                groupBalanceService.applyBatch(group, deltas);
+                expenseRepository.flush(); // stamps created_at, which picks the rollup month
+                MonthlyRollup rollup = new MonthlyRollup();
+                for (ExpenseService.Draft d : written) {
+                    Expense e = d.expense();
+                    rollup.expense(e.getCreatedAt(), e.getCurrency(), e.getSplitType(), e.getPayer().getId(),
+                            d.totalCents(), d.allocationInCents());
+                }
+                monthlyRollupService.apply(group.getId(), rollup);
+            }
+        }
+        return saved;
+    }
+
+    private void writeOneByOne(List<Job> batch) {
+        for (Job job : batch) {
+            if (job.result().isDone()) continue;
+            try {
+                Expense expense = expenseService.createExpense(job.groupId(), job.creator(), job.req());
+                written.incrementAndGet();
+                job.result().complete(expense);
+            } catch (RuntimeException e) {
+                reject(job, e);
+            }
+        }
+    }
+
+    private void reject(Job job, RuntimeException e) {
+        failed.incrementAndGet();
+        job.result().completeExceptionally(e);
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.expensesplitter.service;
+
+import com.example.expensesplitter.config.AppProperties;
+import com.example.expensesplitter.dto.ExpenseDto;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.repository.ExpenseRepository;
+import com.example.expensesplitter.repository.ExpenseRow;
+import com.example.expensesplitter.repository.GroupRepository;
+import com.example.expensesplitter.util.NoteIndex;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.lang.ref.SoftReference;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Search over expense notes with one in-memory NoteIndex per group.
+ *
+ * An index is built on the first search of its group and remembers the group version it covers.
+ * Later searches compare it with the current version (read anyway for the membership check) and
+ * add only the expenses stamped in between, whichever path wrote them and on whichever instance.
+ * If one of those is older than the newest indexed expense (a back-dated import), the index is
+ * rebuilt from the database instead. Indexes sit in a bounded LRU behind soft references, so the
+ * GC drops them under memory pressure and the next search rebuilds.
+ */
+@Service
+public class ExpenseSearchService {
+
+    private static final int MAX_GROUPS = 64;
+
+    private static final String SELECT_NOTES =
+            "SELECT id, note, created_at FROM expenses WHERE group_id = ? AND group_version > ? " +
+            "AND group_version <= ? AND note IS NOT NULL ORDER BY created_at, id";
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private final Map<Long, SoftReference<NoteIndex>> indexes = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, SoftReference<NoteIndex>> eldest) {
+            return size() > MAX_GROUPS;
+        }
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GroupRepository groupRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseService expenseService;
+    private final GroupAccessService groupAccessService;
+    private final AppProperties appProperties;
+
+    public ExpenseSearchService(JdbcTemplate jdbcTemplate, GroupRepository groupRepository,
+                                ExpenseRepository expenseRepository, ExpenseService expenseService,
+                                GroupAccessService groupAccessService, AppProperties appProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.groupRepository = groupRepository;
+        this.expenseRepository = expenseRepository;
+        this.expenseService = expenseService;
+        this.groupAccessService = groupAccessService;
+        this.appProperties = appProperties;
+    }
+
+    /**
+     * Expenses whose note has, for every word of q, a word starting with it; newest first.
+     */
+    @Transactional(readOnly = true)
+    public List<ExpenseDto> search(Long groupId, User requester, String q, Integer limit) {
+        if (q == null || q.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "q is required");
+        }
+        int size = limit == null ? appProperties.getExpensePageSize() : limit;
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be at least 1");
+        }
+        size = Math.min(size, appProperties.getExpensePageMaxSize());
+
+        Long version = groupRepository.findVersionForMember(groupId, requester.getId());
+        if (version == null) {
+            throw groupAccessService.notMember(groupId);
+        }
+
+        NoteIndex index = indexFor(groupId, version);
+        long[] ids;
+        synchronized (index) {
+            ids = index.search(q, size);
+        }
+        if (ids.length == 0) return new ArrayList<>();
+
+        List<Long> order = new ArrayList<>(ids.length);
+        for (long id : ids) order.add(id);
+        Map<Long, ExpenseRow> byId = new HashMap<>();
+        for (ExpenseRow row : expenseRepository.findRowsByIdIn(order)) byId.put(row.getId(), row);
+        List<ExpenseRow> rows = new ArrayList<>(ids.length);
+        for (Long id : order) rows.add(byId.get(id));
+        return expenseService.toDtos(rows);
+    }
+
+    private NoteIndex indexFor(long groupId, long version) {
+        NoteIndex index = cached(groupId);
+        if (index != null) {
+            synchronized (index) {
+                if (index.version() >= version) return index;
+                if (addBetween(index, groupId, index.version(), version)) {
+                    index.setVersion(version);
+                    return index;
+                }
+            }
+        }
+        NoteIndex built = new NoteIndex(version);
+        addBetween(built, groupId, 0L, version); // ordered by created_at, id: always accepted
+        synchronized (indexes) {
+            indexes.put(groupId, new SoftReference<>(built));
+        }
+        return built;
+    }
+
+    private NoteIndex cached(long groupId) {
+        synchronized (indexes) {
+            SoftReference<NoteIndex> ref = indexes.get(groupId);
+            NoteIndex index = ref == null ? null : ref.get();
+            if (ref != null && index == null) indexes.remove(groupId);
+            return index;
+        }
+    }
+
+    // false as soon as an expense is older than the newest one indexed; the index must then be rebuilt
+    private boolean addBetween(NoteIndex index, long groupId, long afterVersion, long upToVersion) {
+        Calendar utc = Calendar.getInstance(UTC);
+        boolean[] inOrder = {true};
+        jdbcTemplate.query(SELECT_NOTES, rs -> {
+            if (!inOrder[0]) return;
+            Timestamp createdAt = rs.getTimestamp(3, utc);
+            inOrder[0] = index.add(rs.getLong(1), createdAt.toInstant(), rs.getString(2));
+        }, groupId, afterVersion, upToVersion);
+        return inOrder[0];
+    }
+}
@@ -1,21 +1,32 @@
 package com.example.expensesplitter.service;
 
+import com.example.expensesplitter.config.AppProperties;
 import com.example.expensesplitter.dto.BalanceDto;
 import com.example.expensesplitter.dto.CreateExpenseRequest;
+import com.example.expensesplitter.dto.ExpenseDto;
+import com.example.expensesplitter.dto.ExpensePageDto;
 import com.example.expensesplitter.entity.Expense;
+import com.example.expensesplitter.entity.ExpenseItem;
 import com.example.expensesplitter.entity.ExpenseShare;
 import com.example.expensesplitter.entity.Group;
 import com.example.expensesplitter.entity.Membership;
 import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.repository.ExpenseItemRepository;
 import com.example.expensesplitter.repository.ExpenseRepository;
+import com.example.expensesplitter.repository.ExpenseRow;
 import com.example.expensesplitter.repository.ExpenseShareRepository;
 import com.example.expensesplitter.repository.GroupRepository;
 import com.example.expensesplitter.repository.MembershipRepository;
+import com.example.expensesplitter.repository.ShareRow;
 import com.example.expensesplitter.repository.UserRepository;
+import com.example.expensesplitter.util.Apportionment;
+import com.example.expensesplitter.util.ExpenseCursor;
+import com.example.expensesplitter.util.MonthlyRollup;
 import com.example.expensesplitter.util.SplitUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -37,6 +48,9 @@ public class ExpenseService {
     @Autowired
     private ExpenseShareRepository expenseShareRepository;
 
+    @Autowired
+    private ExpenseItemRepository expenseItemRepository;
+
     @Autowired
     private GroupRepository groupRepository;
 
@@ -47,32 +61,71 @@ public class ExpenseService {
     private UserRepository userRepository;
 
     @Autowired
-    private com.example.expensesplitter.repository.SettlementRepository settlementRepository;
+    private GroupBalanceService groupBalanceService;
+
+    @Autowired
+    private GroupAccessService groupAccessService;
+
+    @Autowired
+    private MonthlyRollupService monthlyRollupService;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    private static final int MAX_PARTICIPANTS_LENGTH = 4000;
+
+    // A validated expense with its shares, built but not saved yet
+    public record Draft(Expense expense, long totalCents, Map<Long, Long> allocationInCents) {}
 
     // ---------------- CREATE EXPENSE ----------------
     @Transactional
     public Expense createExpense(Long groupId, User creator, CreateExpenseRequest req) {
-        Group group = groupRepository.findById(groupId)
+        Group group = findGroup(groupId);
+        Draft draft = draft(group, loadMembers(group), creator, req);
+        draft.expense().setGroupVersion(groupBalanceService.nextVersion(groupId));
+        Expense saved = expenseRepository.saveAndFlush(draft.expense()); // created_at is stamped on insert
+        groupBalanceService.applyExpense(group, saved.getPayer().getId(), saved.getCurrency(),
+                draft.totalCents(), draft.allocationInCents());
+        MonthlyRollup rollup = new MonthlyRollup();
+        rollup.expense(saved.getCreatedAt(), saved.getCurrency(), saved.getSplitType(), saved.getPayer().getId(),
+                draft.totalCents(), draft.allocationInCents());
+        monthlyRollupService.apply(groupId, rollup);
+        return saved;
+    }
+
+    public Group findGroup(Long groupId) {
+        return groupRepository.findById(groupId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Group not found"));
+    }
 
-        List<Membership> memberships = membershipRepository.findByGroup_Id(group.getId());
-        if (memberships == null || memberships.isEmpty()) {
+    // Members keyed by user id, users fetched in the same query; membership checks are hash lookups
+    public Map<Long, User> loadMembers(Group group) {
+        Map<Long, User> members = new HashMap<>();
+        for (Membership m : membershipRepository.findByGroupIdWithUser(group.getId())) {
+            members.put(m.getUser().getId(), m.getUser());
+        }
+        if (members.isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Group has no members");
         }
+        return members;
+    }
 
-        List<Long> memberUserIds = memberships.stream()
-                .map(Membership::getUser)
-                .filter(Objects::nonNull)
-                .map(User::getId)
-                .collect(Collectors.toList());
+    /**
+     * Validate req against the group's members and build the expense with its shares.
+     * Nothing is written; must run in the transaction that loaded members (shares reference their users).
+     */
+    public Draft draft(Group group, Map<Long, User> members, User creator, CreateExpenseRequest req) {
+        Set<Long> memberUserIds = members.keySet();
 
         if (!memberUserIds.contains(creator.getId())) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not a member of this group");
         }
 
-        User payer = userRepository.findById(req.getPayerId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Payer not found"));
-        if (!memberUserIds.contains(payer.getId())) {
+        if (req.getPayerId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "PayerId is required");
+        }
+        User payer = members.get(req.getPayerId());
+        if (payer == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Payer is not a member of this group");
         }
 
@@ -86,6 +139,47 @@ public class ExpenseService {
 
         String splitType = req.getSplitType() == null ? "EQUAL" : req.getSplitType().trim().toUpperCase(Locale.ROOT);
         Map<Long, Long> allocationInCents;
+        List<ExpenseItem> items = List.of();
+        if ("ITEMIZED".equals(splitType)) {
+            Itemized itemized = allocateItems(totalCents, req.getItems(), memberUserIds);
+            allocationInCents = itemized.allocationInCents();
+            items = itemized.items();
+        } else {
+            allocationInCents = allocate(totalCents, splitType, req.getShares(), memberUserIds);
+        }
+
+        Expense expense = new Expense();
+        expense.setGroup(group);
+        expense.setCreatedBy(creator);
+        expense.setPayer(payer);
+        expense.setAmount(amount);
+        expense.setCurrency(groupBalanceService.currencyFor(group, req.getCurrency()));
+        expense.setSplitType(splitType);
+        expense.setNote(req.getNote());
+
+        for (Map.Entry<Long, Long> entry : allocationInCents.entrySet()) {
+            Long uid = entry.getKey();
+            long cents = entry.getValue();
+
+            // allocate() only returns members, already in the persistence context: no query
+            ExpenseShare share = new ExpenseShare();
+            share.setUser(userRepository.getReferenceById(uid));
+            share.setShareAmount(SplitUtil.centsToBigDecimal(cents));
+            expense.addShare(share);
+        }
+        for (ExpenseItem item : items) {
+            expense.addItem(item);
+        }
+        return new Draft(expense, totalCents, allocationInCents);
+    }
+
+    // ---------------- ALLOCATE ----------------
+    // Split totalCents between members according to splitType (EQUAL / PERCENT / SHARES / CUSTOM).
+    // Throws 400 for invalid share lines or shares of non-members.
+    public Map<Long, Long> allocate(long totalCents, String splitType,
+                                    List<CreateExpenseRequest.ShareLine> shares,
+                                    Collection<Long> memberUserIds) {
+        Map<Long, Long> allocationInCents;
 
         switch (splitType) {
             case "EQUAL":
@@ -93,11 +187,11 @@ public class ExpenseService {
                 break;
 
             case "PERCENT":
-                if (req.getShares() == null || req.getShares().isEmpty()) {
+                if (shares == null || shares.isEmpty()) {
                     throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Shares required for PERCENT split");
                 }
                 Map<Long, BigDecimal> percentMap = new LinkedHashMap<>();
-                for (CreateExpenseRequest.ShareLine sl : req.getShares()) {
+                for (CreateExpenseRequest.ShareLine sl : shares) {
                     if (sl.getUserId() == null || sl.getPercent() == null) {
                         throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                                 "Each share line must include userId and percent for PERCENT split");
@@ -113,12 +207,30 @@ public class ExpenseService {
                 allocationInCents = SplitUtil.allocatePercent(totalCents, percentMap);
                 break;
 
+            case "SHARES":
+                if (shares == null || shares.isEmpty()) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Shares required for SHARES split");
+                }
+                Map<Long, Long> weightMap = new LinkedHashMap<>();
+                for (CreateExpenseRequest.ShareLine sl : shares) {
+                    if (sl.getUserId() == null || sl.getWeight() == null) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                                "Each share line must include userId and weight for SHARES split");
+                    }
+                    if (sl.getWeight() <= 0) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Weights must be positive for SHARES split");
+                    }
+                    weightMap.put(sl.getUserId(), sl.getWeight().longValue());
+                }
+                allocationInCents = SplitUtil.allocateShares(totalCents, weightMap);
+                break;
+
             case "CUSTOM":
-                if (req.getShares() == null || req.getShares().isEmpty()) {
+                if (shares == null || shares.isEmpty()) {
                     throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Shares required for CUSTOM split");
                 }
                 Map<Long, BigDecimal> amountMap = new LinkedHashMap<>();
-                for (CreateExpenseRequest.ShareLine sl : req.getShares()) {
+                for (CreateExpenseRequest.ShareLine sl : shares) {
                     if (sl.getUserId() == null || sl.getAmount() == null) {
                         throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                                 "Each share line must include userId and amount for CUSTOM split");
@@ -128,144 +240,345 @@ public class ExpenseService {
                 allocationInCents = SplitUtil.allocateCustom(totalCents, amountMap);
                 break;
 
+            case "ITEMIZED":
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Line items are required for ITEMIZED split");
+
             default:
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown splitType: " + splitType);
         }
 
-        Expense expense = new Expense();
-        expense.setGroup(group);
-        expense.setCreatedBy(creator);
-        expense.setPayer(payer);
-        expense.setAmount(amount);
-        expense.setCurrency(req.getCurrency() == null ? "INR" : req.getCurrency());
-        expense.setSplitType(splitType);
-        expense.setNote(req.getNote());
-
-        for (Map.Entry<Long, Long> entry : allocationInCents.entrySet()) {
-            Long uid = entry.getKey();
-            long cents = entry.getValue();
-
+        for (Long uid : allocationInCents.keySet()) {
             if (!memberUserIds.contains(uid)) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                         "Shared user is not a member of the group: " + uid);
             }
-            User u = userRepository.findById(uid)
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST,
-                            "User not found in shares: " + uid));
+        }
+        return allocationInCents;
+    }
 
-            ExpenseShare share = new ExpenseShare();
-            share.setUser(u);
-            share.setShareAmount(SplitUtil.centsToBigDecimal(cents));
-            expense.addShare(share);
+    // Merged shares of an itemized expense and its line item rows (not saved yet)
+    public record Itemized(Map<Long, Long> allocationInCents, List<ExpenseItem> items) {}
+
+    // ITEMIZED: every line item has its own participants and split rule (EQUAL / PERCENT / SHARES / CUSTOM).
+    // All items feed one Apportionment.Accumulator, so rounding happens once over the merged totals:
+    // one share per user, each within a cent of their exact part of the bill.
+    public Itemized allocateItems(long totalCents, List<CreateExpenseRequest.ItemLine> items,
+                                  Collection<Long> memberUserIds) {
+        if (items == null || items.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Line items are required for ITEMIZED split");
+        }
+        Apportionment.Accumulator merged = new Apportionment.Accumulator();
+        List<ExpenseItem> rows = new ArrayList<>(items.size());
+        long itemsTotal = 0L;
+        int lineNo = 0;
+        for (CreateExpenseRequest.ItemLine line : items) {
+            lineNo++;
+            String prefix = "Item " + lineNo + ": ";
+            if (line == null || line.getAmount() == null || line.getAmount().signum() <= 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, prefix + "amount must be greater than zero");
+            }
+            BigDecimal amount = line.getAmount().setScale(2, RoundingMode.HALF_EVEN);
+            long cents = SplitUtil.toCents(amount);
+            itemsTotal += cents;
+            String type = line.getSplitType() == null || line.getSplitType().isBlank()
+                    ? "EQUAL" : line.getSplitType().trim().toUpperCase(Locale.ROOT);
+            List<CreateExpenseRequest.ShareLine> shares = line.getShares();
+            StringJoiner participants = new StringJoiner(";");
+
+            switch (type) {
+                case "EQUAL": {
+                    Set<Long> ids = new LinkedHashSet<>();
+                    if (shares == null || shares.isEmpty()) {
+                        ids.addAll(new TreeSet<>(memberUserIds));
+                    } else {
+                        for (CreateExpenseRequest.ShareLine sl : shares) {
+                            if (sl.getUserId() == null) {
+                                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, prefix + "each participant needs a userId");
+                            }
+                            ids.add(sl.getUserId());
+                        }
+                    }
+                    long[] idArray = new long[ids.size()];
+                    long[] ones = new long[ids.size()];
+                    int i = 0;
+                    for (Long uid : ids) {
+                        requireMember(prefix, uid, memberUserIds);
+                        participants.add(uid.toString());
+                        idArray[i] = uid;
+                        ones[i++] = 1L;
+                    }
+                    merged.addWeighted(cents, idArray, ones);
+                    break;
+                }
+                case "SHARES":
+                case "PERCENT":
+                case "CUSTOM": {
+                    if (shares == null || shares.isEmpty()) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, prefix + "shares required for " + type + " split");
+                    }
+                    Map<Long, BigDecimal> values = new LinkedHashMap<>();
+                    for (CreateExpenseRequest.ShareLine sl : shares) {
+                        BigDecimal value = "SHARES".equals(type)
+                                ? (sl.getWeight() == null ? null : BigDecimal.valueOf(sl.getWeight()))
+                                : "PERCENT".equals(type) ? sl.getPercent() : sl.getAmount();
+                        if (sl.getUserId() == null || value == null) {
+                            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                                    prefix + "each share line must include userId and " + valueName(type));
+                        }
+                        requireMember(prefix, sl.getUserId(), memberUserIds);
+                        values.put(sl.getUserId(), value);
+                    }
+                    addItemSplit(merged, prefix, type, cents, values);
+                    values.forEach((uid, v) -> participants.add(uid + ":" + v.stripTrailingZeros().toPlainString()));
+                    break;
+                }
+                default:
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, prefix + "unknown splitType: " + type);
+            }
+
+            if (participants.length() > MAX_PARTICIPANTS_LENGTH) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, prefix + "too many participants");
+            }
+            ExpenseItem row = new ExpenseItem();
+            row.setLineNo(lineNo);
+            row.setDescription(line.getDescription());
+            row.setAmount(amount);
+            row.setSplitType(type);
+            row.setParticipants(participants.toString());
+            rows.add(row);
+        }
+        if (itemsTotal != totalCents) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Item amounts must sum to the expense amount. expected=" + SplitUtil.centsToBigDecimal(totalCents)
+                            + " actual=" + SplitUtil.centsToBigDecimal(itemsTotal));
         }
 
-        return expenseRepository.save(expense);
+        long[] ids = merged.ids();
+        long[] cents = merged.apportion();
+        Map<Long, Long> allocation = new LinkedHashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            allocation.put(ids[i], cents[i]);
+        }
+        return new Itemized(allocation, rows);
     }
 
-    // ---------------- LIST EXPENSES ----------------
-    public List<com.example.expensesplitter.dto.ExpenseDto> listGroupExpenses(Long groupId, User requester) {
-        List<Membership> memberships = membershipRepository.findByGroup_Id(groupId);
-        if (memberships == null) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Group not found or no memberships");
+    private static void addItemSplit(Apportionment.Accumulator merged, String prefix, String type,
+                                     long cents, Map<Long, BigDecimal> values) {
+        int n = values.size();
+        long[] ids = new long[n];
+        long[] longs = new long[n];
+        int i = 0;
+        switch (type) {
+            case "SHARES":
+                for (Map.Entry<Long, BigDecimal> e : values.entrySet()) {
+                    if (e.getValue().signum() <= 0) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, prefix + "weights must be positive");
+                    }
+                    ids[i] = e.getKey();
+                    longs[i++] = e.getValue().longValueExact();
+                }
+                merged.addWeighted(cents, ids, longs);
+                break;
+            case "PERCENT": {
+                // exact percents summing to 100 are weights over 100 * 10^scale
+                int scale = 0;
+                BigDecimal sum = BigDecimal.ZERO;
+                for (BigDecimal p : values.values()) {
+                    if (p.signum() < 0) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, prefix + "percents must not be negative");
+                    }
+                    scale = Math.max(scale, p.scale());
+                    sum = sum.add(p);
+                }
+                if (sum.compareTo(new BigDecimal(100)) != 0 || scale > Apportionment.MAX_PERCENT_SCALE) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            prefix + "percents must sum to exactly 100 (at most 6 decimals)");
+                }
+                for (Map.Entry<Long, BigDecimal> e : values.entrySet()) {
+                    ids[i] = e.getKey();
+                    longs[i++] = e.getValue().setScale(scale).unscaledValue().longValueExact();
+                }
+                merged.addWeighted(cents, ids, longs);
+                break;
+            }
+            default: { // CUSTOM
+                long sum = 0L;
+                for (Map.Entry<Long, BigDecimal> e : values.entrySet()) {
+                    ids[i] = e.getKey();
+                    try {
+                        longs[i] = SplitUtil.toCents(e.getValue().setScale(2, RoundingMode.HALF_EVEN));
+                    } catch (ArithmeticException ex) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, prefix + "amount out of range");
+                    }
+                    if (longs[i] < 0) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, prefix + "amounts must not be negative");
+                    }
+                    sum += longs[i++];
+                }
+                if (sum != cents) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            prefix + "custom shares do not sum to the item amount");
+                }
+                merged.addExact(ids, longs);
+            }
         }
-        List<Long> memberUserIds = memberships.stream()
-                .map(Membership::getUser)
-                .filter(Objects::nonNull)
-                .map(User::getId)
-                .collect(Collectors.toList());
-
-        if (!memberUserIds.contains(requester.getId())) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not a group member");
+    }
+
+    private static void requireMember(String prefix, Long uid, Collection<Long> memberUserIds) {
+        if (!memberUserIds.contains(uid)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    prefix + "participant is not a member of the group: " + uid);
         }
+    }
 
-        List<Expense> expenses = expenseRepository.findByGroupId(groupId);
-        List<com.example.expensesplitter.dto.ExpenseDto> dtos = new ArrayList<>();
-        for (Expense e : expenses) {
-            com.example.expensesplitter.dto.ExpenseDto dto = new com.example.expensesplitter.dto.ExpenseDto();
-            dto.setId(e.getId());
-            dto.setGroupId(e.getGroup().getId());
-            dto.setCreatedById(e.getCreatedBy().getId());
-            dto.setPayerId(e.getPayer().getId());
-            dto.setAmount(e.getAmount());
-            dto.setCurrency(e.getCurrency());
-            dto.setSplitType(e.getSplitType());
-            dto.setNote(e.getNote());
-            dto.setCreatedAt(e.getCreatedAt());
-
-            List<com.example.expensesplitter.dto.ExpenseDto.ShareDto> shareDtos = new ArrayList<>();
-            for (ExpenseShare s : e.getShares()) {
-                com.example.expensesplitter.dto.ExpenseDto.ShareDto sd = new com.example.expensesplitter.dto.ExpenseDto.ShareDto();
-                sd.setUserId(s.getUser().getId());
-                sd.setShareAmount(s.getShareAmount());
-                sd.setSettled(s.isSettled());
-                shareDtos.add(sd);
-            }
-            dto.setShares(shareDtos);
-            dtos.add(dto);
+    private static String valueName(String type) {
+        return switch (type) {
+            case "SHARES" -> "weight";
+            case "PERCENT" -> "percent";
+            default -> "amount";
+        };
+    }
+
+    // Line items as returned to clients; null for expenses that are not ITEMIZED
+    public static List<ExpenseDto.ItemDto> itemDtos(Expense expense) {
+        if (!"ITEMIZED".equals(expense.getSplitType())) return null;
+        List<ExpenseDto.ItemDto> dtos = new ArrayList<>();
+        for (ExpenseItem item : expense.getItems()) {
+            dtos.add(itemDto(item));
         }
         return dtos;
     }
 
-    // ---------------- COMPUTE BALANCES ----------------
-    public List<BalanceDto> computeBalances(Long groupId, User requester) {
-        log.info("Computing balances for group {} by user {}", groupId, requester.getId());
-
-        List<Membership> memberships = membershipRepository.findByGroup_Id(groupId);
-        if (memberships == null || memberships.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Group not found or has no members");
+    private static ExpenseDto.ItemDto itemDto(ExpenseItem item) {
+        ExpenseDto.ItemDto dto = new ExpenseDto.ItemDto();
+        dto.setDescription(item.getDescription());
+        dto.setAmount(item.getAmount());
+        dto.setSplitType(item.getSplitType());
+        List<CreateExpenseRequest.ShareLine> shares = new ArrayList<>();
+        for (String part : item.getParticipants().split(";")) {
+            if (part.isEmpty()) continue;
+            int colon = part.indexOf(':');
+            CreateExpenseRequest.ShareLine sl = new CreateExpenseRequest.ShareLine();
+            sl.setUserId(Long.parseLong(colon < 0 ? part : part.substring(0, colon)));
+            if (colon >= 0) {
+                BigDecimal value = new BigDecimal(part.substring(colon + 1));
+                switch (item.getSplitType()) {
+                    case "SHARES" -> sl.setWeight(value.intValueExact());
+                    case "PERCENT" -> sl.setPercent(value);
+                    default -> sl.setAmount(value.setScale(2, RoundingMode.HALF_EVEN));
+                }
+            }
+            shares.add(sl);
         }
+        dto.setShares(shares);
+        return dto;
+    }
 
-        List<Long> memberUserIds = memberships.stream()
-                .map(m -> m.getUser().getId())
-                .toList();
+    // ---------------- LIST EXPENSES ----------------
+    // Unpaginated form: the newest expenses, newest first, capped at app.expense-list-max-rows
+    @Transactional(readOnly = true)
+    public List<ExpenseDto> listGroupExpenses(Long groupId, User requester) {
+        groupAccessService.requireMember(groupId, requester);
+        return toDtos(expenseRepository.findPage(groupId, Limit.of(appProperties.getExpenseListMaxRows())));
+    }
 
-        if (!memberUserIds.contains(requester.getId())) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not a group member");
+    /**
+     * One page of a group's expenses, newest first, starting after the cursor (null for the first page).
+     * Seeks on (created_at, id), so a deep page costs the same as the first one.
+     */
+    @Transactional(readOnly = true)
+    public ExpensePageDto listGroupExpenses(Long groupId, User requester, String after, Integer limit) {
+        groupAccessService.requireMember(groupId, requester);
+        int size = limit == null ? appProperties.getExpensePageSize() : limit;
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be at least 1");
+        }
+        size = Math.min(size, appProperties.getExpensePageMaxSize());
+
+        // one extra row tells whether there is a next page
+        List<ExpenseRow> rows;
+        if (after == null || after.isBlank()) {
+            rows = expenseRepository.findPage(groupId, Limit.of(size + 1));
+        } else {
+            ExpenseCursor cursor;
+            try {
+                cursor = ExpenseCursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+            rows = expenseRepository.findPageAfter(groupId, cursor.createdAt(), cursor.id(), Limit.of(size + 1));
         }
 
-        Map<Long, BigDecimal> balances = new HashMap<>();
-        for (Membership m : memberships) {
-            balances.put(m.getUser().getId(), BigDecimal.ZERO);
+        ExpensePageDto page = new ExpensePageDto();
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            ExpenseRow last = rows.get(size - 1);
+            page.setNextCursor(ExpenseCursor.of(last.getCreatedAt(), last.getId()).encode());
         }
+        page.setItems(toDtos(rows));
+        return page;
+    }
 
-        // Expenses
-        List<Expense> expenses = Optional.ofNullable(expenseRepository.findByGroupId(groupId)).orElse(Collections.emptyList());
-        for (Expense expense : expenses) {
-            if (expense.getPayer() == null) continue; // defensive
-            Long payerId = expense.getPayer().getId();
-            BigDecimal amount = expense.getAmount() != null ? expense.getAmount() : BigDecimal.ZERO;
-            balances.put(payerId, balances.getOrDefault(payerId, BigDecimal.ZERO).add(amount));
-
-            // NOTE: expense.getShares() is a Set<ExpenseShare> in your domain; use emptySet() here
-            for (ExpenseShare share : Optional.ofNullable(expense.getShares()).orElse(Collections.emptySet())) {
-                if (share.getUser() == null) continue;
-                Long uid = share.getUser().getId();
-                BigDecimal shareAmt = share.getShareAmount() != null ? share.getShareAmount() : BigDecimal.ZERO;
-                balances.put(uid, balances.getOrDefault(uid, BigDecimal.ZERO).subtract(shareAmt));
+    // Projections only: one query for the shares of all rows (plus one for line items if any row is ITEMIZED)
+    public List<ExpenseDto> toDtos(List<ExpenseRow> rows) {
+        if (rows.isEmpty()) return new ArrayList<>();
+        List<Long> ids = new ArrayList<>(rows.size());
+        List<Long> itemizedIds = new ArrayList<>();
+        for (ExpenseRow r : rows) {
+            ids.add(r.getId());
+            if ("ITEMIZED".equals(r.getSplitType())) itemizedIds.add(r.getId());
+        }
+        Map<Long, List<ExpenseDto.ShareDto>> sharesByExpense = new HashMap<>();
+        for (ShareRow s : expenseShareRepository.findRowsByExpenseIdIn(ids)) {
+            ExpenseDto.ShareDto sd = new ExpenseDto.ShareDto();
+            sd.setUserId(s.getUserId());
+            sd.setShareAmount(s.getShareAmount());
+            sd.setSettled(Boolean.TRUE.equals(s.getSettled()));
+            sharesByExpense.computeIfAbsent(s.getExpenseId(), k -> new ArrayList<>()).add(sd);
+        }
+        Map<Long, List<ExpenseDto.ItemDto>> itemsByExpense = new HashMap<>();
+        if (!itemizedIds.isEmpty()) {
+            for (ExpenseItem item : expenseItemRepository.findByExpenseIdIn(itemizedIds)) {
+                itemsByExpense.computeIfAbsent(item.getExpense().getId(), k -> new ArrayList<>()).add(itemDto(item));
             }
         }
 
-        // Settlements
-        List<com.example.expensesplitter.entity.Settlement> settlements =
-                Optional.ofNullable(settlementRepository.findByGroup_Id(groupId)).orElse(Collections.emptyList());
-        for (com.example.expensesplitter.entity.Settlement s : settlements) {
-            if (s.getFromUser() == null || s.getToUser() == null) continue;
-            Long from = s.getFromUser().getId();
-            Long to = s.getToUser().getId();
-            BigDecimal amt = s.getAmount() != null ? s.getAmount() : BigDecimal.ZERO;
-            balances.put(from, balances.getOrDefault(from, BigDecimal.ZERO).subtract(amt));
-            balances.put(to, balances.getOrDefault(to, BigDecimal.ZERO).add(amt));
+        List<ExpenseDto> dtos = new ArrayList<>(rows.size());
+        for (ExpenseRow r : rows) {
+            ExpenseDto dto = new ExpenseDto();
+            dto.setId(r.getId());
+            dto.setGroupId(r.getGroupId());
+            dto.setCreatedById(r.getCreatedById());
+            dto.setPayerId(r.getPayerId());
+            dto.setAmount(r.getAmount());
+            dto.setCurrency(r.getCurrency());
+            dto.setSplitType(r.getSplitType());
+            dto.setNote(r.getNote());
+            dto.setCreatedAt(r.getCreatedAt());
+            dto.setShares(sharesByExpense.getOrDefault(r.getId(), new ArrayList<>()));
+            if ("ITEMIZED".equals(r.getSplitType())) {
+                dto.setItems(itemsByExpense.getOrDefault(r.getId(), new ArrayList<>()));
+            }
+            dtos.add(dto);
         }
+        return dtos;
+    }
 
-        List<BalanceDto> result = new ArrayList<>();
-        for (Membership m : memberships) {
-            Long uid = m.getUser().getId();
-            String name = m.getUser().getName();
-            BigDecimal net = balances.getOrDefault(uid, BigDecimal.ZERO).setScale(2, RoundingMode.HALF_EVEN);
-            result.add(new BalanceDto(uid, name, net));
-        }
+    // ---------------- COMPUTE BALANCES ----------------
+    // Reads the group_balances projection maintained by createExpense / recordSettlement,
+    // so the cost is O(members x currencies) regardless of how long the group history is.
+    @Transactional(readOnly = true)
+    public List<BalanceDto> computeBalances(Long groupId, User requester) {
+        return computeBalances(groupId, requester, false);
+    }
+
+    // convert = true: one row per member, converted into the group's base currency
+    @Transactional(readOnly = true)
+    public List<BalanceDto> computeBalances(Long groupId, User requester, boolean convert) {
+        log.debug("Computing balances for group {} by user {}", groupId, requester.getId());
 
-        log.info("Computed balances: {}", result);
-        return result;
+        groupAccessService.requireMember(groupId, requester);
+        Group group = groupRepository.getReferenceById(groupId);
+        return groupBalanceService.readBalances(group, convert ? groupBalanceService.baseCurrency(group) : null);
     }
 }
@@ -0,0 +1,63 @@
+package com.example.expensesplitter.service;
+
+import com.example.expensesplitter.entity.FxRate;
+import com.example.expensesplitter.repository.FxRateRepository;
+import com.example.expensesplitter.util.FxRates;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current FxRates snapshot loaded from the fx_rates table.
+ *
+ * Readers never touch the database: they take the snapshot reference and convert on it.
+ * reload() builds a complete new snapshot and swaps it in atomically, so a reader sees
+ * either the old or the new table, never a mix.
+ */
+@Service
+public class FxRateService {
+
+    private static final Logger log = LoggerFactory.getLogger(FxRateService.class);
+
+    private final FxRateRepository fxRateRepository;
+    private final AtomicReference<FxRates> snapshot = new AtomicReference<>();
+
+    public FxRateService(FxRateRepository fxRateRepository) {
+        this.fxRateRepository = fxRateRepository;
+    }
+
+    /**
+     * The current snapshot; loaded on first use.
+     */
+    public FxRates rates() {
+        FxRates current = snapshot.get();
+        return current != null ? current : reload();
+    }
+
+    /**
+     * Rebuild the snapshot from the fx_rates table and swap it in.
+     * Invalid rows are skipped (and logged) rather than failing the whole reload.
+     */
+    @Transactional(readOnly = true)
+    public FxRates reload() {
+        FxRates.Builder builder = FxRates.builder();
+        int loaded = 0;
+        for (FxRate r : fxRateRepository.findAll()) {
+            try {
+                builder.rate(r.getFromCurrency().trim().toUpperCase(Locale.ROOT),
+                        r.getToCurrency().trim().toUpperCase(Locale.ROOT), r.getRate());
+                loaded++;
+            } catch (RuntimeException e) {
+                log.warn("Skipping FX rate {} -> {}: {}", r.getFromCurrency(), r.getToCurrency(), e.getMessage());
+            }
+        }
+        FxRates next = builder.build();
+        snapshot.set(next);
+        log.debug("Loaded {} FX rate(s)", loaded);
+        return next;
+    }
+}
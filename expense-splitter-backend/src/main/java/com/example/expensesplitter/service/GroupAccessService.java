@@ -0,0 +1,39 @@
+package com.example.expensesplitter.service;
+
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.repository.GroupRepository;
+import com.example.expensesplitter.repository.MembershipRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * The membership guard of the group-scoped read endpoints: 404 for a group that does not exist,
+ * 403 for one the requester is not in. A member costs one indexed existence check; the group
+ * row is only looked at once that check fails.
+ */
+@Service
+public class GroupAccessService {
+
+    private final MembershipRepository membershipRepository;
+    private final GroupRepository groupRepository;
+
+    public GroupAccessService(MembershipRepository membershipRepository, GroupRepository groupRepository) {
+        this.membershipRepository = membershipRepository;
+        this.groupRepository = groupRepository;
+    }
+
+    public void requireMember(Long groupId, User requester) {
+        if (!membershipRepository.existsByGroup_IdAndUser_Id(groupId, requester.getId())) {
+            throw notMember(groupId);
+        }
+    }
+
+    // For callers that folded the membership check into their own query and found no row
+    public ResponseStatusException notMember(Long groupId) {
+        if (!groupRepository.existsById(groupId)) {
+            return new ResponseStatusException(HttpStatus.NOT_FOUND, "Group not found");
+        }
+        return new ResponseStatusException(HttpStatus.FORBIDDEN, "Not a group member");
+    }
+}
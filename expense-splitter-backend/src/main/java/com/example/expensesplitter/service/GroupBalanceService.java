@@ -0,0 +1,341 @@
+package com.example.expensesplitter.service;
+
+import com.example.expensesplitter.config.AppProperties;
+import com.example.expensesplitter.dto.BalanceDto;
+import com.example.expensesplitter.entity.BalanceCheckpoint;
+import com.example.expensesplitter.entity.BalanceCheckpointEntry;
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.GroupBalance;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.repository.BalanceCheckpointRepository;
+import com.example.expensesplitter.repository.ExpenseRepository;
+import com.example.expensesplitter.repository.ExpenseShareRepository;
+import com.example.expensesplitter.repository.GroupBalanceRepository;
+import com.example.expensesplitter.repository.GroupRepository;
+import com.example.expensesplitter.repository.MembershipRepository;
+import com.example.expensesplitter.repository.SettlementRepository;
+import com.example.expensesplitter.repository.UserAmountTotal;
+import com.example.expensesplitter.repository.UserRepository;
+import com.example.expensesplitter.util.CentsLedger;
+import com.example.expensesplitter.util.CurrencyLedger;
+import com.example.expensesplitter.util.FxRates;
+import com.example.expensesplitter.util.SplitUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+
+/**
+ * Maintains the group_balances projection, one row per (group, user, currency).
+ *
+ * Write paths (expense creation, settlements) call the apply* methods inside their own
+ * transaction, so the projection always commits together with the ledger row it reflects.
+ * rebuild() regenerates the projection from the raw expenses/settlements tables.
+ * Applying a write also drops the group's cached balance timeline (see BalanceHistoryService).
+ * Write paths call nextVersion() first and stamp the returned group version on the rows they
+ * insert; the read endpoints turn the version into their ETag and /changes?since= scans by it.
+ * Currencies are kept apart; toBalanceDtos() can convert a member's buckets into one
+ * currency with the FxRateService snapshot, once per (member, currency) rather than per row.
+ */
+@Service
+public class GroupBalanceService {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupBalanceService.class);
+
+    private final GroupBalanceRepository groupBalanceRepository;
+    private final BalanceCheckpointRepository balanceCheckpointRepository;
+    private final GroupRepository groupRepository;
+    private final MembershipRepository membershipRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseShareRepository expenseShareRepository;
+    private final SettlementRepository settlementRepository;
+    private final UserRepository userRepository;
+    private final BalanceTimelineCache balanceTimelineCache;
+    private final FxRateService fxRateService;
+    private final AppProperties appProperties;
+
+    public GroupBalanceService(GroupBalanceRepository groupBalanceRepository,
+                               BalanceCheckpointRepository balanceCheckpointRepository,
+                               GroupRepository groupRepository,
+                               MembershipRepository membershipRepository,
+                               ExpenseRepository expenseRepository,
+                               ExpenseShareRepository expenseShareRepository,
+                               SettlementRepository settlementRepository,
+                               UserRepository userRepository,
+                               BalanceTimelineCache balanceTimelineCache,
+                               FxRateService fxRateService,
+                               AppProperties appProperties) {
+        this.groupBalanceRepository = groupBalanceRepository;
+        this.balanceCheckpointRepository = balanceCheckpointRepository;
+        this.groupRepository = groupRepository;
+        this.membershipRepository = membershipRepository;
+        this.expenseRepository = expenseRepository;
+        this.expenseShareRepository = expenseShareRepository;
+        this.settlementRepository = settlementRepository;
+        this.userRepository = userRepository;
+        this.balanceTimelineCache = balanceTimelineCache;
+        this.fxRateService = fxRateService;
+        this.appProperties = appProperties;
+    }
+
+    /**
+     * The group's base currency, falling back to app.default-currency.
+     */
+    public String baseCurrency(Group group) {
+        if (group.getBaseCurrency() != null) return group.getBaseCurrency();
+        return appProperties.getDefaultCurrency() == null ? "INR" : appProperties.getDefaultCurrency();
+    }
+
+    /**
+     * Normalized currency code for a new ledger row; the group's base currency when none was given.
+     */
+    public String currencyFor(Group group, String requested) {
+        if (requested == null || requested.isBlank()) return baseCurrency(group);
+        return requested.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Bump the group's version and return the new value, to stamp on the rows this transaction
+     * inserts. Call it before inserting them: the bump locks the group row until commit, so the
+     * writers of a group commit in version order and every row stamped <= v is visible to a
+     * reader that sees version v.
+     */
+    @Transactional
+    public long nextVersion(Long groupId) {
+        groupRepository.bumpVersion(groupId);
+        return groupRepository.findVersion(groupId);
+    }
+
+    /**
+     * Create the zero balance row (in the group's base currency) for a new member.
+     */
+    @Transactional
+    public void openAccount(Group group, User user) {
+        groupBalanceRepository.save(new GroupBalance(group, user, baseCurrency(group), 0L));
+    }
+
+    /**
+     * Payer is credited the full amount, every share holder is debited their share.
+     */
+    @Transactional
+    public void applyExpense(Group group, Long payerId, String currency,
+                             long totalCents, Map<Long, Long> allocationInCents) {
+        CentsLedger deltas = new CentsLedger(allocationInCents.size() + 1);
+        deltas.expensePaid(payerId, totalCents);
+        for (Map.Entry<Long, Long> e : allocationInCents.entrySet()) {
+            deltas.expenseShare(e.getKey(), e.getValue());
+        }
+        applyDeltas(group, currency, deltas);
+    }
+
+    /**
+     * A settlement moves money from fromUser to toUser: the payer's net goes up, the receiver's goes down.
+     */
+    @Transactional
+    public void applySettlement(Group group, Long fromUserId, Long toUserId, String currency, long cents) {
+        CentsLedger deltas = new CentsLedger(2);
+        deltas.settlement(fromUserId, toUserId, cents);
+        applyDeltas(group, currency, deltas);
+    }
+
+    /**
+     * Apply the summed deltas of many ledger rows (e.g. one import batch):
+     * one update per (currency, user) instead of one per row and user.
+     */
+    @Transactional
+    public void applyBatch(Group group, CurrencyLedger deltas) {
+        for (Map.Entry<String, CentsLedger> bucket : deltas.buckets().entrySet()) {
+            applyDeltas(group, bucket.getKey(), bucket.getValue());
+        }
+    }
+
+    private void applyDeltas(Group group, String currency, CentsLedger deltas) {
+        balanceTimelineCache.invalidate(group.getId());
+        List<Long> userIds = new ArrayList<>();
+        for (long uid : deltas.userIdsAscending()) {
+            if (deltas.net(uid) != 0L) userIds.add(uid);
+        }
+        if (userIds.isEmpty()) return;
+
+        // one locking read, then the dirty rows go out as a single JDBC update batch at flush
+        Map<Long, GroupBalance> rows = new HashMap<>();
+        for (GroupBalance b : groupBalanceRepository.lockRows(group.getId(), currency, userIds)) {
+            rows.put(b.getUser().getId(), b);
+        }
+        for (Long uid : userIds) {
+            long delta = deltas.net(uid);
+            GroupBalance row = rows.get(uid);
+            if (row != null) {
+                row.setNetCents(row.getNetCents() + delta);
+            } else {
+                // first activity of this member in this currency
+                groupBalanceRepository.save(
+                        new GroupBalance(group, userRepository.getReferenceById(uid), currency, delta));
+            }
+        }
+    }
+
+    /**
+     * Projection rows of a group (users fetched), ordered by user id.
+     */
+    @Transactional(readOnly = true)
+    public List<GroupBalance> readProjection(Long groupId) {
+        return groupBalanceRepository.findByGroupIdWithUser(groupId);
+    }
+
+    /**
+     * Read the projection for a group, ordered by user id then currency.
+     * With convertTo set, each member's buckets are converted and summed into that currency.
+     */
+    @Transactional(readOnly = true)
+    public List<BalanceDto> readBalances(Group group, String convertTo) {
+        List<GroupBalance> rows = groupBalanceRepository.findByGroupIdWithUser(group.getId());
+        CurrencyLedger ledger = new CurrencyLedger();
+        for (GroupBalance b : rows) {
+            ledger.credit(b.getCurrency(), b.getUser().getId(), b.getNetCents());
+        }
+        return toBalanceDtos(memberNames(rows), ledger, baseCurrency(group), convertTo);
+    }
+
+    /**
+     * userId -> name of every member with a projection row, ordered by user id.
+     */
+    public Map<Long, String> memberNames(List<GroupBalance> projectionRows) {
+        Map<Long, String> names = new LinkedHashMap<>();
+        for (GroupBalance b : projectionRows) {
+            names.putIfAbsent(b.getUser().getId(), b.getUser().getName());
+        }
+        return names;
+    }
+
+    /**
+     * One BalanceDto per member and currency in use (a zero row in baseCurrency when nothing
+     * is in use), or with convertTo set one converted BalanceDto per member.
+     */
+    public List<BalanceDto> toBalanceDtos(Map<Long, String> members, CurrencyLedger ledger,
+                                          String baseCurrency, String convertTo) {
+        List<BalanceDto> result = new ArrayList<>();
+        if (convertTo == null) {
+            Set<String> currencies = ledger.isEmpty() ? Set.of(baseCurrency) : ledger.currencies();
+            for (Map.Entry<Long, String> m : members.entrySet()) {
+                for (String currency : currencies) {
+                    result.add(new BalanceDto(m.getKey(), m.getValue(), currency,
+                            SplitUtil.centsToBigDecimal(ledger.net(currency, m.getKey()))));
+                }
+            }
+            return result;
+        }
+
+        FxRates fx = fxRateService.rates();
+        for (String currency : ledger.currencies()) {
+            if (!fx.supports(currency, convertTo)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "No FX rate for " + currency + " -> " + convertTo);
+            }
+        }
+        for (Map.Entry<Long, String> m : members.entrySet()) {
+            long cents = 0L;
+            for (Map.Entry<String, CentsLedger> bucket : ledger.buckets().entrySet()) {
+                cents += fx.convert(bucket.getValue().net(m.getKey()), bucket.getKey(), convertTo);
+            }
+            result.add(new BalanceDto(m.getKey(), m.getValue(), convertTo, SplitUtil.centsToBigDecimal(cents)));
+        }
+        return result;
+    }
+
+    /**
+     * Fold the raw ledger of a group into currency -> userId -> net cents.
+     * Every member gets an entry in the group's base currency.
+     * Starts from the group's latest balance checkpoint (if any) and only folds the
+     * expenses and settlements written at later group versions.
+     */
+    @Transactional(readOnly = true)
+    public CurrencyLedger foldLedger(Long groupId) {
+        CurrencyLedger ledger = openLedger(groupRepository.getReferenceById(groupId));
+        long afterVersion = 0L;
+        Optional<BalanceCheckpoint> checkpoint = balanceCheckpointRepository.findByGroupIdWithEntries(groupId);
+        if (checkpoint.isPresent()) {
+            for (BalanceCheckpointEntry e : checkpoint.get().getEntries()) {
+                ledger.credit(e.getCurrency(), e.getUser().getId(), e.getNetCents());
+            }
+            afterVersion = checkpoint.get().getLastGroupVersion();
+        }
+
+        foldRange(ledger, groupId, afterVersion, Long.MAX_VALUE);
+        return ledger;
+    }
+
+    /**
+     * Add the expenses and settlements of a group written at group versions
+     * afterVersion < group_version <= upToVersion to the given ledger.
+     * The sums are pushed down to the database (GROUP BY user, currency), so this reads a few
+     * small result sets instead of hydrating every expense, share and settlement.
+     */
+    @Transactional(readOnly = true)
+    public void foldRange(CurrencyLedger ledger, Long groupId, long afterVersion, long upToVersion) {
+        for (UserAmountTotal t : expenseRepository.sumPaidByPayer(groupId, afterVersion, upToVersion)) {
+            ledger.credit(t.getCurrency(), t.getUserId(), SplitUtil.toCents(t.getTotal()));
+        }
+        for (UserAmountTotal t : expenseShareRepository.sumOwedByUser(groupId, afterVersion, upToVersion)) {
+            ledger.debit(t.getCurrency(), t.getUserId(), SplitUtil.toCents(t.getTotal()));
+        }
+        for (UserAmountTotal t : settlementRepository.sumPaidOutByUser(groupId, afterVersion, upToVersion)) {
+            ledger.credit(t.getCurrency(), t.getUserId(), SplitUtil.toCents(t.getTotal()));
+        }
+        for (UserAmountTotal t : settlementRepository.sumReceivedByUser(groupId, afterVersion, upToVersion)) {
+            ledger.debit(t.getCurrency(), t.getUserId(), SplitUtil.toCents(t.getTotal()));
+        }
+    }
+
+    /**
+     * Regenerate the projection of one group from the raw tables, ignoring any checkpoint, so it
+     * also verifies the derived data. Holds the group row lock that every writer takes in
+     * nextVersion(): a write committed by another instance cannot land between the fold and the
+     * absolute values written back. Returns the number of rows that were missing or had drifted.
+     */
+    @Transactional
+    public int rebuild(Long groupId) {
+        Group group = groupRepository.lockById(groupId).orElse(null);
+        if (group == null) return 0;
+        CurrencyLedger expected = openLedger(group);
+        foldRange(expected, groupId, 0L, Long.MAX_VALUE);
+
+        int corrected = 0;
+        CurrencyLedger projected = new CurrencyLedger();
+        for (GroupBalance b : groupBalanceRepository.findByGroup_Id(groupId)) {
+            Long uid = b.getUser().getId();
+            projected.bucket(b.getCurrency()).open(uid);
+            long want = expected.net(b.getCurrency(), uid);
+            if (b.getNetCents() != want) {
+                log.warn("Balance drift in group {} for user {} ({}): projected={} ledger={}",
+                        groupId, uid, b.getCurrency(), b.getNetCents(), want);
+                b.setNetCents(want);
+                corrected++;
+            }
+        }
+        for (Map.Entry<String, CentsLedger> bucket : expected.buckets().entrySet()) {
+            String currency = bucket.getKey();
+            for (long uid : bucket.getValue().userIdsAscending()) {
+                if (projected.contains(currency, uid)) continue;
+                groupBalanceRepository.save(new GroupBalance(group, userRepository.getReferenceById(uid),
+                        currency, bucket.getValue().net(uid)));
+                corrected++;
+            }
+        }
+        return corrected;
+    }
+
+    // Every member opened in the group's base currency, so members without activity still get a row
+    private CurrencyLedger openLedger(Group group) {
+        CurrencyLedger ledger = new CurrencyLedger();
+        CentsLedger base = ledger.bucket(baseCurrency(group));
+        for (Long uid : membershipRepository.findUserIdsByGroupId(group.getId())) {
+            base.open(uid);
+        }
+        return ledger;
+    }
+}
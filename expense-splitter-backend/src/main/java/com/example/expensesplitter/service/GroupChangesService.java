@@ -0,0 +1,132 @@
+package com.example.expensesplitter.service;
+
+import com.example.expensesplitter.config.AppProperties;
+import com.example.expensesplitter.dto.ExpenseDto;
+import com.example.expensesplitter.dto.GroupChangesDto;
+import com.example.expensesplitter.dto.MembershipDto;
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.Membership;
+import com.example.expensesplitter.entity.Settlement;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.repository.ExpenseRepository;
+import com.example.expensesplitter.repository.ExpenseRow;
+import com.example.expensesplitter.repository.GroupRepository;
+import com.example.expensesplitter.repository.MembershipRepository;
+import com.example.expensesplitter.repository.SettlementRepository;
+import com.example.expensesplitter.util.CentsLedger;
+import com.example.expensesplitter.util.CurrencyLedger;
+import com.example.expensesplitter.util.SplitUtil;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delta sync for clients that mirror a group locally. Every expense, settlement and membership
+ * row carries the group version its write produced (GroupBalanceService.nextVersion), so the
+ * rows a client at version "since" is missing are one range scan per table on
+ * (group_id, group_version), bounded above by the version read first in the same transaction.
+ */
+@Service
+public class GroupChangesService {
+
+    private final GroupRepository groupRepository;
+    private final MembershipRepository membershipRepository;
+    private final ExpenseRepository expenseRepository;
+    private final SettlementRepository settlementRepository;
+    private final ExpenseService expenseService;
+    private final GroupAccessService groupAccessService;
+    private final AppProperties appProperties;
+
+    public GroupChangesService(GroupRepository groupRepository,
+                               MembershipRepository membershipRepository,
+                               ExpenseRepository expenseRepository,
+                               SettlementRepository settlementRepository,
+                               ExpenseService expenseService,
+                               GroupAccessService groupAccessService,
+                               AppProperties appProperties) {
+        this.groupRepository = groupRepository;
+        this.membershipRepository = membershipRepository;
+        this.expenseRepository = expenseRepository;
+        this.settlementRepository = settlementRepository;
+        this.expenseService = expenseService;
+        this.groupAccessService = groupAccessService;
+        this.appProperties = appProperties;
+    }
+
+    /**
+     * Rows written after version "since" (0 = everything) up to the current version.
+     */
+    @Transactional(readOnly = true)
+    public GroupChangesDto changesSince(Long groupId, User requester, long since) {
+        if (since < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "since must not be negative");
+        }
+        groupAccessService.requireMember(groupId, requester);
+        Group group = groupRepository.getReferenceById(groupId);
+
+        long version = group.getVersion();
+        GroupChangesDto changes = new GroupChangesDto();
+        changes.setGroupId(groupId);
+        changes.setSince(since);
+        changes.setVersion(version);
+        fill(changes, List.of(), List.of(), List.of(), new CurrencyLedger());
+        if (since > version || (since > 0 && since < group.getSyncFloor())) return resync(changes);
+        if (since == version) return changes;
+
+        // one extra row per kind tells that the cap was exceeded
+        int maxRows = appProperties.getChangesMaxRows();
+        Limit limit = Limit.of(maxRows + 1);
+        List<ExpenseRow> expenseRows = expenseRepository.findWrittenBetweenVersions(groupId, since, version, limit);
+        if (expenseRows.size() > maxRows) return resync(changes);
+        List<Settlement> settlements = settlementRepository.findWrittenBetweenVersions(groupId, since, version, limit);
+        if (settlements.size() > maxRows) return resync(changes);
+        List<Membership> memberships = membershipRepository.findWrittenBetweenVersions(groupId, since, version, limit);
+        if (memberships.size() > maxRows) return resync(changes);
+
+        List<ExpenseDto> expenses = expenseService.toDtos(expenseRows);
+        CurrencyLedger deltas = new CurrencyLedger();
+        for (ExpenseDto e : expenses) {
+            CentsLedger bucket = deltas.bucket(e.getCurrency());
+            bucket.expensePaid(e.getPayerId(), SplitUtil.toCents(e.getAmount()));
+            for (ExpenseDto.ShareDto share : e.getShares()) {
+                bucket.expenseShare(share.getUserId(), SplitUtil.toCents(share.getShareAmount()));
+            }
+        }
+        for (Settlement s : settlements) {
+            deltas.bucket(s.getCurrency()).settlement(s.getFromUser().getId(), s.getToUser().getId(),
+                    SplitUtil.toCents(s.getAmount()));
+        }
+        fill(changes, expenses, settlements, memberships, deltas);
+        return changes;
+    }
+
+    private static GroupChangesDto resync(GroupChangesDto changes) {
+        changes.setResync(true);
+        return changes;
+    }
+
+    private static void fill(GroupChangesDto changes, List<ExpenseDto> expenses, List<Settlement> settlements,
+                             List<Membership> memberships, CurrencyLedger deltas) {
+        changes.setExpenses(expenses);
+        changes.setSettlements(settlements.stream().map(SettlementService::toDto).toList());
+        changes.setMembers(memberships.stream().map(m -> new MembershipDto(m.getId(), m.getUser().getId(),
+                m.getUser().getName(), m.getRole(), m.getJoinedAt())).toList());
+        List<GroupChangesDto.BalanceDeltaDto> balanceDeltas = new ArrayList<>();
+        for (Map.Entry<String, CentsLedger> bucket : deltas.buckets().entrySet()) {
+            for (long uid : bucket.getValue().userIdsAscending()) {
+                long cents = bucket.getValue().net(uid);
+                if (cents != 0L) {
+                    balanceDeltas.add(new GroupChangesDto.BalanceDeltaDto(uid, bucket.getKey(),
+                            SplitUtil.centsToBigDecimal(cents)));
+                }
+            }
+        }
+        changes.setBalanceDeltas(balanceDeltas);
+    }
+}
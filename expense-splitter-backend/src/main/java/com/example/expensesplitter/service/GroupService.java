@@ -13,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,11 +21,14 @@ public class GroupService {
 
     private final GroupRepository groupRepository;
     private final MembershipRepository membershipRepository;
+    private final GroupBalanceService groupBalanceService;
 
     public GroupService(GroupRepository groupRepository,
-                        MembershipRepository membershipRepository) {
+                        MembershipRepository membershipRepository,
+                        GroupBalanceService groupBalanceService) {
         this.groupRepository = groupRepository;
         this.membershipRepository = membershipRepository;
+        this.groupBalanceService = groupBalanceService;
     }
 
     /**
@@ -33,9 +37,21 @@ public class GroupService {
      */
     @Transactional
     public Group createGroup(String name, User owner) {
+        return createGroup(name, null, owner);
+    }
+
+    /**
+     * Same as createGroup(name, owner), with the currency balances are converted into
+     * (null = app.default-currency).
+     */
+    @Transactional
+    public Group createGroup(String name, String baseCurrency, User owner) {
         Group g = new Group();
         g.setName(name);
         g.setOwner(owner);
+        if (baseCurrency != null && !baseCurrency.isBlank()) {
+            g.setBaseCurrency(baseCurrency.trim().toUpperCase(Locale.ROOT));
+        }
         Group saved = groupRepository.save(g);
 
         // create membership for owner with role OWNER
@@ -43,13 +59,23 @@ public class GroupService {
         m.setGroup(saved);
         m.setUser(owner);
         m.setRole("OWNER");
+        m.setGroupVersion(groupBalanceService.nextVersion(saved.getId()));
         membershipRepository.save(m);
+        groupBalanceService.openAccount(saved, owner);
 
         // keep in-memory consistency
         saved.getMemberships().add(m);
         return saved;
     }
 
+    /**
+     * The group's version (bumped by every ledger or membership write), or null when the group
+     * does not exist or the user is not a member. One primary-key lookup, no ledger tables.
+     */
+    public Long currentVersion(Long groupId, User user) {
+        return groupRepository.findVersionForMember(groupId, user.getId());
+    }
+
     /**
      * Return all groups a given user belongs to.
      * We fetch memberships by user then map to groups.
@@ -76,7 +102,9 @@ public class GroupService {
         m.setGroup(group);
         m.setUser(user);
         m.setRole(role == null ? "MEMBER" : role);
+        m.setGroupVersion(groupBalanceService.nextVersion(group.getId()));
         Membership saved = membershipRepository.save(m);
+        groupBalanceService.openAccount(group, user);
 
         // keep in-memory relationship consistent
         group.getMemberships().add(saved);
@@ -105,7 +133,10 @@ public class GroupService {
                 ))
                 .collect(Collectors.toList());
 
-        return new GroupDetailsDto(group.getId(), group.getName(), group.getOwner().getId(), group.getCreatedAt(), members);
+        GroupDetailsDto details = new GroupDetailsDto(group.getId(), group.getName(), group.getOwner().getId(),
+                group.getCreatedAt(), members);
+        details.setVersion(group.getVersion());
+        return details;
     }
 }
 
@@ -0,0 +1,184 @@
+package com.example.expensesplitter.service;
+
+import com.example.expensesplitter.config.AppProperties;
+import com.example.expensesplitter.entity.IdempotencyRecord;
+import com.example.expensesplitter.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling for ledger POSTs.
+ *
+ * A key is scoped to the calling user. Recent keys are answered from a bounded in-memory LRU
+ * without touching the database. Otherwise the request runs in one transaction that first inserts
+ * and flushes the (user, key) row, then runs the write and fills the response into that row. The
+ * unique constraint makes a duplicate (a concurrent retry, or one arriving after a restart) fail
+ * on that first insert, before it has locked or written any ledger row, and the stored response
+ * is replayed instead; a concurrent retry waits only on the key row of the attempt in flight.
+ * A first-time key costs the insert and one update of the same row, never an extra lookup.
+ * Only 2xx responses are recorded; anything else rolls the key row back so the request may be
+ * retried.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private record Stored(String request, int statusCode, String body, long expiresAtMs) {}
+
+    // thrown inside the transaction when the key row already exists, so the template rolls back
+    private static final class DuplicateKey extends RuntimeException {
+        DuplicateKey(Throwable cause) {
+            super(cause);
+        }
+    }
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final AppProperties appProperties;
+    private final Map<String, Stored> recent;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              AppProperties appProperties) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.appProperties = appProperties;
+        int maxEntries = Math.max(1, appProperties.getIdempotencyCacheSize());
+        this.recent = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Stored> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Run action at most once per (userId, key). Without a key the action simply runs.
+     * request identifies the endpoint (e.g. "POST /api/groups/7/expenses"); reusing a key
+     * for a different request is a 422.
+     */
+    public ResponseEntity<?> execute(Long userId, String key, String request, Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        key = key.trim();
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    HEADER + " must not exceed " + MAX_KEY_LENGTH + " characters");
+        }
+        String cacheKey = userId + ":" + key;
+
+        Stored hit = cached(cacheKey);
+        if (hit != null) {
+            return replay(hit, request);
+        }
+
+        String idemKey = key;
+        Stored[] recorded = new Stored[1];
+        try {
+            ResponseEntity<?> response = transactionTemplate.execute(status -> {
+                // claim the key before the write: a duplicate fails here, not after the ledger work
+                IdempotencyRecord claimed;
+                try {
+                    claimed = idempotencyRecordRepository.saveAndFlush(
+                            new IdempotencyRecord(userId, idemKey, request, 0, null));
+                } catch (DataIntegrityViolationException e) {
+                    throw new DuplicateKey(e);
+                }
+                ResponseEntity<?> r = action.get();
+                if (!r.getStatusCode().is2xxSuccessful()) {
+                    status.setRollbackOnly();
+                    return r;
+                }
+                String body = toJson(r.getBody());
+                claimed.setStatusCode(r.getStatusCode().value());
+                claimed.setResponseBody(body); // written by the commit flush
+                recorded[0] = new Stored(request, r.getStatusCode().value(), body, expiresAt(Instant.now()));
+                return r;
+            });
+            if (recorded[0] != null) {
+                remember(cacheKey, recorded[0]);
+            }
+            return response;
+        } catch (DuplicateKey e) {
+            IdempotencyRecord existing = idempotencyRecordRepository.findByUserIdAndIdemKey(userId, idemKey)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT,
+                            "A request with this " + HEADER + " was already processed"));
+            log.debug("Replaying stored response for {} key {} of user {}", existing.getRequest(), idemKey, userId);
+            Stored stored = new Stored(existing.getRequest(), existing.getStatusCode(), existing.getResponseBody(),
+                    expiresAt(existing.getCreatedAt()));
+            remember(cacheKey, stored);
+            return replay(stored, request);
+        }
+    }
+
+    /**
+     * Drop durable keys older than the TTL. Returns the number of rows removed.
+     */
+    @Transactional
+    public int purgeExpired() {
+        Instant cutoff = Instant.now().minusMillis(appProperties.getIdempotencyTtlMs());
+        return idempotencyRecordRepository.deleteCreatedBefore(cutoff);
+    }
+
+    private ResponseEntity<?> replay(Stored stored, String request) {
+        if (!stored.request().equals(request)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    HEADER + " was already used for a different request");
+        }
+        return ResponseEntity.status(stored.statusCode())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(REPLAYED_HEADER, "true")
+                .body(stored.body());
+    }
+
+    private synchronized Stored cached(String cacheKey) {
+        Stored s = recent.get(cacheKey);
+        if (s != null && s.expiresAtMs() < System.currentTimeMillis()) {
+            recent.remove(cacheKey);
+            return null;
+        }
+        return s;
+    }
+
+    private synchronized void remember(String cacheKey, Stored stored) {
+        recent.put(cacheKey, stored);
+    }
+
+    private long expiresAt(Instant createdAt) {
+        return createdAt.toEpochMilli() + appProperties.getIdempotencyTtlMs();
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response for " + HEADER, e);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.expensesplitter.service;
+
+import com.example.expensesplitter.dto.ExpenseDto;
+import com.example.expensesplitter.dto.SettlementDto;
+import com.example.expensesplitter.repository.GroupRepository;
+import com.example.expensesplitter.util.CsvRecordWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Whole-group dumps of expenses and settlements as a JSON array, written element by element
+ * while a forward-only result set is read. Heap use does not depend on the number of rows:
+ * at most one expense is held at a time.
+ *
+ * Elements have the same shape as the list endpoints, except that ITEMIZED expenses come
+ * without their line items.
+ *
+ * The CSV export writes the same rows flat, with one share column per member.
+ */
+@Service
+public class LedgerStreamService {
+
+    // one row per share (or per expense without shares), grouped back into expenses by id
+    private static final String SELECT_EXPENSES =
+            "SELECT e.id, e.group_id, e.created_by, e.payer_id, e.amount, e.currency, e.split_type, e.note, " +
+            "e.created_at, s.user_id, s.share_amount, s.is_settled " +
+            "FROM expenses e LEFT JOIN expense_shares s ON s.expense_id = e.id " +
+            "WHERE e.group_id = ? ORDER BY e.id, s.id";
+    private static final String SELECT_SETTLEMENTS =
+            "SELECT s.id, s.from_user_id, fu.name, s.to_user_id, tu.name, s.amount, s.currency, s.note, " +
+            "s.recorded_by, rb.name, s.created_at FROM settlements s " +
+            "JOIN users fu ON fu.id = s.from_user_id JOIN users tu ON tu.id = s.to_user_id " +
+            "JOIN users rb ON rb.id = s.recorded_by WHERE s.group_id = ? ORDER BY s.id";
+
+    // CSV export: everything up to one group version, so the three reads agree with each other
+    private static final String SELECT_CSV_MEMBERS =
+            "SELECT u.id, u.name FROM memberships m JOIN users u ON u.id = m.user_id " +
+            "WHERE m.group_id = ? AND m.group_version <= ? ORDER BY u.id";
+    private static final String SELECT_CSV_EXPENSES =
+            "SELECT e.id, e.created_at, e.currency, e.amount, e.split_type, e.payer_id, e.created_by, e.note, " +
+            "s.user_id, s.share_amount " +
+            "FROM expenses e LEFT JOIN expense_shares s ON s.expense_id = e.id " +
+            "WHERE e.group_id = ? AND e.group_version <= ? ORDER BY e.created_at, e.id";
+    private static final String SELECT_CSV_SETTLEMENTS =
+            "SELECT id, created_at, currency, amount, from_user_id, to_user_id, recorded_by, note " +
+            "FROM settlements WHERE group_id = ? AND group_version <= ? ORDER BY created_at, id";
+
+    private static final List<String> CSV_COLUMNS = List.of("type", "id", "created_at", "currency", "amount",
+            "split_type", "paid_by", "paid_to", "recorded_by", "note");
+
+    // rows fetched per round trip by drivers that honour a positive fetch size
+    private static final int FETCH_SIZE = 1000;
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final GroupRepository groupRepository;
+
+    public LedgerStreamService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, GroupRepository groupRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.groupRepository = groupRepository;
+    }
+
+    public void writeExpenses(long groupId, OutputStream out) throws IOException {
+        JsonGenerator json = generator(out);
+        json.writeStartArray();
+        Calendar utc = Calendar.getInstance(UTC);
+        ExpenseDto[] current = new ExpenseDto[1];
+        stream(SELECT_EXPENSES, rs -> {
+            long id = rs.getLong(1);
+            ExpenseDto dto = current[0];
+            if (dto == null || dto.getId() != id) {
+                if (dto != null) write(json, dto);
+                dto = new ExpenseDto();
+                dto.setId(id);
+                dto.setGroupId(rs.getLong(2));
+                dto.setCreatedById(rs.getLong(3));
+                dto.setPayerId(rs.getLong(4));
+                dto.setAmount(rs.getBigDecimal(5));
+                dto.setCurrency(rs.getString(6));
+                dto.setSplitType(rs.getString(7));
+                dto.setNote(rs.getString(8));
+                Timestamp createdAt = rs.getTimestamp(9, utc);
+                dto.setCreatedAt(createdAt == null ? null : createdAt.toInstant());
+                dto.setShares(new ArrayList<>());
+                current[0] = dto;
+            }
+            long userId = rs.getLong(10);
+            if (!rs.wasNull()) {
+                ExpenseDto.ShareDto share = new ExpenseDto.ShareDto();
+                share.setUserId(userId);
+                share.setShareAmount(rs.getBigDecimal(11));
+                share.setSettled(rs.getBoolean(12));
+                dto.getShares().add(share);
+            }
+        }, groupId);
+        if (current[0] != null) write(json, current[0]);
+        json.writeEndArray();
+        json.flush();
+    }
+
+    public void writeSettlements(long groupId, OutputStream out) throws IOException {
+        JsonGenerator json = generator(out);
+        json.writeStartArray();
+        Calendar utc = Calendar.getInstance(UTC);
+        stream(SELECT_SETTLEMENTS, rs -> {
+            Timestamp createdAt = rs.getTimestamp(11, utc);
+            write(json, new SettlementDto(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getLong(4),
+                    rs.getString(5), rs.getBigDecimal(6), rs.getString(7), rs.getString(8), rs.getLong(9),
+                    rs.getString(10), createdAt == null ? null : createdAt.toInstant()));
+        }, groupId);
+        json.writeEndArray();
+        json.flush();
+    }
+
+    /**
+     * Expenses (oldest first), then settlements, as CSV. Each expense row carries every member's
+     * share in a column of its own, empty where the member has none; paid_by, paid_to and
+     * recorded_by are user ids, named in the share column headers. The share rows come from the
+     * expense query itself and are pivoted into a reused array, one expense at a time.
+     */
+    public void writeCsv(long groupId, OutputStream out) throws IOException {
+        long version = groupRepository.findVersion(groupId);
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        CsvRecordWriter csv = new CsvRecordWriter(writer);
+        Calendar utc = Calendar.getInstance(UTC);
+
+        // members are never removed and shares are only written for members: they are the share columns
+        Map<Long, Integer> column = new HashMap<>();
+        for (String name : CSV_COLUMNS) csv.field(name);
+        stream(SELECT_CSV_MEMBERS, rs -> {
+            column.put(rs.getLong(1), column.size());
+            csvField(csv, "share " + rs.getString(2) + " (" + rs.getLong(1) + ")");
+        }, groupId, version);
+        csv.endRecord();
+
+        BigDecimal[] shares = new BigDecimal[column.size()];
+        long[] current = {-1L};
+        stream(SELECT_CSV_EXPENSES, rs -> {
+            long id = rs.getLong(1);
+            try {
+                if (id != current[0]) {
+                    if (current[0] != -1L) endExpense(csv, shares);
+                    current[0] = id;
+                    Timestamp createdAt = rs.getTimestamp(2, utc);
+                    csv.field("expense").field(id).field(createdAt == null ? null : createdAt.toInstant())
+                            .field(rs.getString(3)).field(rs.getBigDecimal(4).toPlainString())
+                            .field(rs.getString(5)).field(rs.getLong(6)).field(null).field(rs.getLong(7))
+                            .text(rs.getString(8));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // client went away: stop reading rows
+            }
+            long userId = rs.getLong(9);
+            if (!rs.wasNull()) {
+                Integer at = column.get(userId);
+                if (at == null) throw new IllegalStateException("Share of non-member " + userId + " on expense " + id);
+                shares[at] = rs.getBigDecimal(10);
+            }
+        }, groupId, version);
+        if (current[0] != -1L) endExpense(csv, shares);
+
+        stream(SELECT_CSV_SETTLEMENTS, rs -> {
+            try {
+                Timestamp createdAt = rs.getTimestamp(2, utc);
+                csv.field("settlement").field(rs.getLong(1)).field(createdAt == null ? null : createdAt.toInstant())
+                        .field(rs.getString(3)).field(rs.getBigDecimal(4).toPlainString()).field(null)
+                        .field(rs.getLong(5)).field(rs.getLong(6)).field(rs.getLong(7)).text(rs.getString(8));
+                for (int i = 0; i < shares.length; i++) csv.field(null);
+                csv.endRecord();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, groupId, version);
+        writer.flush();
+    }
+
+    private static void endExpense(CsvRecordWriter csv, BigDecimal[] shares) throws IOException {
+        for (BigDecimal share : shares) csv.field(share == null ? null : share.toPlainString());
+        csv.endRecord();
+        Arrays.fill(shares, null);
+    }
+
+    private static void csvField(CsvRecordWriter csv, String value) {
+        try {
+            csv.text(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private JsonGenerator generator(OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // the container owns the response stream
+        return json;
+    }
+
+    private static void write(JsonGenerator json, Object element) {
+        try {
+            json.writeObject(element);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // client went away: stop reading rows
+        }
+    }
+
+    private void stream(String sql, RowCallbackHandler handler, long... params) throws IOException {
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize(con));
+                for (int i = 0; i < params.length; i++) ps.setLong(i + 1, params[i]);
+                return ps;
+            }, handler);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // MySQL Connector/J only streams rows one by one with Integer.MIN_VALUE; other drivers take a batch size
+    private static int fetchSize(Connection con) throws SQLException {
+        return "MySQL".equals(con.getMetaData().getDatabaseProductName()) ? Integer.MIN_VALUE : FETCH_SIZE;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.expensesplitter.service;
+
+import com.example.expensesplitter.dto.GroupStatsDto;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.util.MonthlyRollup;
+import com.example.expensesplitter.util.SplitUtil;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains group_monthly_rollups and serves the stats endpoint from it.
+ *
+ * Write paths add the MonthlyRollup of what they inserted with apply(), in their own transaction,
+ * as one batch of upserts. rebuild() recomputes a group from the ledger tables (the backfill
+ * runner calls it per group); it holds the group row lock that every writer takes through
+ * GroupBalanceService.nextVersion, so no write lands between its read and its replace.
+ */
+@Service
+public class MonthlyRollupService {
+
+    private static final String UPSERT =
+            "INSERT INTO group_monthly_rollups (group_id, month_start, user_id, currency, kind, paid_cents, " +
+            "share_cents, entries) VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+            "paid_cents = paid_cents + VALUES(paid_cents), share_cents = share_cents + VALUES(share_cents), " +
+            "entries = entries + VALUES(entries)";
+    private static final String SELECT_GROUP =
+            "SELECT month_start, user_id, currency, kind, paid_cents, share_cents, entries " +
+            "FROM group_monthly_rollups WHERE group_id = ? AND month_start >= ? AND month_start <= ? " +
+            "ORDER BY month_start, currency, kind, user_id";
+
+    private static final String LOCK_GROUP = "SELECT id FROM `groups` WHERE id = ? FOR UPDATE";
+    private static final String DELETE_GROUP = "DELETE FROM group_monthly_rollups WHERE group_id = ?";
+    private static final String SUM_PAID =
+            "SELECT YEAR(created_at), MONTH(created_at), payer_id, currency, split_type, SUM(amount), COUNT(*) " +
+            "FROM expenses WHERE group_id = ? " +
+            "GROUP BY YEAR(created_at), MONTH(created_at), payer_id, currency, split_type";
+    private static final String SUM_SHARES =
+            "SELECT YEAR(e.created_at), MONTH(e.created_at), s.user_id, e.currency, e.split_type, SUM(s.share_amount) " +
+            "FROM expense_shares s JOIN expenses e ON e.id = s.expense_id WHERE e.group_id = ? " +
+            "GROUP BY YEAR(e.created_at), MONTH(e.created_at), s.user_id, e.currency, e.split_type";
+    private static final String SUM_PAID_OUT =
+            "SELECT YEAR(created_at), MONTH(created_at), from_user_id, currency, SUM(amount), COUNT(*) " +
+            "FROM settlements WHERE group_id = ? " +
+            "GROUP BY YEAR(created_at), MONTH(created_at), from_user_id, currency";
+    private static final String SUM_RECEIVED =
+            "SELECT YEAR(created_at), MONTH(created_at), to_user_id, currency, SUM(amount) " +
+            "FROM settlements WHERE group_id = ? " +
+            "GROUP BY YEAR(created_at), MONTH(created_at), to_user_id, currency";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GroupAccessService groupAccessService;
+
+    public MonthlyRollupService(JdbcTemplate jdbcTemplate, GroupAccessService groupAccessService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.groupAccessService = groupAccessService;
+    }
+
+    /**
+     * Add the sums of newly written ledger rows to the group's rollups.
+     */
+    @Transactional
+    public void apply(long groupId, MonthlyRollup deltas) {
+        if (deltas.isEmpty()) return;
+        List<Map.Entry<MonthlyRollup.Key, MonthlyRollup.Sums>> rows = new ArrayList<>(deltas.sums().entrySet());
+        jdbcTemplate.batchUpdate(UPSERT, rows, rows.size(), (ps, row) -> {
+            MonthlyRollup.Key k = row.getKey();
+            ps.setLong(1, groupId);
+            ps.setDate(2, Date.valueOf(k.month()));
+            ps.setLong(3, k.userId());
+            ps.setString(4, k.currency());
+            ps.setString(5, k.kind());
+            ps.setLong(6, row.getValue().paidCents());
+            ps.setLong(7, row.getValue().shareCents());
+            ps.setInt(8, row.getValue().entries());
+        });
+    }
+
+    /**
+     * Replace the group's rollups with sums recomputed from expenses, shares and settlements.
+     * Returns the number of rollup rows written.
+     */
+    @Transactional
+    public int rebuild(long groupId) {
+        if (jdbcTemplate.queryForList(LOCK_GROUP, Long.class, groupId).isEmpty()) return 0;
+        MonthlyRollup sums = new MonthlyRollup();
+        jdbcTemplate.query(SUM_PAID, rs -> {
+            sums.add(new MonthlyRollup.Key(month(rs.getInt(1), rs.getInt(2)), rs.getLong(3), rs.getString(4),
+                    rs.getString(5)), SplitUtil.toCents(rs.getBigDecimal(6)), 0L, rs.getInt(7));
+        }, groupId);
+        jdbcTemplate.query(SUM_SHARES, rs -> {
+            sums.add(new MonthlyRollup.Key(month(rs.getInt(1), rs.getInt(2)), rs.getLong(3), rs.getString(4),
+                    rs.getString(5)), 0L, SplitUtil.toCents(rs.getBigDecimal(6)), 0);
+        }, groupId);
+        jdbcTemplate.query(SUM_PAID_OUT, rs -> {
+            sums.add(new MonthlyRollup.Key(month(rs.getInt(1), rs.getInt(2)), rs.getLong(3), rs.getString(4),
+                    MonthlyRollup.SETTLEMENT), SplitUtil.toCents(rs.getBigDecimal(5)), 0L, rs.getInt(6));
+        }, groupId);
+        jdbcTemplate.query(SUM_RECEIVED, rs -> {
+            sums.add(new MonthlyRollup.Key(month(rs.getInt(1), rs.getInt(2)), rs.getLong(3), rs.getString(4),
+                    MonthlyRollup.SETTLEMENT), 0L, SplitUtil.toCents(rs.getBigDecimal(5)), 0);
+        }, groupId);
+
+        jdbcTemplate.update(DELETE_GROUP, groupId);
+        apply(groupId, sums);
+        return sums.sums().size();
+    }
+
+    private static LocalDate month(int year, int month) {
+        return LocalDate.of(year, month, 1);
+    }
+
+    /**
+     * Per-month spend, payers, split types and consumed shares of a group, optionally limited to
+     * the months from..to (yyyy-MM, inclusive). Reads only the rollup rows.
+     */
+    @Transactional(readOnly = true)
+    public GroupStatsDto stats(Long groupId, User requester, String from, String to) {
+        LocalDate first = from == null ? LocalDate.of(1, 1, 1) : parseMonth(from);
+        LocalDate last = to == null ? LocalDate.of(9999, 12, 1) : parseMonth(to);
+        groupAccessService.requireMember(groupId, requester);
+
+        Map<String, MonthTotals> months = new LinkedHashMap<>(); // rows come ordered by month, currency
+        jdbcTemplate.query(SELECT_GROUP, rs -> {
+            YearMonth month = YearMonth.from(rs.getDate(1).toLocalDate());
+            String currency = rs.getString(3);
+            MonthTotals m = months.computeIfAbsent(month + " " + currency, k -> new MonthTotals(month, currency));
+            m.add(rs.getLong(2), rs.getString(4), rs.getLong(5), rs.getLong(6), rs.getInt(7));
+        }, groupId, Date.valueOf(first), Date.valueOf(last));
+
+        GroupStatsDto stats = new GroupStatsDto();
+        stats.setGroupId(groupId);
+        stats.setMonths(months.values().stream().map(MonthTotals::toDto).toList());
+        return stats;
+    }
+
+    private static LocalDate parseMonth(String value) {
+        try {
+            return YearMonth.parse(value).atDay(1);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Months are given as yyyy-MM");
+        }
+    }
+
+    private static final class MonthTotals {
+        final YearMonth month;
+        final String currency;
+        long spend;
+        int expenses;
+        long settled;
+        int settlements;
+        final Map<Long, Long> paidByUser = new TreeMap<>();
+        final Map<Long, Long> consumedByUser = new TreeMap<>();
+        final Map<String, long[]> bySplitType = new TreeMap<>(); // amount, count
+
+        MonthTotals(YearMonth month, String currency) {
+            this.month = month;
+            this.currency = currency;
+        }
+
+        void add(long userId, String kind, long paidCents, long shareCents, int entries) {
+            if (MonthlyRollup.SETTLEMENT.equals(kind)) {
+                settled += paidCents;
+                settlements += entries;
+                return;
+            }
+            spend += paidCents;
+            expenses += entries;
+            if (paidCents != 0L) paidByUser.merge(userId, paidCents, Long::sum);
+            if (shareCents != 0L) consumedByUser.merge(userId, shareCents, Long::sum);
+            long[] t = bySplitType.computeIfAbsent(kind, k -> new long[2]);
+            t[0] += paidCents;
+            t[1] += entries;
+        }
+
+        GroupStatsDto.MonthDto toDto() {
+            GroupStatsDto.MonthDto dto = new GroupStatsDto.MonthDto();
+            dto.setMonth(month.toString());
+            dto.setCurrency(currency);
+            dto.setTotalSpend(SplitUtil.centsToBigDecimal(spend));
+            dto.setExpenseCount(expenses);
+            dto.setByPayer(userAmounts(paidByUser));
+            dto.setConsumed(userAmounts(consumedByUser));
+            List<GroupStatsDto.SplitTypeDto> types = new ArrayList<>();
+            for (Map.Entry<String, long[]> t : bySplitType.entrySet()) {
+                types.add(new GroupStatsDto.SplitTypeDto(t.getKey(), SplitUtil.centsToBigDecimal(t.getValue()[0]),
+                        (int) t.getValue()[1]));
+            }
+            dto.setBySplitType(types);
+            dto.setSettled(SplitUtil.centsToBigDecimal(settled));
+            dto.setSettlementCount(settlements);
+            return dto;
+        }
+
+        private static List<GroupStatsDto.UserAmountDto> userAmounts(Map<Long, Long> cents) {
+            List<GroupStatsDto.UserAmountDto> list = new ArrayList<>();
+            cents.forEach((uid, c) -> list.add(new GroupStatsDto.UserAmountDto(uid, SplitUtil.centsToBigDecimal(c))));
+            return list;
+        }
+    }
+}
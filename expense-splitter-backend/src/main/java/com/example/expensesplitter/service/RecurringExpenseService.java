@@ -0,0 +1,462 @@
+package com.example.expensesplitter.service;
+
+import com.example.expensesplitter.config.AppProperties;
+import com.example.expensesplitter.dto.CreateExpenseRequest;
+import com.example.expensesplitter.dto.CreateRecurringExpenseRequest;
+import com.example.expensesplitter.dto.RecurringExpenseDto;
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.RecurringExpense;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.repository.GroupRepository;
+import com.example.expensesplitter.repository.MembershipRepository;
+import com.example.expensesplitter.repository.RecurringExpenseRepository;
+import com.example.expensesplitter.util.CentsLedger;
+import com.example.expensesplitter.util.CurrencyLedger;
+import com.example.expensesplitter.util.MonthlyRollup;
+import com.example.expensesplitter.util.SplitUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recurring expense definitions and the scheduler that materializes them.
+ *
+ * Each tick claims up to app.recurring-batch-size due definitions with one indexed query and one
+ * batched conditional UPDATE that stamps claimed_by / claimed_until; a row already claimed by a
+ * live instance does not match, so several app instances never pick the same row. The claimed
+ * batch is then re-read FOR UPDATE (a claim that expired and was taken over simply drops out),
+ * its group memberships loaded in one query, and every due occurrence inserted with
+ * ExpenseBatchWriter in the same transaction that advances next_run_at and clears the claim:
+ * an occurrence is either written together with its advanced schedule or not at all.
+ * A crashed instance's claims expire after app.recurring-claim-ttl-ms and are picked up again.
+ * If a batch fails, its definitions are retried one by one; one that still fails is released
+ * with last_error and retried on the next tick.
+ *
+ * Missed occurrences (downtime) are caught up, app.recurring-max-catch-up per definition per
+ * round. Materialized expenses are stamped with the time they were written, not the nominal
+ * occurrence time, so a catch-up never changes an as-of balance or history day already served.
+ * A definition whose payer, creator or split no longer fits the group is deactivated with last_error.
+ */
+@Service
+public class RecurringExpenseService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringExpenseService.class);
+
+    private static final int MAX_ROUNDS_PER_TICK = 20;
+
+    private static final String SELECT_DUE =
+            "SELECT id FROM recurring_expenses WHERE active = TRUE AND next_run_at <= ? " +
+            "AND (claimed_until IS NULL OR claimed_until < ?) ORDER BY next_run_at, id LIMIT ?";
+    private static final String CLAIM =
+            "UPDATE recurring_expenses SET claimed_by = ?, claimed_until = ? WHERE id = ? AND active = TRUE " +
+            "AND next_run_at <= ? AND (claimed_until IS NULL OR claimed_until < ?)";
+    private static final String SELECT_CLAIMED =
+            "SELECT id, group_id, created_by, payer_id, amount, currency, split_type, shares, note, schedule, " +
+            "time_zone, next_run_at FROM recurring_expenses WHERE claimed_by = ? ORDER BY id FOR UPDATE";
+    private static final String ADVANCE =
+            "UPDATE recurring_expenses SET next_run_at = ?, last_run_at = ?, active = ?, last_error = ?, " +
+            "claimed_by = NULL, claimed_until = NULL WHERE id = ?";
+    private static final String SELECT_CLAIMED_IDS =
+            "SELECT id FROM recurring_expenses WHERE claimed_by = ?";
+    private static final String RECLAIM =
+            "UPDATE recurring_expenses SET claimed_by = ? WHERE id = ? AND claimed_by = ?";
+    private static final String RELEASE_WITH_ERROR =
+            "UPDATE recurring_expenses SET last_error = ?, claimed_by = NULL, claimed_until = NULL " +
+            "WHERE claimed_by = ?";
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    private static final TypeReference<List<CreateExpenseRequest.ShareLine>> SHARE_LINES = new TypeReference<>() {};
+
+    // A claimed definition as read back inside the materializing transaction
+    private record Definition(long id, long groupId, long createdBy, long payerId, BigDecimal amount,
+                              String currency, String splitType, String sharesJson, String note,
+                              String schedule, String timeZone, Instant nextRunAt) {}
+
+    // What one definition contributes to a batch, and how its row is advanced
+    private record Plan(Definition def, int occurrences, Map<Long, Long> allocationInCents,
+                        Instant nextRunAt, boolean active, String error) {}
+
+    private final RecurringExpenseRepository recurringExpenseRepository;
+    private final GroupRepository groupRepository;
+    private final MembershipRepository membershipRepository;
+    private final ExpenseService expenseService;
+    private final ExpenseBatchWriter expenseBatchWriter;
+    private final GroupBalanceService groupBalanceService;
+    private final MonthlyRollupService monthlyRollupService;
+    private final GroupAccessService groupAccessService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final AppProperties appProperties;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong claims = new AtomicLong();
+
+    public RecurringExpenseService(RecurringExpenseRepository recurringExpenseRepository,
+                                   GroupRepository groupRepository,
+                                   MembershipRepository membershipRepository,
+                                   ExpenseService expenseService,
+                                   ExpenseBatchWriter expenseBatchWriter,
+                                   GroupBalanceService groupBalanceService,
+                                   MonthlyRollupService monthlyRollupService,
+                                   GroupAccessService groupAccessService,
+                                   JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   ObjectMapper objectMapper,
+                                   AppProperties appProperties) {
+        this.recurringExpenseRepository = recurringExpenseRepository;
+        this.groupRepository = groupRepository;
+        this.membershipRepository = membershipRepository;
+        this.expenseService = expenseService;
+        this.expenseBatchWriter = expenseBatchWriter;
+        this.groupBalanceService = groupBalanceService;
+        this.monthlyRollupService = monthlyRollupService;
+        this.groupAccessService = groupAccessService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.appProperties = appProperties;
+    }
+
+    // ---------------- DEFINITIONS ----------------
+
+    /**
+     * Validate the template exactly like a one-off expense (nothing is written for it) and store it.
+     */
+    @Transactional
+    public RecurringExpenseDto create(Long groupId, User creator, CreateRecurringExpenseRequest req) {
+        if (req.getSplitType() != null && "ITEMIZED".equalsIgnoreCase(req.getSplitType().trim())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ITEMIZED expenses cannot recur");
+        }
+        Group group = expenseService.findGroup(groupId);
+        ExpenseService.Draft draft = expenseService.draft(group, expenseService.loadMembers(group), creator, req);
+
+        CronExpression cron = parseSchedule(req.getSchedule());
+        ZoneId zone = parseZone(req.getTimeZone());
+        Instant start = req.getStartAt() == null ? Instant.now() : req.getStartAt();
+        ZonedDateTime first = cron.next(start.atZone(zone).minusNanos(1));
+        if (first == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Schedule has no upcoming occurrence");
+        }
+
+        RecurringExpense r = new RecurringExpense();
+        r.setGroupId(groupId);
+        r.setCreatedById(creator.getId());
+        r.setPayerId(req.getPayerId());
+        r.setAmount(draft.expense().getAmount());
+        r.setCurrency(draft.expense().getCurrency());
+        r.setSplitType(draft.expense().getSplitType());
+        r.setSharesJson(req.getShares() == null ? null : toJson(req.getShares()));
+        r.setNote(req.getNote());
+        r.setSchedule(req.getSchedule().trim());
+        r.setTimeZone(zone.getId());
+        r.setNextRunAt(first.toInstant());
+        return toDto(recurringExpenseRepository.save(r));
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecurringExpenseDto> list(Long groupId, User requester) {
+        groupAccessService.requireMember(groupId, requester);
+        List<RecurringExpenseDto> dtos = new ArrayList<>();
+        for (RecurringExpense r : recurringExpenseRepository.findByGroupIdOrderByIdAsc(groupId)) {
+            dtos.add(toDto(r));
+        }
+        return dtos;
+    }
+
+    @Transactional
+    public void deactivate(Long groupId, Long id, User requester) {
+        groupAccessService.requireMember(groupId, requester);
+        if (recurringExpenseRepository.deactivate(groupId, id) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Recurring expense not found");
+        }
+    }
+
+    // ---------------- SCHEDULER ----------------
+
+    /**
+     * Materialize everything due now, batch by batch. Returns the number of expenses written.
+     */
+    public int materializeDue() {
+        Instant now = Instant.now();
+        int batchSize = Math.max(1, appProperties.getRecurringBatchSize());
+        int written = 0;
+        for (int round = 0; round < MAX_ROUNDS_PER_TICK; round++) {
+            String token = instanceId + ":" + claims.incrementAndGet();
+            int claimed = claim(token, now, batchSize);
+            if (claimed == 0) break;
+            written += materialize(token, now);
+            if (claimed < batchSize) break;
+        }
+        return written;
+    }
+
+    // Stamp up to limit due, unclaimed rows with token; committed on its own so other instances see it
+    private int claim(String token, Instant now, int limit) {
+        Calendar utc = Calendar.getInstance(UTC);
+        Timestamp nowTs = Timestamp.from(now);
+        Timestamp until = Timestamp.from(now.plusMillis(appProperties.getRecurringClaimTtlMs()));
+        Integer claimed;
+        try {
+            claimed = transactionTemplate.execute(status -> {
+                List<Long> due = jdbcTemplate.query(SELECT_DUE, ps -> {
+                    ps.setTimestamp(1, nowTs, utc);
+                    ps.setTimestamp(2, nowTs, utc);
+                    ps.setInt(3, limit);
+                }, (rs, i) -> rs.getLong(1));
+                if (due.isEmpty()) return 0;
+                // lock rows in id order so two instances claiming overlapping rows queue instead of deadlocking
+                due.sort(null);
+                jdbcTemplate.batchUpdate(CLAIM, due, due.size(), (ps, id) -> {
+                    ps.setString(1, token);
+                    ps.setTimestamp(2, until, utc);
+                    ps.setLong(3, id);
+                    ps.setTimestamp(4, nowTs, utc);
+                    ps.setTimestamp(5, nowTs, utc);
+                });
+                return due.size();
+            });
+        } catch (PessimisticLockingFailureException e) {
+            // another instance holds these rows; whatever it does not take is picked up by the next tick
+            log.debug("Recurring expense claim {} lost a lock race: {}", token, e.getMessage());
+            return 0;
+        }
+        return claimed == null ? 0 : claimed;
+    }
+
+    private int materialize(String token, Instant now) {
+        try {
+            Integer written = transactionTemplate.execute(status -> writeClaimed(token, now));
+            return written == null ? 0 : written;
+        } catch (RuntimeException e) {
+            log.warn("Recurring expense batch {} failed ({}), materializing its definitions one by one",
+                    token, e.getMessage());
+        }
+        // one claim token per definition, so a failing definition cannot hold back the others
+        int written = 0;
+        for (Long id : jdbcTemplate.queryForList(SELECT_CLAIMED_IDS, Long.class, token)) {
+            String single = token + ":" + id;
+            jdbcTemplate.update(RECLAIM, single, id, token);
+            try {
+                Integer n = transactionTemplate.execute(status -> writeClaimed(single, now));
+                written += n == null ? 0 : n;
+            } catch (RuntimeException e) {
+                // released with the reason; retried on the next tick
+                log.warn("Recurring expense {} failed: {}", id, e.getMessage());
+                String reason = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+                jdbcTemplate.update(RELEASE_WITH_ERROR, truncate(reason), single);
+            }
+        }
+        return written;
+    }
+
+    private int writeClaimed(String token, Instant now) {
+        Calendar utc = Calendar.getInstance(UTC);
+        List<Definition> defs = jdbcTemplate.query(SELECT_CLAIMED, ps -> ps.setString(1, token),
+                (rs, i) -> definition(rs, utc));
+        if (defs.isEmpty()) return 0;
+
+        Set<Long> groupIds = new TreeSet<>();
+        for (Definition d : defs) groupIds.add(d.groupId());
+        Map<Long, Set<Long>> members = new HashMap<>();
+        for (Object[] pair : membershipRepository.findGroupAndUserIds(groupIds)) {
+            members.computeIfAbsent((Long) pair[0], g -> new HashSet<>()).add((Long) pair[1]);
+        }
+
+        int maxCatchUp = Math.max(1, appProperties.getRecurringMaxCatchUp());
+        List<Plan> plans = new ArrayList<>(defs.size());
+        Map<Long, CurrencyLedger> deltas = new TreeMap<>(); // group id order, so instances lock groups alike
+        for (Definition d : defs) {
+            Plan plan = plan(d, members.getOrDefault(d.groupId(), Set.of()), now, maxCatchUp);
+            plans.add(plan);
+            long totalCents = SplitUtil.toCents(d.amount());
+            for (int k = 0; k < plan.occurrences(); k++) {
+                CentsLedger bucket =
+                        deltas.computeIfAbsent(d.groupId(), g -> new CurrencyLedger()).bucket(d.currency());
+                bucket.expensePaid(d.payerId(), totalCents);
+                for (Map.Entry<Long, Long> share : plan.allocationInCents().entrySet()) {
+                    bucket.expenseShare(share.getKey(), share.getValue());
+                }
+            }
+        }
+
+        // one new version per group with occurrences, taken before any row is written
+        Map<Long, Long> versions = new HashMap<>();
+        for (Long groupId : deltas.keySet()) {
+            versions.put(groupId, groupBalanceService.nextVersion(groupId));
+        }
+        List<ExpenseBatchWriter.Row> rows = new ArrayList<>();
+        for (int i = 0; i < defs.size(); i++) {
+            Definition d = defs.get(i);
+            Plan plan = plans.get(i);
+            for (int k = 0; k < plan.occurrences(); k++) {
+                rows.add(new ExpenseBatchWriter.Row(d.groupId(), versions.get(d.groupId()), d.createdBy(),
+                        d.payerId(), d.amount(), d.currency(), d.splitType(), d.note(), now,
+                        plan.allocationInCents()));
+            }
+        }
+
+        expenseBatchWriter.write(rows);
+        if (!deltas.isEmpty()) {
+            Map<Long, MonthlyRollup> rollups = new HashMap<>();
+            for (ExpenseBatchWriter.Row r : rows) {
+                rollups.computeIfAbsent(r.groupId(), g -> new MonthlyRollup()).expense(r.createdAt(), r.currency(),
+                        r.splitType(), r.payerId(), SplitUtil.toCents(r.amount()), r.allocationInCents());
+            }
+            Map<Long, Group> groups = new HashMap<>();
+            for (Group g : groupRepository.findAllById(deltas.keySet())) groups.put(g.getId(), g);
+            for (Map.Entry<Long, CurrencyLedger> e : deltas.entrySet()) {
+                groupBalanceService.applyBatch(groups.get(e.getKey()), e.getValue());
+                monthlyRollupService.apply(e.getKey(), rollups.get(e.getKey()));
+            }
+        }
+
+        Timestamp nowTs = Timestamp.from(now);
+        jdbcTemplate.batchUpdate(ADVANCE, plans, plans.size(), (ps, p) -> {
+            ps.setTimestamp(1, Timestamp.from(p.nextRunAt()), utc);
+            if (p.occurrences() > 0) ps.setTimestamp(2, nowTs, utc); else ps.setNull(2, Types.TIMESTAMP);
+            ps.setBoolean(3, p.active());
+            ps.setString(4, p.error());
+            ps.setLong(5, p.def().id());
+        });
+        if (!rows.isEmpty()) {
+            log.info("Materialized {} recurring expense(s) from {} definition(s)", rows.size(), defs.size());
+        }
+        return rows.size();
+    }
+
+    // Occurrences of d due by now (at most maxCatchUp), validated against the group's current members
+    private Plan plan(Definition d, Set<Long> memberIds, Instant now, int maxCatchUp) {
+        CronExpression cron;
+        ZoneId zone;
+        try {
+            cron = CronExpression.parse(d.schedule());
+            zone = ZoneId.of(d.timeZone());
+        } catch (IllegalArgumentException | DateTimeException e) {
+            return new Plan(d, 0, Map.of(), d.nextRunAt(), false, truncate("Invalid schedule: " + e.getMessage()));
+        }
+        if (d.nextRunAt().isAfter(now)) {
+            // claimed after another instance had already advanced it
+            return new Plan(d, 0, Map.of(), d.nextRunAt(), true, null);
+        }
+
+        Map<Long, Long> allocation;
+        try {
+            if (!memberIds.contains(d.createdBy())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Creator is no longer a member of the group");
+            }
+            if (!memberIds.contains(d.payerId())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Payer is no longer a member of the group");
+            }
+            allocation = expenseService.allocate(SplitUtil.toCents(d.amount()), d.splitType(),
+                    parseShares(d.sharesJson()), memberIds);
+        } catch (ResponseStatusException e) {
+            return new Plan(d, 0, Map.of(), d.nextRunAt(), false, truncate(e.getReason()));
+        } catch (RuntimeException e) {
+            return new Plan(d, 0, Map.of(), d.nextRunAt(), false, truncate(e.getMessage()));
+        }
+
+        int occurrences = 0;
+        ZonedDateTime next = d.nextRunAt().atZone(zone);
+        while (next != null && !next.toInstant().isAfter(now) && occurrences < maxCatchUp) {
+            occurrences++;
+            next = cron.next(next);
+        }
+        if (next == null) {
+            return new Plan(d, occurrences, allocation, d.nextRunAt(), false, "Schedule has no further occurrence");
+        }
+        return new Plan(d, occurrences, allocation, next.toInstant(), true, null);
+    }
+
+    // ---------------- HELPERS ----------------
+
+    private static Definition definition(ResultSet rs, Calendar utc) throws SQLException {
+        return new Definition(rs.getLong("id"), rs.getLong("group_id"), rs.getLong("created_by"),
+                rs.getLong("payer_id"), rs.getBigDecimal("amount"), rs.getString("currency"),
+                rs.getString("split_type"), rs.getString("shares"), rs.getString("note"),
+                rs.getString("schedule"), rs.getString("time_zone"),
+                rs.getTimestamp("next_run_at", utc).toInstant());
+    }
+
+    private static CronExpression parseSchedule(String schedule) {
+        try {
+            return CronExpression.parse(schedule.trim());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid schedule: " + e.getMessage());
+        }
+    }
+
+    private static ZoneId parseZone(String timeZone) {
+        if (timeZone == null || timeZone.isBlank()) return ZoneOffset.UTC;
+        try {
+            return ZoneId.of(timeZone.trim());
+        } catch (DateTimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown time zone: " + timeZone);
+        }
+    }
+
+    private List<CreateExpenseRequest.ShareLine> parseShares(String json) {
+        if (json == null) return null;
+        try {
+            return objectMapper.readValue(json, SHARE_LINES);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored share lines are not readable", e);
+        }
+    }
+
+    private String toJson(List<CreateExpenseRequest.ShareLine> shares) {
+        try {
+            return objectMapper.writeValueAsString(shares);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize share lines", e);
+        }
+    }
+
+    private static String truncate(String s) {
+        return s == null || s.length() <= 255 ? s : s.substring(0, 255);
+    }
+
+    private RecurringExpenseDto toDto(RecurringExpense r) {
+        RecurringExpenseDto dto = new RecurringExpenseDto();
+        dto.setId(r.getId());
+        dto.setGroupId(r.getGroupId());
+        dto.setCreatedById(r.getCreatedById());
+        dto.setPayerId(r.getPayerId());
+        dto.setAmount(r.getAmount());
+        dto.setCurrency(r.getCurrency());
+        dto.setSplitType(r.getSplitType());
+        dto.setShares(parseShares(r.getSharesJson()));
+        dto.setNote(r.getNote());
+        dto.setSchedule(r.getSchedule());
+        dto.setTimeZone(r.getTimeZone());
+        dto.setNextRunAt(r.getNextRunAt());
+        dto.setLastRunAt(r.getLastRunAt());
+        dto.setActive(r.isActive());
+        dto.setLastError(r.getLastError());
+        return dto;
+    }
+}
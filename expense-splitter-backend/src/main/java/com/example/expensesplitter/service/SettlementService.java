@@ -2,7 +2,9 @@ package com.example.expensesplitter.service;
 
 import com.example.expensesplitter.dto.RecordSettlementRequest;
 import com.example.expensesplitter.dto.SettlementDto;
+import com.example.expensesplitter.dto.TransferDto;
 import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.GroupBalance;
 import com.example.expensesplitter.entity.Membership;
 import com.example.expensesplitter.entity.Settlement;
 import com.example.expensesplitter.entity.User;
@@ -10,12 +12,18 @@ import com.example.expensesplitter.repository.GroupRepository;
 import com.example.expensesplitter.repository.MembershipRepository;
 import com.example.expensesplitter.repository.SettlementRepository;
 import com.example.expensesplitter.repository.UserRepository;
+import com.example.expensesplitter.util.MonthlyRollup;
+import com.example.expensesplitter.util.SettlementPlanner;
+import com.example.expensesplitter.util.SplitUtil;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,15 +33,24 @@ public class SettlementService {
     private final GroupRepository groupRepository;
     private final UserRepository userRepository;
     private final MembershipRepository membershipRepository;
+    private final GroupBalanceService groupBalanceService;
+    private final MonthlyRollupService monthlyRollupService;
+    private final GroupAccessService groupAccessService;
 
     public SettlementService(SettlementRepository settlementRepository,
                              GroupRepository groupRepository,
                              UserRepository userRepository,
-                             MembershipRepository membershipRepository) {
+                             MembershipRepository membershipRepository,
+                             GroupBalanceService groupBalanceService,
+                             MonthlyRollupService monthlyRollupService,
+                             GroupAccessService groupAccessService) {
         this.settlementRepository = settlementRepository;
         this.groupRepository = groupRepository;
         this.userRepository = userRepository;
         this.membershipRepository = membershipRepository;
+        this.groupBalanceService = groupBalanceService;
+        this.monthlyRollupService = monthlyRollupService;
+        this.groupAccessService = groupAccessService;
     }
 
     @Transactional
@@ -65,11 +82,18 @@ public class SettlementService {
         s.setFromUser(from);
         s.setToUser(to);
         s.setAmount(req.getAmount().setScale(2, java.math.RoundingMode.HALF_EVEN));
-        s.setCurrency(req.getCurrency() == null ? "INR" : req.getCurrency());
+        s.setCurrency(groupBalanceService.currencyFor(group, req.getCurrency()));
         s.setNote(req.getNote());
         s.setRecordedBy(recorder);
+        s.setGroupVersion(groupBalanceService.nextVersion(groupId));
 
-        Settlement saved = settlementRepository.save(s);
+        Settlement saved = settlementRepository.saveAndFlush(s); // created_at is stamped on insert
+        groupBalanceService.applySettlement(group, from.getId(), to.getId(), saved.getCurrency(),
+                SplitUtil.toCents(saved.getAmount()));
+        MonthlyRollup rollup = new MonthlyRollup();
+        rollup.settlement(saved.getCreatedAt(), saved.getCurrency(), from.getId(), to.getId(),
+                SplitUtil.toCents(saved.getAmount()));
+        monthlyRollupService.apply(groupId, rollup);
 
         return new SettlementDto(
                 saved.getId(),
@@ -88,14 +112,14 @@ public class SettlementService {
 
     @Transactional(readOnly = true)
     public List<SettlementDto> listSettlements(Long groupId, User requester) {
-        Group group = groupRepository.findById(groupId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Group not found"));
-
-        membershipRepository.findByGroupAndUser(group, requester)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.FORBIDDEN, "Not a group member"));
+        groupAccessService.requireMember(groupId, requester);
 
         List<Settlement> settlements = settlementRepository.findByGroup_Id(groupId);
-        return settlements.stream().map(s -> new SettlementDto(
+        return settlements.stream().map(SettlementService::toDto).collect(Collectors.toList());
+    }
+
+    public static SettlementDto toDto(Settlement s) {
+        return new SettlementDto(
                 s.getId(),
                 s.getFromUser().getId(),
                 s.getFromUser().getName(),
@@ -107,7 +131,42 @@ public class SettlementService {
                 s.getRecordedBy().getId(),
                 s.getRecordedBy().getName(),
                 s.getCreatedAt()
-        )).collect(Collectors.toList());
+        );
     }
-}
 
+    /**
+     * Suggest a near-minimal set of payments that settles everyone in the group,
+     * computed from the balance projection (largest debtor pays largest creditor first).
+     * Each currency is planned on its own, in currency order.
+     */
+    @Transactional(readOnly = true)
+    public List<TransferDto> planSettlements(Long groupId, User requester) {
+        groupAccessService.requireMember(groupId, requester);
+
+        List<GroupBalance> rows = groupBalanceService.readProjection(groupId);
+        Map<Long, String> names = groupBalanceService.memberNames(rows);
+        Map<String, List<GroupBalance>> byCurrency = new TreeMap<>();
+        for (GroupBalance b : rows) {
+            byCurrency.computeIfAbsent(b.getCurrency(), c -> new ArrayList<>()).add(b);
+        }
+
+        List<TransferDto> plan = new ArrayList<>();
+        for (Map.Entry<String, List<GroupBalance>> bucket : byCurrency.entrySet()) {
+            List<GroupBalance> balances = bucket.getValue();
+            int n = balances.size();
+            long[] userIds = new long[n];
+            long[] netCents = new long[n];
+            for (int i = 0; i < n; i++) {
+                userIds[i] = balances.get(i).getUser().getId();
+                netCents[i] = balances.get(i).getNetCents();
+            }
+            for (SettlementPlanner.Transfer t : SettlementPlanner.plan(userIds, netCents)) {
+                plan.add(new TransferDto(
+                        t.fromUserId(), names.get(t.fromUserId()),
+                        t.toUserId(), names.get(t.toUserId()),
+                        bucket.getKey(), SplitUtil.centsToBigDecimal(t.cents())));
+            }
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.expensesplitter.service;
+
+import com.example.expensesplitter.config.AppProperties;
+import com.example.expensesplitter.dto.UserBalancesDto;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.repository.ExpenseRepository;
+import com.example.expensesplitter.repository.ExpenseShareRepository;
+import com.example.expensesplitter.repository.GroupCurrencyTotal;
+import com.example.expensesplitter.repository.GroupSummary;
+import com.example.expensesplitter.repository.MembershipRepository;
+import com.example.expensesplitter.repository.SettlementRepository;
+import com.example.expensesplitter.util.CentsLedger;
+import com.example.expensesplitter.util.SplitUtil;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Net position of one user across all of their groups.
+ *
+ * Five set-based queries filtered by the user id (memberships, paid, owed, settlements
+ * out/in, each grouped by group and currency) replace one computeBalances call per group.
+ */
+@Service
+public class UserBalanceService {
+
+    private final MembershipRepository membershipRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseShareRepository expenseShareRepository;
+    private final SettlementRepository settlementRepository;
+    private final AppProperties appProperties;
+
+    public UserBalanceService(MembershipRepository membershipRepository,
+                              ExpenseRepository expenseRepository,
+                              ExpenseShareRepository expenseShareRepository,
+                              SettlementRepository settlementRepository,
+                              AppProperties appProperties) {
+        this.membershipRepository = membershipRepository;
+        this.expenseRepository = expenseRepository;
+        this.expenseShareRepository = expenseShareRepository;
+        this.settlementRepository = settlementRepository;
+        this.appProperties = appProperties;
+    }
+
+    @Transactional(readOnly = true)
+    public UserBalancesDto balancesForUser(User user) {
+        Long userId = user.getId();
+
+        // currency -> (groupId -> net cents of this user)
+        Map<String, CentsLedger> byCurrency = new TreeMap<>();
+        for (GroupCurrencyTotal t : expenseRepository.sumPaidByGroupForUser(userId)) {
+            ledgerFor(byCurrency, t.getCurrency()).credit(t.getGroupId(), SplitUtil.toCents(t.getTotal()));
+        }
+        for (GroupCurrencyTotal t : expenseShareRepository.sumOwedByGroupForUser(userId)) {
+            ledgerFor(byCurrency, t.getCurrency()).debit(t.getGroupId(), SplitUtil.toCents(t.getTotal()));
+        }
+        for (GroupCurrencyTotal t : settlementRepository.sumPaidOutByGroupForUser(userId)) {
+            ledgerFor(byCurrency, t.getCurrency()).credit(t.getGroupId(), SplitUtil.toCents(t.getTotal()));
+        }
+        for (GroupCurrencyTotal t : settlementRepository.sumReceivedByGroupForUser(userId)) {
+            ledgerFor(byCurrency, t.getCurrency()).debit(t.getGroupId(), SplitUtil.toCents(t.getTotal()));
+        }
+
+        List<UserBalancesDto.GroupPosition> groups = new ArrayList<>();
+        for (GroupSummary g : membershipRepository.findGroupSummariesByUserId(userId)) {
+            boolean any = false;
+            for (Map.Entry<String, CentsLedger> e : byCurrency.entrySet()) {
+                if (!e.getValue().contains(g.getGroupId())) continue;
+                groups.add(new UserBalancesDto.GroupPosition(g.getGroupId(), g.getGroupName(), e.getKey(),
+                        SplitUtil.centsToBigDecimal(e.getValue().net(g.getGroupId()))));
+                any = true;
+            }
+            if (!any) {
+                // no activity yet: report a zero position in the group's base currency
+                String currency = g.getBaseCurrency() != null ? g.getBaseCurrency() : defaultCurrency();
+                groups.add(new UserBalancesDto.GroupPosition(g.getGroupId(), g.getGroupName(),
+                        currency, SplitUtil.centsToBigDecimal(0L)));
+            }
+        }
+
+        List<UserBalancesDto.CurrencyTotal> totals = new ArrayList<>();
+        for (Map.Entry<String, CentsLedger> e : byCurrency.entrySet()) {
+            long[] sum = new long[1];
+            e.getValue().forEach((groupId, cents) -> sum[0] += cents);
+            totals.add(new UserBalancesDto.CurrencyTotal(e.getKey(), SplitUtil.centsToBigDecimal(sum[0])));
+        }
+
+        return new UserBalancesDto(groups, totals);
+    }
+
+    private CentsLedger ledgerFor(Map<String, CentsLedger> byCurrency, String currency) {
+        return byCurrency.computeIfAbsent(currency == null ? defaultCurrency() : currency, c -> new CentsLedger());
+    }
+
+    private String defaultCurrency() {
+        return appProperties.getDefaultCurrency() == null ? "INR" : appProperties.getDefaultCurrency();
+    }
+}
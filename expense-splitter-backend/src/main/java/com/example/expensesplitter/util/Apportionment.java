@@ -0,0 +1,248 @@
+package com.example.expensesplitter.util;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Largest-remainder apportionment of a cent total, in long arithmetic on parallel arrays.
+ *
+ * ids[i] receives out[i]. Every participant gets the floor of its exact share; the cents left
+ * over go one at a time to the largest remainders, ties to the lower id, cycling if there are
+ * more leftover cents than participants (possible when percents do not sum to exactly 100).
+ * Nothing is boxed: the only allocations are the result and the index arrays used for ordering.
+ */
+public final class Apportionment {
+
+    // allocatePercent has always compared remainders rounded (HALF_EVEN) to 10 decimals
+    static final long FRACTION_SCALE = 10_000_000_000L;
+
+    // above this the scaled remainder (< 100 * 10^scale) times FRACTION_SCALE may overflow a long
+    public static final int MAX_PERCENT_SCALE = 6;
+
+    private static final long[] POW10 = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L};
+
+    private Apportionment() {}
+
+    /**
+     * Split totalCents by integer weights (e.g. 2:1:1). Remainders are compared exactly.
+     */
+    public static long[] weighted(long totalCents, long[] ids, long[] weights) {
+        int n = ids.length;
+        if (weights.length != n) throw new IllegalArgumentException("ids and weights differ in length");
+        long weightSum = 0;
+        for (long w : weights) {
+            if (w < 0) throw new IllegalArgumentException("weights must not be negative");
+            weightSum = Math.addExact(weightSum, w);
+        }
+        if (n > 0 && weightSum == 0) throw new IllegalArgumentException("weights must not all be zero");
+
+        long[] floors = new long[n];
+        long[] remainders = new long[n];
+        for (int i = 0; i < n; i++) {
+            long hi = Math.multiplyHigh(totalCents, weights[i]);
+            long lo = totalCents * weights[i];
+            if ((hi == 0 && lo >= 0) || (hi == -1 && lo < 0)) {
+                floors[i] = lo / weightSum;
+                remainders[i] = lo % weightSum;
+            } else {
+                BigInteger[] qr = BigInteger.valueOf(totalCents).multiply(BigInteger.valueOf(weights[i]))
+                        .divideAndRemainder(BigInteger.valueOf(weightSum));
+                floors[i] = qr[0].longValueExact();
+                remainders[i] = qr[1].longValue();
+            }
+        }
+        return distribute(totalCents, ids, floors, remainders);
+    }
+
+    /**
+     * Split totalCents by percents given as unscaled values at a common scale
+     * (33.33 at scale 2 is 3333). Same results as the BigDecimal allocatePercent:
+     * truncation toward zero, remainders rounded HALF_EVEN to 10 decimals.
+     *
+     * @throws ArithmeticException when the values do not fit the long path (caller falls back)
+     */
+    public static long[] percent(long totalCents, long[] ids, long[] percents, int scale) {
+        int n = ids.length;
+        if (percents.length != n) throw new IllegalArgumentException("ids and percents differ in length");
+        if (scale < 0 || scale > MAX_PERCENT_SCALE) throw new ArithmeticException("percent scale " + scale);
+        long denominator = 100L * POW10[scale];
+
+        long[] floors = new long[n];
+        long[] fractions = new long[n];
+        for (int i = 0; i < n; i++) {
+            long numerator = Math.multiplyExact(totalCents, percents[i]);
+            long q = numerator / denominator;
+            long r = numerator % denominator;
+            long fraction = roundHalfEven(r * FRACTION_SCALE, denominator);
+            if (fraction == FRACTION_SCALE) {
+                q++;
+                fraction = 0;
+            } else if (fraction == -FRACTION_SCALE) {
+                q--;
+                fraction = 0;
+            }
+            floors[i] = q;
+            fractions[i] = fraction;
+        }
+        return distribute(totalCents, ids, floors, fractions);
+    }
+
+    /**
+     * Several splits merged into one apportionment (an itemized bill): each split adds its exact
+     * shares as whole cents plus a fraction, and rounding happens once, over the merged totals.
+     * A user's result is within one cent of their exact share of the whole bill, however many
+     * splits they take part in. Fractions are carried to 1e-9 cent, which only decides the order
+     * of near-ties; the total is always exact.
+     */
+    public static final class Accumulator {
+
+        static final long SCALE = 1_000_000_000L;
+
+        private final LongLongHashMap index = new LongLongHashMap(); // id -> position + 1
+        private long[] ids = new long[16];
+        private long[] floors = new long[16];
+        private long[] fractions = new long[16];
+        private int size;
+        private long totalCents;
+
+        /** Split cents by non-negative weights (EQUAL is all ones). */
+        public void addWeighted(long cents, long[] splitIds, long[] weights) {
+            if (cents < 0) throw new IllegalArgumentException("cents must not be negative");
+            long weightSum = 0;
+            for (long w : weights) {
+                if (w < 0) throw new IllegalArgumentException("weights must not be negative");
+                weightSum = Math.addExact(weightSum, w);
+            }
+            if (weightSum == 0) throw new IllegalArgumentException("weights must not all be zero");
+            totalCents = Math.addExact(totalCents, cents);
+            BigInteger bigSum = null;
+            for (int i = 0; i < splitIds.length; i++) {
+                int at = slot(splitIds[i]);
+                long hi = Math.multiplyHigh(cents, weights[i]);
+                long lo = cents * weights[i];
+                long q, r;
+                if (hi == 0 && lo >= 0) {
+                    q = lo / weightSum;
+                    r = lo % weightSum;
+                } else {
+                    if (bigSum == null) bigSum = BigInteger.valueOf(weightSum);
+                    BigInteger[] qr = BigInteger.valueOf(cents).multiply(BigInteger.valueOf(weights[i]))
+                            .divideAndRemainder(bigSum);
+                    q = qr[0].longValueExact();
+                    r = qr[1].longValue();
+                }
+                floors[at] = Math.addExact(floors[at], q);
+                long f = fractions[at] + scaled(r, weightSum);
+                if (f >= SCALE) {
+                    floors[at]++;
+                    f -= SCALE;
+                }
+                fractions[at] = f;
+            }
+        }
+
+        /** Exact amounts (CUSTOM): whole cents, nothing to round. */
+        public void addExact(long[] splitIds, long[] cents) {
+            for (int i = 0; i < splitIds.length; i++) {
+                int at = slot(splitIds[i]);
+                floors[at] = Math.addExact(floors[at], cents[i]);
+                totalCents = Math.addExact(totalCents, cents[i]);
+            }
+        }
+
+        public long totalCents() {
+            return totalCents;
+        }
+
+        /** Ids in first-seen order. */
+        public long[] ids() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        /** Cents per id, parallel to ids(); sums to totalCents(). */
+        public long[] apportion() {
+            return distribute(totalCents, ids(), Arrays.copyOf(floors, size), Arrays.copyOf(fractions, size));
+        }
+
+        private int slot(long id) {
+            long at = index.get(id);
+            if (at != 0) return (int) at - 1;
+            if (size == ids.length) {
+                int n = size * 2;
+                ids = Arrays.copyOf(ids, n);
+                floors = Arrays.copyOf(floors, n);
+                fractions = Arrays.copyOf(fractions, n);
+            }
+            ids[size] = id;
+            index.put(id, size + 1);
+            return size++;
+        }
+
+        // floor(r * SCALE / d) for 0 <= r < d
+        private static long scaled(long r, long d) {
+            if (r <= Long.MAX_VALUE / SCALE) return r * SCALE / d;
+            return BigInteger.valueOf(r).multiply(BigInteger.valueOf(SCALE))
+                    .divide(BigInteger.valueOf(d)).longValue();
+        }
+    }
+
+    // Hand out totalCents - sum(floors) by descending key, ties to the lower id
+    static long[] distribute(long totalCents, long[] ids, long[] floors, long[] keys) {
+        int n = ids.length;
+        long[] out = floors.clone();
+        long sum = 0;
+        for (long f : floors) sum = Math.addExact(sum, f);
+        long remainder = totalCents - sum;
+        if (remainder <= 0 || n == 0) return out;
+
+        long rounds = remainder / n;
+        int extra = (int) (remainder % n);
+        if (rounds > 0) {
+            for (int i = 0; i < n; i++) out[i] += rounds;
+        }
+        if (extra > 0) {
+            int[] order = order(ids, keys);
+            for (int k = 0; k < extra; k++) out[order[k]]++;
+        }
+        return out;
+    }
+
+    // Indices sorted by key descending, then id ascending (bottom-up merge sort, no boxing)
+    static int[] order(long[] ids, long[] keys) {
+        int n = ids.length;
+        int[] a = new int[n];
+        for (int i = 0; i < n; i++) a[i] = i;
+        int[] b = new int[n];
+        for (int width = 1; width < n; width <<= 1) {
+            for (int lo = 0; lo < n; lo += width << 1) {
+                int mid = Math.min(lo + width, n);
+                int hi = Math.min(lo + (width << 1), n);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) {
+                    b[k++] = before(a[j], a[i], ids, keys) ? a[j++] : a[i++];
+                }
+                while (i < mid) b[k++] = a[i++];
+                while (j < hi) b[k++] = a[j++];
+            }
+            int[] t = a;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    private static boolean before(int x, int y, long[] ids, long[] keys) {
+        if (keys[x] != keys[y]) return keys[x] > keys[y];
+        return ids[x] < ids[y];
+    }
+
+    // m / d rounded HALF_EVEN, d > 0
+    static long roundHalfEven(long m, long d) {
+        long q = m / d;
+        long twice = 2 * Math.abs(m % d);
+        if (twice > d || (twice == d && (q & 1) != 0)) {
+            q += m < 0 ? -1 : 1;
+        }
+        return q;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.expensesplitter.util;
+
+import java.util.*;
+
+/**
+ * Per-group prefix sums of daily per-user balance deltas (cents, UTC days).
+ *
+ * For every user only the days on which their balance changed are stored, as
+ * (day index, running total) pairs, so memory is O(user-days with activity) and
+ * "balance at the end of day d" is a binary search.
+ */
+public final class BalanceTimeline {
+
+    private final long[] days; // epoch days with any activity, ascending
+    private final Map<Long, Series> series;
+
+    private BalanceTimeline(long[] days, Map<Long, Series> series) {
+        this.days = days;
+        this.series = series;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int dayCount() {
+        return days.length;
+    }
+
+    public long epochDay(int dayIndex) {
+        return days[dayIndex];
+    }
+
+    /**
+     * Index of the last activity day strictly before epochDay, or -1.
+     */
+    public int lastDayBefore(long epochDay) {
+        int i = Arrays.binarySearch(days, epochDay);
+        return i >= 0 ? i - 1 : -i - 2;
+    }
+
+    /**
+     * Index of the last activity day on or before epochDay, or -1.
+     */
+    public int lastDayAtOrBefore(long epochDay) {
+        int i = Arrays.binarySearch(days, epochDay);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    /**
+     * Net cents of a user at the end of the given activity day (0 before their first activity).
+     */
+    public long netAtEndOfDay(long userId, int dayIndex) {
+        Series s = series.get(userId);
+        if (s == null || dayIndex < 0) return 0L;
+        int i = Arrays.binarySearch(s.dayIndexes, 0, s.size, dayIndex);
+        if (i < 0) i = -i - 2;
+        return i < 0 ? 0L : s.running[i];
+    }
+
+    private static final class Series {
+        int[] dayIndexes = new int[4];
+        long[] running = new long[4];
+        int size;
+
+        void append(int dayIndex, long value) {
+            if (size == dayIndexes.length) {
+                dayIndexes = Arrays.copyOf(dayIndexes, size * 2);
+                running = Arrays.copyOf(running, size * 2);
+            }
+            dayIndexes[size] = dayIndex;
+            running[size] = value;
+            size++;
+        }
+    }
+
+    public static final class Builder {
+        private final TreeMap<Long, CentsLedger> deltasByDay = new TreeMap<>();
+
+        public Builder add(long epochDay, long userId, long cents) {
+            deltasByDay.computeIfAbsent(epochDay, d -> new CentsLedger()).credit(userId, cents);
+            return this;
+        }
+
+        public BalanceTimeline build() {
+            long[] days = new long[deltasByDay.size()];
+            Map<Long, Series> series = new HashMap<>();
+            CentsLedger running = new CentsLedger();
+            int dayIndex = 0;
+            for (Map.Entry<Long, CentsLedger> day : deltasByDay.entrySet()) {
+                days[dayIndex] = day.getKey();
+                final int idx = dayIndex;
+                day.getValue().forEach((userId, delta) -> {
+                    running.credit(userId, delta);
+                    series.computeIfAbsent(userId, u -> new Series()).append(idx, running.net(userId));
+                });
+                dayIndex++;
+            }
+            return new BalanceTimeline(days, series);
+        }
+    }
+}
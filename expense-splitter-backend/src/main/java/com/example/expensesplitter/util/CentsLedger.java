@@ -0,0 +1,70 @@
+package com.example.expensesplitter.util;
+
+/**
+ * Balance folding engine: userId -> net cents on a primitive LongLongHashMap.
+ * Positive = should receive money, negative = owes money (same sign as BalanceDto).
+ * Amounts only become BigDecimal when callers build DTOs (SplitUtil.centsToBigDecimal).
+ */
+public final class CentsLedger {
+
+    private final LongLongHashMap net;
+
+    public CentsLedger() {
+        this.net = new LongLongHashMap();
+    }
+
+    public CentsLedger(int expectedUsers) {
+        this.net = new LongLongHashMap(expectedUsers);
+    }
+
+    /**
+     * Make sure the user has an entry even if nothing is ever posted for them.
+     */
+    public void open(long userId) {
+        net.addTo(userId, 0L);
+    }
+
+    public void credit(long userId, long cents) {
+        net.addTo(userId, cents);
+    }
+
+    public void debit(long userId, long cents) {
+        net.addTo(userId, -cents);
+    }
+
+    // Payer fronted the whole amount
+    public void expensePaid(long payerId, long amountCents) {
+        credit(payerId, amountCents);
+    }
+
+    // A share holder consumed part of an expense
+    public void expenseShare(long userId, long shareCents) {
+        debit(userId, shareCents);
+    }
+
+    // Money moved from fromUser to toUser
+    public void settlement(long fromUserId, long toUserId, long cents) {
+        credit(fromUserId, cents);
+        debit(toUserId, cents);
+    }
+
+    public long net(long userId) {
+        return net.get(userId);
+    }
+
+    public boolean contains(long userId) {
+        return net.containsKey(userId);
+    }
+
+    public int size() {
+        return net.size();
+    }
+
+    public void forEach(LongLongHashMap.LongLongConsumer consumer) {
+        net.forEach(consumer);
+    }
+
+    public long[] userIdsAscending() {
+        return net.sortedKeys();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.expensesplitter.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: comma separated, optional double quotes,
+ * "" inside quotes for a literal quote, line breaks allowed inside quoted fields.
+ * Reads one record at a time, so memory does not grow with the input.
+ */
+public final class CsvRecordReader {
+
+    private final Reader in;
+    private long line = 1;          // current physical line
+    private long recordLine;        // line the last returned record started on
+    private int pushedBack = -2;
+
+    public CsvRecordReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * The next record, or null at end of input. Blank lines are skipped.
+     */
+    public String[] next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        recordLine = line;
+
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                if (quoted) throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                if (!any && field.length() == 0 && fields.isEmpty()) return null;
+                fields.add(field.toString());
+                return fields.toArray(new String[0]);
+            }
+            if (quoted) {
+                if (c == '"') {
+                    int n = read();
+                    if (n == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(n);
+                    }
+                } else {
+                    if (c == '\n') line++;
+                    field.append((char) c);
+                }
+                continue;
+            }
+            if (c == '\r') continue;
+            if (c == '\n') {
+                line++;
+                if (!any && field.length() == 0 && fields.isEmpty()) {
+                    recordLine = line; // blank line
+                    continue;
+                }
+                fields.add(field.toString());
+                return fields.toArray(new String[0]);
+            }
+            any = true;
+            if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    /**
+     * 1-based line number on which the last record returned by next() started.
+     */
+    public long recordLine() {
+        return recordLine;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return in.read();
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.expensesplitter.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Minimal streaming RFC 4180 writer, the counterpart of CsvRecordReader: fields are quoted only
+ * when they hold a comma, quote or line break, records end with CRLF. Nothing is buffered
+ * beyond the current field, so memory does not grow with the output.
+ */
+public final class CsvRecordWriter {
+
+    private final Writer out;
+    private boolean first = true;
+
+    public CsvRecordWriter(Writer out) {
+        this.out = out;
+    }
+
+    public CsvRecordWriter field(String value) throws IOException {
+        separate();
+        if (value == null || value.isEmpty()) return this;
+        if (needsQuotes(value)) {
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        } else {
+            out.write(value);
+        }
+        return this;
+    }
+
+    public CsvRecordWriter field(long value) throws IOException {
+        separate();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    public CsvRecordWriter field(Object value) throws IOException {
+        return field(value == null ? null : value.toString());
+    }
+
+    /**
+     * Free text typed by users. A leading =, +, - or @ is escaped with an apostrophe so
+     * spreadsheets do not evaluate it as a formula.
+     */
+    public CsvRecordWriter text(String value) throws IOException {
+        if (value != null && !value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        return field(value);
+    }
+
+    public void endRecord() throws IOException {
+        out.write("\r\n");
+        first = true;
+    }
+
+    private void separate() throws IOException {
+        if (!first) out.write(',');
+        first = false;
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+}
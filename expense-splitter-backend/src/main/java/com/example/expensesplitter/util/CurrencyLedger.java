@@ -0,0 +1,49 @@
+package com.example.expensesplitter.util;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * One CentsLedger per currency code, iterated in currency order.
+ * Amounts in different currencies are never added together; see FxRates for conversion.
+ */
+public final class CurrencyLedger {
+
+    private final TreeMap<String, CentsLedger> buckets = new TreeMap<>();
+
+    public CentsLedger bucket(String currency) {
+        return buckets.computeIfAbsent(currency, c -> new CentsLedger());
+    }
+
+    public void credit(String currency, long userId, long cents) {
+        bucket(currency).credit(userId, cents);
+    }
+
+    public void debit(String currency, long userId, long cents) {
+        bucket(currency).debit(userId, cents);
+    }
+
+    public long net(String currency, long userId) {
+        CentsLedger ledger = buckets.get(currency);
+        return ledger == null ? 0L : ledger.net(userId);
+    }
+
+    public boolean contains(String currency, long userId) {
+        CentsLedger ledger = buckets.get(currency);
+        return ledger != null && ledger.contains(userId);
+    }
+
+    public Set<String> currencies() {
+        return Collections.unmodifiableSet(buckets.keySet());
+    }
+
+    public Map<String, CentsLedger> buckets() {
+        return Collections.unmodifiableMap(buckets);
+    }
+
+    public boolean isEmpty() {
+        return buckets.isEmpty();
+    }
+}
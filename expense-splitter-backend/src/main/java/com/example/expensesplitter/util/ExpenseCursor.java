@@ -0,0 +1,39 @@
+package com.example.expensesplitter.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position in a group's expense list, ordered newest first by (created_at, id).
+ * Clients get it as an opaque URL-safe token and hand it back unchanged.
+ */
+public record ExpenseCursor(Instant createdAt, long id) {
+
+    private static final String VERSION = "1";
+
+    public static ExpenseCursor of(Instant createdAt, long id) {
+        return new ExpenseCursor(createdAt, id);
+    }
+
+    public String encode() {
+        String raw = VERSION + ":" + createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static ExpenseCursor decode(String token) {
+        String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII).split(":");
+        if (parts.length != 4 || !VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        try {
+            return new ExpenseCursor(Instant.ofEpochSecond(Long.parseLong(parts[1]), Long.parseLong(parts[2])),
+                    Long.parseLong(parts[3]));
+        } catch (RuntimeException e) { // NumberFormatException, DateTimeException
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
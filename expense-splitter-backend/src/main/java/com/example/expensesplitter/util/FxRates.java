@@ -0,0 +1,114 @@
+package com.example.expensesplitter.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable exchange rate snapshot. Rates are fixed-point longs (RATE_SCALE decimal places),
+ * so converting cents is one long multiply and a HALF_EVEN division; BigDecimal is only
+ * used when the product would overflow a long.
+ *
+ * All amounts are minor units with two decimals, matching DECIMAL(19,2) in the ledger tables.
+ */
+public final class FxRates {
+
+    public static final int RATE_SCALE = 8;
+    private static final long ONE = 100_000_000L;
+
+    private static final FxRates EMPTY = new FxRates(new HashMap<>());
+
+    // from -> (to -> rate * 10^RATE_SCALE)
+    private final Map<String, Map<String, Long>> rates;
+
+    private FxRates(Map<String, Map<String, Long>> rates) {
+        this.rates = rates;
+    }
+
+    public static FxRates empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean supports(String from, String to) {
+        return from.equals(to) || scaledRate(from, to) != 0L;
+    }
+
+    /**
+     * Convert cents of `from` into cents of `to`, rounding HALF_EVEN.
+     * Throws IllegalArgumentException when no rate is known for the pair.
+     */
+    public long convert(long cents, String from, String to) {
+        if (from.equals(to) || cents == 0L) return cents;
+        long rate = scaledRate(from, to);
+        if (rate == 0L) {
+            throw new IllegalArgumentException("No FX rate for " + from + " -> " + to);
+        }
+        long product;
+        try {
+            product = Math.multiplyExact(cents, rate);
+        } catch (ArithmeticException overflow) {
+            return BigDecimal.valueOf(cents).multiply(BigDecimal.valueOf(rate))
+                    .divide(BigDecimal.valueOf(ONE), 0, RoundingMode.HALF_EVEN)
+                    .longValueExact();
+        }
+        return divideHalfEven(product, ONE);
+    }
+
+    private long scaledRate(String from, String to) {
+        Map<String, Long> row = rates.get(from);
+        if (row == null) return 0L;
+        Long rate = row.get(to);
+        return rate == null ? 0L : rate;
+    }
+
+    static long divideHalfEven(long dividend, long divisor) {
+        long q = dividend / divisor;
+        long r = dividend % divisor;
+        if (r == 0) return q;
+        long twice = Math.abs(r) * 2;
+        if (twice > divisor || (twice == divisor && (q & 1) != 0)) {
+            q += dividend < 0 ? -1 : 1;
+        }
+        return q;
+    }
+
+    public static final class Builder {
+        private final Map<String, Map<String, Long>> explicit = new HashMap<>();
+        private final Map<String, Map<String, Long>> derived = new HashMap<>();
+
+        /**
+         * 1 unit of from = rate units of to. The inverse pair is derived unless given explicitly.
+         */
+        public Builder rate(String from, String to, BigDecimal rate) {
+            if (rate == null || rate.signum() <= 0) {
+                throw new IllegalArgumentException("FX rate must be positive: " + from + " -> " + to);
+            }
+            explicit.computeIfAbsent(from, k -> new HashMap<>()).put(to, toScaled(rate));
+            derived.computeIfAbsent(to, k -> new HashMap<>())
+                    .put(from, toScaled(BigDecimal.ONE.divide(rate, RATE_SCALE, RoundingMode.HALF_EVEN)));
+            return this;
+        }
+
+        public FxRates build() {
+            Map<String, Map<String, Long>> all = new HashMap<>();
+            derived.forEach((from, row) -> all.computeIfAbsent(from, k -> new HashMap<>()).putAll(row));
+            explicit.forEach((from, row) -> all.computeIfAbsent(from, k -> new HashMap<>()).putAll(row));
+            Map<String, Map<String, Long>> frozen = new HashMap<>();
+            all.forEach((from, row) -> frozen.put(from, Map.copyOf(row)));
+            return new FxRates(Map.copyOf(frozen));
+        }
+
+        private static long toScaled(BigDecimal rate) {
+            long scaled = rate.setScale(RATE_SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+            if (scaled == 0L) {
+                throw new IllegalArgumentException("FX rate below " + RATE_SCALE + " decimal places: " + rate);
+            }
+            return scaled;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.expensesplitter.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reserves blocks of ids from the id_blocks table.
+ *
+ * The row is locked, read and bumped on the given connection; the caller owns the
+ * transaction and should commit right away (ideally on a connection of its own) so
+ * concurrent writers are not serialized behind a long business transaction.
+ */
+public final class IdBlocks {
+
+    private static final String SELECT_FOR_UPDATE = "SELECT next_id FROM id_blocks WHERE name = ? FOR UPDATE";
+    private static final String UPDATE = "UPDATE id_blocks SET next_id = ? WHERE name = ?";
+
+    private IdBlocks() {}
+
+    /**
+     * Reserve count consecutive ids for the named table and return the first one.
+     * A missing row is created from the table's current max(id).
+     */
+    public static long reserve(Connection con, String name, int count) throws SQLException {
+        if (count < 1) throw new IllegalArgumentException("count must be positive");
+        Long next = lockNext(con, name);
+        if (next == null) {
+            try (PreparedStatement ps = con.prepareStatement(
+                    "INSERT INTO id_blocks (name, next_id) SELECT ?, COALESCE(MAX(id), 0) + 1 FROM " + name)) {
+                ps.setString(1, name);
+                ps.executeUpdate();
+            } catch (SQLException e) {
+                // another writer created the row first; fall through and lock theirs
+            }
+            next = lockNext(con, name);
+            if (next == null) throw new SQLException("Could not initialise id block row for " + name);
+        }
+        try (PreparedStatement ps = con.prepareStatement(UPDATE)) {
+            ps.setLong(1, next + count);
+            ps.setString(2, name);
+            ps.executeUpdate();
+        }
+        return next;
+    }
+
+    private static Long lockNext(Connection con, String name) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(SELECT_FOR_UPDATE)) {
+            ps.setString(1, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.expensesplitter.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing (linear probing) map from long to long with no boxing.
+ * Absent keys read as 0, which is what balance folding wants.
+ * Not thread-safe; meant to live inside a single method call.
+ */
+public final class LongLongHashMap {
+
+    @FunctionalInterface
+    public interface LongLongConsumer {
+        void accept(long key, long value);
+    }
+
+    // 0 marks a free slot in keys[]; the real key 0 is stored out of band
+    private static final long FREE = 0L;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+    public LongLongHashMap() {
+        this(16);
+    }
+
+    public LongLongHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public int size() {
+        return size + (hasZeroKey ? 1 : 0);
+    }
+
+    public boolean containsKey(long key) {
+        if (key == FREE) return hasZeroKey;
+        return keys[slot(key)] == key;
+    }
+
+    public long get(long key) {
+        if (key == FREE) return zeroValue;
+        int i = slot(key);
+        return keys[i] == key ? values[i] : 0L;
+    }
+
+    public void put(long key, long value) {
+        if (key == FREE) {
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+        int i = slot(key);
+        if (keys[i] == key) {
+            values[i] = value;
+        } else {
+            insertAt(i, key, value);
+        }
+    }
+
+    /**
+     * values[key] += delta, inserting the key if absent.
+     */
+    public void addTo(long key, long delta) {
+        if (key == FREE) {
+            hasZeroKey = true;
+            zeroValue += delta;
+            return;
+        }
+        int i = slot(key);
+        if (keys[i] == key) {
+            values[i] += delta;
+        } else {
+            insertAt(i, key, delta);
+        }
+    }
+
+    public void forEach(LongLongConsumer consumer) {
+        if (hasZeroKey) consumer.accept(FREE, zeroValue);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) consumer.accept(keys[i], values[i]);
+        }
+    }
+
+    /**
+     * All keys in ascending order (fresh array).
+     */
+    public long[] sortedKeys() {
+        long[] out = new long[size()];
+        int n = 0;
+        if (hasZeroKey) out[n++] = FREE;
+        for (long k : keys) {
+            if (k != FREE) out[n++] = k;
+        }
+        Arrays.sort(out);
+        return out;
+    }
+
+    // index of the key's slot, or of the free slot where it would go
+    private int slot(long key) {
+        int i = mix(key) & mask;
+        while (keys[i] != FREE && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private void insertAt(int i, long key, long value) {
+        keys[i] = key;
+        values[i] = value;
+        if (++size >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long k = oldKeys[i];
+            if (k != FREE) {
+                int j = slot(k);
+                keys[j] = k;
+                values[j] = oldValues[i];
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        size = 0;
+        resizeAt = capacity >>> 1; // load factor 0.5 keeps probe chains short
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int wanted = Math.max(4, expectedSize) * 2;
+        return Integer.highestOneBit(wanted - 1) << 1;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.expensesplitter.util;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sums of one group's ledger rows per (UTC month, user, currency, kind), in cents.
+ * kind is the expense split type, or SETTLEMENT. Expenses add to the payer's paid and each
+ * share holder's share; settlements add to the sender's paid and the receiver's share.
+ * Keys iterate in a fixed order, so writers upsert (and lock) rollup rows alike.
+ */
+public final class MonthlyRollup {
+
+    public static final String SETTLEMENT = "SETTLEMENT";
+
+    public record Key(LocalDate month, long userId, String currency, String kind) {}
+
+    // paid, share, entries
+    public record Sums(long paidCents, long shareCents, int entries) {
+        Sums plus(long paid, long share, int count) {
+            return new Sums(paidCents + paid, shareCents + share, entries + count);
+        }
+    }
+
+    private static final Comparator<Key> ORDER = Comparator.comparing(Key::month)
+            .thenComparingLong(Key::userId).thenComparing(Key::currency).thenComparing(Key::kind);
+
+    private final TreeMap<Key, Sums> sums = new TreeMap<>(ORDER);
+
+    public static LocalDate monthOf(Instant at) {
+        return at.atZone(ZoneOffset.UTC).toLocalDate().withDayOfMonth(1);
+    }
+
+    public void expense(Instant createdAt, String currency, String splitType, long payerId,
+                        long totalCents, Map<Long, Long> allocationInCents) {
+        LocalDate month = monthOf(createdAt);
+        add(new Key(month, payerId, currency, splitType), totalCents, 0L, 1);
+        for (Map.Entry<Long, Long> share : allocationInCents.entrySet()) {
+            add(new Key(month, share.getKey(), currency, splitType), 0L, share.getValue(), 0);
+        }
+    }
+
+    public void settlement(Instant createdAt, String currency, long fromUserId, long toUserId, long cents) {
+        LocalDate month = monthOf(createdAt);
+        add(new Key(month, fromUserId, currency, SETTLEMENT), cents, 0L, 1);
+        add(new Key(month, toUserId, currency, SETTLEMENT), 0L, cents, 0);
+    }
+
+    public void add(Key key, long paidCents, long shareCents, int entries) {
+        sums.merge(key, new Sums(paidCents, shareCents, entries),
+                (a, b) -> a.plus(b.paidCents(), b.shareCents(), b.entries()));
+    }
+
+    public Map<Key, Sums> sums() {
+        return Collections.unmodifiableMap(sums);
+    }
+
+    public boolean isEmpty() {
+        return sums.isEmpty();
+    }
+}
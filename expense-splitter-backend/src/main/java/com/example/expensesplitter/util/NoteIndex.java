@@ -0,0 +1,136 @@
+package com.example.expensesplitter.util;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Inverted index over the notes of one group's expenses, answering prefix queries newest first.
+ *
+ * Notes are split into lowercase runs of letters and digits. Expenses get ordinals in the order
+ * they are added, which must be recency order ((createdAt, id) ascending): posting lists are then
+ * ascending ordinal arrays and the matches are read newest first by walking down from the top.
+ * add() refuses an expense older than the newest one indexed; the caller rebuilds instead.
+ *
+ * A query matches the expenses that have, for every query token, a note token starting with it
+ * ("hot go" finds "Hotel Goa"). Each query token is the union of the postings of its term range
+ * in the sorted dictionary, and the tokens are intersected as bit sets over the ordinals.
+ *
+ * Not thread-safe; callers lock around add() and search().
+ */
+public final class NoteIndex {
+
+    // term -> ascending ordinals of the expenses whose note contains it
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private long[] ids = new long[64];
+    private int size;
+    private Instant newestCreatedAt;
+    private long newestId;
+    private long version;
+
+    private static final class Postings {
+        int[] ordinals = new int[2];
+        int size;
+
+        void add(int ordinal) {
+            if (size > 0 && ordinals[size - 1] == ordinal) return; // term repeated in one note
+            if (size == ordinals.length) ordinals = Arrays.copyOf(ordinals, size * 2);
+            ordinals[size++] = ordinal;
+        }
+    }
+
+    public NoteIndex(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Group version whose expenses have all been added.
+     */
+    public long version() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Index one expense. Returns false, leaving the index unchanged, if it is older than the newest
+     * expense already indexed.
+     */
+    public boolean add(long id, Instant createdAt, String note) {
+        if (newestCreatedAt != null) {
+            int c = createdAt.compareTo(newestCreatedAt);
+            if (c < 0 || (c == 0 && id <= newestId)) return false;
+        }
+        newestCreatedAt = createdAt;
+        newestId = id;
+        List<String> tokens = tokens(note);
+        if (tokens.isEmpty()) return true;
+
+        if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+        int ordinal = size++;
+        ids[ordinal] = id;
+        for (String token : tokens) {
+            terms.computeIfAbsent(token, t -> new Postings()).add(ordinal);
+        }
+        return true;
+    }
+
+    /**
+     * Ids of up to limit matching expenses, newest first.
+     */
+    public long[] search(String query, int limit) {
+        Set<String> tokens = new LinkedHashSet<>(tokens(query));
+        if (tokens.isEmpty() || size == 0) return new long[0];
+
+        BitSet matches = null;
+        for (String token : tokens) {
+            BitSet hits = new BitSet(size);
+            // every term t with token <= t < token + U+FFFF starts with token
+            for (Postings p : terms.subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+                for (int i = 0; i < p.size; i++) hits.set(p.ordinals[i]);
+            }
+            if (matches == null) matches = hits; else matches.and(hits);
+            if (matches.isEmpty()) return new long[0];
+        }
+
+        long[] result = new long[Math.min(limit, matches.cardinality())];
+        int n = 0;
+        for (int i = matches.previousSetBit(size - 1); i >= 0 && n < result.length; i = matches.previousSetBit(i - 1)) {
+            result[n++] = ids[i];
+        }
+        return result;
+    }
+
+    /**
+     * Lowercase runs of letters and digits, in order, with repeats.
+     */
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); ) {
+            int cp = text.codePointAt(i);
+            i += Character.charCount(cp);
+            if (Character.isLetterOrDigit(cp)) {
+                current.appendCodePoint(cp);
+            } else if (current.length() > 0) {
+                tokens.add(current.toString().toLowerCase(Locale.ROOT));
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) tokens.add(current.toString().toLowerCase(Locale.ROOT));
+        return tokens;
+    }
+}
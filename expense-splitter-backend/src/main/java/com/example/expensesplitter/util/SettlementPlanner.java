@@ -0,0 +1,108 @@
+package com.example.expensesplitter.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns net balances (cents) into a short list of transfers that zeroes them.
+ *
+ * Greedy: repeatedly match the largest creditor with the largest debtor and move
+ * min(credit, debt). Each step settles at least one person, so there are at most n-1
+ * transfers, and the whole plan is O(n log n). Ties on amount go to the lower user id,
+ * so the same balances always give the same plan.
+ */
+public final class SettlementPlanner {
+
+    public record Transfer(long fromUserId, long toUserId, long cents) {}
+
+    private SettlementPlanner() {}
+
+    /**
+     * @param userIds   member ids
+     * @param netCents  net balance per member, same index as userIds (positive = should receive)
+     */
+    public static List<Transfer> plan(long[] userIds, long[] netCents) {
+        int n = userIds.length;
+        MaxHeap creditors = new MaxHeap(n);
+        MaxHeap debtors = new MaxHeap(n);
+        for (int i = 0; i < n; i++) {
+            if (netCents[i] > 0) creditors.push(userIds[i], netCents[i]);
+            else if (netCents[i] < 0) debtors.push(userIds[i], -netCents[i]);
+        }
+
+        List<Transfer> transfers = new ArrayList<>();
+        while (!creditors.isEmpty() && !debtors.isEmpty()) {
+            long creditorId = creditors.topId();
+            long credit = creditors.topAmount();
+            long debtorId = debtors.topId();
+            long debt = debtors.topAmount();
+            creditors.pop();
+            debtors.pop();
+
+            long cents = Math.min(credit, debt);
+            transfers.add(new Transfer(debtorId, creditorId, cents));
+
+            if (credit > cents) creditors.push(creditorId, credit - cents);
+            if (debt > cents) debtors.push(debtorId, debt - cents);
+        }
+        return transfers;
+    }
+
+    /**
+     * Binary max-heap of (amount, userId) on parallel primitive arrays.
+     * Larger amount first; equal amounts -> lower user id first.
+     */
+    private static final class MaxHeap {
+        private final long[] ids;
+        private final long[] amounts;
+        private int size;
+
+        MaxHeap(int capacity) {
+            ids = new long[Math.max(1, capacity)];
+            amounts = new long[Math.max(1, capacity)];
+        }
+
+        boolean isEmpty() { return size == 0; }
+        long topId() { return ids[0]; }
+        long topAmount() { return amounts[0]; }
+
+        void push(long id, long amount) {
+            int i = size++;
+            ids[i] = id;
+            amounts[i] = amount;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!before(i, parent)) break;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        void pop() {
+            size--;
+            ids[0] = ids[size];
+            amounts[0] = amounts[size];
+            int i = 0;
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) break;
+                int best = left;
+                int right = left + 1;
+                if (right < size && before(right, left)) best = right;
+                if (!before(best, i)) break;
+                swap(i, best);
+                i = best;
+            }
+        }
+
+        private boolean before(int a, int b) {
+            if (amounts[a] != amounts[b]) return amounts[a] > amounts[b];
+            return ids[a] < ids[b];
+        }
+
+        private void swap(int a, int b) {
+            long id = ids[a]; ids[a] = ids[b]; ids[b] = id;
+            long amt = amounts[a]; amounts[a] = amounts[b]; amounts[b] = amt;
+        }
+    }
+}
@@ -20,24 +20,76 @@ public class SplitUtil {
     }
 
     // EQUAL split: deterministic distribution of leftover cents to first N userIds (sorted ascending)
-    public static Map<Long, Long> allocateEqual(long totalCents, List<Long> userIds) {
+    public static Map<Long, Long> allocateEqual(long totalCents, Collection<Long> userIds) {
         Map<Long, Long> res = new LinkedHashMap<>();
         if (userIds == null || userIds.isEmpty()) return res;
-        List<Long> sorted = new ArrayList<>(userIds);
-        Collections.sort(sorted);
-        int n = sorted.size();
+        long[] sorted = new long[userIds.size()];
+        int k = 0;
+        for (Long uid : userIds) sorted[k++] = uid;
+        Arrays.sort(sorted);
+        int n = sorted.length;
         long base = totalCents / n;
         long remainder = totalCents % n;
         for (int i = 0; i < n; i++) {
             long add = (i < remainder) ? 1L : 0L;
-            res.put(sorted.get(i), base + add);
+            res.put(sorted[i], base + add);
         }
         return res;
     }
 
     // PERCENT split: percentMap (userId -> percent as BigDecimal). Percent values sum to ~100.
-    // We compute exact cents per user, floor them, then distribute leftover cents by largest fractional parts.
+    // Floors of the exact cents per user, leftover cents by largest fractional parts (see Apportionment).
+    // Percents with more than 6 decimals or values too large for a long take the BigDecimal path.
     public static Map<Long, Long> allocatePercent(long totalCents, Map<Long, BigDecimal> percentMap) {
+        int n = percentMap.size();
+        long[] ids = new long[n];
+        BigDecimal[] percents = new BigDecimal[n];
+        int scale = 0;
+        int i = 0;
+        for (Map.Entry<Long, BigDecimal> e : percentMap.entrySet()) {
+            BigDecimal percent = e.getValue() == null ? BigDecimal.ZERO : e.getValue();
+            ids[i] = e.getKey();
+            percents[i++] = percent;
+            scale = Math.max(scale, percent.scale());
+        }
+        if (scale > Apportionment.MAX_PERCENT_SCALE) {
+            return allocatePercentBigDecimal(totalCents, percentMap);
+        }
+        long[] cents;
+        try {
+            long[] unscaled = new long[n];
+            for (int j = 0; j < n; j++) {
+                unscaled[j] = percents[j].setScale(scale).unscaledValue().longValueExact();
+            }
+            cents = Apportionment.percent(totalCents, ids, unscaled, scale);
+        } catch (ArithmeticException ex) {
+            return allocatePercentBigDecimal(totalCents, percentMap);
+        }
+        return toMap(ids, cents);
+    }
+
+    // SHARES split: weightMap (userId -> positive integer weight, e.g. 2:1:1).
+    // Floors of total * weight / sum(weights), leftover cents by largest exact remainder, ties to lower userId.
+    public static Map<Long, Long> allocateShares(long totalCents, Map<Long, Long> weightMap) {
+        int n = weightMap.size();
+        long[] ids = new long[n];
+        long[] weights = new long[n];
+        int i = 0;
+        for (Map.Entry<Long, Long> e : weightMap.entrySet()) {
+            ids[i] = e.getKey();
+            weights[i++] = e.getValue() == null ? 0L : e.getValue();
+        }
+        return toMap(ids, Apportionment.weighted(totalCents, ids, weights));
+    }
+
+    private static Map<Long, Long> toMap(long[] ids, long[] cents) {
+        Map<Long, Long> result = new LinkedHashMap<>(Math.max(16, ids.length * 4 / 3 + 1));
+        for (int i = 0; i < ids.length; i++) result.put(ids[i], cents[i]);
+        return result;
+    }
+
+    // The original BigDecimal implementation of allocatePercent; the reference the long path must match.
+    static Map<Long, Long> allocatePercentBigDecimal(long totalCents, Map<Long, BigDecimal> percentMap) {
         Map<Long, Long> floors = new LinkedHashMap<>();
         Map<Long, BigDecimal> fractions = new HashMap<>();
         BigDecimal totalCentsBD = new BigDecimal(totalCents);
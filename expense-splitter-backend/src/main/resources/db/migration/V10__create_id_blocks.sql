@@ -0,0 +1,14 @@
+-- V10__create_id_blocks.sql
+-- Id allocator for the ledger tables (MySQL has no sequences).
+-- next_id is the first id not yet handed out; a writer reserves a block by bumping it
+-- (PooledIdGenerator for Hibernate, IdBlocks directly for the JDBC import) and then
+-- assigns ids itself, which lets Hibernate batch the inserts.
+CREATE TABLE IF NOT EXISTS id_blocks (
+  name VARCHAR(64) PRIMARY KEY,
+  next_id BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT INTO id_blocks (name, next_id) SELECT 'expenses', COALESCE(MAX(id), 0) + 1 FROM expenses;
+INSERT INTO id_blocks (name, next_id) SELECT 'expense_shares', COALESCE(MAX(id), 0) + 1 FROM expense_shares;
+INSERT INTO id_blocks (name, next_id) SELECT 'settlements', COALESCE(MAX(id), 0) + 1 FROM settlements;
+INSERT INTO id_blocks (name, next_id) SELECT 'memberships', COALESCE(MAX(id), 0) + 1 FROM memberships;
@@ -0,0 +1,16 @@
+-- V11__create_idempotency_keys.sql
+-- Responses of POSTs sent with an Idempotency-Key header, so a retried request is answered
+-- from here instead of writing the ledger again. The unique key is what makes a concurrent
+-- or post-restart retry lose: its transaction fails on insert and rolls back.
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  user_id BIGINT NOT NULL,
+  idem_key VARCHAR(128) NOT NULL,
+  request VARCHAR(255) NOT NULL,
+  status_code INT NOT NULL,
+  response_body MEDIUMTEXT,
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  UNIQUE KEY uk_idempotency_keys_user_key (user_id, idem_key),
+  KEY idx_idempotency_keys_created (created_at),
+  CONSTRAINT fk_idempotency_keys_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,31 @@
+-- V12__create_recurring_expenses.sql
+-- Recurring expense definitions (rent, subscriptions...). RecurringExpenseService materializes
+-- due occurrences into expenses. A scheduler instance claims a batch of due rows by stamping
+-- claimed_by / claimed_until, and advances next_run_at in the same transaction that inserts the
+-- expenses, so an occurrence is written exactly once even with several app instances.
+CREATE TABLE IF NOT EXISTS recurring_expenses (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  group_id BIGINT NOT NULL,
+  created_by BIGINT NOT NULL,
+  payer_id BIGINT NOT NULL,
+  amount DECIMAL(19,2) NOT NULL,
+  currency VARCHAR(10) NOT NULL,
+  split_type VARCHAR(20) NOT NULL, -- EQUAL, PERCENT, SHARES, CUSTOM
+  shares MEDIUMTEXT,               -- JSON share lines, as in CreateExpenseRequest
+  note VARCHAR(1000),
+  schedule VARCHAR(100) NOT NULL,  -- Spring cron: sec min hour day-of-month month day-of-week
+  time_zone VARCHAR(64) NOT NULL,
+  next_run_at TIMESTAMP NOT NULL,
+  last_run_at TIMESTAMP NULL,
+  active BOOLEAN NOT NULL DEFAULT TRUE,
+  claimed_by VARCHAR(64),
+  claimed_until TIMESTAMP NULL,
+  last_error VARCHAR(255),
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  KEY idx_recurring_due (active, next_run_at),
+  KEY idx_recurring_group (group_id),
+  KEY idx_recurring_claimed (claimed_by),
+  CONSTRAINT fk_recurring_group FOREIGN KEY (group_id) REFERENCES `groups`(id) ON DELETE CASCADE,
+  CONSTRAINT fk_recurring_created_by FOREIGN KEY (created_by) REFERENCES users(id),
+  CONSTRAINT fk_recurring_payer FOREIGN KEY (payer_id) REFERENCES users(id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,16 @@
+-- V13__create_expense_items.sql
+-- Line items of an ITEMIZED expense. Balances only ever read expense_shares (one row per user,
+-- merged over all items); these rows are the receipt, kept compact: the item's participants and
+-- their split values are one "userId[:value];..." string.
+CREATE TABLE IF NOT EXISTS expense_items (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  expense_id BIGINT NOT NULL,
+  line_no INT NOT NULL,
+  description VARCHAR(255),
+  amount DECIMAL(19,2) NOT NULL,
+  split_type VARCHAR(20) NOT NULL, -- EQUAL, PERCENT, SHARES, CUSTOM
+  participants VARCHAR(4000) NOT NULL,
+  CONSTRAINT fk_items_expense FOREIGN KEY (expense_id) REFERENCES expenses(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT INTO id_blocks (name, next_id) SELECT 'expense_items', COALESCE(MAX(id), 0) + 1 FROM expense_items;
@@ -0,0 +1,6 @@
+-- V14__index_expenses_group_created_id.sql
+-- Seek pagination of a group's expenses on (created_at, id), newest first. The new index serves
+-- every lookup the V7 (group_id, created_at) index did, including the foreign key on group_id;
+-- keeping both would only cost another index write per insert.
+CREATE INDEX idx_expenses_group_created_id ON expenses (group_id, created_at, id);
+DROP INDEX idx_expenses_group_created ON expenses;
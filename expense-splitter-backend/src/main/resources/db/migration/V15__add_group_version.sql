@@ -0,0 +1,3 @@
+-- V15__add_group_version.sql
+-- Bumped by every ledger or membership write; read endpoints derive their ETag from it
+ALTER TABLE `groups` ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,25 @@
+-- V16__add_ledger_group_version.sql
+-- Every expense, settlement and membership row carries the group version its write produced,
+-- so "changes since version v" is a range scan on (group_id, group_version).
+
+-- Rows written before this migration all get one new version per group; clients holding an
+-- older version cannot be served a delta and must resync (sync_floor).
+UPDATE `groups` SET version = version + 1;
+ALTER TABLE `groups` ADD COLUMN sync_floor BIGINT NOT NULL DEFAULT 0;
+UPDATE `groups` SET sync_floor = version;
+
+ALTER TABLE expenses ADD COLUMN group_version BIGINT NOT NULL DEFAULT 0;
+UPDATE expenses e SET group_version = (SELECT g.version FROM `groups` g WHERE g.id = e.group_id);
+CREATE INDEX idx_expenses_group_version ON expenses (group_id, group_version);
+
+ALTER TABLE settlements ADD COLUMN group_version BIGINT NOT NULL DEFAULT 0;
+UPDATE settlements s SET group_version = (SELECT g.version FROM `groups` g WHERE g.id = s.group_id);
+CREATE INDEX idx_settlements_group_version ON settlements (group_id, group_version);
+
+ALTER TABLE memberships ADD COLUMN group_version BIGINT NOT NULL DEFAULT 0;
+UPDATE memberships m SET group_version = (SELECT g.version FROM `groups` g WHERE g.id = m.group_id);
+CREATE INDEX idx_memberships_group_version ON memberships (group_id, group_version);
+
+-- Checkpoints rolled before rows carried a version cover none of them: drop them and let the
+-- checkpoint job roll them again.
+DELETE FROM balance_checkpoints;
@@ -0,0 +1,19 @@
+-- V17__create_group_monthly_rollups.sql
+-- Per-(group, month, user, currency, kind) sums for the stats endpoint, kept in step with
+-- expenses and settlements by their write paths. kind is the expense split type, or SETTLEMENT.
+-- For expenses paid_cents is what the user paid and share_cents what they consumed; for
+-- settlements paid_cents is what they paid out and share_cents what they received.
+-- Existing ledger rows are summed in by the backfill runner (--backfill-rollups).
+CREATE TABLE IF NOT EXISTS group_monthly_rollups (
+  group_id BIGINT NOT NULL,
+  month_start DATE NOT NULL, -- first day of the UTC month
+  user_id BIGINT NOT NULL,
+  currency VARCHAR(10) NOT NULL,
+  kind VARCHAR(20) NOT NULL,
+  paid_cents BIGINT NOT NULL DEFAULT 0,
+  share_cents BIGINT NOT NULL DEFAULT 0,
+  entries INT NOT NULL DEFAULT 0, -- expenses paid / settlements paid out
+  PRIMARY KEY (group_id, month_start, user_id, currency, kind),
+  CONSTRAINT fk_group_monthly_rollups_group FOREIGN KEY (group_id) REFERENCES `groups`(id) ON DELETE CASCADE,
+  CONSTRAINT fk_group_monthly_rollups_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
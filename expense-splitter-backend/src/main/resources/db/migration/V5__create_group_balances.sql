@@ -0,0 +1,26 @@
+-- V5__create_group_balances.sql
+-- Per-(group, user) net balance projection, kept in step with expenses and settlements
+-- so the balances endpoint no longer has to fold the whole group history on every read.
+CREATE TABLE IF NOT EXISTS group_balances (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  group_id BIGINT NOT NULL,
+  user_id BIGINT NOT NULL,
+  net_cents BIGINT NOT NULL DEFAULT 0, -- positive = should receive, negative = owes
+  CONSTRAINT fk_group_balances_group FOREIGN KEY (group_id) REFERENCES `groups`(id) ON DELETE CASCADE,
+  CONSTRAINT fk_group_balances_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+  UNIQUE KEY uk_group_balances_group_user (group_id, user_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Backfill from the existing ledger. A settlement moves money from from_user to to_user,
+-- so it raises the payer's net and lowers the receiver's.
+INSERT INTO group_balances (group_id, user_id, net_cents)
+SELECT m.group_id, m.user_id,
+       (COALESCE((SELECT SUM(e.amount) FROM expenses e
+                   WHERE e.group_id = m.group_id AND e.payer_id = m.user_id), 0)
+      - COALESCE((SELECT SUM(s.share_amount) FROM expense_shares s JOIN expenses e ON e.id = s.expense_id
+                   WHERE e.group_id = m.group_id AND s.user_id = m.user_id), 0)
+      + COALESCE((SELECT SUM(t.amount) FROM settlements t
+                   WHERE t.group_id = m.group_id AND t.from_user_id = m.user_id), 0)
+      - COALESCE((SELECT SUM(t.amount) FROM settlements t
+                   WHERE t.group_id = m.group_id AND t.to_user_id = m.user_id), 0)) * 100
+FROM memberships m;
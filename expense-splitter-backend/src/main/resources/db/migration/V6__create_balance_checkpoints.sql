@@ -0,0 +1,23 @@
+-- V6__create_balance_checkpoints.sql
+-- Snapshot of per-user net cents covering every ledger row of the group with
+-- group_version <= last_group_version. Folding the ledger = latest checkpoint + rows after the mark.
+-- Ids (pooled id blocks) and created_at (backdated imports, recurring ticks) do not follow commit
+-- order; group versions do, since every writer bumps the locked group row before inserting.
+CREATE TABLE IF NOT EXISTS balance_checkpoints (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  group_id BIGINT NOT NULL,
+  last_group_version BIGINT NOT NULL DEFAULT 0,
+  created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  CONSTRAINT fk_balance_checkpoints_group FOREIGN KEY (group_id) REFERENCES `groups`(id) ON DELETE CASCADE,
+  UNIQUE KEY uk_balance_checkpoints_group (group_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS balance_checkpoint_entries (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  checkpoint_id BIGINT NOT NULL,
+  user_id BIGINT NOT NULL,
+  net_cents BIGINT NOT NULL,
+  CONSTRAINT fk_checkpoint_entries_checkpoint FOREIGN KEY (checkpoint_id) REFERENCES balance_checkpoints(id) ON DELETE CASCADE,
+  CONSTRAINT fk_checkpoint_entries_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+  UNIQUE KEY uk_checkpoint_entries_checkpoint_user (checkpoint_id, user_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
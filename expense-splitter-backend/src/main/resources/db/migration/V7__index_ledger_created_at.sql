@@ -0,0 +1,4 @@
+-- V7__index_ledger_created_at.sql
+-- Time-range scans per group (as-of balances, balance history)
+CREATE INDEX idx_expenses_group_created ON expenses (group_id, created_at);
+CREATE INDEX idx_settlements_group_created ON settlements (group_id, created_at);
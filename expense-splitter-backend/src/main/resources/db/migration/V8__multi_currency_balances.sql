@@ -0,0 +1,43 @@
+-- V8__multi_currency_balances.sql
+-- Balances are kept per currency: amounts in different currencies must never be added together.
+
+-- Base currency a group's balances are converted into on request (NULL = app.default-currency)
+ALTER TABLE `groups` ADD COLUMN base_currency VARCHAR(10) NULL;
+
+ALTER TABLE group_balances ADD COLUMN currency VARCHAR(10) NOT NULL DEFAULT 'INR';
+ALTER TABLE group_balances ADD CONSTRAINT uk_group_balances_group_user_currency UNIQUE (group_id, user_id, currency);
+ALTER TABLE group_balances DROP INDEX uk_group_balances_group_user;
+
+-- Re-derive the projection per (group, user, currency); the V5 backfill mixed currencies.
+DELETE FROM group_balances;
+
+INSERT INTO group_balances (group_id, user_id, currency, net_cents)
+SELECT x.group_id, x.user_id, x.currency, SUM(x.cents)
+FROM (
+  SELECT e.group_id, e.payer_id AS user_id, e.currency, e.amount * 100 AS cents
+    FROM expenses e
+  UNION ALL
+  SELECT e.group_id, s.user_id, e.currency, -s.share_amount * 100
+    FROM expense_shares s JOIN expenses e ON e.id = s.expense_id
+  UNION ALL
+  SELECT t.group_id, t.from_user_id, t.currency, t.amount * 100
+    FROM settlements t
+  UNION ALL
+  SELECT t.group_id, t.to_user_id, t.currency, -t.amount * 100
+    FROM settlements t
+) x
+GROUP BY x.group_id, x.user_id, x.currency;
+
+-- Members without any ledger rows keep one zero row
+INSERT INTO group_balances (group_id, user_id, currency, net_cents)
+SELECT m.group_id, m.user_id, 'INR', 0
+FROM memberships m
+WHERE NOT EXISTS (SELECT 1 FROM group_balances b WHERE b.group_id = m.group_id AND b.user_id = m.user_id);
+
+-- Checkpoints are derived data: drop them and let the checkpoint job re-create them per currency.
+DELETE FROM balance_checkpoints;
+
+ALTER TABLE balance_checkpoint_entries ADD COLUMN currency VARCHAR(10) NOT NULL DEFAULT 'INR';
+ALTER TABLE balance_checkpoint_entries
+  ADD CONSTRAINT uk_checkpoint_entries_checkpoint_user_currency UNIQUE (checkpoint_id, user_id, currency);
+ALTER TABLE balance_checkpoint_entries DROP INDEX uk_checkpoint_entries_checkpoint_user;
@@ -0,0 +1,11 @@
+-- V9__create_fx_rates.sql
+-- Exchange rate table: 1 unit of from_currency = rate units of to_currency.
+-- Loaded into an in-memory snapshot by FxRateService; the inverse pair is derived when missing.
+CREATE TABLE IF NOT EXISTS fx_rates (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  from_currency VARCHAR(10) NOT NULL,
+  to_currency VARCHAR(10) NOT NULL,
+  rate DECIMAL(19,8) NOT NULL,
+  updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  UNIQUE KEY uk_fx_rates_pair (from_currency, to_currency)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,104 @@
+package com.example.expensesplitter.benchmark;
+
+import com.example.expensesplitter.util.CentsLedger;
+import com.example.expensesplitter.util.SplitUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old boxed HashMap<Long, BigDecimal> balance fold with CentsLedger.
+ * Both sides start from the BigDecimal amounts Hibernate hands us.
+ *
+ * Run (allocation rates included):
+ *   mvn test-compile
+ *   java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *        com.example.expensesplitter.benchmark.BalanceFoldBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BalanceFoldBenchmark {
+
+    @Param({"1000", "20000"})
+    int shares;
+
+    @Param({"50"})
+    int members;
+
+    private long[] shareUserIds;
+    private BigDecimal[] shareAmounts;
+    private long[] payerIds;
+    private BigDecimal[] expenseAmounts;
+
+    @Setup
+    public void setUp() {
+        Random rnd = new Random(42);
+        int sharesPerExpense = 5;
+        int expenses = shares / sharesPerExpense;
+
+        payerIds = new long[expenses];
+        expenseAmounts = new BigDecimal[expenses];
+        shareUserIds = new long[shares];
+        shareAmounts = new BigDecimal[shares];
+
+        for (int e = 0; e < expenses; e++) {
+            long total = 0;
+            for (int k = 0; k < sharesPerExpense; k++) {
+                int i = e * sharesPerExpense + k;
+                long cents = 100 + rnd.nextInt(10_000);
+                shareUserIds[i] = 1 + rnd.nextInt(members);
+                shareAmounts[i] = SplitUtil.centsToBigDecimal(cents);
+                total += cents;
+            }
+            payerIds[e] = 1 + rnd.nextInt(members);
+            expenseAmounts[e] = SplitUtil.centsToBigDecimal(total);
+        }
+    }
+
+    @Benchmark
+    public void bigDecimalHashMap(Blackhole bh) {
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        for (int e = 0; e < payerIds.length; e++) {
+            Long payer = payerIds[e];
+            balances.put(payer, balances.getOrDefault(payer, BigDecimal.ZERO).add(expenseAmounts[e]));
+        }
+        for (int i = 0; i < shareUserIds.length; i++) {
+            Long uid = shareUserIds[i];
+            balances.put(uid, balances.getOrDefault(uid, BigDecimal.ZERO).subtract(shareAmounts[i]));
+        }
+        bh.consume(balances);
+    }
+
+    @Benchmark
+    public void centsLedger(Blackhole bh) {
+        CentsLedger ledger = new CentsLedger(members);
+        for (int e = 0; e < payerIds.length; e++) {
+            ledger.expensePaid(payerIds[e], SplitUtil.toCents(expenseAmounts[e]));
+        }
+        for (int i = 0; i < shareUserIds.length; i++) {
+            ledger.expenseShare(shareUserIds[i], SplitUtil.toCents(shareAmounts[i]));
+        }
+        bh.consume(ledger);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BalanceFoldBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(opt).run();
+    }
+}
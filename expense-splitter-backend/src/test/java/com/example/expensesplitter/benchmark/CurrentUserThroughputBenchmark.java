@@ -0,0 +1,101 @@
+package com.example.expensesplitter.benchmark;
+
+import com.example.expensesplitter.ExpenseSplitterApplication;
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.repository.UserRepository;
+import com.example.expensesplitter.security.JwtUtil;
+import com.example.expensesplitter.service.GroupService;
+import jakarta.servlet.Filter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Request throughput of an authenticated call with and without the @CurrentUser cache.
+ * userCacheTtlMs = 0 is the old behaviour: one user query per request (now by id instead of
+ * email, both a unique-index lookup). The request is a conditional GET answered 304, the
+ * cheapest authenticated call, so the user lookup is the largest share of its work; the full
+ * servlet stack runs (security filter chain, JWT parsing, argument resolution) against H2.
+ *
+ * Run:
+ *   mvn test-compile
+ *   java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *        com.example.expensesplitter.benchmark.CurrentUserThroughputBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class CurrentUserThroughputBenchmark {
+
+    @Param({"0", "60000"})
+    long userCacheTtlMs;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mvc;
+    private String url;
+    private String auth;
+    private String etag;
+
+    @Setup
+    public void setUp() throws Exception {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // command-line arguments, so they win over application.yml
+        context = new SpringApplicationBuilder(ExpenseSplitterApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE,MONTH,YEAR",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--server.port=0",
+                "--app.user-cache-ttl-ms=" + userCacheTtlMs);
+        mvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .addFilters(context.getBean("springSecurityFilterChain", Filter.class))
+                .build();
+
+        User user = new User();
+        user.setName("Bench");
+        user.setEmail("bench@example.com");
+        user.setPasswordHash("x");
+        user = context.getBean(UserRepository.class).save(user);
+        Group group = context.getBean(GroupService.class).createGroup("Bench", user);
+        auth = "Bearer " + context.getBean(JwtUtil.class).generateToken(user.getEmail(), user.getId(), user.getName());
+        url = "/api/groups/" + group.getId() + "/expenses";
+        etag = mvc.perform(get(url).header("Authorization", auth)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int notModified() throws Exception {
+        return mvc.perform(get(url).header("Authorization", auth).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andReturn().getResponse().getStatus();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(CurrentUserThroughputBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.expensesplitter.benchmark;
+
+import com.example.expensesplitter.util.NoteIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Note search against one group's in-memory NoteIndex, newest 50 matches per query, for
+ * single-word, multi-word, one-letter and rare-token queries.
+ *
+ * Run:
+ *   mvn test-compile
+ *   java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *        com.example.expensesplitter.benchmark.NoteIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteIndexBenchmark {
+
+    private static final String[] WORDS = {"taxi", "hotel", "goa", "dinner", "lunch", "fuel", "tickets", "train",
+            "groceries", "rent", "beer", "coffee", "museum", "airport", "breakfast", "snacks", "tolls", "parking"};
+
+    @Param({"100000"})
+    int expenses;
+
+    @Param({"taxi", "hotel goa", "t", "ref123", "coffee air"})
+    String query;
+
+    private NoteIndex index;
+
+    @Setup
+    public void setUp() {
+        Random rnd = new Random(3);
+        index = new NoteIndex(1L);
+        Instant t = Instant.parse("2020-01-01T00:00:00Z");
+        for (int i = 0; i < expenses; i++) {
+            index.add(i + 1, t.plusSeconds(i), note(rnd) + " ref" + rnd.nextInt(50_000));
+        }
+    }
+
+    @Benchmark
+    public void search(Blackhole bh) {
+        bh.consume(index.search(query, 50));
+    }
+
+    private static String note(Random rnd) {
+        StringBuilder sb = new StringBuilder();
+        int n = 1 + rnd.nextInt(4);
+        for (int w = 0; w < n; w++) {
+            if (w > 0) sb.append(rnd.nextBoolean() ? " " : ", ");
+            String word = WORDS[rnd.nextInt(WORDS.length)];
+            sb.append(rnd.nextInt(4) == 0 ? word.toUpperCase() : word);
+        }
+        return sb.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(NoteIndexBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
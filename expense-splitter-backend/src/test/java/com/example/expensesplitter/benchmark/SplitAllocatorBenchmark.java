@@ -0,0 +1,125 @@
+package com.example.expensesplitter.benchmark;
+
+import com.example.expensesplitter.util.Apportionment;
+import com.example.expensesplitter.util.SplitUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the original BigDecimal / boxed-map PERCENT allocator with the long-array
+ * Apportionment engine, through SplitUtil and raw, for 10 to 100k participants.
+ * The BigDecimal reference in SplitUtil is package-private, so it is copied here as-is.
+ *
+ * Run (allocation rates included):
+ *   mvn test-compile
+ *   java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *        com.example.expensesplitter.benchmark.SplitAllocatorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SplitAllocatorBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    int participants;
+
+    private final long totalCents = 123_456_789L;
+
+    private Map<Long, BigDecimal> percentMap;
+    private long[] ids;
+    private long[] unscaledPercents;
+    private long[] weights;
+
+    @Setup
+    public void setUp() {
+        Random rnd = new Random(42);
+        // percents at scale 4 summing to exactly 100
+        long left = 1_000_000;
+        ids = new long[participants];
+        unscaledPercents = new long[participants];
+        weights = new long[participants];
+        percentMap = new LinkedHashMap<>();
+        for (int i = 0; i < participants; i++) {
+            long p = i == participants - 1 ? left : Math.min(left, 1 + rnd.nextInt((int) (2 * 1_000_000 / participants) + 1));
+            left -= p;
+            ids[i] = 1_000 + i;
+            unscaledPercents[i] = p;
+            weights[i] = 1 + rnd.nextInt(5);
+            percentMap.put(ids[i], BigDecimal.valueOf(p, 4));
+        }
+    }
+
+    @Benchmark
+    public void legacyBigDecimal(Blackhole bh) {
+        bh.consume(legacyAllocatePercent(totalCents, percentMap));
+    }
+
+    @Benchmark
+    public void splitUtilPercent(Blackhole bh) {
+        bh.consume(SplitUtil.allocatePercent(totalCents, percentMap));
+    }
+
+    @Benchmark
+    public void apportionmentPercent(Blackhole bh) {
+        bh.consume(Apportionment.percent(totalCents, ids, unscaledPercents, 4));
+    }
+
+    @Benchmark
+    public void apportionmentWeighted(Blackhole bh) {
+        bh.consume(Apportionment.weighted(totalCents, ids, weights));
+    }
+
+    // SplitUtil.allocatePercent as it was before Apportionment
+    static Map<Long, Long> legacyAllocatePercent(long totalCents, Map<Long, BigDecimal> percentMap) {
+        Map<Long, Long> floors = new LinkedHashMap<>();
+        Map<Long, BigDecimal> fractions = new HashMap<>();
+        BigDecimal totalCentsBD = new BigDecimal(totalCents);
+
+        long sumFloors = 0L;
+        for (Map.Entry<Long, BigDecimal> e : percentMap.entrySet()) {
+            Long uid = e.getKey();
+            BigDecimal percent = e.getValue();
+            if (percent == null) percent = BigDecimal.ZERO;
+            BigDecimal exact = totalCentsBD.multiply(percent).divide(new BigDecimal(100), 10, RoundingMode.HALF_EVEN);
+            long floor = exact.setScale(0, RoundingMode.DOWN).longValue();
+            BigDecimal fraction = exact.subtract(new BigDecimal(floor));
+            floors.put(uid, floor);
+            fractions.put(uid, fraction);
+            sumFloors += floor;
+        }
+        long remainder = totalCents - sumFloors;
+        List<Long> users = new ArrayList<>(fractions.keySet());
+        users.sort((a, b) -> {
+            int cmp = fractions.get(b).compareTo(fractions.get(a));
+            if (cmp != 0) return cmp;
+            return a.compareTo(b);
+        });
+        Map<Long, Long> result = new LinkedHashMap<>();
+        for (Long uid : users) result.put(uid, floors.get(uid));
+        for (int i = 0; i < remainder; i++) {
+            Long uid = users.get(i % users.size());
+            result.put(uid, result.get(uid) + 1L);
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(SplitAllocatorBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(opt).run();
+    }
+}
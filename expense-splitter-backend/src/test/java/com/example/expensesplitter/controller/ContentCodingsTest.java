@@ -0,0 +1,32 @@
+package com.example.expensesplitter.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContentCodingsTest {
+
+    @Test
+    void gzipNeedsAPositiveQValue() {
+        assertTrue(ContentCodings.acceptsGzip("gzip"));
+        assertTrue(ContentCodings.acceptsGzip("deflate, GZIP;q=0.8"));
+        assertTrue(ContentCodings.acceptsGzip("br;q=1.0, gzip ; q = 0.001"));
+        assertTrue(ContentCodings.acceptsGzip("x-gzip"));
+        assertFalse(ContentCodings.acceptsGzip(null));
+        assertFalse(ContentCodings.acceptsGzip(""));
+        assertFalse(ContentCodings.acceptsGzip("identity"));
+        assertFalse(ContentCodings.acceptsGzip("gzip;q=0"));
+        assertFalse(ContentCodings.acceptsGzip("gzip;q=0.000, deflate"));
+        assertFalse(ContentCodings.acceptsGzip("gzip;q=abc"));
+        assertFalse(ContentCodings.acceptsGzip("notgzip, gzipped"));
+    }
+
+    @Test
+    void wildcardAppliesOnlyWhenGzipIsNotNamed() {
+        assertTrue(ContentCodings.acceptsGzip("*"));
+        assertTrue(ContentCodings.acceptsGzip("identity, *;q=0.1"));
+        assertFalse(ContentCodings.acceptsGzip("*;q=0"));
+        assertFalse(ContentCodings.acceptsGzip("gzip;q=0, *"));
+        assertTrue(ContentCodings.acceptsGzip("gzip;q=0.5, *;q=0"));
+    }
+}
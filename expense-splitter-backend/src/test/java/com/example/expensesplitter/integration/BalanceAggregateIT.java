@@ -0,0 +1,135 @@
+package com.example.expensesplitter.integration;
+
+import com.example.expensesplitter.dto.CreateExpenseRequest;
+import com.example.expensesplitter.dto.RecordSettlementRequest;
+import com.example.expensesplitter.entity.Expense;
+import com.example.expensesplitter.entity.ExpenseShare;
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.GroupBalance;
+import com.example.expensesplitter.entity.Settlement;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.repository.ExpenseRepository;
+import com.example.expensesplitter.repository.SettlementRepository;
+import com.example.expensesplitter.service.ExpenseService;
+import com.example.expensesplitter.service.GroupBalanceService;
+import com.example.expensesplitter.service.GroupService;
+import com.example.expensesplitter.service.SettlementService;
+import com.example.expensesplitter.support.ApiIntegrationTest;
+import com.example.expensesplitter.support.TestUsers;
+import com.example.expensesplitter.util.CurrencyLedger;
+import com.example.expensesplitter.util.SplitUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The GROUP BY aggregate fold must give exactly the same balances as folding
+ * the hydrated Expense / ExpenseShare / Settlement entities, and as the projection,
+ * per currency.
+ */
+@ApiIntegrationTest
+@Transactional
+public class BalanceAggregateIT {
+
+    @Autowired TestUsers testUsers;
+    @Autowired ExpenseRepository expenseRepository;
+    @Autowired SettlementRepository settlementRepository;
+    @Autowired GroupService groupService;
+    @Autowired ExpenseService expenseService;
+    @Autowired SettlementService settlementService;
+    @Autowired GroupBalanceService groupBalanceService;
+
+    @Test
+    void aggregateFoldMatchesEntityFold() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            users.add(testUsers.create("agg" + i + "@example.com"));
+        }
+        Group group = groupService.createGroup("Aggregates", users.get(0));
+        for (int i = 1; i < users.size(); i++) {
+            groupService.addMemberToGroup(group, users.get(i), "MEMBER");
+        }
+
+        Random rnd = new Random(3);
+        for (int i = 0; i < 40; i++) {
+            CreateExpenseRequest req = new CreateExpenseRequest();
+            req.setAmount(SplitUtil.centsToBigDecimal(100 + rnd.nextInt(50_000)));
+            req.setPayerId(users.get(rnd.nextInt(users.size())).getId());
+            req.setCurrency(i % 3 == 0 ? "usd" : null);
+            if (i % 2 == 0) {
+                req.setSplitType("EQUAL");
+            } else {
+                req.setSplitType("PERCENT");
+                CreateExpenseRequest.ShareLine a = new CreateExpenseRequest.ShareLine();
+                a.setUserId(users.get(1).getId());
+                a.setPercent(new BigDecimal("33.33"));
+                CreateExpenseRequest.ShareLine b = new CreateExpenseRequest.ShareLine();
+                b.setUserId(users.get(4).getId());
+                b.setPercent(new BigDecimal("66.67"));
+                req.setShares(List.of(a, b));
+            }
+            expenseService.createExpense(group.getId(), users.get(0), req);
+        }
+        for (int i = 0; i < 10; i++) {
+            RecordSettlementRequest req = new RecordSettlementRequest();
+            req.setFromUserId(users.get(rnd.nextInt(3)).getId());
+            req.setToUserId(users.get(3 + rnd.nextInt(3)).getId());
+            req.setAmount(SplitUtil.centsToBigDecimal(1 + rnd.nextInt(10_000)));
+            req.setCurrency(i % 2 == 0 ? "USD" : "INR");
+            settlementService.recordSettlement(group.getId(), users.get(0), req);
+        }
+
+        Map<String, Map<Long, Long>> entityFold = foldEntities(group.getId());
+        CurrencyLedger aggregateFold = groupBalanceService.foldLedger(group.getId());
+
+        assertThat(aggregateFold.currencies()).containsExactly("INR", "USD");
+        assertThat(aggregateFold.bucket("INR").size()).isEqualTo(users.size());
+        for (String currency : aggregateFold.currencies()) {
+            for (User u : users) {
+                assertThat(aggregateFold.net(currency, u.getId()))
+                        .isEqualTo(entityFold.get(currency).getOrDefault(u.getId(), 0L));
+            }
+        }
+        for (GroupBalance b : groupBalanceService.readProjection(group.getId())) {
+            assertThat(b.getNetCents())
+                    .isEqualTo(entityFold.get(b.getCurrency()).getOrDefault(b.getUser().getId(), 0L));
+        }
+        assertThat(groupBalanceService.rebuild(group.getId())).isZero();
+    }
+
+    // Reference: the original entity-hydrating BigDecimal computation, per currency
+    private Map<String, Map<Long, Long>> foldEntities(Long groupId) {
+        Map<String, Map<Long, BigDecimal>> balances = new HashMap<>();
+        for (Expense expense : expenseRepository.findByGroupId(groupId)) {
+            Map<Long, BigDecimal> bucket = balances.computeIfAbsent(expense.getCurrency(), c -> new HashMap<>());
+            Long payerId = expense.getPayer().getId();
+            bucket.put(payerId, bucket.getOrDefault(payerId, BigDecimal.ZERO).add(expense.getAmount()));
+            for (ExpenseShare share : expense.getShares()) {
+                Long uid = share.getUser().getId();
+                bucket.put(uid, bucket.getOrDefault(uid, BigDecimal.ZERO).subtract(share.getShareAmount()));
+            }
+        }
+        for (Settlement s : settlementRepository.findByGroup_Id(groupId)) {
+            Map<Long, BigDecimal> bucket = balances.computeIfAbsent(s.getCurrency(), c -> new HashMap<>());
+            Long from = s.getFromUser().getId();
+            Long to = s.getToUser().getId();
+            bucket.put(from, bucket.getOrDefault(from, BigDecimal.ZERO).add(s.getAmount()));
+            bucket.put(to, bucket.getOrDefault(to, BigDecimal.ZERO).subtract(s.getAmount()));
+        }
+        Map<String, Map<Long, Long>> cents = new HashMap<>();
+        balances.forEach((currency, bucket) -> {
+            Map<Long, Long> c = cents.computeIfAbsent(currency, k -> new HashMap<>());
+            bucket.forEach((uid, amount) -> c.put(uid, SplitUtil.toCents(amount)));
+        });
+        return cents;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.expensesplitter.integration;
+
+import com.example.expensesplitter.dto.CreateExpenseRequest;
+import com.example.expensesplitter.dto.RecordSettlementRequest;
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.repository.BalanceCheckpointRepository;
+import com.example.expensesplitter.service.BalanceCheckpointService;
+import com.example.expensesplitter.service.ExpenseService;
+import com.example.expensesplitter.service.GroupBalanceService;
+import com.example.expensesplitter.service.GroupService;
+import com.example.expensesplitter.service.SettlementService;
+import com.example.expensesplitter.support.ApiIntegrationTest;
+import com.example.expensesplitter.support.TestUsers;
+import com.example.expensesplitter.util.CentsLedger;
+import com.example.expensesplitter.util.CurrencyLedger;
+import com.example.expensesplitter.util.SplitUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Balance checkpoints roll forward by group version, so rows whose ids and created_at are out
+ * of commit order (pooled id blocks, backdated imports, recurring ticks) are never skipped:
+ * checkpoint + replay always equals a full fold of the ledger.
+ */
+@ApiIntegrationTest
+public class BalanceCheckpointIT {
+
+    private static final long ID_BASE = 2_000_000_000L; // clear of the id blocks handed out to entities
+
+    @Autowired TestUsers users;
+    @Autowired GroupService groupService;
+    @Autowired ExpenseService expenseService;
+    @Autowired SettlementService settlementService;
+    @Autowired GroupBalanceService groupBalanceService;
+    @Autowired BalanceCheckpointService balanceCheckpointService;
+    @Autowired BalanceCheckpointRepository balanceCheckpointRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    @Test
+    void checkpointNeverSkipsRowsWrittenOutOfOrder() throws Exception {
+        User alice = users.create("ckpt-alice@example.com");
+        User bob = users.create("ckpt-bob@example.com");
+        Group group = groupService.createGroup("Checkpointed", alice);
+        groupService.addMemberToGroup(group, bob, "MEMBER");
+        Long groupId = group.getId();
+
+        for (int i = 0; i < 3; i++) {
+            CreateExpenseRequest req = new CreateExpenseRequest();
+            req.setAmount(new BigDecimal("12.34"));
+            req.setPayerId((i % 2 == 0 ? alice : bob).getId());
+            req.setSplitType("EQUAL");
+            expenseService.createExpense(groupId, alice, req);
+        }
+        settle(group, alice, bob, bob, "3.21");
+        assertThat(balanceCheckpointService.rollForward(groupId)).isTrue();
+        assertThat(balanceCheckpointService.rollForward(groupId)).isFalse();
+        assertReplayMatchesFullFold(groupId);
+
+        // a backdated import row with a high id commits first...
+        transactionTemplate.executeWithoutResult(s ->
+                insert(ID_BASE + 100, group, alice, bob, 4_000, Instant.parse("2023-01-01T00:00:00Z")));
+
+        // ...and an expense with a lower id is still in flight when the checkpoint rolls
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        Future<?> inFlight = writer.submit(() -> transactionTemplate.executeWithoutResult(s -> {
+            insert(ID_BASE + 1, group, bob, alice, 2_500, Instant.now());
+            inserted.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        try {
+            assertThat(inserted.await(30, TimeUnit.SECONDS)).isTrue();
+            assertThat(balanceCheckpointService.rollForward(groupId)).isTrue();
+        } finally {
+            release.countDown();
+            inFlight.get(30, TimeUnit.SECONDS);
+            writer.shutdown();
+        }
+        long mark = balanceCheckpointRepository.findByGroupIdWithEntries(groupId).orElseThrow().getLastGroupVersion();
+        assertThat(versionOf(ID_BASE + 100)).isLessThanOrEqualTo(mark);
+        assertThat(versionOf(ID_BASE + 1)).isGreaterThan(mark);
+        assertReplayMatchesFullFold(groupId);
+        assertThat(groupBalanceService.rebuild(groupId)).isZero();
+
+        // a recurring occurrence stamped with its tick time, older than rows already checkpointed
+        transactionTemplate.executeWithoutResult(s ->
+                insert(ID_BASE + 50, group, alice, bob, 1_000, Instant.now().minus(Duration.ofHours(1))));
+        settle(group, alice, alice, bob, "1.00");
+        assertReplayMatchesFullFold(groupId);
+        assertThat(groupBalanceService.rebuild(groupId)).isZero();
+
+        assertThat(balanceCheckpointService.rollForward(groupId)).isTrue();
+        assertReplayMatchesFullFold(groupId);
+        assertThat(groupBalanceService.rebuild(groupId)).isZero();
+
+        // rebuild folds the raw tables: a corrupted checkpoint is not copied into the projection
+        jdbcTemplate.update("UPDATE balance_checkpoint_entries SET net_cents = net_cents + 100 WHERE checkpoint_id = " +
+                "(SELECT id FROM balance_checkpoints WHERE group_id = ?)", groupId);
+        assertThat(groupBalanceService.rebuild(groupId)).isZero();
+    }
+
+    // Checkpoint + replay (what rebuild() uses) against a fold of every ledger row
+    private void assertReplayMatchesFullFold(Long groupId) {
+        CurrencyLedger replayed = groupBalanceService.foldLedger(groupId);
+        CurrencyLedger full = new CurrencyLedger();
+        groupBalanceService.foldRange(full, groupId, 0L, Long.MAX_VALUE);
+        Set<String> currencies = new HashSet<>(replayed.currencies());
+        currencies.addAll(full.currencies());
+        for (String currency : currencies) {
+            Set<Long> userIds = new HashSet<>();
+            for (CurrencyLedger l : new CurrencyLedger[] {replayed, full}) {
+                CentsLedger bucket = l.bucket(currency);
+                for (long uid : bucket.userIdsAscending()) userIds.add(uid);
+            }
+            for (Long uid : userIds) {
+                assertThat(replayed.net(currency, uid)).as("user %d %s", uid, currency)
+                        .isEqualTo(full.net(currency, uid));
+            }
+        }
+    }
+
+    // An expense with a chosen id and created_at, written the way the import and recurring writers do
+    private void insert(long id, Group group, User payer, User owes, long cents, Instant createdAt) {
+        long version = groupBalanceService.nextVersion(group.getId());
+        BigDecimal amount = SplitUtil.centsToBigDecimal(cents);
+        jdbcTemplate.update("INSERT INTO expenses (id, group_id, created_by, payer_id, amount, currency, split_type, " +
+                        "note, created_at, group_version) VALUES (?, ?, ?, ?, ?, 'INR', 'CUSTOM', NULL, ?, ?)",
+                id, group.getId(), payer.getId(), payer.getId(), amount, Timestamp.from(createdAt), version);
+        jdbcTemplate.update("INSERT INTO expense_shares (id, expense_id, user_id, share_amount, is_settled) " +
+                "VALUES (?, ?, ?, ?, FALSE)", id, id, owes.getId(), amount);
+        groupBalanceService.applyExpense(group, payer.getId(), "INR", cents, Map.of(owes.getId(), cents));
+    }
+
+    private long versionOf(long expenseId) {
+        return jdbcTemplate.queryForObject("SELECT group_version FROM expenses WHERE id = ?", Long.class, expenseId);
+    }
+
+    private void settle(Group group, User recorder, User from, User to, String amount) {
+        RecordSettlementRequest req = new RecordSettlementRequest();
+        req.setFromUserId(from.getId());
+        req.setToUserId(to.getId());
+        req.setAmount(new BigDecimal(amount));
+        settlementService.recordSettlement(group.getId(), recorder, req);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.expensesplitter.integration;
+
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.service.GroupService;
+import com.example.expensesplitter.support.ApiIntegrationTest;
+import com.example.expensesplitter.support.CountingStatementInspector;
+import com.example.expensesplitter.support.TestUsers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Group read endpoints answer a matching If-None-Match with 304 from the group version alone,
+ * and every ledger or membership write changes the tag.
+ */
+@ApiIntegrationTest(properties = CountingStatementInspector.ENABLE)
+public class ConditionalGetIT {
+
+    // group version joined with the membership check; the user was cached by the first request
+    private static final int STATEMENTS_PER_NOT_MODIFIED = 1;
+
+    @Autowired MockMvc mvc;
+    @Autowired TestUsers users;
+    @Autowired ObjectMapper mapper;
+    @Autowired GroupService groupService;
+
+    @Test
+    void unchangedGroupIsNotModifiedUntilAWrite() throws Exception {
+        User alice = users.create("etag-alice@example.com");
+        User bob = users.create("etag-bob@example.com");
+        User carol = users.create("etag-carol@example.com");
+        Group group = groupService.createGroup("Tagged", alice);
+        groupService.addMemberToGroup(group, bob, "MEMBER");
+        String auth = users.bearer(alice);
+        String base = "/api/groups/" + group.getId();
+        String[] urls = {base, base + "/expenses", base + "/settlements", base + "/balances", base + "/expenses/balances"};
+
+        String tag = etag(base + "/expenses", auth);
+        for (String url : urls) {
+            assertThat(etag(url, auth)).isEqualTo(tag);
+            CountingStatementInspector.reset();
+            mvc.perform(get(url).header("Authorization", auth).header(HttpHeaders.IF_NONE_MATCH, tag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, tag));
+            CountingStatementInspector.assertCount(STATEMENTS_PER_NOT_MODIFIED);
+            assertThat(CountingStatementInspector.statements()).noneMatch(sql -> sql.contains("expense"));
+        }
+
+        // an expense changes every tag
+        mvc.perform(post(base + "/expenses").header("Authorization", auth).contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(Map.of("amount", 10.00, "payerId", alice.getId(), "splitType", "EQUAL"))))
+                .andExpect(status().isOk());
+        String afterExpense = etag(base + "/expenses", auth);
+        assertThat(afterExpense).isNotEqualTo(tag);
+        mvc.perform(get(base + "/balances").header("Authorization", auth).header(HttpHeaders.IF_NONE_MATCH, tag))
+                .andExpect(status().isOk());
+
+        // so do settlements and new members
+        mvc.perform(post(base + "/settlements").header("Authorization", auth).contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(Map.of("fromUserId", bob.getId(), "toUserId", alice.getId(), "amount", 5.00))))
+                .andExpect(status().isOk());
+        String afterSettlement = etag(base, auth);
+        assertThat(afterSettlement).isNotEqualTo(afterExpense);
+        groupService.addMemberToGroup(group, carol, "MEMBER");
+        assertThat(etag(base, auth)).isNotEqualTo(afterSettlement);
+
+        // converted balances depend on FX rates as well, so they are not tagged
+        mvc.perform(get(base + "/balances").param("convert", "true").header("Authorization", auth))
+                .andExpect(status().isOk()).andExpect(header().doesNotExist(HttpHeaders.ETAG));
+
+        // a non-member holding a valid tag still gets 403
+        User eve = users.create("etag-eve@example.com");
+        String eveAuth = users.bearer(eve);
+        mvc.perform(get(base + "/settlements").header("Authorization", eveAuth)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag(base, auth)))
+                .andExpect(status().isForbidden());
+    }
+
+    private String etag(String url, String auth) throws Exception {
+        String tag = mvc.perform(get(url).header("Authorization", auth))
+                .andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(tag).isNotNull();
+        return tag;
+    }
+}
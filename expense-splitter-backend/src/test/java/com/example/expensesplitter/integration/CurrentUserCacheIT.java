@@ -0,0 +1,82 @@
+package com.example.expensesplitter.integration;
+
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.repository.UserRepository;
+import com.example.expensesplitter.security.JwtUtil;
+import com.example.expensesplitter.security.UserCache;
+import com.example.expensesplitter.service.GroupService;
+import com.example.expensesplitter.support.ApiIntegrationTest;
+import com.example.expensesplitter.support.CountingStatementInspector;
+import com.example.expensesplitter.support.TestUsers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * @CurrentUser is resolved from the token claims and the UserCache: no user query once cached,
+ * and a changed user is seen on the next request.
+ */
+@ApiIntegrationTest(properties = CountingStatementInspector.ENABLE)
+public class CurrentUserCacheIT {
+
+    @Autowired MockMvc mvc;
+    @Autowired TestUsers users;
+    @Autowired ObjectMapper mapper;
+    @Autowired UserRepository userRepository;
+    @Autowired GroupService groupService;
+    @Autowired JwtUtil jwtUtil;
+    @Autowired UserCache userCache;
+
+    @Test
+    void userIsCachedUntilItChanges() throws Exception {
+        User alice = users.create("cache-alice@example.com");
+        User bob = users.create("cache-bob@example.com");
+        Group group = groupService.createGroup("Cached", alice);
+        groupService.addMemberToGroup(group, bob, "MEMBER");
+        String auth = users.bearer(alice);
+
+        assertThat(settle(group, auth, alice, bob)).isEqualTo("cache-alice");
+        String url = "/api/groups/" + group.getId() + "/expenses";
+        String tag = mvc.perform(get(url).header("Authorization", auth)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        CountingStatementInspector.reset();
+        mvc.perform(get(url).header("Authorization", auth).header(HttpHeaders.IF_NONE_MATCH, tag))
+                .andExpect(status().isNotModified());
+        CountingStatementInspector.assertCount(1); // group version and membership; no user query
+
+        // only what @CurrentUser callers read is kept
+        User cached = userCache.get(alice.getId()).orElseThrow();
+        assertThat(cached.getEmail()).isEqualTo("cache-alice@example.com");
+        assertThat(cached.getCreatedAt()).isNotNull();
+        assertThat(cached.getPasswordHash()).isNull();
+
+        // the token still carries the old name; the resolved user is the changed row
+        alice.setName("Alice Renamed");
+        userRepository.save(alice);
+        assertThat(settle(group, auth, alice, bob)).isEqualTo("Alice Renamed");
+
+        String ghost = "Bearer " + jwtUtil.generateToken("ghost@example.com", 987_654L, "Ghost");
+        mvc.perform(get("/api/groups/" + group.getId()).header("Authorization", ghost))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private String settle(Group group, String auth, User to, User from) throws Exception {
+        String json = mvc.perform(post("/api/groups/" + group.getId() + "/settlements").header("Authorization", auth)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(Map.of("fromUserId", from.getId(), "toUserId", to.getId(),
+                                "amount", 1.00))))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return mapper.readTree(json).get("recordedByName").asText();
+    }
+}
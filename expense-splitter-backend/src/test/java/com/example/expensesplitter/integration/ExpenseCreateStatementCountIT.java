@@ -0,0 +1,68 @@
+package com.example.expensesplitter.integration;
+
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.security.UserCache;
+import com.example.expensesplitter.service.GroupService;
+import com.example.expensesplitter.support.ApiIntegrationTest;
+import com.example.expensesplitter.support.CountingStatementInspector;
+import com.example.expensesplitter.support.TestUsers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /api/groups/{id}/expenses issues the same, fixed number of statements
+ * whatever the size of the group.
+ */
+@ApiIntegrationTest(properties = CountingStatementInspector.ENABLE)
+public class ExpenseCreateStatementCountIT {
+
+    // group, members + users, group version bump + read, expense insert, share insert batch,
+    // locked projection rows, projection update batch (the current user comes from the UserCache)
+    private static final int STATEMENTS_PER_EXPENSE = 8;
+
+    @Autowired MockMvc mvc;
+    @Autowired ObjectMapper mapper;
+    @Autowired TestUsers testUsers;
+    @Autowired GroupService groupService;
+    @Autowired UserCache userCache;
+
+    @Test
+    void createExpenseStatementCountDoesNotGrowWithGroupSize() throws Exception {
+        assertStatementsForGroupOf(3);
+        assertStatementsForGroupOf(40);
+    }
+
+    private void assertStatementsForGroupOf(int size) throws Exception {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            users.add(testUsers.create("count" + size + "-" + i + "@example.com"));
+        }
+        Group group = groupService.createGroup("Count " + size, users.get(0));
+        for (int i = 1; i < size; i++) {
+            groupService.addMemberToGroup(group, users.get(i), "MEMBER");
+        }
+        User owner = users.get(0);
+        String auth = testUsers.bearer(owner);
+        userCache.get(owner.getId()); // as after any earlier request of the user
+
+        var body = Map.of("amount", 123.45, "payerId", users.get(size - 1).getId(), "splitType", "EQUAL");
+        for (int attempt = 0; attempt < 2; attempt++) { // the second one runs on warm id blocks
+            CountingStatementInspector.reset();
+            mvc.perform(post("/api/groups/" + group.getId() + "/expenses").header("Authorization", auth)
+                            .contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(body)))
+                    .andExpect(status().isOk());
+            CountingStatementInspector.assertCount(STATEMENTS_PER_EXPENSE);
+        }
+    }
+}
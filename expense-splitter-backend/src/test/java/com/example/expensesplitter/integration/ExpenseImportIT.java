@@ -0,0 +1,142 @@
+package com.example.expensesplitter.integration;
+
+import com.example.expensesplitter.dto.ImportResultDto;
+import com.example.expensesplitter.entity.Expense;
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.repository.BalanceCheckpointRepository;
+import com.example.expensesplitter.repository.ExpenseRepository;
+import com.example.expensesplitter.repository.GroupRepository;
+import com.example.expensesplitter.service.BalanceCheckpointService;
+import com.example.expensesplitter.service.ExpenseImportService;
+import com.example.expensesplitter.service.GroupBalanceService;
+import com.example.expensesplitter.service.GroupService;
+import com.example.expensesplitter.support.ApiIntegrationTest;
+import com.example.expensesplitter.support.TestUsers;
+import com.example.expensesplitter.util.CurrencyLedger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk import writes valid rows in JDBC batches, reports bad lines, and keeps the
+ * balance projection consistent with the ledger.
+ */
+@ApiIntegrationTest(properties = "app.import-batch-size=3")
+@Transactional
+public class ExpenseImportIT {
+
+    @Autowired TestUsers testUsers;
+    @Autowired ExpenseRepository expenseRepository;
+    @Autowired GroupService groupService;
+    @Autowired GroupBalanceService groupBalanceService;
+    @Autowired ExpenseImportService expenseImportService;
+    @Autowired BalanceCheckpointService balanceCheckpointService;
+    @Autowired BalanceCheckpointRepository balanceCheckpointRepository;
+    @Autowired GroupRepository groupRepository;
+
+    @Test
+    void importsNdjsonAndCsvReportingBadLines() throws Exception {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            users.add(testUsers.create("imp" + i + "@example.com"));
+        }
+        User outsider = testUsers.create("imp-out@example.com");
+
+        Group group = groupService.createGroup("Import", users.get(0));
+        groupService.addMemberToGroup(group, users.get(1), "MEMBER");
+        groupService.addMemberToGroup(group, users.get(2), "MEMBER");
+        long a = users.get(0).getId(), b = users.get(1).getId(), c = users.get(2).getId();
+
+        String ndjson = String.join("\n",
+                "{\"payerId\":" + a + ",\"amount\":30.00,\"splitType\":\"EQUAL\",\"note\":\"one\"}",
+                "{\"payerId\":" + b + ",\"amount\":10,\"splitType\":\"CUSTOM\",\"shares\":[" +
+                        "{\"userId\":" + a + ",\"amount\":4},{\"userId\":" + c + ",\"amount\":6}]}",
+                "{not json",
+                "",
+                "{\"payerId\":" + outsider.getId() + ",\"amount\":5}",
+                "{\"payerId\":" + c + ",\"amount\":12.34,\"currency\":\"usd\",\"createdAt\":\"2024-03-01T10:00:00Z\"}",
+                "{\"payerId\":" + a + ",\"amount\":100,\"splitType\":\"PERCENT\",\"shares\":[" +
+                        "{\"userId\":" + b + ",\"percent\":50}]}",
+                "{\"payerId\":" + a + ",\"amount\":1}");
+        ImportResultDto json = expenseImportService.importExpenses(group.getId(), users.get(0),
+                stream(ndjson), ExpenseImportService.Format.NDJSON);
+
+        assertThat(json.getImported()).isEqualTo(4);
+        assertThat(json.getFailed()).isEqualTo(3);
+        assertThat(json.getErrors()).extracting(ImportResultDto.LineError::getLine).containsExactly(3L, 5L, 7L);
+        assertThat(json.getErrors().get(1).getMessage()).isEqualTo("Payer is not a member of this group");
+        assertThat(json.getErrors().get(2).getMessage()).isEqualTo("Percents must sum to exactly 100.00");
+
+        String csv = "payerId,amount,currency,splitType,note,createdAt,shares\n" +
+                a + ",20.00,INR,PERCENT,\"dinner, with \"\"friends\"\"\",," + b + ":25;" + c + ":75\n" +
+                b + ",abc,,,,,\n" +
+                "\n" +
+                c + ",9.99,,EQUAL,\"multi\nline\",2024-01-02T03:04:05Z,\n";
+        ImportResultDto fromCsv = expenseImportService.importExpenses(group.getId(), users.get(0),
+                stream(csv), ExpenseImportService.Format.CSV);
+
+        assertThat(fromCsv.getImported()).isEqualTo(2);
+        assertThat(fromCsv.getErrors()).extracting(ImportResultDto.LineError::getLine).containsExactly(3L);
+
+        List<Expense> expenses = expenseRepository.findByGroupId(group.getId());
+        assertThat(expenses).hasSize(6);
+        assertThat(expenses).extracting(Expense::getNote).contains("dinner, with \"friends\"", "multi\nline");
+        Expense usd = expenses.stream().filter(e -> "USD".equals(e.getCurrency())).findFirst().orElseThrow();
+        assertThat(usd.getCreatedAt()).isEqualTo(Instant.parse("2024-03-01T10:00:00Z"));
+        assertThat(usd.getAmount()).isEqualByComparingTo(new BigDecimal("12.34"));
+        assertThat(usd.getShares()).hasSize(3);
+
+        // the projection was maintained batch by batch
+        assertThat(groupBalanceService.rebuild(group.getId())).isZero();
+    }
+
+    @Test
+    void backdatedImportCannotMoveTheCheckpointMark() throws Exception {
+        User a = testUsers.create("imp-ckpt-a@example.com");
+        User b = testUsers.create("imp-ckpt-b@example.com");
+        Group group = groupService.createGroup("Import checkpoint", a);
+        groupService.addMemberToGroup(group, b, "MEMBER");
+
+        expenseImportService.importExpenses(group.getId(), a, stream(
+                "{\"payerId\":" + a.getId() + ",\"amount\":40}\n{\"payerId\":" + b.getId() + ",\"amount\":10}"),
+                ExpenseImportService.Format.NDJSON);
+        assertThat(balanceCheckpointService.rollForward(group.getId())).isTrue();
+        long mark = lastGroupVersion(group.getId());
+
+        // rows claiming to predate everything already checkpointed still land above the mark
+        ImportResultDto backdated = expenseImportService.importExpenses(group.getId(), a, stream(
+                "{\"payerId\":" + b.getId() + ",\"amount\":60,\"createdAt\":\"2001-01-01T00:00:00Z\"}"),
+                ExpenseImportService.Format.NDJSON);
+        assertThat(backdated.getImported()).isEqualTo(1);
+        assertThat(lastGroupVersion(group.getId())).isEqualTo(mark);
+
+        CurrencyLedger full = new CurrencyLedger();
+        groupBalanceService.foldRange(full, group.getId(), 0L, Long.MAX_VALUE);
+        CurrencyLedger replayed = groupBalanceService.foldLedger(group.getId());
+        assertThat(replayed.net("INR", a.getId())).isEqualTo(full.net("INR", a.getId())).isEqualTo(-1500L);
+        assertThat(replayed.net("INR", b.getId())).isEqualTo(full.net("INR", b.getId())).isEqualTo(1500L);
+        assertThat(groupBalanceService.rebuild(group.getId())).isZero();
+
+        assertThat(balanceCheckpointService.rollForward(group.getId())).isTrue();
+        assertThat(lastGroupVersion(group.getId())).isEqualTo(groupRepository.findVersion(group.getId()));
+        assertThat(groupBalanceService.rebuild(group.getId())).isZero();
+    }
+
+    private long lastGroupVersion(Long groupId) {
+        return balanceCheckpointRepository.findByGroupIdWithEntries(groupId).orElseThrow().getLastGroupVersion();
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
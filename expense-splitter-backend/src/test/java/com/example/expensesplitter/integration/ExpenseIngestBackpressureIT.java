@@ -0,0 +1,106 @@
+package com.example.expensesplitter.integration;
+
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.service.ExpenseIngestService;
+import com.example.expensesplitter.service.GroupBalanceService;
+import com.example.expensesplitter.service.GroupService;
+import com.example.expensesplitter.support.ApiIntegrationTest;
+import com.example.expensesplitter.support.TestUsers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * A full ingest queue pushes back: the POST is a 429 with Retry-After, counted as rejected,
+ * and nothing is written for it.
+ */
+@ApiIntegrationTest(properties = {"app.ingest-enabled=true", "app.ingest-shards=1", "app.ingest-queue-capacity=1",
+        "app.ingest-max-batch=2", "app.ingest-max-wait-ms=10000"})
+public class ExpenseIngestBackpressureIT {
+
+    @Autowired MockMvc mvc;
+    @Autowired TestUsers users;
+    @Autowired ObjectMapper mapper;
+    @Autowired GroupService groupService;
+    @Autowired GroupBalanceService groupBalanceService;
+    @Autowired ExpenseIngestService expenseIngestService;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    @Test
+    void fullQueueIsA429WithRetryAfter() throws Exception {
+        User dave = users.create("ingest-full@example.com");
+        Group group = groupService.createGroup("Ingest full", dave);
+        String auth = users.bearer(dave);
+        String body = mapper.writeValueAsString(
+                Map.of("amount", 3.00, "payerId", dave.getId(), "splitType", "EQUAL"));
+        long rejectedBefore = expenseIngestService.metrics().getRejected();
+
+        // the writer's batch blocks on the group row while another transaction holds it
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService holder = Executors.newSingleThreadExecutor();
+        Future<?> lock = holder.submit(() -> transactionTemplate.executeWithoutResult(s -> {
+            groupBalanceService.nextVersion(group.getId());
+            locked.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        List<MockHttpServletResponse> accepted = new ArrayList<>();
+        MockHttpServletResponse full = null;
+        try {
+            assertThat(locked.await(30, TimeUnit.SECONDS)).isTrue();
+            // one batch of two stuck in the writer, one more in the queue, then no room
+            for (int i = 0; i < 10 && full == null; i++) {
+                MockHttpServletResponse r = mvc.perform(post("/api/groups/" + group.getId() + "/expenses")
+                                .header("Authorization", auth).header("Prefer", "respond-async")
+                                .contentType(MediaType.APPLICATION_JSON).content(body))
+                        .andReturn().getResponse();
+                if (r.getStatus() == 429) {
+                    full = r;
+                } else {
+                    assertThat(r.getStatus()).isEqualTo(202);
+                    accepted.add(r);
+                }
+            }
+        } finally {
+            release.countDown();
+            lock.get(30, TimeUnit.SECONDS);
+            holder.shutdown();
+        }
+
+        assertThat(full).as("no 429 once the queue was full").isNotNull();
+        assertThat(full.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(mapper.readTree(full.getContentAsString()).get("status").asInt()).isEqualTo(429);
+        assertThat(accepted).hasSizeBetween(1, 3);
+        assertThat(expenseIngestService.metrics().getRejected()).isEqualTo(rejectedBefore + 1);
+
+        // what was accepted is still written once the group is free
+        for (MockHttpServletResponse r : accepted) {
+            String ticket = mapper.readTree(r.getContentAsString()).get("ticket").asText();
+            assertThat(expenseIngestService.ticket(ticket, dave.getId()).result().get(30, TimeUnit.SECONDS).getId())
+                    .isNotNull();
+        }
+        assertThat(groupBalanceService.rebuild(group.getId())).isZero();
+    }
+}
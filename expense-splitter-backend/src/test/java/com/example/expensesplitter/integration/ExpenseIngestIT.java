@@ -0,0 +1,120 @@
+package com.example.expensesplitter.integration;
+
+import com.example.expensesplitter.dto.CreateExpenseRequest;
+import com.example.expensesplitter.dto.IngestMetricsDto;
+import com.example.expensesplitter.entity.Expense;
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.repository.ExpenseRepository;
+import com.example.expensesplitter.service.ExpenseIngestService;
+import com.example.expensesplitter.service.GroupBalanceService;
+import com.example.expensesplitter.service.GroupService;
+import com.example.expensesplitter.support.ApiIntegrationTest;
+import com.example.expensesplitter.support.TestUsers;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * With ingestion enabled, queued expenses are committed in micro-batches, a bad request fails
+ * alone, and async clients can follow the status URL.
+ */
+@ApiIntegrationTest(properties = {"app.ingest-enabled=true", "app.ingest-shards=2", "app.ingest-max-wait-ms=200"})
+public class ExpenseIngestIT {
+
+    @Autowired MockMvc mvc;
+    @Autowired TestUsers users;
+    @Autowired ObjectMapper mapper;
+    @Autowired ExpenseRepository expenseRepository;
+    @Autowired GroupService groupService;
+    @Autowired GroupBalanceService groupBalanceService;
+    @Autowired ExpenseIngestService expenseIngestService;
+
+    @Test
+    void queuedExpensesAreCommittedInBatches() throws Exception {
+        User alice = users.create("ingest-alice@example.com");
+        User bob = users.create("ingest-bob@example.com");
+        User outsider = users.create("ingest-out@example.com");
+        Group group = groupService.createGroup("Ingest", alice);
+        groupService.addMemberToGroup(group, bob, "MEMBER");
+
+        List<ExpenseIngestService.Ticket> tickets = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            tickets.add(expenseIngestService.submit(group.getId(), alice, request(i % 2 == 0 ? alice : bob, "10.01")));
+        }
+        ExpenseIngestService.Ticket bad = expenseIngestService.submit(group.getId(), alice, request(outsider, "5.00"));
+
+        for (ExpenseIngestService.Ticket t : tickets) {
+            assertThat(t.result().join().getId()).isNotNull();
+        }
+        assertThatThrownBy(() -> bad.result().join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Payer is not a member");
+
+        assertThat(expenseRepository.findByGroupId(group.getId())).hasSize(30);
+        assertThat(groupBalanceService.rebuild(group.getId())).isZero();
+
+        IngestMetricsDto metrics = expenseIngestService.metrics();
+        assertThat(metrics.getWritten()).isGreaterThanOrEqualTo(30);
+        assertThat(metrics.getBatches()).isLessThan(30);
+        assertThat(metrics.getQueueDepth()).isZero();
+    }
+
+    @Test
+    void asyncClientsFollowTheStatusUrl() throws Exception {
+        User carol = users.create("ingest-carol@example.com");
+        Group group = groupService.createGroup("Ingest async", carol);
+        String auth = users.bearer(carol);
+        String body = mapper.writeValueAsString(
+                Map.of("amount", 12.50, "payerId", carol.getId(), "splitType", "EQUAL"));
+
+        MvcResult accepted = mvc.perform(post("/api/groups/" + group.getId() + "/expenses")
+                        .header("Authorization", auth).header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location")).andReturn();
+        String location = accepted.getResponse().getHeader("Location");
+
+        ExpenseIngestService.Ticket ticket = expenseIngestService.ticket(
+                mapper.readTree(accepted.getResponse().getContentAsString()).get("ticket").asText(), carol.getId());
+        Expense written = ticket.result().join();
+
+        JsonNode done = mapper.readTree(mvc.perform(get(location).header("Authorization", auth))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        assertThat(done.get("status").asText()).isEqualTo("DONE");
+        assertThat(done.get("expense").get("id").asLong()).isEqualTo(written.getId());
+
+        // synchronous clients wait for the commit
+        mvc.perform(post("/api/groups/" + group.getId() + "/expenses").header("Authorization", auth)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+        assertThat(expenseRepository.findByGroupId(group.getId())).hasSize(2);
+    }
+
+    private static CreateExpenseRequest request(User payer, String amount) {
+        CreateExpenseRequest req = new CreateExpenseRequest();
+        req.setPayerId(payer.getId());
+        req.setAmount(new BigDecimal(amount));
+        req.setSplitType("EQUAL");
+        return req;
+    }
+}
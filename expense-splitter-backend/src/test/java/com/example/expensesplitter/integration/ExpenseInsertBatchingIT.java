@@ -0,0 +1,85 @@
+package com.example.expensesplitter.integration;
+
+import com.example.expensesplitter.entity.Expense;
+import com.example.expensesplitter.entity.ExpenseShare;
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.repository.ExpenseRepository;
+import com.example.expensesplitter.service.GroupService;
+import com.example.expensesplitter.support.ApiIntegrationTest;
+import com.example.expensesplitter.support.TestUsers;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * With PooledId ids an expense and its cascaded shares are inserted as two
+ * batched statements instead of one round trip per row.
+ */
+@ApiIntegrationTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+public class ExpenseInsertBatchingIT {
+
+    private static final int SHARES = 40;
+
+    @Autowired TestUsers testUsers;
+    @Autowired ExpenseRepository expenseRepository;
+    @Autowired GroupService groupService;
+    @Autowired EntityManager entityManager;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void expenseWithSharesIsTwoBatchedStatements() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < SHARES; i++) {
+            users.add(testUsers.create("batch" + i + "@example.com"));
+        }
+        Group group = groupService.createGroup("Batching", users.get(0));
+
+        // first save also reserves the id blocks (own connection, not part of what we measure)
+        expenseRepository.save(expense(group, users));
+        entityManager.flush();
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        Expense saved = expenseRepository.save(expense(group, users));
+        entityManager.flush();
+
+        assertThat(stats.getEntityInsertCount()).isEqualTo(1 + SHARES);
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+
+        Set<Long> shareIds = new HashSet<>();
+        for (ExpenseShare s : saved.getShares()) shareIds.add(s.getId());
+        assertThat(saved.getId()).isNotNull();
+        assertThat(shareIds).hasSize(SHARES).doesNotContainNull();
+    }
+
+    private static Expense expense(Group group, List<User> users) {
+        Expense e = new Expense();
+        e.setGroup(group);
+        e.setCreatedBy(users.get(0));
+        e.setPayer(users.get(0));
+        e.setAmount(new BigDecimal("40.00"));
+        e.setSplitType("EQUAL");
+        for (User u : users) {
+            ExpenseShare share = new ExpenseShare();
+            share.setUser(u);
+            share.setShareAmount(new BigDecimal("1.00"));
+            e.addShare(share);
+        }
+        return e;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.expensesplitter.integration;
+
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.security.UserCache;
+import com.example.expensesplitter.service.ExpenseBatchWriter;
+import com.example.expensesplitter.service.GroupService;
+import com.example.expensesplitter.support.ApiIntegrationTest;
+import com.example.expensesplitter.support.CountingStatementInspector;
+import com.example.expensesplitter.support.TestUsers;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Paging through a group's expenses with the cursor visits every expense once, newest first,
+ * including expenses that share a created_at, with the same number of statements for every page.
+ */
+@ApiIntegrationTest(properties = {"app.expense-page-max-size=20", "app.expense-list-max-rows=15",
+        CountingStatementInspector.ENABLE})
+public class ExpensePaginationIT {
+
+    // group version (ETag), membership check, expense rows, share rows (the user is cached)
+    private static final int STATEMENTS_PER_PAGE = 4;
+
+    @Autowired MockMvc mvc;
+    @Autowired TestUsers users;
+    @Autowired ObjectMapper mapper;
+    @Autowired GroupService groupService;
+    @Autowired ExpenseBatchWriter expenseBatchWriter;
+    @Autowired TransactionTemplate transactionTemplate;
+    @Autowired UserCache userCache;
+
+    @Test
+    void cursorWalksEveryExpenseOnceNewestFirst() throws Exception {
+        User alice = users.create("page-alice@example.com");
+        User bob = users.create("page-bob@example.com");
+        Group group = groupService.createGroup("Paged", alice);
+        groupService.addMemberToGroup(group, bob, "MEMBER");
+        String auth = users.bearer(alice);
+        String url = "/api/groups/" + group.getId() + "/expenses";
+
+        // 40 expenses over 10 timestamps: four per second, so page boundaries fall inside ties
+        Instant base = Instant.parse("2024-03-01T10:00:00Z");
+        List<ExpenseBatchWriter.Row> rows = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            rows.add(new ExpenseBatchWriter.Row(group.getId(), 1L, alice.getId(), alice.getId(),
+                    new BigDecimal("2.00"), "INR", "EQUAL", "e" + i, base.plusSeconds(i / 4),
+                    Map.of(alice.getId(), 100L, bob.getId(), 100L)));
+        }
+        long firstId = transactionTemplate.execute(status -> expenseBatchWriter.write(rows));
+
+        userCache.get(alice.getId()); // as after any earlier request of the user
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var request = get(url).header("Authorization", auth).param("limit", "7");
+            if (cursor != null) request.param("after", cursor);
+            CountingStatementInspector.reset();
+            JsonNode page = mapper.readTree(mvc.perform(request)
+                    .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+            CountingStatementInspector.assertCount(STATEMENTS_PER_PAGE);
+            assertThat(page.get("items").size()).isBetween(1, 7);
+            page.get("items").forEach(e -> {
+                seen.add(e.get("id").asLong());
+                assertThat(e.get("shares")).hasSize(2);
+            });
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(6);
+        List<Long> expected = new ArrayList<>();
+        for (int second = 9; second >= 0; second--) {
+            for (int k = 3; k >= 0; k--) expected.add(firstId + second * 4L + k);
+        }
+        assertThat(seen).isEqualTo(expected);
+
+        // the plain list is capped; limit is clamped to the max page size
+        JsonNode plain = mapper.readTree(mvc.perform(get(url).header("Authorization", auth))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        assertThat(plain.isArray()).isTrue();
+        assertThat(plain).hasSize(15);
+        assertThat(plain.get(0).get("id").asLong()).isEqualTo(expected.get(0));
+        JsonNode big = mapper.readTree(mvc.perform(get(url).header("Authorization", auth).param("limit", "1000"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        assertThat(big.get("items")).hasSize(20);
+
+        mvc.perform(get(url).header("Authorization", auth).param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get(url).header("Authorization", auth).param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+}
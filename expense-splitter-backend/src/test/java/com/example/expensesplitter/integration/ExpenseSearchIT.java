@@ -0,0 +1,103 @@
+package com.example.expensesplitter.integration;
+
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.service.ExpenseBatchWriter;
+import com.example.expensesplitter.service.GroupBalanceService;
+import com.example.expensesplitter.service.GroupService;
+import com.example.expensesplitter.support.ApiIntegrationTest;
+import com.example.expensesplitter.support.TestUsers;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Note search sees expenses written after its index was built, including back-dated ones.
+ */
+@ApiIntegrationTest
+public class ExpenseSearchIT {
+
+    @Autowired MockMvc mvc;
+    @Autowired TestUsers users;
+    @Autowired ObjectMapper mapper;
+    @Autowired GroupService groupService;
+    @Autowired GroupBalanceService groupBalanceService;
+    @Autowired ExpenseBatchWriter expenseBatchWriter;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    @Test
+    void searchFollowsNewAndBackDatedExpenses() throws Exception {
+        User alice = users.create("search-alice@example.com");
+        User bob = users.create("search-bob@example.com");
+        Group group = groupService.createGroup("Searched", alice);
+        groupService.addMemberToGroup(group, bob, "MEMBER");
+        String auth = users.bearer(alice);
+        String url = "/api/groups/" + group.getId() + "/expenses";
+
+        long taxi = create(url, auth, alice, "Taxi to the airport");
+        long hotel = create(url, auth, bob, "Hotel Goa, 2 nights");
+        long back = create(url, auth, alice, "taxi back");
+        create(url, auth, alice, null);
+
+        assertThat(search(url, auth, "TAXI")).containsExactly(back, taxi);
+        assertThat(search(url, auth, "hot go")).containsExactly(hotel);
+        assertThat(search(url, auth, "goa taxi")).isEmpty();
+
+        // written after the index was built
+        long dinner = create(url, auth, bob, "Goa dinner");
+        assertThat(search(url, auth, "goa")).containsExactly(dinner, hotel);
+
+        // older than everything indexed: the index is rebuilt
+        long old = transactionTemplate.execute(status -> expenseBatchWriter.write(List.of(
+                new ExpenseBatchWriter.Row(group.getId(), groupBalanceService.nextVersion(group.getId()),
+                        alice.getId(), alice.getId(), new BigDecimal("4.00"), "INR", "EQUAL", "Old taxi receipt",
+                        Instant.parse("2020-01-01T00:00:00Z"), Map.of(alice.getId(), 200L, bob.getId(), 200L)))));
+        assertThat(search(url, auth, "taxi")).containsExactly(back, taxi, old);
+
+        JsonNode first = mapper.readTree(mvc.perform(get(url + "/search").param("q", "taxi").param("limit", "1")
+                .header("Authorization", auth)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        assertThat(first).hasSize(1);
+        assertThat(first.get(0).get("shares")).hasSize(2);
+        assertThat(first.get(0).get("note").asText()).isEqualTo("taxi back");
+
+        mvc.perform(get(url + "/search").param("q", " ").header("Authorization", auth))
+                .andExpect(status().isBadRequest());
+        User eve = users.create("search-eve@example.com");
+        String eveAuth = users.bearer(eve);
+        mvc.perform(get(url + "/search").param("q", "taxi").header("Authorization", eveAuth))
+                .andExpect(status().isForbidden());
+    }
+
+    private long create(String url, String auth, User payer, String note) throws Exception {
+        Map<String, Object> body = new HashMap<>(Map.of("amount", 12.00, "payerId", payer.getId(), "splitType", "EQUAL"));
+        if (note != null) body.put("note", note);
+        String json = mvc.perform(post(url).header("Authorization", auth).contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(body)))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return mapper.readTree(json).get("id").asLong();
+    }
+
+    private List<Long> search(String url, String auth, String q) throws Exception {
+        JsonNode found = mapper.readTree(mvc.perform(get(url + "/search").param("q", q).header("Authorization", auth))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        List<Long> ids = new ArrayList<>();
+        found.forEach(e -> ids.add(e.get("id").asLong()));
+        return ids;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.expensesplitter.integration;
+
+import com.example.expensesplitter.dto.CreateExpenseRequest;
+import com.example.expensesplitter.dto.RecordSettlementRequest;
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.GroupBalance;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.repository.GroupBalanceRepository;
+import com.example.expensesplitter.service.ExpenseService;
+import com.example.expensesplitter.service.GroupBalanceService;
+import com.example.expensesplitter.service.GroupService;
+import com.example.expensesplitter.service.SettlementService;
+import com.example.expensesplitter.support.ApiIntegrationTest;
+import com.example.expensesplitter.support.TestUsers;
+import com.example.expensesplitter.util.CentsLedger;
+import com.example.expensesplitter.util.CurrencyLedger;
+import com.example.expensesplitter.util.SplitUtil;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The group_balances projection, kept up by the increments of every expense and settlement,
+ * holds exactly the balances of a full fold of the ledger; rebuild() repairs drifted and
+ * missing rows from that fold, without racing the group's writers.
+ */
+@ApiIntegrationTest
+@Transactional
+public class GroupBalanceProjectionIT {
+
+    @Autowired TestUsers users;
+    @Autowired GroupService groupService;
+    @Autowired ExpenseService expenseService;
+    @Autowired SettlementService settlementService;
+    @Autowired GroupBalanceService groupBalanceService;
+    @Autowired GroupBalanceRepository groupBalanceRepository;
+    @Autowired EntityManager entityManager;
+    @Autowired TransactionTemplate transactionTemplate;
+
+    @Test
+    void projectionMatchesFullFoldAndRebuildRepairsDrift() {
+        List<User> members = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            members.add(users.create("projection" + i + "@example.com"));
+        }
+        Group group = groupService.createGroup("Projection", members.get(0));
+        for (int i = 1; i < members.size(); i++) {
+            groupService.addMemberToGroup(group, members.get(i), "MEMBER");
+        }
+
+        Random rnd = new Random(11);
+        for (int i = 0; i < 30; i++) {
+            CreateExpenseRequest req = new CreateExpenseRequest();
+            req.setAmount(SplitUtil.centsToBigDecimal(1 + rnd.nextInt(20_000)));
+            req.setPayerId(members.get(rnd.nextInt(members.size())).getId());
+            req.setCurrency(i % 4 == 0 ? "USD" : null);
+            if (i % 3 == 0) {
+                req.setSplitType("PERCENT");
+                CreateExpenseRequest.ShareLine a = new CreateExpenseRequest.ShareLine();
+                a.setUserId(members.get(2).getId());
+                a.setPercent(new BigDecimal("70"));
+                CreateExpenseRequest.ShareLine b = new CreateExpenseRequest.ShareLine();
+                b.setUserId(members.get(3).getId());
+                b.setPercent(new BigDecimal("30"));
+                req.setShares(List.of(a, b));
+            } else {
+                req.setSplitType("EQUAL");
+            }
+            expenseService.createExpense(group.getId(), members.get(0), req);
+        }
+        for (int i = 0; i < 8; i++) {
+            RecordSettlementRequest req = new RecordSettlementRequest();
+            req.setFromUserId(members.get(i % 2).getId());
+            req.setToUserId(members.get(2 + i % 2).getId());
+            req.setAmount(SplitUtil.centsToBigDecimal(1 + rnd.nextInt(5_000)));
+            req.setCurrency(i % 3 == 0 ? "USD" : "INR");
+            settlementService.recordSettlement(group.getId(), members.get(0), req);
+        }
+
+        assertMatchesFold(group.getId());
+        assertThat(groupBalanceService.rebuild(group.getId())).isZero();
+
+        // one row drifts, another goes missing
+        List<GroupBalance> rows = groupBalanceRepository.findByGroup_Id(group.getId());
+        rows.get(0).setNetCents(rows.get(0).getNetCents() + 7);
+        groupBalanceRepository.delete(rows.get(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(groupBalanceService.rebuild(group.getId())).isEqualTo(2);
+        entityManager.flush();
+        entityManager.clear();
+        assertMatchesFold(group.getId());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // two writers in their own transactions
+    void rebuildWaitsForAWriteInFlight() throws Exception {
+        User alice = users.create("projection-lock-a@example.com");
+        User bob = users.create("projection-lock-b@example.com");
+        Group group = groupService.createGroup("Projection lock", alice);
+        groupService.addMemberToGroup(group, bob, "MEMBER");
+
+        CountDownLatch applied = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            // an expense holding the group row lock, not committed yet
+            Future<?> write = pool.submit(() -> transactionTemplate.executeWithoutResult(s -> {
+                CreateExpenseRequest req = new CreateExpenseRequest();
+                req.setAmount(new BigDecimal("10.00"));
+                req.setPayerId(alice.getId());
+                req.setSplitType("EQUAL");
+                expenseService.createExpense(group.getId(), alice, req);
+                applied.countDown();
+                try {
+                    release.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertThat(applied.await(30, TimeUnit.SECONDS)).isTrue();
+            Future<Integer> rebuild = pool.submit(() -> groupBalanceService.rebuild(group.getId()));
+            Thread.sleep(300);
+            assertThat(rebuild.isDone()).as("rebuild ran while the group was locked").isFalse();
+
+            release.countDown();
+            write.get(30, TimeUnit.SECONDS);
+            assertThat(rebuild.get(30, TimeUnit.SECONDS)).isZero();
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+        assertMatchesFold(group.getId());
+    }
+
+    private void assertMatchesFold(Long groupId) {
+        CurrencyLedger fold = groupBalanceService.foldLedger(groupId);
+        List<GroupBalance> rows = groupBalanceService.readProjection(groupId);
+        CurrencyLedger projected = new CurrencyLedger();
+        for (GroupBalance b : rows) {
+            projected.credit(b.getCurrency(), b.getUser().getId(), b.getNetCents());
+            assertThat(b.getNetCents()).as("user %d %s", b.getUser().getId(), b.getCurrency())
+                    .isEqualTo(fold.net(b.getCurrency(), b.getUser().getId()));
+        }
+        assertThat(projected.currencies()).containsExactlyInAnyOrderElementsOf(fold.currencies());
+        for (String currency : fold.currencies()) {
+            CentsLedger bucket = fold.bucket(currency);
+            long sum = 0L;
+            for (long uid : bucket.userIdsAscending()) {
+                if (bucket.net(uid) != 0L) {
+                    assertThat(projected.contains(currency, uid)).as("row for user %d %s", uid, currency).isTrue();
+                }
+                sum += bucket.net(uid);
+            }
+            assertThat(sum).as("%s nets to zero", currency).isZero();
+        }
+    }
+}
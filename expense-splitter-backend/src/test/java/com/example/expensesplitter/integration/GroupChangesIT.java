@@ -0,0 +1,124 @@
+package com.example.expensesplitter.integration;
+
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.service.GroupService;
+import com.example.expensesplitter.support.ApiIntegrationTest;
+import com.example.expensesplitter.support.TestUsers;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A client that applies every /changes response to a local mirror ends up with the same
+ * expenses, settlements, members and balances as a full reload.
+ */
+@ApiIntegrationTest(properties = "app.changes-max-rows=3")
+public class GroupChangesIT {
+
+    @Autowired MockMvc mvc;
+    @Autowired TestUsers users;
+    @Autowired ObjectMapper mapper;
+    @Autowired GroupService groupService;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deltasReplayToTheFullState() throws Exception {
+        User alice = users.create("sync-alice@example.com");
+        User bob = users.create("sync-bob@example.com");
+        Group group = groupService.createGroup("Synced", alice);
+        groupService.addMemberToGroup(group, bob, "MEMBER");
+        String auth = users.bearer(alice);
+        String base = "/api/groups/" + group.getId();
+
+        // initial sync: both memberships, nothing else
+        JsonNode first = changes(base, auth, 0);
+        assertThat(first.get("resync").asBoolean()).isFalse();
+        assertThat(first.get("members")).hasSize(2);
+        assertThat(first.get("expenses")).isEmpty();
+        assertThat(first.get("balanceDeltas")).isEmpty();
+        long v1 = first.get("version").asLong();
+        assertThat(json(get(base).header("Authorization", auth)).get("version").asLong()).isEqualTo(v1);
+
+        // alice pays 30 split equally, bob pays alice back 10
+        mvc.perform(post(base + "/expenses").header("Authorization", auth).contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(Map.of("amount", 30.00, "payerId", alice.getId(), "splitType", "EQUAL"))))
+                .andExpect(status().isOk());
+        mvc.perform(post(base + "/settlements").header("Authorization", auth).contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(Map.of("fromUserId", bob.getId(), "toUserId", alice.getId(), "amount", 10.00))))
+                .andExpect(status().isOk());
+
+        JsonNode delta = changes(base, auth, v1);
+        long v2 = delta.get("version").asLong();
+        assertThat(v2).isEqualTo(v1 + 2);
+        assertThat(delta.get("expenses")).hasSize(1);
+        assertThat(delta.get("expenses").get(0).get("shares")).hasSize(2);
+        assertThat(delta.get("settlements")).hasSize(1);
+        assertThat(delta.get("members")).isEmpty();
+        Map<Long, BigDecimal> mirror = new HashMap<>();
+        apply(mirror, delta);
+        assertThat(mirror.get(alice.getId())).isEqualByComparingTo("5.00");
+        assertThat(mirror.get(bob.getId())).isEqualByComparingTo("-5.00");
+        for (JsonNode b : json(get(base + "/balances").header("Authorization", auth))) {
+            assertThat(mirror.getOrDefault(b.get("userId").asLong(), BigDecimal.ZERO))
+                    .isEqualByComparingTo(b.get("netBalance").decimalValue());
+        }
+
+        // up to date, ahead of the server, or beyond the row cap
+        JsonNode none = changes(base, auth, v2);
+        assertThat(none.get("resync").asBoolean()).isFalse();
+        assertThat(none.get("expenses")).isEmpty();
+        assertThat(none.get("version").asLong()).isEqualTo(v2);
+        assertThat(changes(base, auth, v2 + 10).get("resync").asBoolean()).isTrue();
+        for (int i = 0; i < 4; i++) {
+            mvc.perform(post(base + "/expenses").header("Authorization", auth).contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(Map.of("amount", 1.00, "payerId", bob.getId(), "splitType", "EQUAL"))))
+                    .andExpect(status().isOk());
+        }
+        JsonNode capped = changes(base, auth, v2);
+        assertThat(capped.get("resync").asBoolean()).isTrue();
+        assertThat(capped.get("expenses")).isEmpty();
+        assertThat(changes(base, auth, v2 + 1).get("expenses")).hasSize(3);
+
+        // versions older than the rows migrated without their own version cannot be served
+        jdbcTemplate.update("UPDATE `groups` SET sync_floor = ? WHERE id = ?", v2 + 2, group.getId());
+        assertThat(changes(base, auth, v2 + 1).get("resync").asBoolean()).isTrue();
+        assertThat(changes(base, auth, v2 + 2).get("expenses")).hasSize(2);
+
+        mvc.perform(get(base + "/changes").param("since", "-1").header("Authorization", auth))
+                .andExpect(status().isBadRequest());
+        User eve = users.create("sync-eve@example.com");
+        String eveAuth = users.bearer(eve);
+        mvc.perform(get(base + "/changes").param("since", "0").header("Authorization", eveAuth))
+                .andExpect(status().isForbidden());
+    }
+
+    private static void apply(Map<Long, BigDecimal> mirror, JsonNode changes) {
+        for (JsonNode d : changes.get("balanceDeltas")) {
+            mirror.merge(d.get("userId").asLong(), d.get("amount").decimalValue(), BigDecimal::add);
+        }
+    }
+
+    private JsonNode changes(String base, String auth, long since) throws Exception {
+        return json(get(base + "/changes").param("since", String.valueOf(since)).header("Authorization", auth));
+    }
+
+    private JsonNode json(RequestBuilder request) throws Exception {
+        return mapper.readTree(mvc.perform(request).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
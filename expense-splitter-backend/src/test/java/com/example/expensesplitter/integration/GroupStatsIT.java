@@ -0,0 +1,125 @@
+package com.example.expensesplitter.integration;
+
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.job.MonthlyRollupBackfillRunner;
+import com.example.expensesplitter.service.ExpenseImportService;
+import com.example.expensesplitter.service.GroupService;
+import com.example.expensesplitter.support.ApiIntegrationTest;
+import com.example.expensesplitter.support.TestUsers;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/groups/{id}/stats is served from the rollups the write paths maintain, and the
+ * backfill recomputes exactly the same rollups from the ledger.
+ */
+@ApiIntegrationTest
+public class GroupStatsIT {
+
+    @Autowired MockMvc mvc;
+    @Autowired TestUsers users;
+    @Autowired ObjectMapper mapper;
+    @Autowired GroupService groupService;
+    @Autowired ExpenseImportService expenseImportService;
+    @Autowired MonthlyRollupBackfillRunner backfillRunner;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    void statsFollowWritesAndMatchBackfill() throws Exception {
+        User alice = users.create("stats-alice@example.com");
+        User bob = users.create("stats-bob@example.com");
+        Group group = groupService.createGroup("Stats", alice);
+        groupService.addMemberToGroup(group, bob, "MEMBER");
+        String auth = users.bearer(alice);
+        String base = "/api/groups/" + group.getId();
+        long a = alice.getId();
+        long b = bob.getId();
+
+        send(base + "/expenses", auth, Map.of("amount", 30.00, "payerId", a, "splitType", "EQUAL"));
+        send(base + "/expenses", auth, Map.of("amount", 10.00, "payerId", b, "splitType", "CUSTOM",
+                "shares", List.of(Map.of("userId", a, "amount", 4), Map.of("userId", b, "amount", 6))));
+        send(base + "/settlements", auth, Map.of("fromUserId", b, "toUserId", a, "amount", 5.00));
+        String ndjson = String.join("\n",
+                "{\"payerId\":" + a + ",\"amount\":8.00,\"splitType\":\"EQUAL\",\"createdAt\":\"2024-02-10T12:00:00Z\"}",
+                "{\"payerId\":" + b + ",\"amount\":2.00,\"splitType\":\"EQUAL\",\"createdAt\":\"2024-02-29T23:59:59Z\"}",
+                "{\"payerId\":" + b + ",\"amount\":6.00,\"splitType\":\"EQUAL\",\"createdAt\":\"2024-03-01T00:00:00Z\"}");
+        expenseImportService.importExpenses(group.getId(), alice,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), ExpenseImportService.Format.NDJSON);
+
+        JsonNode stats = stats(base, auth, null, null);
+        JsonNode months = stats.get("months");
+        assertThat(months).hasSize(3);
+
+        JsonNode feb = months.get(0);
+        assertThat(feb.get("month").asText()).isEqualTo("2024-02");
+        assertThat(feb.get("totalSpend").decimalValue()).isEqualByComparingTo("10.00");
+        assertThat(feb.get("expenseCount").asInt()).isEqualTo(2);
+        assertThat(amounts(feb.get("byPayer"))).isEqualTo(Map.of(a, "8.00", b, "2.00"));
+        assertThat(amounts(feb.get("consumed"))).isEqualTo(Map.of(a, "5.00", b, "5.00"));
+        assertThat(months.get(1).get("month").asText()).isEqualTo("2024-03");
+
+        JsonNode now = months.get(2);
+        assertThat(now.get("month").asText()).isEqualTo(YearMonth.now(ZoneOffset.UTC).toString());
+        assertThat(now.get("totalSpend").decimalValue()).isEqualByComparingTo("40.00");
+        assertThat(now.get("expenseCount").asInt()).isEqualTo(2);
+        assertThat(amounts(now.get("consumed"))).isEqualTo(Map.of(a, "19.00", b, "21.00"));
+        assertThat(now.get("bySplitType")).hasSize(2);
+        assertThat(now.get("bySplitType").get(0).get("splitType").asText()).isEqualTo("CUSTOM");
+        assertThat(now.get("bySplitType").get(0).get("amount").decimalValue()).isEqualByComparingTo("10.00");
+        assertThat(now.get("settled").decimalValue()).isEqualByComparingTo("5.00");
+        assertThat(now.get("settlementCount").asInt()).isEqualTo(1);
+
+        assertThat(stats(base, auth, "2024-03", "2024-03").get("months")).hasSize(1);
+
+        jdbcTemplate.update("DELETE FROM group_monthly_rollups WHERE group_id = ?", group.getId());
+        assertThat(stats(base, auth, null, null).get("months")).isEmpty();
+        assertThat(backfillRunner.backfill(List.of(group.getId()))).isZero();
+        assertThat(stats(base, auth, null, null)).isEqualTo(stats);
+
+        mvc.perform(get(base + "/stats").param("from", "March").header("Authorization", auth))
+                .andExpect(status().isBadRequest());
+        User eve = users.create("stats-eve@example.com");
+        String eveAuth = users.bearer(eve);
+        mvc.perform(get(base + "/stats").header("Authorization", eveAuth)).andExpect(status().isForbidden());
+    }
+
+    private void send(String url, String auth, Map<String, Object> body) throws Exception {
+        mvc.perform(post(url)
+                        .header("Authorization", auth).contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(body)))
+                .andExpect(status().isOk());
+    }
+
+    private JsonNode stats(String base, String auth, String from, String to) throws Exception {
+        var req = get(base + "/stats").header("Authorization", auth);
+        if (from != null) req.param("from", from);
+        if (to != null) req.param("to", to);
+        return mapper.readTree(mvc.perform(req).andExpect(status().isOk()).andReturn().getResponse()
+                .getContentAsString());
+    }
+
+    private static Map<Long, String> amounts(JsonNode list) {
+        Map<Long, String> byUser = new HashMap<>();
+        list.forEach(n -> byUser.put(n.get("userId").asLong(), n.get("amount").decimalValue().setScale(2).toPlainString()));
+        return byUser;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.expensesplitter.integration;
+
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.IdempotencyRecord;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.repository.ExpenseRepository;
+import com.example.expensesplitter.repository.GroupRepository;
+import com.example.expensesplitter.repository.IdempotencyRecordRepository;
+import com.example.expensesplitter.service.GroupBalanceService;
+import com.example.expensesplitter.service.GroupService;
+import com.example.expensesplitter.support.ApiIntegrationTest;
+import com.example.expensesplitter.support.CountingStatementInspector;
+import com.example.expensesplitter.support.TestUsers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A POST retried with the same Idempotency-Key returns the first response and writes nothing.
+ */
+@ApiIntegrationTest(properties = CountingStatementInspector.ENABLE)
+public class IdempotencyIT {
+
+    @Autowired MockMvc mvc;
+    @Autowired TestUsers users;
+    @Autowired ObjectMapper mapper;
+    @Autowired ExpenseRepository expenseRepository;
+    @Autowired GroupRepository groupRepository;
+    @Autowired IdempotencyRecordRepository idempotencyRecordRepository;
+    @Autowired GroupService groupService;
+    @Autowired GroupBalanceService groupBalanceService;
+
+    @Test
+    void retriedPostsAreReplayed() throws Exception {
+        User alice = users.create("idem-alice@example.com");
+        User bob = users.create("idem-bob@example.com");
+        Group group = groupService.createGroup("Idempotent", alice);
+        groupService.addMemberToGroup(group, bob, "MEMBER");
+        String auth = users.bearer(alice);
+        String expenses = "/api/groups/" + group.getId() + "/expenses";
+        String expense = mapper.writeValueAsString(
+                Map.of("amount", 30.00, "payerId", alice.getId(), "splitType", "EQUAL"));
+
+        // retry answered from memory
+        MvcResult first = mvc.perform(post(expenses).header("Authorization", auth)
+                        .header("Idempotency-Key", "k-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(expense))
+                .andExpect(status().isOk()).andReturn();
+        MvcResult retry = mvc.perform(post(expenses).header("Authorization", auth)
+                        .header("Idempotency-Key", "k-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(expense))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true")).andReturn();
+        assertThat(mapper.readTree(retry.getResponse().getContentAsString()))
+                .isEqualTo(mapper.readTree(first.getResponse().getContentAsString()));
+        assertThat(expenseRepository.findByGroupId(group.getId())).hasSize(1);
+
+        // key known only to the table (e.g. after a restart): replayed before the ledger is touched
+        idempotencyRecordRepository.save(new IdempotencyRecord(alice.getId(), "k-durable",
+                "POST " + expenses, 200, "{\"id\":-1}"));
+        long version = groupRepository.findVersion(group.getId());
+        CountingStatementInspector.reset();
+        MvcResult durable = mvc.perform(post(expenses).header("Authorization", auth)
+                        .header("Idempotency-Key", "k-durable")
+                        .contentType(MediaType.APPLICATION_JSON).content(expense))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true")).andReturn();
+        CountingStatementInspector.assertCount(2); // the failed key insert and the stored row; no ledger statement
+        assertThat(mapper.readTree(durable.getResponse().getContentAsString()).get("id").asLong()).isEqualTo(-1L);
+        assertThat(expenseRepository.findByGroupId(group.getId())).hasSize(1);
+        assertThat(groupRepository.findVersion(group.getId())).isEqualTo(version);
+
+        // same key for another endpoint is rejected
+        String settlement = mapper.writeValueAsString(
+                Map.of("fromUserId", bob.getId(), "toUserId", alice.getId(), "amount", 15.00));
+        mvc.perform(post("/api/groups/" + group.getId() + "/settlements").header("Authorization", auth)
+                        .header("Idempotency-Key", "k-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(settlement))
+                .andExpect(status().isUnprocessableEntity());
+
+        // without a key every POST is a new expense
+        mvc.perform(post(expenses).header("Authorization", auth)
+                        .contentType(MediaType.APPLICATION_JSON).content(expense))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+        assertThat(expenseRepository.findByGroupId(group.getId())).hasSize(2);
+        // the replayed attempt left no trace in the projection either
+        assertThat(groupBalanceService.rebuild(group.getId())).isZero();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.expensesplitter.integration;
+
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.service.GroupBalanceService;
+import com.example.expensesplitter.service.GroupService;
+import com.example.expensesplitter.support.ApiIntegrationTest;
+import com.example.expensesplitter.support.TestUsers;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * An itemized receipt becomes one expense with one share per user, rounded once over the merged
+ * totals, plus its line items.
+ */
+@ApiIntegrationTest
+public class ItemizedExpenseIT {
+
+    @Autowired MockMvc mvc;
+    @Autowired TestUsers users;
+    @Autowired ObjectMapper mapper;
+    @Autowired GroupService groupService;
+    @Autowired GroupBalanceService groupBalanceService;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    void receiptIsSplitPerItemAndRoundedOnce() throws Exception {
+        User a = users.create("item-a@example.com");
+        User b = users.create("item-b@example.com");
+        User c = users.create("item-c@example.com");
+        User d = users.create("item-d@example.com");
+        Group group = groupService.createGroup("Dinner", a);
+        groupService.addMemberToGroup(group, b, "MEMBER");
+        groupService.addMemberToGroup(group, c, "MEMBER");
+        groupService.addMemberToGroup(group, d, "MEMBER");
+        String auth = users.bearer(a);
+        String url = "/api/groups/" + group.getId() + "/expenses";
+
+        List<Map<String, Object>> items = new ArrayList<>();
+        // rounding each of these on its own would hand the same user 30 extra cents
+        for (int i = 0; i < 30; i++) {
+            items.add(Map.of("description", "Snack " + i, "amount", 1.00,
+                    "shares", List.of(Map.of("userId", a.getId()), Map.of("userId", b.getId()), Map.of("userId", c.getId()))));
+        }
+        items.add(Map.of("description", "Wine", "amount", 10.00, "splitType", "PERCENT",
+                "shares", List.of(Map.of("userId", a.getId(), "percent", 50), Map.of("userId", d.getId(), "percent", 50))));
+        items.add(Map.of("description", "Pizza", "amount", 9.00, "splitType", "SHARES",
+                "shares", List.of(Map.of("userId", b.getId(), "weight", 2), Map.of("userId", c.getId(), "weight", 1))));
+        items.add(Map.of("description", "Tip", "amount", 5.00, "splitType", "CUSTOM",
+                "shares", List.of(Map.of("userId", d.getId(), "amount", 5.00))));
+        items.add(Map.of("description", "Bread", "amount", 4.00)); // everyone
+
+        Map<String, Object> body = new HashMap<>(Map.of(
+                "amount", 58.00, "payerId", a.getId(), "splitType", "ITEMIZED", "items", items));
+        JsonNode created = mapper.readTree(mvc.perform(post(url).header("Authorization", auth)
+                        .contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(body)))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+
+        Map<Long, BigDecimal> shares = new HashMap<>();
+        created.get("shares").forEach(s -> shares.put(s.get("userId").asLong(), s.get("shareAmount").decimalValue()));
+        assertThat(shares).hasSize(4);
+        assertThat(shares.get(a.getId())).isEqualByComparingTo("16.00");
+        assertThat(shares.get(b.getId())).isEqualByComparingTo("17.00");
+        assertThat(shares.get(c.getId())).isEqualByComparingTo("14.00");
+        assertThat(shares.get(d.getId())).isEqualByComparingTo("11.00");
+
+        assertThat(created.get("items")).hasSize(34);
+        assertThat(created.get("items").get(30).get("shares").get(1).get("percent").decimalValue())
+                .isEqualByComparingTo("50");
+        long expenseId = created.get("id").asLong();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expense_items WHERE expense_id = ?",
+                Integer.class, expenseId)).isEqualTo(34);
+        assertThat(jdbcTemplate.queryForObject("SELECT participants FROM expense_items WHERE expense_id = ? AND line_no = 32",
+                String.class, expenseId)).isEqualTo(b.getId() + ":2;" + c.getId() + ":1");
+        assertThat(groupBalanceService.rebuild(group.getId())).isZero();
+
+        JsonNode listed = mapper.readTree(mvc.perform(get(url).header("Authorization", auth))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        assertThat(listed.get(0).get("items")).hasSize(34);
+
+        // items must add up to the expense amount
+        body.put("amount", 58.01);
+        mvc.perform(post(url).header("Authorization", auth)
+                        .contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(body)))
+                .andExpect(status().isBadRequest());
+        // and only members can be on a line
+        body.put("amount", 1.00);
+        body.put("items", List.of(Map.of("amount", 1.00, "shares", List.of(Map.of("userId", -1)))));
+        mvc.perform(post(url).header("Authorization", auth)
+                        .contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(body)))
+                .andExpect(status().isBadRequest());
+    }
+}
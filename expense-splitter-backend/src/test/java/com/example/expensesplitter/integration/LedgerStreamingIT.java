@@ -0,0 +1,272 @@
+package com.example.expensesplitter.integration;
+
+import com.example.expensesplitter.dto.RecordSettlementRequest;
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.service.GroupService;
+import com.example.expensesplitter.service.LedgerStreamService;
+import com.example.expensesplitter.service.SettlementService;
+import com.example.expensesplitter.support.TestUsers;
+import com.example.expensesplitter.util.CsvRecordReader;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Streamed dumps hold one element at a time. The big group lives in a file-backed H2 database,
+ * so the rows themselves are not on the heap and the heap delta measures the stream alone.
+ * To see it pass under a small heap as well:
+ *   mvn test -Dtest=LedgerStreamingIT -DargLine=-Xmx256m
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestUsers.class)
+public class LedgerStreamingIT {
+
+    private static final int ROWS = 1_000_000;
+    private static final long ID_BASE = 1_000_000_000L; // clear of the id blocks handed out to entities
+    // a List<ExpenseDto> of ROWS elements alone would be several hundred MB
+    private static final long MAX_HEAP_GROWTH = 64L * 1024 * 1024;
+
+    @DynamicPropertySource
+    static void fileDatabase(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("ledger-stream-it");
+        registry.add("spring.datasource.url",
+                () -> "jdbc:h2:file:" + dir.resolve("db") + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE,MONTH,YEAR");
+        registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @Autowired MockMvc mvc;
+    @Autowired TestUsers users;
+    @Autowired ObjectMapper mapper;
+    @Autowired GroupService groupService;
+    @Autowired SettlementService settlementService;
+    @Autowired LedgerStreamService ledgerStreamService;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    void millionExpensesStreamInConstantHeap() throws Exception {
+        User payer = users.create("stream-big@example.com");
+        Group group = groupService.createGroup("Big", payer);
+        // one share per expense: ROWS result rows, ROWS array elements
+        for (long from = 1; from <= ROWS; from += 100_000) {
+            long to = Math.min(ROWS, from + 99_999);
+            jdbcTemplate.update("INSERT INTO expenses (id, group_id, created_by, payer_id, amount, currency, split_type, note, created_at) " +
+                    "SELECT ? + \"X\", ?, ?, ?, 1.25, 'INR', 'EQUAL', 'synthetic', TIMESTAMP '2024-01-01 00:00:00' " +
+                    "FROM SYSTEM_RANGE(?, ?)", ID_BASE, group.getId(), payer.getId(), payer.getId(), from, to);
+            jdbcTemplate.update("INSERT INTO expense_shares (id, expense_id, user_id, share_amount, is_settled) " +
+                    "SELECT ? + \"X\", ? + \"X\", ?, 1.25, FALSE FROM SYSTEM_RANGE(?, ?)",
+                    ID_BASE, ID_BASE, payer.getId(), from, to);
+        }
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        long peak = baseline;
+
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        PipedInputStream in = new PipedInputStream(64 * 1024);
+        PipedOutputStream out = new PipedOutputStream(in);
+        Future<?> written = writer.submit(() -> {
+            try (out) {
+                ledgerStreamService.writeExpenses(group.getId(), out);
+            }
+            return null;
+        });
+
+        long count = 0;
+        long lastId = 0;
+        long shareCents = 0;
+        try (JsonParser parser = mapper.getFactory().createParser(in)) {
+            assertThat(parser.nextToken()).isEqualTo(JsonToken.START_ARRAY);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                JsonNode expense = parser.readValueAsTree();
+                long id = expense.get("id").asLong();
+                assertThat(id).isGreaterThan(lastId);
+                lastId = id;
+                for (JsonNode share : expense.get("shares")) {
+                    shareCents += share.get("shareAmount").decimalValue().movePointRight(2).longValueExact();
+                }
+                if (++count % 100_000 == 0) {
+                    System.gc();
+                    peak = Math.max(peak, memory.getHeapMemoryUsage().getUsed());
+                }
+            }
+        }
+        written.get();
+
+        assertThat(count).isEqualTo(ROWS);
+        assertThat(lastId).isEqualTo(ID_BASE + ROWS);
+        assertThat(shareCents).isEqualTo(125L * ROWS);
+        assertThat(peak - baseline).as("heap growth while streaming").isLessThan(MAX_HEAP_GROWTH);
+
+        // the same rows as gzipped CSV
+        System.gc();
+        baseline = memory.getHeapMemoryUsage().getUsed();
+        peak = baseline;
+        PipedInputStream csvIn = new PipedInputStream(64 * 1024);
+        PipedOutputStream csvOut = new PipedOutputStream(csvIn);
+        Future<?> exported = writer.submit(() -> {
+            try (GZIPOutputStream gz = new GZIPOutputStream(csvOut)) {
+                ledgerStreamService.writeCsv(group.getId(), gz);
+            }
+            return null;
+        });
+        long records = 0;
+        long csvShareCents = 0;
+        CsvRecordReader csv = new CsvRecordReader(
+                new InputStreamReader(new GZIPInputStream(csvIn), StandardCharsets.UTF_8));
+        String[] header = csv.next();
+        assertThat(header[header.length - 1]).isEqualTo("share stream-big (" + payer.getId() + ")");
+        for (String[] record = csv.next(); record != null; record = csv.next()) {
+            csvShareCents += new BigDecimal(record[header.length - 1]).movePointRight(2).longValueExact();
+            if (++records % 100_000 == 0) {
+                System.gc();
+                peak = Math.max(peak, memory.getHeapMemoryUsage().getUsed());
+            }
+        }
+        exported.get();
+        writer.shutdown();
+
+        assertThat(records).isEqualTo(ROWS);
+        assertThat(csvShareCents).isEqualTo(125L * ROWS);
+        assertThat(peak - baseline).as("heap growth while exporting CSV").isLessThan(MAX_HEAP_GROWTH);
+    }
+
+    @Test
+    void endpointsStreamJsonArrays() throws Exception {
+        User alice = users.create("stream-alice@example.com");
+        User bob = users.create("stream-bob@example.com");
+        Group group = groupService.createGroup("Small", alice);
+        groupService.addMemberToGroup(group, bob, "MEMBER");
+        RecordSettlementRequest req = new RecordSettlementRequest();
+        req.setFromUserId(bob.getId());
+        req.setToUserId(alice.getId());
+        req.setAmount(new BigDecimal("12.50"));
+        settlementService.recordSettlement(group.getId(), alice, req);
+        String auth = users.bearer(alice);
+
+        JsonNode settlements = mapper.readTree(stream("/api/groups/" + group.getId() + "/settlements/stream", auth));
+        assertThat(settlements).hasSize(1);
+        assertThat(settlements.get(0).get("fromUserName").asText()).isEqualTo("stream-bob");
+        assertThat(settlements.get(0).get("amount").decimalValue()).isEqualByComparingTo("12.50");
+
+        JsonNode expenses = mapper.readTree(stream("/api/groups/" + group.getId() + "/expenses/stream", auth));
+        assertThat(expenses.isArray()).isTrue();
+        assertThat(expenses).isEmpty();
+
+        User eve = users.create("stream-eve@example.com");
+        String eveAuth = users.bearer(eve);
+        mvc.perform(get("/api/groups/" + group.getId() + "/settlements/stream").header("Authorization", eveAuth))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void csvExportPivotsSharesPerMember() throws Exception {
+        User alice = users.create("csv-alice@example.com");
+        User bob = users.create("csv-bob@example.com");
+        Group group = groupService.createGroup("Csv", alice);
+        groupService.addMemberToGroup(group, bob, "MEMBER");
+        String auth = users.bearer(alice);
+        String base = "/api/groups/" + group.getId();
+        mvc.perform(post(base + "/expenses").header("Authorization", auth).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\":10.00,\"payerId\":" + bob.getId() + ",\"splitType\":\"CUSTOM\"," +
+                                "\"note\":\"=cab, \\\"late\\\"\",\"shares\":[{\"userId\":" + bob.getId() +
+                                ",\"amount\":10}]}"))
+                .andExpect(status().isOk());
+        RecordSettlementRequest req = new RecordSettlementRequest();
+        req.setFromUserId(alice.getId());
+        req.setToUserId(bob.getId());
+        req.setAmount(new BigDecimal("10.00"));
+        settlementService.recordSettlement(group.getId(), alice, req);
+
+        MvcResult started = mvc.perform(get(base + "/export.csv").header("Authorization", auth)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")).andExpect(request().asyncStarted()).andReturn();
+        MockHttpServletResponse response = mvc.perform(asyncDispatch(started)).andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getContentType()).startsWith("text/csv");
+        CsvRecordReader csv = new CsvRecordReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray())), StandardCharsets.UTF_8));
+
+        assertThat(csv.next()).containsExactly("type", "id", "created_at", "currency", "amount", "split_type",
+                "paid_by", "paid_to", "recorded_by", "note",
+                "share csv-alice (" + alice.getId() + ")", "share csv-bob (" + bob.getId() + ")");
+        String[] expense = csv.next();
+        assertThat(expense[0]).isEqualTo("expense");
+        assertThat(expense[4]).isEqualTo("10.00");
+        assertThat(expense[6]).isEqualTo(bob.getId().toString());
+        assertThat(expense[9]).isEqualTo("'=cab, \"late\"");
+        assertThat(expense[10]).isEmpty();
+        assertThat(expense[11]).isEqualTo("10.00");
+        String[] settlement = csv.next();
+        assertThat(settlement).hasSize(12);
+        assertThat(settlement[0]).isEqualTo("settlement");
+        assertThat(settlement[6]).isEqualTo(alice.getId().toString());
+        assertThat(settlement[7]).isEqualTo(bob.getId().toString());
+        assertThat(csv.next()).isNull();
+
+        // without Accept-Encoding, or with gzip refused: plain text
+        started = mvc.perform(get(base + "/export.csv").header("Authorization", auth))
+                .andExpect(request().asyncStarted()).andReturn();
+        response = mvc.perform(asyncDispatch(started)).andReturn().getResponse();
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsString().lines()).hasSize(3);
+        started = mvc.perform(get(base + "/export.csv").header("Authorization", auth)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, *;q=0.5")).andExpect(request().asyncStarted()).andReturn();
+        response = mvc.perform(asyncDispatch(started)).andReturn().getResponse();
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsString().lines()).hasSize(3);
+
+        User eve = users.create("csv-eve@example.com");
+        String eveAuth = users.bearer(eve);
+        mvc.perform(get(base + "/export.csv").header("Authorization", eveAuth)).andExpect(status().isForbidden());
+    }
+
+    private String stream(String url, String auth) throws Exception {
+        MvcResult started = mvc.perform(get(url).header("Authorization", auth))
+                .andExpect(request().asyncStarted()).andReturn();
+        return mvc.perform(asyncDispatch(started)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
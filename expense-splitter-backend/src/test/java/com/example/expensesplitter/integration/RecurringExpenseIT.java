@@ -0,0 +1,158 @@
+package com.example.expensesplitter.integration;
+
+import com.example.expensesplitter.entity.Expense;
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.RecurringExpense;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.repository.ExpenseRepository;
+import com.example.expensesplitter.repository.RecurringExpenseRepository;
+import com.example.expensesplitter.service.GroupBalanceService;
+import com.example.expensesplitter.service.GroupService;
+import com.example.expensesplitter.service.RecurringExpenseService;
+import com.example.expensesplitter.support.ApiIntegrationTest;
+import com.example.expensesplitter.support.TestUsers;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Recurring definitions are materialized once per occurrence, missed occurrences are caught up,
+ * and concurrent scheduler runs (standing in for several app instances) never duplicate one.
+ */
+@ApiIntegrationTest(properties = "app.recurring-batch-size=50")
+public class RecurringExpenseIT {
+
+    private static final String MONTHLY = "0 0 0 1 * *";
+
+    @Autowired MockMvc mvc;
+    @Autowired TestUsers users;
+    @Autowired ObjectMapper mapper;
+    @Autowired ExpenseRepository expenseRepository;
+    @Autowired RecurringExpenseRepository recurringExpenseRepository;
+    @Autowired GroupService groupService;
+    @Autowired GroupBalanceService groupBalanceService;
+    @Autowired RecurringExpenseService recurringExpenseService;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    void dueOccurrencesAreWrittenOnceAndCaughtUp() throws Exception {
+        User alice = users.create("rec-alice@example.com");
+        User bob = users.create("rec-bob@example.com");
+        Group group = groupService.createGroup("Flat", alice);
+        groupService.addMemberToGroup(group, bob, "MEMBER");
+        String auth = users.bearer(alice);
+        String url = "/api/groups/" + group.getId() + "/recurring-expenses";
+
+        Instant start = Instant.now().minus(Duration.ofDays(75));
+        String body = mapper.writeValueAsString(Map.of(
+                "amount", 900.00, "payerId", alice.getId(), "splitType", "SHARES",
+                "shares", List.of(Map.of("userId", alice.getId(), "weight", 2), Map.of("userId", bob.getId(), "weight", 1)),
+                "note", "Rent", "schedule", MONTHLY, "startAt", start.toString()));
+        JsonNode created = mapper.readTree(mvc.perform(post(url).header("Authorization", auth)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        assertThat(created.get("active").asBoolean()).isTrue();
+
+        mvc.perform(post(url).header("Authorization", auth).contentType(MediaType.APPLICATION_JSON)
+                        .content(body.replace(MONTHLY, "not a cron")))
+                .andExpect(status().isBadRequest());
+
+        int expected = occurrences(Instant.parse(created.get("nextRunAt").asText()), Instant.now());
+        assertThat(expected).isBetween(2, 3);
+
+        assertThat(recurringExpenseService.materializeDue()).isEqualTo(expected);
+        assertThat(recurringExpenseService.materializeDue()).isZero();
+
+        List<Expense> expenses = expenseRepository.findByGroupId(group.getId());
+        assertThat(expenses).hasSize(expected).allSatisfy(e -> assertThat(e.getNote()).isEqualTo("Rent"));
+        assertThat(jdbcTemplate.queryForList("SELECT s.share_amount FROM expense_shares s " +
+                        "JOIN expenses e ON e.id = s.expense_id WHERE e.group_id = ? AND s.user_id = ?",
+                BigDecimal.class, group.getId(), bob.getId()))
+                .hasSize(expected).allSatisfy(a -> assertThat(a).isEqualByComparingTo("300.00"));
+        assertThat(groupBalanceService.rebuild(group.getId())).isZero();
+
+        JsonNode listed = mapper.readTree(mvc.perform(get(url).header("Authorization", auth))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        assertThat(Instant.parse(listed.get(0).get("nextRunAt").asText())).isAfter(Instant.now());
+        assertThat(listed.get(0).get("lastRunAt").isNull()).isFalse();
+    }
+
+    @Test
+    void concurrentRunsNeverDuplicateAnOccurrence() throws Exception {
+        User carol = users.create("rec-carol@example.com");
+        User dave = users.create("rec-dave@example.com");
+        User erin = users.create("rec-erin@example.com");
+        Group group = groupService.createGroup("Subscriptions", carol);
+        groupService.addMemberToGroup(group, dave, "MEMBER");
+        groupService.addMemberToGroup(group, erin, "MEMBER");
+
+        Instant first = CronExpression.parse(MONTHLY)
+                .next(ZonedDateTime.now(ZoneOffset.UTC).minusDays(80)).toInstant();
+        int definitions = 300;
+        for (int i = 0; i < definitions; i++) {
+            RecurringExpense r = new RecurringExpense();
+            r.setGroupId(group.getId());
+            r.setCreatedById(carol.getId());
+            r.setPayerId(i % 2 == 0 ? carol.getId() : dave.getId());
+            r.setAmount(new BigDecimal("10.00"));
+            r.setCurrency("INR");
+            r.setSplitType("EQUAL");
+            r.setSchedule(MONTHLY);
+            r.setTimeZone("UTC");
+            r.setNextRunAt(first);
+            recurringExpenseRepository.save(r);
+        }
+        int expected = definitions * occurrences(first, Instant.now());
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> runs = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            runs.add(pool.submit(() -> recurringExpenseService.materializeDue()));
+        }
+        int written = 0;
+        for (Future<Integer> f : runs) written += f.get();
+        pool.shutdown();
+        // a run that lost every race may stop early; whatever is left is picked up by the next tick
+        written += recurringExpenseService.materializeDue();
+
+        assertThat(written).isEqualTo(expected);
+        assertThat(expenseRepository.findByGroupId(group.getId())).hasSize(expected);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM recurring_expenses WHERE group_id = ? AND claimed_by IS NOT NULL",
+                Integer.class, group.getId())).isZero();
+        assertThat(groupBalanceService.rebuild(group.getId())).isZero();
+    }
+
+    private static int occurrences(Instant next, Instant now) {
+        CronExpression cron = CronExpression.parse(MONTHLY);
+        int n = 0;
+        ZonedDateTime t = next.atZone(ZoneOffset.UTC);
+        while (!t.toInstant().isAfter(now)) {
+            n++;
+            t = cron.next(t);
+        }
+        return n;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.expensesplitter.integration;
+
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.service.GroupService;
+import com.example.expensesplitter.support.ApiIntegrationTest;
+import com.example.expensesplitter.support.TestUsers;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The settle-up plan is planned per currency, names both sides of every transfer, is only
+ * shown to members, and recording it as settlements leaves nothing to plan.
+ */
+@ApiIntegrationTest
+public class SettlementPlanIT {
+
+    @Autowired MockMvc mvc;
+    @Autowired TestUsers users;
+    @Autowired ObjectMapper mapper;
+    @Autowired GroupService groupService;
+
+    @Test
+    void planSettlesEveryCurrencyAndIsMembersOnly() throws Exception {
+        User alice = users.create("plan-alice@example.com");
+        User bob = users.create("plan-bob@example.com");
+        User carol = users.create("plan-carol@example.com");
+        User eve = users.create("plan-eve@example.com");
+        Group group = groupService.createGroup("Planned", alice);
+        groupService.addMemberToGroup(group, bob, "MEMBER");
+        groupService.addMemberToGroup(group, carol, "MEMBER");
+        String auth = users.bearer(alice);
+        String base = "/api/groups/" + group.getId();
+
+        // INR: alice pays 90 for all three; USD: bob pays 10 for carol alone
+        send(base + "/expenses", auth, Map.of("amount", 90.00, "payerId", alice.getId(), "splitType", "EQUAL"));
+        send(base + "/expenses", auth, Map.of("amount", 10.00, "payerId", bob.getId(), "currency", "USD",
+                "splitType", "CUSTOM", "shares", List.of(Map.of("userId", carol.getId(), "amount", 10.00))));
+
+        JsonNode plan = plan(base, auth);
+        assertThat(plan).hasSize(3);
+        List<String> inr = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            JsonNode t = plan.get(i);
+            assertThat(t.get("currency").asText()).isEqualTo("INR");
+            assertThat(t.get("toUserId").asLong()).isEqualTo(alice.getId());
+            assertThat(t.get("toUserName").asText()).isEqualTo("plan-alice");
+            assertThat(t.get("amount").decimalValue()).isEqualByComparingTo("30.00");
+            inr.add(t.get("fromUserName").asText());
+        }
+        assertThat(inr).containsExactlyInAnyOrder("plan-bob", "plan-carol");
+        JsonNode usd = plan.get(2);
+        assertThat(usd.get("currency").asText()).isEqualTo("USD");
+        assertThat(usd.get("fromUserId").asLong()).isEqualTo(carol.getId());
+        assertThat(usd.get("fromUserName").asText()).isEqualTo("plan-carol");
+        assertThat(usd.get("toUserId").asLong()).isEqualTo(bob.getId());
+        assertThat(usd.get("toUserName").asText()).isEqualTo("plan-bob");
+        assertThat(usd.get("amount").decimalValue()).isEqualByComparingTo("10.00");
+
+        // paying exactly what the plan says settles the group
+        for (JsonNode t : plan) {
+            send(base + "/settlements", auth, Map.of("fromUserId", t.get("fromUserId").asLong(),
+                    "toUserId", t.get("toUserId").asLong(), "amount", t.get("amount").decimalValue(),
+                    "currency", t.get("currency").asText()));
+        }
+        assertThat(plan(base, auth)).isEmpty();
+
+        mvc.perform(get(base + "/settlement-plan").header("Authorization", users.bearer(eve)))
+                .andExpect(status().isForbidden());
+        mvc.perform(get("/api/groups/987654/settlement-plan").header("Authorization", auth))
+                .andExpect(status().isNotFound());
+        mvc.perform(get(base + "/settlement-plan"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private JsonNode plan(String base, String auth) throws Exception {
+        String json = mvc.perform(get(base + "/settlement-plan").header("Authorization", auth))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return mapper.readTree(json);
+    }
+
+    private void send(String url, String auth, Map<String, ?> body) throws Exception {
+        mvc.perform(post(url)
+                        .header("Authorization", auth)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(body)))
+                .andExpect(status().isOk());
+    }
+}
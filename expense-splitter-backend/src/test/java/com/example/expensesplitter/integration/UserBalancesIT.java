@@ -0,0 +1,107 @@
+package com.example.expensesplitter.integration;
+
+import com.example.expensesplitter.entity.Group;
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.service.GroupService;
+import com.example.expensesplitter.support.ApiIntegrationTest;
+import com.example.expensesplitter.support.TestUsers;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /api/me/balances reports the caller's net position per group and currency across all of their
+ * groups, a total per currency, and a zero position in the group's base currency for a group
+ * without activity. Groups the caller is not in do not show up.
+ */
+@ApiIntegrationTest
+public class UserBalancesIT {
+
+    @Autowired MockMvc mvc;
+    @Autowired TestUsers users;
+    @Autowired ObjectMapper mapper;
+    @Autowired GroupService groupService;
+
+    @Test
+    void positionsAcrossGroupsAndCurrencies() throws Exception {
+        User alice = users.create("me-alice@example.com");
+        User bob = users.create("me-bob@example.com");
+        User carol = users.create("me-carol@example.com");
+        User dave = users.create("me-dave@example.com");
+
+        Group trip = groupService.createGroup("Trip", alice);
+        groupService.addMemberToGroup(trip, bob, "MEMBER");
+        groupService.addMemberToGroup(trip, carol, "MEMBER");
+        Group flat = groupService.createGroup("Flat", "eur", carol);
+        groupService.addMemberToGroup(flat, dave, "MEMBER");
+        Group quiet = groupService.createGroup("Quiet", "GBP", carol);
+        Group other = groupService.createGroup("Other", alice);
+        groupService.addMemberToGroup(other, bob, "MEMBER");
+
+        // trip: carol owes 30 of alice's 90, pays 10 of it back, and owes bob 20 USD
+        String trips = "/api/groups/" + trip.getId();
+        send(trips + "/expenses", users.bearer(alice),
+                Map.of("amount", 90.00, "payerId", alice.getId(), "splitType", "EQUAL"));
+        send(trips + "/settlements", users.bearer(carol),
+                Map.of("fromUserId", carol.getId(), "toUserId", alice.getId(), "amount", 10.00));
+        send(trips + "/expenses", users.bearer(bob), Map.of("amount", 20.00, "payerId", bob.getId(),
+                "currency", "USD", "splitType", "CUSTOM",
+                "shares", List.of(Map.of("userId", carol.getId(), "amount", 20.00))));
+        // flat (base EUR): carol pays 40 split with dave
+        send("/api/groups/" + flat.getId() + "/expenses", users.bearer(carol),
+                Map.of("amount", 40.00, "payerId", carol.getId(), "splitType", "EQUAL"));
+        // not carol's group
+        send("/api/groups/" + other.getId() + "/expenses", users.bearer(alice),
+                Map.of("amount", 50.00, "payerId", alice.getId(), "splitType", "EQUAL"));
+
+        String json = mvc.perform(get("/api/me/balances").header("Authorization", users.bearer(carol)))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        JsonNode me = mapper.readTree(json);
+
+        JsonNode groups = me.get("groups");
+        assertThat(groups).hasSize(4);
+        assertPosition(groups.get(0), trip, "INR", "-20.00");
+        assertPosition(groups.get(1), trip, "USD", "-20.00");
+        assertPosition(groups.get(2), flat, "EUR", "20.00");
+        assertPosition(groups.get(3), quiet, "GBP", "0.00");
+
+        JsonNode totals = me.get("totals");
+        assertThat(totals).hasSize(3);
+        assertTotal(totals.get(0), "EUR", "20.00");
+        assertTotal(totals.get(1), "INR", "-20.00");
+        assertTotal(totals.get(2), "USD", "-20.00");
+
+        mvc.perform(get("/api/me/balances")).andExpect(status().isUnauthorized());
+    }
+
+    private static void assertPosition(JsonNode position, Group group, String currency, String net) {
+        assertThat(position.get("groupId").asLong()).isEqualTo(group.getId());
+        assertThat(position.get("groupName").asText()).isEqualTo(group.getName());
+        assertThat(position.get("currency").asText()).isEqualTo(currency);
+        assertThat(position.get("netBalance").decimalValue()).isEqualByComparingTo(net);
+    }
+
+    private static void assertTotal(JsonNode total, String currency, String net) {
+        assertThat(total.get("currency").asText()).isEqualTo(currency);
+        assertThat(total.get("netBalance").decimalValue()).isEqualByComparingTo(net);
+    }
+
+    private void send(String url, String auth, Map<String, ?> body) throws Exception {
+        mvc.perform(post(url)
+                        .header("Authorization", auth)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(body)))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.expensesplitter.service;
+
+import com.example.expensesplitter.util.BalanceTimeline;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BalanceTimelineCacheTest {
+
+    @Test
+    void writeToAnotherGroupDoesNotStopCaching() {
+        BalanceTimelineCache cache = new BalanceTimelineCache();
+        AtomicInteger builds = new AtomicInteger();
+
+        cache.get(1L, () -> {
+            builds.incrementAndGet();
+            cache.invalidate(2L); // a write to group 2 commits while group 1 is being built
+            return Map.of();
+        });
+        cache.get(1L, () -> {
+            builds.incrementAndGet();
+            return Map.of();
+        });
+
+        assertThat(builds).hasValue(1);
+    }
+
+    @Test
+    void buildRacingAWriteToTheSameGroupIsNotCached() {
+        BalanceTimelineCache cache = new BalanceTimelineCache();
+        AtomicInteger builds = new AtomicInteger();
+
+        Map<String, BalanceTimeline> raced = cache.get(1L, () -> {
+            builds.incrementAndGet();
+            cache.invalidate(1L);
+            return Map.of();
+        });
+        assertThat(raced).isEmpty(); // still served to the caller
+        cache.get(1L, () -> {
+            builds.incrementAndGet();
+            return Map.of();
+        });
+        cache.get(1L, () -> {
+            builds.incrementAndGet();
+            return Map.of();
+        });
+
+        assertThat(builds).hasValue(2);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.expensesplitter.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Records every SQL statement Hibernate prepares, so tests can pin the number of
+ * statements a request issues. Enable it on the test's context with
+ * {@code @SpringBootTest(properties = CountingStatementInspector.ENABLE)}, call
+ * {@link #reset()} before the request and {@link #assertCount(int)} after it.
+ *
+ * A JDBC batch is one prepared statement however many rows it carries. Plain JDBC
+ * (JdbcTemplate, id block reservations) bypasses Hibernate and is not recorded.
+ */
+public class CountingStatementInspector implements StatementInspector {
+
+    public static final String ENABLE = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "com.example.expensesplitter.support.CountingStatementInspector";
+
+    private static final List<String> STATEMENTS = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (STATEMENTS) {
+            STATEMENTS.add(sql);
+        }
+        return sql;
+    }
+
+    public static void reset() {
+        synchronized (STATEMENTS) {
+            STATEMENTS.clear();
+        }
+    }
+
+    public static List<String> statements() {
+        synchronized (STATEMENTS) {
+            return new ArrayList<>(STATEMENTS);
+        }
+    }
+
+    public static int count() {
+        synchronized (STATEMENTS) {
+            return STATEMENTS.size();
+        }
+    }
+
+    public static void assertCount(int expected) {
+        List<String> seen = statements();
+        assertThat(seen).as("statements issued:%n%s", String.join("\n", seen)).hasSize(expected);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.expensesplitter.support;
+
+import com.example.expensesplitter.entity.User;
+import com.example.expensesplitter.repository.UserRepository;
+import com.example.expensesplitter.security.JwtUtil;
+import org.springframework.boot.test.context.TestComponent;
+
+/**
+ * Users for integration tests, saved straight through the repository rather than
+ * registered over HTTP, and bearer tokens for them. Available in every
+ * {@link ApiIntegrationTest} context.
+ */
+@TestComponent
+public class TestUsers {
+
+    private final UserRepository userRepository;
+    private final JwtUtil jwtUtil;
+
+    public TestUsers(UserRepository userRepository, JwtUtil jwtUtil) {
+        this.userRepository = userRepository;
+        this.jwtUtil = jwtUtil;
+    }
+
+    /**
+     * A new user named after the local part of the email.
+     */
+    public User create(String email) {
+        User u = new User();
+        u.setName(email.substring(0, email.indexOf('@')));
+        u.setEmail(email);
+        u.setPasswordHash("x");
+        return userRepository.save(u);
+    }
+
+    /**
+     * Authorization header value for the user.
+     */
+    public String bearer(User user) {
+        return "Bearer " + jwtUtil.generateToken(user.getEmail(), user.getId(), user.getName());
+    }
+}
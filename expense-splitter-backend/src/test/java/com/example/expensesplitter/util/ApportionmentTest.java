@@ -0,0 +1,126 @@
+package com.example.expensesplitter.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApportionmentTest {
+
+    // Randomized: the long path must give exactly what the BigDecimal implementation gives
+    @Test
+    void percentMatchesBigDecimalAllocator() {
+        Random rnd = new Random(20240501);
+        for (int run = 0; run < 20_000; run++) {
+            int n = 1 + rnd.nextInt(run % 10 == 0 ? 300 : 12);
+            int scale = rnd.nextInt(5);
+            boolean sumTo100 = rnd.nextInt(3) > 0;
+            // the reference hands out leftover cents one by one, so keep totals modest unless they sum to 100
+            long totalCents = switch (rnd.nextInt(4)) {
+                case 0 -> rnd.nextInt(10);
+                case 1 -> rnd.nextInt(100_000);
+                case 2 -> sumTo100 ? rnd.nextLong() % 1_000_000_000_000L : rnd.nextInt(10_000_000);
+                default -> -rnd.nextInt(100_000);
+            };
+            Map<Long, BigDecimal> percents = new LinkedHashMap<>();
+            long unit = (long) Math.pow(10, scale);
+            long left = 100 * unit;
+            for (int i = 0; i < n; i++) {
+                long uid = sumTo100 ? 3L * i + 1 + rnd.nextInt(3) : 1 + rnd.nextInt(n * 3); // repeats overwrite
+                long unscaled;
+                if (sumTo100) {
+                    unscaled = i == n - 1 ? left : (left <= 0 ? 0 : (long) (rnd.nextDouble() * left / 2));
+                    left -= unscaled;
+                } else {
+                    unscaled = rnd.nextInt((int) (60 * unit)) - (rnd.nextInt(8) == 0 ? 20 * unit : 0);
+                }
+                percents.put(uid, BigDecimal.valueOf(unscaled, scale));
+            }
+            assertEquals(SplitUtil.allocatePercentBigDecimal(totalCents, percents),
+                    SplitUtil.allocatePercent(totalCents, percents),
+                    () -> "total=" + totalCents + " percents=" + percents);
+        }
+    }
+
+    @Test
+    void percentTiesGoToLowerUserIdAndMixedScalesWork() {
+        Map<Long, BigDecimal> thirds = new LinkedHashMap<>();
+        thirds.put(9L, new BigDecimal("33.33"));
+        thirds.put(4L, new BigDecimal("33.33"));
+        thirds.put(7L, new BigDecimal("33.34"));
+        Map<Long, Long> result = SplitUtil.allocatePercent(100, thirds);
+        assertEquals(SplitUtil.allocatePercentBigDecimal(100, thirds), result);
+        assertEquals(100, result.values().stream().mapToLong(Long::longValue).sum());
+
+        Map<Long, BigDecimal> mixed = new LinkedHashMap<>();
+        mixed.put(1L, new BigDecimal("12.5"));
+        mixed.put(2L, new BigDecimal("87.5000"));
+        mixed.put(3L, new BigDecimal("0E+1"));
+        assertEquals(SplitUtil.allocatePercentBigDecimal(999, mixed), SplitUtil.allocatePercent(999, mixed));
+    }
+
+    @Test
+    void percentFallsBackBeyondTheLongPath() {
+        Map<Long, BigDecimal> fine = new LinkedHashMap<>();
+        fine.put(1L, new BigDecimal("33.333333333"));
+        fine.put(2L, new BigDecimal("66.666666667"));
+        assertEquals(SplitUtil.allocatePercentBigDecimal(1001, fine), SplitUtil.allocatePercent(1001, fine));
+
+        Map<Long, BigDecimal> huge = new LinkedHashMap<>();
+        huge.put(1L, new BigDecimal("50"));
+        huge.put(2L, new BigDecimal("50"));
+        long total = Long.MAX_VALUE / 10;
+        assertEquals(SplitUtil.allocatePercentBigDecimal(total, huge), SplitUtil.allocatePercent(total, huge));
+    }
+
+    @Test
+    void sharesSplitByWeight() {
+        Map<Long, Long> weights = new LinkedHashMap<>();
+        weights.put(3L, 2L);
+        weights.put(1L, 1L);
+        weights.put(2L, 1L);
+        // 1001 * 2/4 = 500.5, 250.25, 250.25: the half cent goes to user 3
+        assertEquals(Map.of(3L, 501L, 1L, 250L, 2L, 250L), SplitUtil.allocateShares(1001, weights));
+        // 1002: remainders 0, .5, .5 -> tie goes to the lower id
+        assertEquals(Map.of(3L, 501L, 1L, 251L, 2L, 250L), SplitUtil.allocateShares(1002, weights));
+    }
+
+    @Test
+    void sharesAlwaysSumToTotalAndStayWithinOneCent() {
+        Random rnd = new Random(11);
+        for (int run = 0; run < 5_000; run++) {
+            int n = 1 + rnd.nextInt(50);
+            long[] ids = new long[n];
+            long[] weights = new long[n];
+            long weightSum = 0;
+            for (int i = 0; i < n; i++) {
+                ids[i] = i * 7L + rnd.nextInt(7);
+                weights[i] = 1 + rnd.nextInt(10);
+                weightSum += weights[i];
+            }
+            long total = rnd.nextInt(1_000_000);
+            long[] cents = Apportionment.weighted(total, ids, weights);
+            long sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += cents[i];
+                long floor = total * weights[i] / weightSum;
+                assertTrue(cents[i] == floor || cents[i] == floor + 1);
+            }
+            assertEquals(total, sum);
+        }
+    }
+
+    @Test
+    void roundHalfEvenMatchesBigDecimal() {
+        long d = 10_000;
+        for (long m = -25_000; m <= 25_000; m += 2_500) {
+            long expected = BigDecimal.valueOf(m).divide(BigDecimal.valueOf(d), 0, java.math.RoundingMode.HALF_EVEN)
+                    .longValueExact();
+            assertEquals(expected, Apportionment.roundHalfEven(m, d), "m=" + m);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.expensesplitter.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BalanceTimelineTest {
+
+    @Test
+    void prefixSumsPerActivityDay() {
+        BalanceTimeline timeline = BalanceTimeline.builder()
+                .add(100, 1L, 1000).add(100, 2L, -1000)
+                .add(105, 2L, 400).add(105, 1L, -400)
+                .add(103, 3L, 0)
+                .build();
+
+        assertEquals(3, timeline.dayCount());
+        assertEquals(103, timeline.epochDay(1));
+        assertEquals(-1, timeline.lastDayBefore(100));
+        assertEquals(0, timeline.lastDayAtOrBefore(100));
+        assertEquals(1, timeline.lastDayBefore(105));
+        assertEquals(1, timeline.lastDayAtOrBefore(104));
+        assertEquals(2, timeline.lastDayAtOrBefore(999));
+
+        assertEquals(0, timeline.netAtEndOfDay(1L, -1));
+        assertEquals(1000, timeline.netAtEndOfDay(1L, 0));
+        assertEquals(1000, timeline.netAtEndOfDay(1L, 1));
+        assertEquals(600, timeline.netAtEndOfDay(1L, 2));
+        assertEquals(-600, timeline.netAtEndOfDay(2L, 2));
+        assertEquals(0, timeline.netAtEndOfDay(4L, 2));
+    }
+
+    @Test
+    void matchesNaiveFoldOnRandomHistory() {
+        Random rnd = new Random(11);
+        BalanceTimeline.Builder builder = BalanceTimeline.builder();
+        TreeMap<Long, Map<Long, Long>> byDay = new TreeMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            long day = rnd.nextInt(400);
+            long user = 1 + rnd.nextInt(12);
+            long cents = rnd.nextInt(20_000) - 10_000;
+            builder.add(day, user, cents);
+            byDay.computeIfAbsent(day, d -> new HashMap<>()).merge(user, cents, Long::sum);
+        }
+        BalanceTimeline timeline = builder.build();
+
+        Map<Long, Long> running = new HashMap<>();
+        int dayIndex = 0;
+        for (Map.Entry<Long, Map<Long, Long>> day : byDay.entrySet()) {
+            day.getValue().forEach((u, c) -> running.merge(u, c, Long::sum));
+            assertEquals(day.getKey(), timeline.epochDay(dayIndex));
+            for (long user = 1; user <= 12; user++) {
+                assertEquals(running.getOrDefault(user, 0L), timeline.netAtEndOfDay(user, dayIndex));
+            }
+            dayIndex++;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.expensesplitter.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CentsLedgerTest {
+
+    @Test
+    void foldsExpensesAndSettlements() {
+        CentsLedger ledger = new CentsLedger();
+        ledger.open(3L);
+        ledger.expensePaid(1L, 1000);
+        ledger.expenseShare(1L, 500);
+        ledger.expenseShare(2L, 500);
+        ledger.settlement(2L, 1L, 200);
+
+        assertEquals(300, ledger.net(1L));
+        assertEquals(-300, ledger.net(2L));
+        assertEquals(0, ledger.net(3L));
+        assertTrue(ledger.contains(3L));
+        assertFalse(ledger.contains(4L));
+        assertArrayEquals(new long[]{1L, 2L, 3L}, ledger.userIdsAscending());
+    }
+
+    @Test
+    void mapMatchesHashMapAcrossResizes() {
+        LongLongHashMap map = new LongLongHashMap(2);
+        Map<Long, Long> reference = new HashMap<>();
+        Random rnd = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            long key = rnd.nextInt(5_000) - 10; // includes 0 and negatives
+            long delta = rnd.nextInt(2_000) - 1_000;
+            map.addTo(key, delta);
+            reference.merge(key, delta, Long::sum);
+        }
+        assertEquals(reference.size(), map.size());
+        reference.forEach((k, v) -> assertEquals(v.longValue(), map.get(k)));
+    }
+}
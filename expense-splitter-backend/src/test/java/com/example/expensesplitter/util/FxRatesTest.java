@@ -0,0 +1,49 @@
+package com.example.expensesplitter.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FxRatesTest {
+
+    @Test
+    void convertsWithExplicitAndDerivedRates() {
+        FxRates fx = FxRates.builder()
+                .rate("USD", "INR", new BigDecimal("83.25"))
+                .rate("EUR", "INR", new BigDecimal("90"))
+                .rate("INR", "EUR", new BigDecimal("0.0111"))   // explicit wins over derived inverse
+                .build();
+
+        assertEquals(8325, fx.convert(100, "USD", "INR"));
+        assertEquals(100, fx.convert(8325, "INR", "USD"));     // derived 1/83.25
+        assertEquals(111, fx.convert(10_000, "INR", "EUR"));
+        assertEquals(-8325, fx.convert(-100, "USD", "INR"));
+        assertEquals(42, fx.convert(42, "USD", "USD"));
+        assertTrue(fx.supports("INR", "USD"));
+        assertFalse(fx.supports("USD", "EUR"));
+        assertThrows(IllegalArgumentException.class, () -> fx.convert(1, "USD", "EUR"));
+        assertFalse(FxRates.empty().supports("USD", "INR"));
+    }
+
+    @Test
+    void roundsHalfEvenLikeBigDecimal() {
+        Random rnd = new Random(5);
+        for (int i = 0; i < 20_000; i++) {
+            BigDecimal rate = BigDecimal.valueOf(1 + rnd.nextInt(2_000_000_000), 8);
+            FxRates fx = FxRates.builder().rate("A", "B", rate).build();
+            // every 100th amount overflows the long product and takes the BigDecimal path
+            long cents = i % 100 == 0 ? 1_000_000_000_000_000L + rnd.nextInt(1000) : rnd.nextLong() % 10_000_000_000L;
+            long expected = BigDecimal.valueOf(cents).multiply(rate)
+                    .setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+            assertEquals(expected, fx.convert(cents, "A", "B"), "cents=" + cents + " rate=" + rate);
+        }
+        assertEquals(2, FxRates.divideHalfEven(25, 10));
+        assertEquals(4, FxRates.divideHalfEven(35, 10));
+        assertEquals(-2, FxRates.divideHalfEven(-25, 10));
+        assertEquals(-4, FxRates.divideHalfEven(-35, 10));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.expensesplitter.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NoteIndexTest {
+
+    private static final String[] WORDS = {"taxi", "hotel", "goa", "dinner", "lunch", "fuel", "tickets", "train",
+            "groceries", "rent", "beer", "coffee", "museum", "airport", "breakfast", "snacks", "tolls", "parking"};
+
+    @Test
+    void prefixTokensAreAndedNewestFirst() {
+        NoteIndex index = new NoteIndex(1L);
+        Instant t = Instant.parse("2024-05-01T00:00:00Z");
+        assertTrue(index.add(1L, t, "Taxi to the hotel"));
+        assertTrue(index.add(2L, t, "Hotel Goa, 2 nights"));
+        assertTrue(index.add(3L, t.plusSeconds(1), null));
+        assertTrue(index.add(4L, t.plusSeconds(2), "hotel-goa taxi"));
+        assertFalse(index.add(5L, t, "late import"));
+
+        assertArrayEquals(new long[]{4L, 2L, 1L}, index.search("HOT", 10));
+        assertArrayEquals(new long[]{4L, 2L}, index.search("hot go", 10));
+        assertArrayEquals(new long[]{4L}, index.search("goa taxi", 1));
+        assertArrayEquals(new long[0], index.search("late", 10));
+        assertArrayEquals(new long[0], index.search("  ,.", 10));
+        assertEquals(List.of("café", "2", "nights"), NoteIndex.tokens("Café:2 nights"));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void matchesNaiveFilterOnRandomNotes() {
+        Random rnd = new Random(11);
+        NoteIndex index = new NoteIndex(1L);
+        List<String> notes = new ArrayList<>();
+        Instant t = Instant.parse("2024-01-01T00:00:00Z");
+        for (int i = 0; i < 5_000; i++) {
+            String note = randomNote(rnd);
+            notes.add(note);
+            assertTrue(index.add(i + 1, t.plusSeconds(i / 3), note));
+        }
+        for (int q = 0; q < 300; q++) {
+            String query = WORDS[rnd.nextInt(WORDS.length)].substring(0, 1 + rnd.nextInt(3))
+                    + (rnd.nextBoolean() ? " " + WORDS[rnd.nextInt(WORDS.length)].substring(0, 2) : "");
+            List<Long> expected = new ArrayList<>();
+            for (int i = notes.size() - 1; i >= 0 && expected.size() < 25; i--) {
+                if (naiveMatch(notes.get(i), query)) expected.add(i + 1L);
+            }
+            long[] actual = index.search(query, 25);
+            assertEquals(expected, Arrays.stream(actual).boxed().toList(), query);
+        }
+    }
+
+    // Timing lives in benchmark/NoteIndexBenchmark; this only checks the answers at that size
+    @Test
+    void hundredThousandExpensesReturnNewestMatchesUpToTheLimit() {
+        Random rnd = new Random(3);
+        NoteIndex index = new NoteIndex(1L);
+        List<String> notes = new ArrayList<>();
+        Instant t = Instant.parse("2020-01-01T00:00:00Z");
+        for (int i = 0; i < 100_000; i++) {
+            String note = randomNote(rnd) + " ref" + rnd.nextInt(50_000);
+            notes.add(note);
+            assertTrue(index.add(i + 1, t.plusSeconds(i), note));
+        }
+        assertEquals(100_000, index.size());
+
+        for (String query : new String[]{"taxi", "hotel goa", "din", "t", "ref123", "coffee air", "park tol"}) {
+            long[] ids = index.search(query, 50);
+            assertTrue(ids.length > 0 && ids.length <= 50, query);
+            for (int i = 0; i < ids.length; i++) {
+                if (i > 0) assertTrue(ids[i] < ids[i - 1], query);
+                assertTrue(naiveMatch(notes.get((int) ids[i] - 1), query), query);
+            }
+            // every match from the newest down to the last hit was returned
+            int matches = 0;
+            for (long id = notes.size(); id >= ids[ids.length - 1]; id--) {
+                if (naiveMatch(notes.get((int) id - 1), query)) matches++;
+            }
+            assertEquals(ids.length, matches, query);
+        }
+    }
+
+    private static String randomNote(Random rnd) {
+        StringBuilder sb = new StringBuilder();
+        int n = 1 + rnd.nextInt(4);
+        for (int w = 0; w < n; w++) {
+            if (w > 0) sb.append(rnd.nextBoolean() ? " " : ", ");
+            String word = WORDS[rnd.nextInt(WORDS.length)];
+            sb.append(rnd.nextInt(4) == 0 ? word.toUpperCase() : word);
+        }
+        return sb.toString();
+    }
+
+    private static boolean naiveMatch(String note, String query) {
+        List<String> noteTokens = NoteIndex.tokens(note);
+        for (String q : NoteIndex.tokens(query)) {
+            if (noteTokens.stream().noneMatch(t -> t.startsWith(q))) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.expensesplitter.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SettlementPlannerTest {
+
+    @Test
+    void largestDebtorPaysLargestCreditor() {
+        long[] ids = {1L, 2L, 3L, 4L};
+        long[] net = {3000, -1000, -2000, 0};
+
+        List<SettlementPlanner.Transfer> plan = SettlementPlanner.plan(ids, net);
+
+        assertEquals(List.of(
+                new SettlementPlanner.Transfer(3L, 1L, 2000),
+                new SettlementPlanner.Transfer(2L, 1L, 1000)), plan);
+    }
+
+    @Test
+    void tiesBrokenByUserId() {
+        long[] ids = {4L, 3L, 2L, 1L};
+        long[] net = {500, 500, -500, -500};
+
+        List<SettlementPlanner.Transfer> plan = SettlementPlanner.plan(ids, net);
+
+        assertEquals(new SettlementPlanner.Transfer(1L, 3L, 500), plan.get(0));
+        assertEquals(new SettlementPlanner.Transfer(2L, 4L, 500), plan.get(1));
+    }
+
+    @Test
+    void largeGroupIsFullySettledInAtMostNMinusOneTransfers() {
+        int n = 5000;
+        long[] ids = new long[n];
+        long[] net = new long[n];
+        Random rnd = new Random(1);
+        long sum = 0;
+        for (int i = 0; i < n - 1; i++) {
+            ids[i] = i + 1;
+            net[i] = rnd.nextInt(200_000) - 100_000;
+            sum += net[i];
+        }
+        ids[n - 1] = n;
+        net[n - 1] = -sum;
+
+        List<SettlementPlanner.Transfer> plan = SettlementPlanner.plan(ids, net);
+
+        assertTrue(plan.size() <= n - 1);
+        long[] after = net.clone();
+        for (SettlementPlanner.Transfer t : plan) {
+            assertTrue(t.cents() > 0);
+            after[(int) t.fromUserId() - 1] += t.cents();
+            after[(int) t.toUserId() - 1] -= t.cents();
+        }
+        for (long v : after) assertEquals(0, v);
+        assertEquals(plan, SettlementPlanner.plan(ids, net));
+    }
+}